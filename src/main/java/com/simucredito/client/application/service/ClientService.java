@@ -6,8 +6,10 @@ import com.simucredito.client.domain.model.Person;
 import com.simucredito.client.domain.repository.ClientRepository;
 import com.simucredito.client.domain.repository.PersonRepository;
 import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.property.infrastructure.service.TrigramSearchService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -15,17 +17,23 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClientService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ClientRepository clientRepository;
     private final PersonRepository personRepository;
     private final ModelMapper modelMapper;
     private final ConfigurationService configurationService;
+    private final TrigramSearchService trigramSearchService;
 
     @Transactional
     public ClientDTO createClient(CreateClientRequestDTO request) {
@@ -103,6 +111,42 @@ public class ClientService {
         return buildClientDTO(client);
     }
 
+    /**
+     * Búsqueda tolerante a errores de tipeo por nombres y apellidos del titular o cónyuge
+     */
+    public List<ClientDTO> searchClientsByName(String query, int limit) {
+        Long userId = getCurrentUserId();
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+
+        if (trigramSearchService.isAvailable()) {
+            List<Long> rankedIds = clientRepository.findIdsByFuzzyPersonName(userId, query.trim(), boundedLimit);
+            Map<Long, Client> byId = new HashMap<>();
+            clientRepository.findAllById(rankedIds).forEach(client -> byId.put(client.getId(), client));
+            return rankedIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(this::buildClientDTO)
+                    .collect(Collectors.toList());
+        }
+
+        List<ClientDTO> clients = clientRepository.findByUserIdOrderByIdDesc(userId,
+                        PageRequest.of(0, TrigramSearchService.MAX_IN_MEMORY_CANDIDATES)).stream()
+                .map(this::buildClientDTO)
+                .collect(Collectors.toList());
+        return trigramSearchService.rank(clients, this::searchableName, query.trim(), boundedLimit);
+    }
+
+    private String searchableName(ClientDTO client) {
+        StringBuilder name = new StringBuilder(client.getHolder().getNombres() + " " + client.getHolder().getApellidos());
+        if (client.getSpouse() != null) {
+            name.append(" ").append(client.getSpouse().getNombres()).append(" ").append(client.getSpouse().getApellidos());
+        }
+        return name.toString();
+    }
+
     @Transactional
     public PreQualificationResponseDTO performPreQualification(Long clientId) {
         Client client = clientRepository.findById(clientId)
@@ -1,6 +1,7 @@
 package com.simucredito.client.domain.repository;
 
 import com.simucredito.client.domain.model.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +16,8 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     List<Client> findByUserId(Long userId);
 
+    List<Client> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
     Optional<Client> findByHolderId(Long holderId);
 
     boolean existsByHolderId(Long holderId);
@@ -24,6 +27,22 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c FROM Client c WHERE c.userId = :userId AND (c.holderId = :personId OR c.spouseId = :personId)")
     Optional<Client> findByUserIdAndPersonId(@Param("userId") Long userId, @Param("personId") Long personId);
 
+    /**
+     * Búsqueda difusa (pg_trgm) por nombre del titular o cónyuge, ordenada por similitud. Requiere PostgreSQL.
+     */
+    @Query(value = "SELECT c.id FROM clientes c " +
+            "JOIN personas p ON p.id = c.titular_id OR p.id = c.conyuge_id " +
+            "WHERE c.usuario_id = :userId AND " +
+            "(lower(p.nombres || ' ' || p.apellidos) % lower(:query) OR " +
+            "lower(:query) <% lower(p.nombres || ' ' || p.apellidos)) " +
+            "GROUP BY c.id " +
+            "ORDER BY MAX(GREATEST(similarity(lower(p.nombres || ' ' || p.apellidos), lower(:query)), " +
+            "word_similarity(lower(:query), lower(p.nombres || ' ' || p.apellidos)))) DESC, c.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByFuzzyPersonName(@Param("userId") Long userId,
+                                        @Param("query") String query,
+                                        @Param("limit") int limit);
+
     long countByUserId(Long userId);
     long countByUserIdAndPreQualifiedTrue(Long userId);
     // Para clientes de este mes:
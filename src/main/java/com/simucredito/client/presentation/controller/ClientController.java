@@ -7,6 +7,7 @@ import com.simucredito.client.application.dto.PreQualificationRequestDTO;
 import com.simucredito.client.application.dto.PreQualificationResponseDTO;
 import com.simucredito.client.application.service.ClientService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -56,6 +57,20 @@ public class ClientController {
         return ResponseEntity.ok(clients);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Fuzzy search clients by name", description = "Typo-tolerant search by holder or spouse names, ranked by trigram similarity")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clients found successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ClientDTO.class)))
+    })
+    public ResponseEntity<List<ClientDTO>> searchClients(
+            @Parameter(description = "Client name, possibly misspelled") @RequestParam String query,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") int limit) {
+        List<ClientDTO> clients = clientService.searchClientsByName(query, limit);
+        return ResponseEntity.ok(clients);
+    }
+
     @GetMapping("/{clientId}")
     @Operation(summary = "Get client by ID", description = "Get a specific client by ID")
     @ApiResponses(value = {
@@ -32,4 +32,4 @@ public class FinancialEntityDTO {
     private Integer periodoGracia;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+}
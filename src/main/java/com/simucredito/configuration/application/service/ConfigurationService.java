@@ -10,6 +10,9 @@ import com.simucredito.configuration.domain.model.GlobalValue;
 import com.simucredito.configuration.domain.repository.BonusParameterRepository;
 import com.simucredito.configuration.domain.repository.FinancialEntityRepository;
 import com.simucredito.configuration.domain.repository.GlobalValueRepository;
+import com.simucredito.configuration.infrastructure.service.CacheInvalidationBus;
+import com.simucredito.configuration.infrastructure.service.ConfigurationTimeline;
+import com.simucredito.configuration.infrastructure.service.FinancialEntityRangeIndex;
 import com.simucredito.property.infrastructure.service.FirebaseStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +38,9 @@ public class ConfigurationService {
     private final FinancialEntityRepository financialEntityRepository;
     private final BonusParameterRepository bonusParameterRepository;
     private final GlobalValueRepository globalValueRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final FinancialEntityRangeIndex financialEntityRangeIndex;
+    private final ConfigurationTimeline configurationTimeline;
     private final FirebaseStorageService firebaseStorageService;
     private final ModelMapper modelMapper;
 
@@ -64,7 +70,14 @@ public class ConfigurationService {
     }
 
     public List<FinancialEntityDTO> getFinancialEntitiesForLoanAmount(BigDecimal loanAmount) {
-        return financialEntityRepository.findActiveEntitiesForLoanAmount(loanAmount).stream()
+        return getFinancialEntitiesForLoan(loanAmount, null);
+    }
+
+    /**
+     * Entidades activas que aceptan el monto y, opcionalmente, el plazo indicado (índice en memoria)
+     */
+    public List<FinancialEntityDTO> getFinancialEntitiesForLoan(BigDecimal loanAmount, Integer termMonths) {
+        return financialEntityRangeIndex.findEligible(loanAmount, termMonths).stream()
                 .map(entity -> modelMapper.map(entity, FinancialEntityDTO.class))
                 .collect(Collectors.toList());
     }
@@ -82,6 +95,7 @@ public class ConfigurationService {
 
         FinancialEntity entity = modelMapper.map(dto, FinancialEntity.class);
         entity = financialEntityRepository.save(entity);
+        cacheInvalidationBus.publishAll(CacheInvalidationBus.FINANCIAL_ENTITIES);
 
         log.info("Created financial entity: {}", entity.getEntityName());
         return modelMapper.map(entity, FinancialEntityDTO.class);
@@ -173,6 +187,7 @@ public class ConfigurationService {
             dto.setCreatedAt(existing.getCreatedAt());
             modelMapper.map(dto, existing);
             existing = financialEntityRepository.save(existing);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.FINANCIAL_ENTITIES);
 
             log.info("Updated financial entity: {}", existing.getEntityName());
             return modelMapper.map(existing, FinancialEntityDTO.class);
@@ -183,6 +198,7 @@ public class ConfigurationService {
     public boolean deleteFinancialEntity(Long id) {
         return financialEntityRepository.findById(id).map(entity -> {
             financialEntityRepository.delete(entity);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.FINANCIAL_ENTITIES);
             log.info("Deleted financial entity: {}", entity.getEntityName());
             return true;
         }).orElse(false);
@@ -204,16 +220,14 @@ public class ConfigurationService {
 
     public List<BonusParameterDTO> getApplicableBonuses(String bonusType, String bonusSubtype,
                                                        BigDecimal propertyValue, Boolean isSustainable) {
-        return bonusParameterRepository.findApplicableBonuses(bonusType, bonusSubtype, propertyValue, isSustainable)
-                .stream()
-                .map(param -> modelMapper.map(param, BonusParameterDTO.class))
-                .collect(Collectors.toList());
+        return getApplicableBonusesAt(LocalDateTime.now(), bonusType, bonusSubtype, propertyValue, isSustainable);
     }
 
     @Transactional
     public BonusParameterDTO createBonusParameter(BonusParameterDTO dto) {
         BonusParameter parameter = modelMapper.map(dto, BonusParameter.class);
         parameter = bonusParameterRepository.save(parameter);
+        cacheInvalidationBus.publishAll(CacheInvalidationBus.BONUS_PARAMETERS);
 
         log.info("Created bonus parameter: {} - {}", parameter.getBonusType(), parameter.getBonusSubtype());
         return modelMapper.map(parameter, BonusParameterDTO.class);
@@ -224,6 +238,7 @@ public class ConfigurationService {
         return bonusParameterRepository.findById(id).map(existing -> {
             modelMapper.map(dto, existing);
             existing = bonusParameterRepository.save(existing);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.BONUS_PARAMETERS);
 
             log.info("Updated bonus parameter: {} - {}", existing.getBonusType(), existing.getBonusSubtype());
             return modelMapper.map(existing, BonusParameterDTO.class);
@@ -234,6 +249,7 @@ public class ConfigurationService {
     public boolean deleteBonusParameter(Long id) {
         return bonusParameterRepository.findById(id).map(parameter -> {
             bonusParameterRepository.delete(parameter);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.BONUS_PARAMETERS);
             log.info("Deleted bonus parameter: {} - {}", parameter.getBonusType(), parameter.getBonusSubtype());
             return true;
         }).orElse(false);
@@ -261,17 +277,42 @@ public class ConfigurationService {
     }
 
     public BigDecimal getNumericValue(String key) {
-        return getGlobalValueByKey(key)
-                .map(GlobalValueDTO::getNumericValue)
-                .orElseThrow(() -> new IllegalArgumentException("Global value not found: " + key));
+        return getNumericValueAt(key, LocalDateTime.now());
+    }
+
+    /**
+     * Valor numérico vigente en el instante indicado, leído de la línea de tiempo en memoria
+     */
+    public BigDecimal getNumericValueAt(String key, LocalDateTime at) {
+        return configurationTimeline.numericValueAt(key, at);
     }
 
     public String getStringValue(String key) {
-        return getGlobalValueByKey(key)
-                .map(GlobalValueDTO::getStringValue)
+        return configurationTimeline.valueAt(key, LocalDateTime.now())
+                .map(GlobalValue::getStringValue)
                 .orElseThrow(() -> new IllegalArgumentException("Global value not found: " + key));
     }
 
+    /**
+     * Bonos aplicables según los parámetros que regían en el instante indicado
+     */
+    public List<BonusParameterDTO> getApplicableBonusesAt(LocalDateTime at, String bonusType, String bonusSubtype,
+                                                         BigDecimal propertyValue, Boolean isSustainable) {
+        return configurationTimeline.bonusesAt(at, bonusType, bonusSubtype, propertyValue, isSustainable).stream()
+                .map(param -> modelMapper.map(param, BonusParameterDTO.class))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Franjas de precio (mínimo, máximo y monto) del bono que regían en el instante indicado
+     */
+    public List<BonusParameterDTO> getBonusBandsAt(LocalDateTime at, String bonusType, String bonusSubtype,
+                                                   Boolean isSustainable) {
+        return configurationTimeline.bonusBandsAt(at, bonusType, bonusSubtype, isSustainable).stream()
+                .map(param -> modelMapper.map(param, BonusParameterDTO.class))
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public GlobalValueDTO createGlobalValue(GlobalValueDTO dto) {
         if (globalValueRepository.existsByValueKey(dto.getValueKey())) {
@@ -280,32 +321,70 @@ public class ConfigurationService {
 
         GlobalValue value = modelMapper.map(dto, GlobalValue.class);
         value = globalValueRepository.save(value);
+        cacheInvalidationBus.publishAll(CacheInvalidationBus.GLOBAL_VALUES);
 
         log.info("Created global value: {}", value.getValueKey());
         return modelMapper.map(value, GlobalValueDTO.class);
     }
 
+    /**
+     * Publica una nueva versión del valor en lugar de sobrescribirlo: la versión indicada se cierra donde empieza
+     * la nueva (dto.validFrom, o ahora), así las consultas por fecha siguen devolviendo lo que regía antes
+     */
     @Transactional
     public Optional<GlobalValueDTO> updateGlobalValue(Long id, GlobalValueDTO dto) {
         return globalValueRepository.findById(id).map(existing -> {
-            // Check if key is being changed and if it conflicts
-            if (!existing.getValueKey().equals(dto.getValueKey()) &&
-                globalValueRepository.existsByValueKey(dto.getValueKey())) {
-                throw new IllegalArgumentException("Value key already exists: " + dto.getValueKey());
+            if (dto.getValueKey() != null && !existing.getValueKey().equals(dto.getValueKey())) {
+                throw new IllegalArgumentException("Value key cannot be changed: " + existing.getValueKey());
+            }
+            if (globalValueRepository.existsByValueKeyAndValidFromAfter(existing.getValueKey(), existing.getValidFrom())) {
+                throw new IllegalArgumentException("Only the latest version of " + existing.getValueKey() + " can be updated");
             }
 
-            modelMapper.map(dto, existing);
-            existing = globalValueRepository.save(existing);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime effectiveFrom = dto.getValidFrom() != null ? dto.getValidFrom() : now;
+            if (effectiveFrom.isBefore(now) || !effectiveFrom.isAfter(existing.getValidFrom())) {
+                throw new IllegalArgumentException("New version of " + existing.getValueKey()
+                        + " must start after the current one and not in the past");
+            }
+
+            GlobalValue next = modelMapper.map(dto, GlobalValue.class);
+            next.setId(null);
+            next.setValueKey(existing.getValueKey());
+            next.setValidFrom(effectiveFrom);
+            next.setCreatedAt(null);
+            next.setUpdatedAt(null);
+            if (next.getIsActive() == null) {
+                next.setIsActive(existing.getIsActive());
+            }
 
-            log.info("Updated global value: {}", existing.getValueKey());
-            return modelMapper.map(existing, GlobalValueDTO.class);
+            // Una versión ya vencida antes del cambio conserva su fin
+            if (existing.getValidUntil() == null || existing.getValidUntil().isAfter(effectiveFrom)) {
+                existing.setValidUntil(effectiveFrom);
+                globalValueRepository.save(existing);
+            }
+            next = globalValueRepository.save(next);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.GLOBAL_VALUES);
+
+            log.info("Published global value {} version from {}", next.getValueKey(), effectiveFrom);
+            return modelMapper.map(next, GlobalValueDTO.class);
         });
     }
 
+    /**
+     * Todas las versiones de la clave, de la más antigua a la más reciente
+     */
+    public List<GlobalValueDTO> getGlobalValueHistory(String key) {
+        return globalValueRepository.findByValueKeyOrderByValidFromAsc(key).stream()
+                .map(value -> modelMapper.map(value, GlobalValueDTO.class))
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public boolean deleteGlobalValue(Long id) {
         return globalValueRepository.findById(id).map(value -> {
             globalValueRepository.delete(value);
+            cacheInvalidationBus.publishAll(CacheInvalidationBus.GLOBAL_VALUES);
             log.info("Deleted global value: {}", value.getValueKey());
             return true;
         }).orElse(false);
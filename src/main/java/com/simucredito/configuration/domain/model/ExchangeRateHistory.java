@@ -0,0 +1,47 @@
+package com.simucredito.configuration.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tipo de cambio USD/PEN de un día. La tabla es solo de inserción: un registro por fecha, nunca se actualiza.
+ */
+@Entity
+@Table(name = "exchange_rate_history")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rate_date", nullable = false, unique = true)
+    private LocalDate rateDate;
+
+    @Column(name = "buy_price", nullable = false, precision = 10, scale = 4)
+    private BigDecimal buyPrice;
+
+    @Column(name = "sell_price", nullable = false, precision = 10, scale = 4)
+    private BigDecimal sellPrice;
+
+    @Column(name = "source")
+    private String source; // "DECOLECTA", "STUB"
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -9,8 +9,14 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Versión de un valor global: cada cambio agrega una fila con su propia vigencia en lugar de sobrescribir la
+ * anterior, así que una clave puede tener varias filas ordenadas por validFrom
+ */
 @Entity
-@Table(name = "global_values")
+@Table(name = "global_values", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_global_values_key_valid_from", columnNames = {"value_key", "valid_from"})
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +27,7 @@ public class GlobalValue {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "value_key", unique = true, nullable = false)
+    @Column(name = "value_key", nullable = false)
     private String valueKey; // "UIT", "EXCHANGE_RATE_USD_PEN"
 
     @Column(name = "value_name", nullable = false)
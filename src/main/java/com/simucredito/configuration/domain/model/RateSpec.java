@@ -0,0 +1,158 @@
+package com.simucredito.configuration.domain.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Especificación de tasa ya interpretada: tipo, periodo y capitalización como enums y la TEM calculada una
+ * sola vez. Se obtienen con {@link #of}, que normaliza la especificación y la memoiza en una caché LRU
+ * acotada (en la práctica solo existen unas pocas combinaciones distintas).
+ */
+public record RateSpec(BigDecimal rate, RateType type, Period period, Period capitalization, BigDecimal tem) {
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int MAX_CACHED_SPECS = 1024;
+
+    private static final Map<Key, RateSpec> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, RateSpec> eldest) {
+                    return size() > MAX_CACHED_SPECS;
+                }
+            });
+
+    public enum RateType {
+        TE, TN;
+
+        public static RateType parse(String value) {
+            if ("TE".equals(value)) return TE;
+            if ("TN".equals(value)) return TN;
+            throw new IllegalArgumentException("Invalid rate type: " + value);
+        }
+    }
+
+    /**
+     * Periodos con su duración en días (año de 360) y capitalizaciones por año
+     */
+    public enum Period {
+        DAILY(1, 360),
+        BI_WEEKLY(15, 24),
+        MONTHLY(30, 12),
+        BI_MONTHLY(60, 6),
+        QUARTERLY(90, 4),
+        SEMI_ANNUALLY(180, 2),
+        ANNUAL(360, 1);
+
+        private final int days;
+        private final int perYear;
+
+        Period(int days, int perYear) {
+            this.days = days;
+            this.perYear = perYear;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public int getPerYear() {
+            return perYear;
+        }
+
+        /**
+         * Un periodo nulo o desconocido se toma como mensual
+         */
+        public static Period parse(String value) {
+            if (value == null) return MONTHLY;
+            return switch (value.toLowerCase()) {
+                case "daily" -> DAILY;
+                case "seminal", "bi-weekly" -> BI_WEEKLY;
+                case "bi-monthly" -> BI_MONTHLY;
+                case "quarterly" -> QUARTERLY;
+                case "semi-annually" -> SEMI_ANNUALLY;
+                case "annual" -> ANNUAL;
+                default -> MONTHLY;
+            };
+        }
+    }
+
+    /**
+     * Tasa en porcentaje (ej. 9.5), tipo "TE"/"TN", periodo de la tasa y capitalización (solo TN; si es nula
+     * se capitaliza en el mismo periodo de la tasa)
+     */
+    public static RateSpec of(BigDecimal rate, String type, String period, String capitalization) {
+        RateType rateType = RateType.parse(type);
+        Period ratePeriod = Period.parse(period);
+        Period capitalizationPeriod = rateType == RateType.TN
+                ? (capitalization != null ? Period.parse(capitalization) : ratePeriod)
+                : null;
+        return of(rate, rateType, ratePeriod, capitalizationPeriod);
+    }
+
+    public static RateSpec of(BigDecimal rate, RateType type, Period period, Period capitalization) {
+        Key key = new Key(rate.stripTrailingZeros(), type, period, capitalization);
+        RateSpec cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        RateSpec compiled = new RateSpec(key.rate(), type, period, capitalization,
+                computeTem(key.rate(), type, period, capitalization));
+        CACHE.put(key, compiled);
+        return compiled;
+    }
+
+    /**
+     * Tasa anual publicada por una entidad: TEA si existe, si no TNA con su capitalización; null si no publica tasa
+     */
+    public static RateSpec ofAnnual(BigDecimal tea, BigDecimal tna, String capitalization) {
+        if (tea != null) {
+            return of(tea, RateType.TE, Period.ANNUAL, null);
+        }
+        if (tna != null) {
+            return of(tna, RateType.TN, Period.ANNUAL, capitalization != null ? Period.parse(capitalization) : Period.ANNUAL);
+        }
+        return null;
+    }
+
+    /**
+     * Misma especificación con la tasa multiplicada por factor; un margen sobre la tasa publicada se aplica así, a
+     * la tasa anual y no a la TEM, que compuesta daría un margen anual mayor
+     */
+    public RateSpec scaled(BigDecimal factor) {
+        return of(rate.multiply(factor), type, period, capitalization);
+    }
+
+    /**
+     * Derivada de la TEM respecto de la tasa expresada en puntos porcentuales (d TEM / d rate)
+     */
+    public double temDerivative() {
+        double rateDouble = rate.divide(HUNDRED, MATH_CONTEXT).doubleValue();
+        if (type == RateType.TE) {
+            double exponent = 30.0 / period.getDays();
+            return exponent * Math.pow(1.0 + rateDouble, exponent - 1.0) / 100.0;
+        }
+        double periodsPerYear = 360.0 / period.getDays();
+        int m = capitalization.getPerYear();
+        return Math.pow(1.0 + rateDouble * periodsPerYear / m, m / 12.0 - 1.0) * periodsPerYear / 12.0 / 100.0;
+    }
+
+    private static BigDecimal computeTem(BigDecimal rate, RateType type, Period period, Period capitalization) {
+        double rateDouble = rate.divide(HUNDRED, MATH_CONTEXT).doubleValue();
+        double temDouble;
+        if (type == RateType.TE) {
+            temDouble = Math.pow(1.0 + rateDouble, 30.0 / period.getDays()) - 1.0;
+        } else {
+            double nominalAnnual = rateDouble * (360.0 / period.getDays());
+            int m = capitalization.getPerYear();
+            temDouble = Math.pow(1.0 + nominalAnnual / m, m / 12.0) - 1.0;
+        }
+        return BigDecimal.valueOf(temDouble);
+    }
+
+    private record Key(BigDecimal rate, RateType type, Period period, Period capitalization) {
+    }
+}
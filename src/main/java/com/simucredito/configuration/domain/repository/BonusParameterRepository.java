@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -39,4 +40,7 @@ public interface BonusParameterRepository extends JpaRepository<BonusParameter,
            "(bp.validFrom IS NULL OR bp.validFrom <= CURRENT_TIMESTAMP) AND " +
            "(bp.validUntil IS NULL OR bp.validUntil >= CURRENT_TIMESTAMP)")
     List<BonusParameter> findAllCurrentlyValid();
+
+    @Query("SELECT COUNT(bp) FROM BonusParameter bp WHERE bp.createdAt >= :since OR bp.updatedAt >= :since")
+    long countModifiedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.simucredito.configuration.domain.repository;
+
+import com.simucredito.configuration.domain.model.ExchangeRateHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRateHistory, Long> {
+
+    List<ExchangeRateHistory> findAllByOrderByRateDateAsc();
+}
@@ -6,13 +6,14 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GlobalValueRepository extends JpaRepository<GlobalValue, Long> {
 
-    Optional<GlobalValue> findByValueKey(String valueKey);
+    List<GlobalValue> findByValueKeyOrderByValidFromAsc(String valueKey);
 
     List<GlobalValue> findByIsActiveTrue();
 
@@ -26,5 +27,10 @@ public interface GlobalValueRepository extends JpaRepository<GlobalValue, Long>
            "(gv.validUntil IS NULL OR gv.validUntil >= CURRENT_TIMESTAMP)")
     List<GlobalValue> findAllCurrentlyValid();
 
+    @Query("SELECT gv FROM GlobalValue gv WHERE gv.createdAt >= :since OR gv.updatedAt >= :since")
+    List<GlobalValue> findModifiedSince(@Param("since") LocalDateTime since);
+
     boolean existsByValueKey(String valueKey);
+
+    boolean existsByValueKeyAndValidFromAfter(String valueKey, LocalDateTime validFrom);
 }
\ No newline at end of file
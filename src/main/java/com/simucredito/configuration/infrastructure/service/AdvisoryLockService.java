@@ -0,0 +1,72 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisoryLockService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ejecuta la tarea solo si este nodo obtiene el advisory lock de PostgreSQL indicado (elección de líder).
+     * El lock es de sesión y se libera al terminar la tarea. En bases distintas de PostgreSQL (H2 en
+     * desarrollo) se asume un único nodo y la tarea se ejecuta siempre.
+     *
+     * @return true si la tarea se ejecutó en este nodo
+     */
+    public boolean runIfLeader(long lockKey, Runnable task) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!isPostgres(connection)) {
+                task.run();
+                return true;
+            }
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(?)", lockKey)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                if (!queryBoolean(connection, "SELECT pg_advisory_unlock(?)", lockKey)) {
+                    log.warn("Advisory lock {} was not held when releasing it", lockKey);
+                }
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    /**
+     * Deriva una clave de lock estable a partir de un nombre legible
+     */
+    public static long keyFor(String name) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private boolean queryBoolean(Connection connection, String sql, long lockKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, lockKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
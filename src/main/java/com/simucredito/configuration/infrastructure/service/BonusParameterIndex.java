@@ -0,0 +1,155 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.simucredito.configuration.domain.model.BonusParameter;
+import com.simucredito.configuration.domain.repository.BonusParameterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Índice en memoria de los parámetros de bonos, agrupados por (tipo, subtipo) y con los rangos de valor de
+ * vivienda ordenados en un NavigableMap. La instantánea es inmutable y se reemplaza completa (copy-on-write)
+ * cada vez que el bus de invalidación avisa que cambió un parámetro, por lo que las lecturas no requieren
+ * sincronización.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BonusParameterIndex {
+
+    private final BonusParameterRepository bonusParameterRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile Map<BonusKey, IntervalTable> snapshot;
+
+    /**
+     * Equivalente en memoria de BonusParameterRepository.findApplicableBonuses evaluado en el instante indicado
+     */
+    public List<BonusParameter> findApplicable(String bonusType, String bonusSubtype, BigDecimal propertyValue,
+                                               Boolean isSustainable, LocalDateTime at) {
+        IntervalTable table = currentSnapshot().get(new BonusKey(bonusType, bonusSubtype));
+        if (table == null || propertyValue == null) {
+            return List.of();
+        }
+
+        Map.Entry<BigDecimal, List<BonusParameter>> segment = table.segments().floorEntry(propertyValue);
+        List<BonusParameter> candidates = segment != null ? segment.getValue() : table.unboundedBelow();
+
+        List<BonusParameter> applicable = new ArrayList<>(candidates.size());
+        for (BonusParameter parameter : candidates) {
+            if (parameter.getMaxPropertyValue() != null && parameter.getMaxPropertyValue().compareTo(propertyValue) < 0) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(parameter.getIsSustainableRequired()) && !Boolean.TRUE.equals(isSustainable)) {
+                continue;
+            }
+            if (isValidAt(parameter, at)) {
+                applicable.add(parameter);
+            }
+        }
+        return applicable;
+    }
+
+    /**
+     * Todas las franjas de precio del (tipo, subtipo) vigentes en el instante indicado, sin filtrar por valor
+     */
+    public List<BonusParameter> findBands(String bonusType, String bonusSubtype, Boolean isSustainable,
+                                          LocalDateTime at) {
+        IntervalTable table = currentSnapshot().get(new BonusKey(bonusType, bonusSubtype));
+        if (table == null) {
+            return List.of();
+        }
+        return table.parameters().stream()
+                .filter(parameter -> !Boolean.TRUE.equals(parameter.getIsSustainableRequired())
+                        || Boolean.TRUE.equals(isSustainable))
+                .filter(parameter -> isValidAt(parameter, at))
+                .toList();
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.BONUS_PARAMETERS, key -> refresh());
+    }
+
+    public synchronized void refresh() {
+        snapshot = build(bonusParameterRepository.findAll());
+        log.debug("Bonus parameter index rebuilt with {} groups", snapshot.size());
+    }
+
+    private Map<BonusKey, IntervalTable> currentSnapshot() {
+        Map<BonusKey, IntervalTable> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static Map<BonusKey, IntervalTable> build(List<BonusParameter> parameters) {
+        Map<BonusKey, List<BonusParameter>> groups = parameters.stream()
+                .filter(parameter -> Boolean.TRUE.equals(parameter.getIsActive()))
+                .collect(Collectors.groupingBy(parameter ->
+                        new BonusKey(parameter.getBonusType(), parameter.getBonusSubtype())));
+
+        Map<BonusKey, IntervalTable> index = new HashMap<>();
+        groups.forEach((key, group) -> index.put(key, buildTable(group)));
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Cada segmento empieza en un valor mínimo y guarda los parámetros que cubren ese punto; un valor
+     * dentro del segmento solo necesita validar el máximo de esos candidatos.
+     */
+    private static IntervalTable buildTable(List<BonusParameter> group) {
+        TreeSet<BigDecimal> starts = group.stream()
+                .map(BonusParameter::getMinPropertyValue)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        NavigableMap<BigDecimal, List<BonusParameter>> segments = new TreeMap<>();
+        for (BigDecimal start : starts) {
+            segments.put(start, group.stream().filter(parameter -> covers(parameter, start)).toList());
+        }
+
+        List<BonusParameter> unboundedBelow = group.stream()
+                .filter(parameter -> parameter.getMinPropertyValue() == null)
+                .toList();
+
+        return new IntervalTable(Collections.unmodifiableNavigableMap(segments), unboundedBelow, List.copyOf(group));
+    }
+
+    private static boolean covers(BonusParameter parameter, BigDecimal value) {
+        return (parameter.getMinPropertyValue() == null || parameter.getMinPropertyValue().compareTo(value) <= 0)
+                && (parameter.getMaxPropertyValue() == null || parameter.getMaxPropertyValue().compareTo(value) >= 0);
+    }
+
+    private static boolean isValidAt(BonusParameter parameter, LocalDateTime at) {
+        return (parameter.getValidFrom() == null || !at.isBefore(parameter.getValidFrom()))
+                && (parameter.getValidUntil() == null || !at.isAfter(parameter.getValidUntil()));
+    }
+
+    private record BonusKey(String bonusType, String bonusSubtype) {
+    }
+
+    private record IntervalTable(NavigableMap<BigDecimal, List<BonusParameter>> segments,
+                                 List<BonusParameter> unboundedBelow, List<BonusParameter> parameters) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación de cachés entre nodos. Los métodos de escritura publican (tema, clave) y cada nodo
+ * descarta o recarga lo que tenga en memoria para ese tema. En PostgreSQL se usa NOTIFY dentro de la
+ * transacción (solo se entrega si hace commit) y un hilo por nodo escucha con LISTEN en una conexión propia,
+ * fuera del pool; si la conexión se cae, reconecta con espera exponencial. En H2, o con
+ * cache-invalidation.mode=local, la entrega es solo dentro del proceso.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+
+    public static final String FINANCIAL_ENTITIES = "financialEntities";
+    public static final String BONUS_PARAMETERS = "bonusParameters";
+    public static final String GLOBAL_VALUES = "globalValues";
+    public static final String USERS = "users";
+    public static final String EXCHANGE_RATE_HISTORY = "exchangeRateHistory";
+    public static final String ALL_KEYS = "*";
+
+    private static final String CHANNEL = "simucredito_cache_invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    @Value("${cache-invalidation.mode:auto}")
+    private String mode; // "auto", "postgres", "local"
+
+    @Value("${cache-invalidation.listen-timeout-ms:5000}")
+    private int listenTimeoutMs;
+
+    @Value("${cache-invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    @Value("${cache-invalidation.max-reconnect-delay-ms:60000}")
+    private long maxReconnectDelayMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    private volatile boolean distributed = false;
+    private volatile boolean running = false;
+    private Thread listenerThread;
+
+    /**
+     * Registra una acción a ejecutar cuando se invalide el tema; recibe la clave o ALL_KEYS
+     */
+    public void subscribe(String topic, Consumer<String> handler) {
+        handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Publica la invalidación. En este nodo se aplica tras el commit; los demás la reciben vía NOTIFY.
+     */
+    public void publish(String topic, String key) {
+        String cacheKey = key != null ? key : ALL_KEYS;
+        runAfterCommit(() -> dispatch(topic, cacheKey));
+
+        if (distributed) {
+            String payload = nodeId + SEPARATOR + topic + SEPARATOR + cacheKey;
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    statement.setString(1, CHANNEL);
+                    statement.setString(2, payload);
+                    statement.execute();
+                }
+                return null;
+            });
+        }
+    }
+
+    public void publishAll(String topic) {
+        publish(topic, ALL_KEYS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        distributed = switch (mode) {
+            case "postgres" -> true;
+            case "local" -> false;
+            default -> Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())));
+        };
+
+        if (!distributed) {
+            log.info("Cache invalidation bus running in-process only");
+            return;
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("Cache invalidation bus listening on channel {}", CHANNEL);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        long delayMs = reconnectDelayMs;
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    log.info("Cache invalidation listener reconnected");
+                    // Pudimos perder avisos mientras no escuchábamos
+                    handlers.keySet().forEach(topic -> dispatch(topic, ALL_KEYS));
+                }
+                delayMs = reconnectDelayMs;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handleNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}", delayMs, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delayMs = Math.min(delayMs * 2, maxReconnectDelayMs);
+            }
+        }
+    }
+
+    /**
+     * Conexión dedicada y fuera del pool: LISTEN la ocupa mientras viva el nodo y no debe restarle una a Hikari
+     */
+    private Connection openListenConnection() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    /**
+     * Un aviso que falla se registra y se descarta; no debe cortar la escucha de los siguientes
+     */
+    private void handleNotification(String payload) {
+        try {
+            String[] parts = payload.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3 || nodeId.equals(parts[0])) {
+                return; // Formato desconocido o publicado por este mismo nodo
+            }
+            dispatch(parts[1], parts[2]);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply cache invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void dispatch(String topic, String key) {
+        evictSpringCache(topic, key);
+        for (Consumer<String> handler : handlers.getOrDefault(topic, List.of())) {
+            try {
+                handler.accept(key);
+            } catch (Exception e) {
+                log.warn("Cache invalidation handler for {} failed: {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    private void evictSpringCache(String topic, String key) {
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        Cache cache = cacheManager != null ? cacheManager.getCache(topic) : null;
+        if (cache == null) {
+            return;
+        }
+        if (ALL_KEYS.equals(key)) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.simucredito.configuration.domain.model.BonusParameter;
+import com.simucredito.configuration.domain.model.GlobalValue;
+import com.simucredito.configuration.domain.repository.BonusParameterRepository;
+import com.simucredito.configuration.domain.repository.GlobalValueRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Almacén versionado en memoria de la configuración con vigencia (GlobalValue y BonusParameter).
+ * Responde "¿qué valor regía en tal instante?" sin ir a la base de datos: cada clave mantiene su línea
+ * de tiempo ordenada por validFrom, publicada como instantánea inmutable (copy-on-write).
+ * Los cambios llegan por el bus de invalidación; un sondeo incremental poco frecuente cubre avisos perdidos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConfigurationTimeline {
+
+    private final GlobalValueRepository globalValueRepository;
+    private final BonusParameterRepository bonusParameterRepository;
+    private final BonusParameterIndex bonusParameterIndex;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${configuration.timeline.poll-overlap-ms:120000}")
+    private long pollOverlapMs;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Valor global vigente para la clave en el instante indicado
+     */
+    public Optional<GlobalValue> valueAt(String key, LocalDateTime at) {
+        NavigableMap<LocalDateTime, GlobalValue> timeline = currentSnapshot().timelines().get(key);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        // La versión más reciente que ya había empezado y que no había vencido
+        for (GlobalValue value : timeline.headMap(at, true).descendingMap().values()) {
+            if (Boolean.TRUE.equals(value.getIsActive())
+                    && (value.getValidUntil() == null || !at.isAfter(value.getValidUntil()))) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public BigDecimal numericValueAt(String key, LocalDateTime at) {
+        return valueAt(key, at)
+                .map(GlobalValue::getNumericValue)
+                .orElseThrow(() -> new IllegalArgumentException("Global value not found: " + key));
+    }
+
+    /**
+     * Bonos aplicables según los parámetros vigentes en el instante indicado
+     */
+    public List<BonusParameter> bonusesAt(LocalDateTime at, String bonusType, String bonusSubtype,
+                                          BigDecimal propertyValue, Boolean isSustainable) {
+        currentSnapshot();
+        return bonusParameterIndex.findApplicable(bonusType, bonusSubtype, propertyValue, isSustainable, at);
+    }
+
+    /**
+     * Franjas de precio del bono vigentes en el instante indicado, para búsquedas sobre el precio
+     */
+    public List<BonusParameter> bonusBandsAt(LocalDateTime at, String bonusType, String bonusSubtype,
+                                             Boolean isSustainable) {
+        currentSnapshot();
+        return bonusParameterIndex.findBands(bonusType, bonusSubtype, isSustainable, at);
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.GLOBAL_VALUES, key -> reload());
+    }
+
+    /**
+     * Sondeo incremental: aplica solo las filas creadas o modificadas desde la última lectura. Un cambio en
+     * el total de filas indica borrados y fuerza una recarga completa.
+     * <p>
+     * createdAt y updatedAt los fija el nodo que escribe, no la base al hacer commit: una transacción que confirma
+     * después del sondeo anterior puede traer una marca anterior a él. Por eso se relee una ventana solapada
+     * (configuration.timeline.poll-overlap-ms, mayor que la transacción más larga) y las filas que ya estaban
+     * aplicadas tal cual se descartan por id.
+     */
+    @Scheduled(fixedDelayString = "${configuration.timeline.refresh-interval-ms:600000}",
+               initialDelayString = "${configuration.timeline.refresh-interval-ms:600000}")
+    public synchronized void refresh() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            return;
+        }
+
+        LocalDateTime pollStartedAt = LocalDateTime.now();
+        LocalDateTime since = current.watermark().minus(Duration.ofMillis(pollOverlapMs));
+
+        long bonusCount = bonusParameterRepository.count();
+        if (bonusCount != current.bonusCount()
+                || bonusParameterRepository.countModifiedSince(since) > 0) {
+            bonusParameterIndex.refresh();
+        }
+
+        if (globalValueRepository.count() != current.globalValueCount()) {
+            reload();
+            return;
+        }
+
+        List<GlobalValue> changed = globalValueRepository.findModifiedSince(since).stream()
+                .filter(value -> !value.equals(current.byId().get(value.getId())))
+                .toList();
+        if (changed.isEmpty()) {
+            snapshot = current.withPoll(bonusCount, pollStartedAt);
+            return;
+        }
+
+        Map<Long, GlobalValue> byId = new HashMap<>(current.byId());
+        changed.forEach(value -> byId.put(value.getId(), value));
+        snapshot = Snapshot.of(byId, bonusCount, pollStartedAt);
+        log.debug("Configuration timeline applied {} changed global values", changed.size());
+    }
+
+    public synchronized void reload() {
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        Map<Long, GlobalValue> byId = new HashMap<>();
+        globalValueRepository.findAll().forEach(value -> byId.put(value.getId(), value));
+        snapshot = Snapshot.of(byId, bonusParameterRepository.count(), loadStartedAt);
+        bonusParameterIndex.refresh();
+        log.debug("Configuration timeline loaded with {} global values", byId.size());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<Long, GlobalValue> byId,
+                            Map<String, NavigableMap<LocalDateTime, GlobalValue>> timelines,
+                            long bonusCount,
+                            LocalDateTime watermark) {
+
+        static Snapshot of(Map<Long, GlobalValue> byId, long bonusCount, LocalDateTime watermark) {
+            Map<String, NavigableMap<LocalDateTime, GlobalValue>> timelines = new HashMap<>();
+            for (GlobalValue value : byId.values()) {
+                LocalDateTime from = value.getValidFrom() != null ? value.getValidFrom() : LocalDateTime.MIN;
+                timelines.computeIfAbsent(value.getValueKey(), key -> new TreeMap<>()).put(from, value);
+            }
+            timelines.replaceAll((key, timeline) -> Collections.unmodifiableNavigableMap(timeline));
+            return new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(timelines),
+                    bonusCount, watermark);
+        }
+
+        long globalValueCount() {
+            return byId.size();
+        }
+
+        Snapshot withPoll(long newBonusCount, LocalDateTime newWatermark) {
+            return new Snapshot(byId, timelines, newBonusCount, newWatermark);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Tipo de cambio SUNAT publicado por DeColecta. Usa un único RestTemplate sobre el HttpClient del JDK,
+ * que reutiliza conexiones, con timeouts de conexión y lectura configurables.
+ */
+@Component
+@ConditionalOnProperty(name = "exchange-rate.provider", havingValue = "decolecta")
+public class DecolectaExchangeRateProvider implements ExchangeRateProvider {
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+    private final String apiKey;
+
+    public DecolectaExchangeRateProvider(RestTemplateBuilder restTemplateBuilder,
+                                         @Value("${exchange-rate.api-url}") String apiUrl,
+                                         @Value("${exchange-rate.api-key}") String apiKey,
+                                         @Value("${exchange-rate.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                         @Value("${exchange-rate.read-timeout-ms:3000}") long readTimeoutMs) {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("exchange-rate.api-key is not configured (set EXCHANGE_RATE_API_KEY)");
+        }
+        this.restTemplate = restTemplateBuilder
+                .requestFactoryBuilder(ClientHttpRequestFactoryBuilder.jdk())
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public ExchangeRateService.ExchangeRateDTO fetchCurrentRate() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<ExchangeRateResponse> response = restTemplate.exchange(
+                apiUrl,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                ExchangeRateResponse.class
+        );
+
+        ExchangeRateResponse body = response.getBody();
+        if (body == null || body.getBuyPrice() == null || body.getSellPrice() == null) {
+            throw new IllegalStateException("Empty exchange rate response from DeColecta");
+        }
+
+        return ExchangeRateService.ExchangeRateDTO.builder()
+                .buyPrice(new BigDecimal(body.getBuyPrice()))
+                .sellPrice(new BigDecimal(body.getSellPrice()))
+                .date(body.getDate())
+                .build();
+    }
+
+    @Override
+    public String getSource() {
+        return "DECOLECTA";
+    }
+
+    // Clase interna para mapeo
+    @Data
+    private static class ExchangeRateResponse {
+        @JsonProperty("buy_price")
+        private String buyPrice;
+
+        @JsonProperty("sell_price")
+        private String sellPrice;
+
+        @JsonProperty("base_currency")
+        private String baseCurrency;
+
+        @JsonProperty("quote_currency")
+        private String quoteCurrency;
+
+        private String date;
+    }
+}
@@ -0,0 +1,189 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.simucredito.configuration.domain.model.ExchangeRateHistory;
+import com.simucredito.configuration.domain.repository.ExchangeRateHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Histórico diario del tipo de cambio. Cada cotización obtenida del proveedor se guarda una vez por fecha en
+ * exchange_rate_history y se mantiene en memoria como arreglos ordenados por día, de modo que convertir
+ * montos en USD a una fecha dada es una búsqueda binaria sin llamar al proveedor ni a la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateHistoryService {
+
+    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile RateSeries series;
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        // Otro nodo registró una fecha que aquí aún no tenemos
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.EXCHANGE_RATE_HISTORY, key -> {
+            if (CacheInvalidationBus.ALL_KEYS.equals(key) || !currentSeries().contains(LocalDate.parse(key))) {
+                reload();
+            }
+        });
+    }
+
+    /**
+     * Registra la cotización del día si aún no existe (la tabla es solo de inserción)
+     */
+    public void record(ExchangeRateService.ExchangeRateDTO rate, String source) {
+        if (rate == null || rate.getBuyPrice() == null || rate.getSellPrice() == null) {
+            return;
+        }
+        LocalDate rateDate = parseDate(rate.getDate());
+        RateSeries current = currentSeries();
+        if (current.contains(rateDate)) {
+            return;
+        }
+
+        try {
+            exchangeRateHistoryRepository.save(ExchangeRateHistory.builder()
+                    .rateDate(rateDate)
+                    .buyPrice(rate.getBuyPrice())
+                    .sellPrice(rate.getSellPrice())
+                    .source(source)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo ya registró la fecha; se toma su valor al recargar
+            log.debug("Exchange rate for {} already recorded", rateDate);
+            reload();
+            return;
+        }
+
+        synchronized (this) {
+            RateSeries latest = currentSeries();
+            series = latest.isAfterLast(rateDate)
+                    ? latest.append(rateDate, rate.getBuyPrice(), rate.getSellPrice())
+                    : RateSeries.of(exchangeRateHistoryRepository.findAllByOrderByRateDateAsc());
+        }
+        cacheInvalidationBus.publish(CacheInvalidationBus.EXCHANGE_RATE_HISTORY, rateDate.toString());
+    }
+
+    /**
+     * Cotización vigente en la fecha indicada: la del mismo día o, si no hay, la del último día anterior
+     */
+    public Optional<ExchangeRateService.ExchangeRateDTO> rateAt(LocalDate date) {
+        RateSeries current = currentSeries();
+        int index = current.floorIndex(date);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(ExchangeRateService.ExchangeRateDTO.builder()
+                .buyPrice(current.buyPrices()[index])
+                .sellPrice(current.sellPrices()[index])
+                .date(LocalDate.ofEpochDay(current.epochDays()[index]).toString())
+                .build());
+    }
+
+    public Optional<BigDecimal> sellPriceAt(LocalDate date) {
+        RateSeries current = currentSeries();
+        int index = current.floorIndex(date);
+        return index < 0 ? Optional.empty() : Optional.of(current.sellPrices()[index]);
+    }
+
+    /**
+     * Convierte en lote montos en USD a PEN con el tipo de cambio (venta) vigente en la fecha de cada monto.
+     * Si no hay cotización para una fecha el resultado en esa posición es null.
+     */
+    public List<BigDecimal> convertToPen(List<BigDecimal> usdAmounts, List<LocalDate> dates) {
+        if (usdAmounts.size() != dates.size()) {
+            throw new IllegalArgumentException("Amounts and dates must have the same size");
+        }
+        RateSeries current = currentSeries();
+        List<BigDecimal> converted = new ArrayList<>(usdAmounts.size());
+        for (int i = 0; i < usdAmounts.size(); i++) {
+            int index = current.floorIndex(dates.get(i));
+            BigDecimal amount = usdAmounts.get(i);
+            converted.add(index < 0 || amount == null ? null : amount.multiply(current.sellPrices()[index]));
+        }
+        return converted;
+    }
+
+    public synchronized void reload() {
+        series = RateSeries.of(exchangeRateHistoryRepository.findAllByOrderByRateDateAsc());
+    }
+
+    private RateSeries currentSeries() {
+        RateSeries current = series;
+        if (current == null) {
+            synchronized (this) {
+                if (series == null) {
+                    reload();
+                }
+                current = series;
+            }
+        }
+        return current;
+    }
+
+    private LocalDate parseDate(String date) {
+        if (date == null) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(date.length() > 10 ? date.substring(0, 10) : date);
+        } catch (DateTimeParseException e) {
+            return LocalDate.now();
+        }
+    }
+
+    /**
+     * Serie inmutable en arreglos paralelos ordenados por día (epoch day)
+     */
+    private record RateSeries(int[] epochDays, BigDecimal[] buyPrices, BigDecimal[] sellPrices) {
+
+        static RateSeries of(List<ExchangeRateHistory> rows) {
+            int[] days = new int[rows.size()];
+            BigDecimal[] buy = new BigDecimal[rows.size()];
+            BigDecimal[] sell = new BigDecimal[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                days[i] = (int) rows.get(i).getRateDate().toEpochDay();
+                buy[i] = rows.get(i).getBuyPrice();
+                sell[i] = rows.get(i).getSellPrice();
+            }
+            return new RateSeries(days, buy, sell);
+        }
+
+        int floorIndex(LocalDate date) {
+            int position = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+            return position >= 0 ? position : -position - 2;
+        }
+
+        boolean contains(LocalDate date) {
+            return Arrays.binarySearch(epochDays, (int) date.toEpochDay()) >= 0;
+        }
+
+        boolean isAfterLast(LocalDate date) {
+            return epochDays.length == 0 || date.toEpochDay() > epochDays[epochDays.length - 1];
+        }
+
+        RateSeries append(LocalDate date, BigDecimal buy, BigDecimal sell) {
+            int size = epochDays.length;
+            int[] days = Arrays.copyOf(epochDays, size + 1);
+            BigDecimal[] buyCopy = Arrays.copyOf(buyPrices, size + 1);
+            BigDecimal[] sellCopy = Arrays.copyOf(sellPrices, size + 1);
+            days[size] = (int) date.toEpochDay();
+            buyCopy[size] = buy;
+            sellCopy[size] = sell;
+            return new RateSeries(days, buyCopy, sellCopy);
+        }
+    }
+}
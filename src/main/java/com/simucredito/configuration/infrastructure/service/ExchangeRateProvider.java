@@ -0,0 +1,21 @@
+package com.simucredito.configuration.infrastructure.service;
+
+/**
+ * Fuente del tipo de cambio USD/PEN. La implementación activa se elige con la propiedad exchange-rate.provider.
+ */
+public interface ExchangeRateProvider {
+
+    ExchangeRateService.ExchangeRateDTO fetchCurrentRate();
+
+    /**
+     * Nombre de la fuente que se guarda en el histórico
+     */
+    String getSource();
+
+    /**
+     * Si sus cotizaciones son reales y deben quedar en el histórico; los proveedores de prueba devuelven false
+     */
+    default boolean isRecordedInHistory() {
+        return true;
+    }
+}
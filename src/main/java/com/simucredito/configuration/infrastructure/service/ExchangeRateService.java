@@ -1,75 +1,164 @@
 package com.simucredito.configuration.infrastructure.service;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.simucredito.configuration.domain.model.GlobalValue;
+import jakarta.annotation.PreDestroy;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Tipo de cambio USD/PEN con caché TTL. Dentro del TTL responde desde memoria; pasado el TTL y hasta
+ * max-stale devuelve el valor anterior mientras lo revalida en segundo plano. Las consultas simultáneas
+ * comparten una sola llamada al proveedor y, si este falla repetidamente, un circuit breaker deja de
+ * llamarlo por un tiempo y se responde con el último valor conocido o el GlobalValue EXCHANGE_RATE_USD_PEN.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExchangeRateService {
 
-    private static final String API_URL = "https://api.decolecta.com/v1/tipo-cambio/sunat";
-    // NOTA: En producción, mueve esta key a application.properties
-    private static final String API_KEY = "sk_11886.D3GP3KwhY9v63VMNta939T8M7ixKA6dN";
+    private final ExchangeRateProvider exchangeRateProvider;
+    private final ConfigurationTimeline configurationTimeline;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+
+    @Value("${exchange-rate.cache.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Value("${exchange-rate.cache.max-stale-seconds:86400}")
+    private long maxStaleSeconds;
+
+    @Value("${exchange-rate.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${exchange-rate.circuit-breaker.open-seconds:60}")
+    private long openSeconds;
+
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicReference<CompletableFuture<ExchangeRateDTO>> inFlight = new AtomicReference<>();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile CachedRate cached;
+    private volatile Instant circuitOpenUntil = Instant.MIN;
 
     public ExchangeRateDTO getCurrentExchangeRate() {
+        CachedRate current = cached;
+        Instant now = Instant.now();
+
+        if (current != null && current.age(now).getSeconds() < ttlSeconds) {
+            return current.rate();
+        }
+
+        if (current != null && current.age(now).getSeconds() < maxStaleSeconds) {
+            // Stale-while-revalidate: respondemos ya y refrescamos en segundo plano
+            refresh();
+            return current.rate();
+        }
+
+        try {
+            return refresh().join();
+        } catch (CompletionException e) {
+            return fallback(e.getCause());
+        }
+    }
+
+    /**
+     * Inicia una consulta al proveedor o se une a la que ya está en curso
+     */
+    private CompletableFuture<ExchangeRateDTO> refresh() {
+        CompletableFuture<ExchangeRateDTO> future = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, future)) {
+            CompletableFuture<ExchangeRateDTO> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        refreshExecutor.execute(() -> {
+            try {
+                ExchangeRateDTO rate = fetchThroughCircuitBreaker();
+                cached = new CachedRate(rate, Instant.now());
+                future.complete(rate);
+                recordHistory(rate);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.compareAndSet(future, null);
+            }
+        });
+        return future;
+    }
+
+    private ExchangeRateDTO fetchThroughCircuitBreaker() {
+        if (Instant.now().isBefore(circuitOpenUntil)) {
+            throw new IllegalStateException("Exchange rate circuit breaker is open");
+        }
+
         try {
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + API_KEY);
-            headers.set("Content-Type", "application/json");
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<ExchangeRateResponse> response = restTemplate.exchange(
-                    API_URL,
-                    HttpMethod.GET,
-                    entity,
-                    ExchangeRateResponse.class
-            );
-
-            if (response.getBody() != null) {
-                ExchangeRateResponse body = response.getBody();
-                return ExchangeRateDTO.builder()
-                        .buyPrice(new BigDecimal(body.getBuyPrice()))
-                        .sellPrice(new BigDecimal(body.getSellPrice()))
-                        .date(body.getDate())
-                        .build();
+            ExchangeRateDTO rate = exchangeRateProvider.fetchCurrentRate();
+            consecutiveFailures.set(0);
+            return rate;
+        } catch (RuntimeException e) {
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                circuitOpenUntil = Instant.now().plusSeconds(openSeconds);
+                consecutiveFailures.set(0);
+                log.warn("Exchange rate provider failed {} times, pausing calls for {}s", failureThreshold, openSeconds);
             }
+            throw e;
+        }
+    }
+
+    private void recordHistory(ExchangeRateDTO rate) {
+        if (!exchangeRateProvider.isRecordedInHistory()) {
+            return;
+        }
+        try {
+            exchangeRateHistoryService.record(rate, exchangeRateProvider.getSource());
         } catch (Exception e) {
-            log.error("Error fetching exchange rate from DeColecta", e);
-            // Fallback o relanzar excepción personalizada
-            throw new RuntimeException("No se pudo obtener el tipo de cambio actual.");
+            log.warn("Could not record exchange rate history: {}", e.getMessage());
         }
-        return null;
     }
 
-    // Clases internas para mapeo
-    @Data
-    private static class ExchangeRateResponse {
-        @JsonProperty("buy_price")
-        private String buyPrice;
+    private ExchangeRateDTO fallback(Throwable cause) {
+        log.error("Error fetching exchange rate from provider: {}", cause != null ? cause.getMessage() : "unknown");
 
-        @JsonProperty("sell_price")
-        private String sellPrice;
+        CachedRate current = cached;
+        if (current != null) {
+            return current.rate();
+        }
 
-        @JsonProperty("base_currency")
-        private String baseCurrency;
+        return configurationTimeline.valueAt(GlobalValue.EXCHANGE_RATE_USD_PEN_KEY, LocalDateTime.now())
+                .map(GlobalValue::getNumericValue)
+                .map(value -> ExchangeRateDTO.builder()
+                        .buyPrice(value)
+                        .sellPrice(value)
+                        .date(LocalDate.now().toString())
+                        .build())
+                .orElseThrow(() -> new RuntimeException("No se pudo obtener el tipo de cambio actual."));
+    }
 
-        @JsonProperty("quote_currency")
-        private String quoteCurrency;
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
 
-        private String date;
+    private record CachedRate(ExchangeRateDTO rate, Instant fetchedAt) {
+        Duration age(Instant now) {
+            return Duration.between(fetchedAt, now);
+        }
     }
 
     @Data
@@ -79,4 +168,4 @@ public class ExchangeRateService {
         private BigDecimal sellPrice;
         private String date;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.simucredito.configuration.domain.model.FinancialEntity;
+import com.simucredito.configuration.domain.repository.FinancialEntityRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Índice por rango de monto de las entidades financieras activas (barrido de extremos ordenados).
+ * Cada extremo min/max guarda las entidades que cubren exactamente ese punto y las que cubren el tramo
+ * abierto hasta el siguiente extremo, así que "entidades para el monto X" es un floorEntry más la
+ * verificación del plazo. Un límite nulo se interpreta como sin límite, igual que en la validación de
+ * simulaciones. Se reconstruye cuando el bus de invalidación avisa cambios en entidades.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FinancialEntityRangeIndex {
+
+    private final FinancialEntityRepository financialEntityRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile RangeTable snapshot;
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.FINANCIAL_ENTITIES, key -> refresh());
+    }
+
+    /**
+     * Entidades activas cuyo rango de monto incluye loanAmount y, si se indica, cuyo rango de plazo incluye termMonths
+     */
+    public List<FinancialEntity> findEligible(BigDecimal loanAmount, Integer termMonths) {
+        RangeTable table = currentSnapshot();
+        Map.Entry<BigDecimal, Segment> entry = table.segments().floorEntry(loanAmount);
+
+        List<FinancialEntity> candidates;
+        if (entry == null) {
+            candidates = table.belowAll();
+        } else if (entry.getKey().compareTo(loanAmount) == 0) {
+            candidates = entry.getValue().atPoint();
+        } else {
+            candidates = entry.getValue().afterPoint();
+        }
+
+        if (termMonths == null) {
+            return candidates;
+        }
+        List<FinancialEntity> eligible = new ArrayList<>(candidates.size());
+        for (FinancialEntity entity : candidates) {
+            if ((entity.getMinTermMonths() == null || termMonths >= entity.getMinTermMonths())
+                    && (entity.getMaxTermMonths() == null || termMonths <= entity.getMaxTermMonths())) {
+                eligible.add(entity);
+            }
+        }
+        return eligible;
+    }
+
+    public synchronized void refresh() {
+        snapshot = build(financialEntityRepository.findByIsActiveTrue());
+        log.debug("Financial entity range index rebuilt with {} breakpoints", snapshot.segments().size());
+    }
+
+    private RangeTable currentSnapshot() {
+        RangeTable current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static RangeTable build(List<FinancialEntity> entities) {
+        TreeSet<BigDecimal> breakpoints = entities.stream()
+                .flatMap(entity -> Stream.of(entity.getMinLoanAmount(), entity.getMaxLoanAmount()))
+                .filter(Objects::nonNull)
+                .collect(TreeSet::new, TreeSet::add, TreeSet::addAll);
+
+        NavigableMap<BigDecimal, Segment> segments = new TreeMap<>();
+        for (BigDecimal point : breakpoints) {
+            List<FinancialEntity> atPoint = new ArrayList<>();
+            List<FinancialEntity> afterPoint = new ArrayList<>();
+            for (FinancialEntity entity : entities) {
+                boolean startsBefore = entity.getMinLoanAmount() == null || entity.getMinLoanAmount().compareTo(point) <= 0;
+                if (!startsBefore) {
+                    continue;
+                }
+                int endComparison = entity.getMaxLoanAmount() == null ? 1 : entity.getMaxLoanAmount().compareTo(point);
+                if (endComparison >= 0) {
+                    atPoint.add(entity);
+                }
+                if (endComparison > 0) {
+                    afterPoint.add(entity);
+                }
+            }
+            segments.put(point, new Segment(List.copyOf(atPoint), List.copyOf(afterPoint)));
+        }
+
+        List<FinancialEntity> belowAll = entities.stream()
+                .filter(entity -> entity.getMinLoanAmount() == null)
+                .toList();
+
+        return new RangeTable(Collections.unmodifiableNavigableMap(segments), belowAll);
+    }
+
+    private record Segment(List<FinancialEntity> atPoint, List<FinancialEntity> afterPoint) {
+    }
+
+    private record RangeTable(NavigableMap<BigDecimal, Segment> segments, List<FinancialEntity> belowAll) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proveedor local con valores fijos para desarrollo y pruebas sin conexión (exchange-rate.provider=stub, el
+ * valor por defecto fuera del perfil prod)
+ */
+@Component
+@ConditionalOnProperty(name = "exchange-rate.provider", havingValue = "stub", matchIfMissing = true)
+public class StubExchangeRateProvider implements ExchangeRateProvider {
+
+    @Value("${exchange-rate.stub.buy-price:3.750}")
+    private BigDecimal buyPrice;
+
+    @Value("${exchange-rate.stub.sell-price:3.760}")
+    private BigDecimal sellPrice;
+
+    @Override
+    public ExchangeRateService.ExchangeRateDTO fetchCurrentRate() {
+        return ExchangeRateService.ExchangeRateDTO.builder()
+                .buyPrice(buyPrice)
+                .sellPrice(sellPrice)
+                .date(LocalDate.now().toString())
+                .build();
+    }
+
+    @Override
+    public String getSource() {
+        return "STUB";
+    }
+
+    @Override
+    public boolean isRecordedInHistory() {
+        return false; // Valores fijos: no deben quedar como cotización de un día real
+    }
+}
@@ -5,6 +5,7 @@ import com.simucredito.configuration.application.dto.FinancialEntityDTO;
 import com.simucredito.configuration.application.dto.GlobalValueDTO;
 import com.simucredito.configuration.application.dto.UploadFinancialEntityPhotosResponseDTO;
 import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.configuration.infrastructure.service.ExchangeRateHistoryService;
 import com.simucredito.configuration.infrastructure.service.ExchangeRateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -33,6 +36,7 @@ public class ConfigurationController {
 
     private final ConfigurationService configurationService;
     private final ExchangeRateService exchangeRateService;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
 
     // Financial Entity endpoints
     @GetMapping("/financial-entities")
@@ -87,18 +91,18 @@ public class ConfigurationController {
     }
     */
 
-    /*
     @GetMapping("/financial-entities/for-loan/{loanAmount}")
     @Operation(summary = "Get financial entities for loan amount",
-        description = "Retrieve financial entities that can handle a specific loan amount")
+        description = "Retrieve financial entities that can handle a specific loan amount and, optionally, term")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Financial entities retrieved successfully")
     })
-    public ResponseEntity<List<FinancialEntityDTO>> getFinancialEntitiesForLoanAmount(@PathVariable BigDecimal loanAmount) {
-        List<FinancialEntityDTO> entities = configurationService.getFinancialEntitiesForLoanAmount(loanAmount);
+    public ResponseEntity<List<FinancialEntityDTO>> getFinancialEntitiesForLoanAmount(
+            @PathVariable BigDecimal loanAmount,
+            @Parameter(description = "Loan term in months") @RequestParam(required = false) Integer termMonths) {
+        List<FinancialEntityDTO> entities = configurationService.getFinancialEntitiesForLoan(loanAmount, termMonths);
         return ResponseEntity.ok(entities);
     }
-    */
 
     @PostMapping(value = "/financial-entities/upload-photos", consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload photos for financial entity", description = "Upload multiple photos for financial entities to Firebase Storage (Admin only)")
@@ -282,12 +286,21 @@ public class ConfigurationController {
         return ResponseEntity.ok(created);
     }
 
+    @GetMapping("/global-values/key/{key}/history")
+    @Operation(summary = "Get global value history", description = "Retrieve every version of a global value ordered by validity start")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Global value history retrieved successfully")
+    })
+    public ResponseEntity<List<GlobalValueDTO>> getGlobalValueHistory(@PathVariable String key) {
+        return ResponseEntity.ok(configurationService.getGlobalValueHistory(key));
+    }
+
     @PutMapping("/global-values/{id}")
-    @Operation(summary = "Update global value", description = "Update an existing global value (Admin only)")
+    @Operation(summary = "Update global value", description = "Publish a new version of a global value starting at validFrom (or now); the previous version is closed, not overwritten (Admin only)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Global value updated successfully"),
+            @ApiResponse(responseCode = "200", description = "New version published successfully"),
             @ApiResponse(responseCode = "404", description = "Global value not found"),
-            @ApiResponse(responseCode = "409", description = "Value key conflict")
+            @ApiResponse(responseCode = "409", description = "Key change, superseded version or invalid validFrom")
     })
     public ResponseEntity<GlobalValueDTO> updateGlobalValue(@PathVariable Long id, @Valid @RequestBody GlobalValueDTO dto) {
         return configurationService.updateGlobalValue(id, dto)
@@ -307,6 +320,19 @@ public class ConfigurationController {
         return ResponseEntity.ok(rate);
     }
 
+    @GetMapping("/exchange-rate/history")
+    @Operation(summary = "Get historical exchange rate", description = "Retrieve the USD/PEN exchange rate in force on a given date from the stored daily history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exchange rate retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "No exchange rate recorded on or before the date")
+    })
+    public ResponseEntity<ExchangeRateService.ExchangeRateDTO> getHistoricalExchangeRate(
+            @Parameter(description = "Date (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return exchangeRateHistoryService.rateAt(date)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /*
     @DeleteMapping("/global-values/{id}")
     @Operation(summary = "Delete global value", description = "Delete a global value (Admin only)")
@@ -1,5 +1,6 @@
 package com.simucredito.iam.application.service;
 
+import com.simucredito.configuration.infrastructure.service.CacheInvalidationBus;
 import com.simucredito.iam.application.dto.*;
 import com.simucredito.iam.domain.model.User;
 import com.simucredito.iam.domain.repository.UserRepository;
@@ -24,6 +25,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final ModelMapper modelMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     @Transactional
     public AuthResponseDTO register(RegisterRequestDTO registerRequest) {
@@ -120,6 +122,7 @@ public class AuthService {
 
         // 4. Guardar cambios (el @Transactional se encarga del commit, pero save asegura el retorno)
         user = userRepository.save(user);
+        cacheInvalidationBus.publish(CacheInvalidationBus.USERS, user.getEmail());
 
         // 5. Retornar el perfil actualizado mapeado a DTO
         return modelMapper.map(user, ProfileDTO.class);
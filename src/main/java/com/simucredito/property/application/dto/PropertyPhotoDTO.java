@@ -0,0 +1,18 @@
+package com.simucredito.property.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyPhotoDTO {
+
+    private Long id;
+    private Integer position;
+    private String url;
+    private String photoId;
+}
@@ -0,0 +1,30 @@
+package com.simucredito.property.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySearchCriteriaDTO {
+
+    private String projectName;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Long propertyTypeId;
+    private Boolean isSustainable;
+    private String status;
+    private Integer minBedrooms;
+    private Integer maxBedrooms;
+    private BigDecimal minArea;
+    private BigDecimal maxArea;
+
+    private String sort; // "newest", "oldest", "price_asc", "price_desc", "area_desc", "name"
+    private Integer page; // 0-based, opcional
+    private Integer size; // opcional; sin tamaño se devuelven todos los resultados
+}
@@ -28,6 +28,8 @@ public class UploadPhotosResponseDTO {
         private String firebaseUrl;
         private String contentType;
         private Long size;
+        private String contentHash;
+        private Boolean deduplicated;
         private LocalDateTime uploadedAt;
         private LocalDateTime expiresAt;
     }
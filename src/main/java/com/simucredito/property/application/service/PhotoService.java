@@ -66,6 +66,10 @@ public class PhotoService {
         return true;
     }
 
+    public String resolvePhotoId(String photoUrl) {
+        return firebaseStorageService.extractPhotoId(photoUrl);
+    }
+
     private void validateFiles(List<MultipartFile> files) {
         if (files == null || files.isEmpty()) {
             throw new IllegalArgumentException("At least one file must be provided");
@@ -1,23 +1,37 @@
 package com.simucredito.property.application.service;
 
+import com.simucredito.property.infrastructure.service.TrigramSearchService;
 import com.simucredito.property.application.dto.CreatePropertyRequestDTO;
 import com.simucredito.property.application.dto.PropertyDTO;
+import com.simucredito.property.application.dto.PropertyPhotoDTO;
+import com.simucredito.property.application.dto.PropertySearchCriteriaDTO;
 import com.simucredito.property.domain.model.Property;
+import com.simucredito.property.domain.model.PropertyPhoto;
+import com.simucredito.property.domain.repository.PropertyPhotoRepository;
 import com.simucredito.property.domain.repository.PropertyRepository;
+import com.simucredito.property.domain.repository.PropertySpecifications;
 import com.simucredito.iam.domain.model.User;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,20 +39,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PropertyService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final PropertyRepository propertyRepository;
+    private final PropertyPhotoRepository propertyPhotoRepository;
+    private final PhotoService photoService;
+    private final TrigramSearchService trigramSearchService;
     private final ModelMapper modelMapper;
-    private final ObjectMapper objectMapper;
 
     @Transactional
     public PropertyDTO createProperty(CreatePropertyRequestDTO request) {
         Long userId = getCurrentUserId();
 
-        // Convert photos array to comma-separated string for storage
-        String photosString = null;
-        if (request.getPhotos() != null && request.getPhotos().length > 0) {
-            photosString = String.join(",", request.getPhotos());
-        }
-
         Property property = Property.builder()
                 .userId(userId)
                 .propertyTypeId(request.getPropertyTypeId())
@@ -53,20 +65,18 @@ public class PropertyService {
                 .garages(request.getGarages())
                 .propertyPrice(request.getPropertyPrice())
                 .isSustainable(request.getIsSustainable())
-                .photos(photosString)
                 .build();
 
         property = propertyRepository.save(property);
-        return convertToDTO(property);
+        List<String> photos = replacePhotos(property.getId(), request.getPhotos());
+        return convertToDTO(property, photos);
     }
 
     public List<PropertyDTO> getPropertiesByUser() {
         Long userId = getCurrentUserId();
         List<Property> properties = propertyRepository.findByUserId(userId);
 
-        return properties.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(properties);
     }
 
     public PropertyDTO getPropertyById(Long propertyId) {
@@ -79,36 +89,89 @@ public class PropertyService {
             throw new RuntimeException("Access denied");
         }
 
-        return convertToDTO(property);
+        return convertToDTO(property, findPhotoUrls(property.getId()));
     }
 
-    public List<PropertyDTO> searchProperties(String projectName, BigDecimal minPrice, BigDecimal maxPrice,
-                                            Long propertyTypeId, Boolean isSustainable, String status) {
+    public List<PropertyPhotoDTO> getPropertyPhotos(Long propertyId) {
         Long userId = getCurrentUserId();
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found"));
+
+        if (!property.getUserId().equals(userId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        return propertyPhotoRepository.findByPropertyIdOrderByPositionAsc(propertyId).stream()
+                .map(photo -> modelMapper.map(photo, PropertyPhotoDTO.class))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Búsqueda multi-criterio: todos los filtros informados se combinan en una sola consulta SQL
+     */
+    public List<PropertyDTO> searchProperties(PropertySearchCriteriaDTO criteria) {
+        Long userId = getCurrentUserId();
+
+        Specification<Property> specification = PropertySpecifications.belongsToUser(userId)
+                .and(PropertySpecifications.projectNameContains(criteria.getProjectName()))
+                .and(PropertySpecifications.priceBetween(criteria.getMinPrice(), criteria.getMaxPrice()))
+                .and(PropertySpecifications.hasStatus(criteria.getStatus()))
+                .and(PropertySpecifications.hasPropertyType(criteria.getPropertyTypeId()))
+                .and(PropertySpecifications.isSustainable(criteria.getIsSustainable()))
+                .and(PropertySpecifications.bedroomsBetween(criteria.getMinBedrooms(), criteria.getMaxBedrooms()))
+                .and(PropertySpecifications.builtAreaBetween(criteria.getMinArea(), criteria.getMaxArea()));
+
+        Sort sort = resolveSort(criteria.getSort());
         List<Property> properties;
+        if (criteria.getSize() != null && criteria.getSize() > 0) {
+            int page = criteria.getPage() != null ? Math.max(criteria.getPage(), 0) : 0;
+            int size = Math.min(criteria.getSize(), MAX_SEARCH_PAGE_SIZE);
+            properties = propertyRepository.findAll(specification, PageRequest.of(page, size, sort)).getContent();
+        } else {
+            properties = propertyRepository.findAll(specification, sort);
+        }
+
+        return convertToDTOs(properties);
+    }
 
-        // Apply filters based on provided parameters
-        if (projectName != null && !projectName.trim().isEmpty()) {
-            properties = propertyRepository.findByUserIdAndProjectName(userId, projectName.trim());
-        } else if (minPrice != null && maxPrice != null) {
-            properties = propertyRepository.findByUserIdAndPriceRange(userId, minPrice, maxPrice);
-        } else if (status != null && !status.trim().isEmpty()) {
-            properties = propertyRepository.findByUserIdAndStatus(userId, status.trim());
-        } else if (propertyTypeId != null) {
-            properties = propertyRepository.findByUserId(userId).stream()
-                    .filter(p -> propertyTypeId.equals(p.getPropertyTypeId()))
-                    .collect(Collectors.toList());
-        } else if (isSustainable != null) {
-            properties = propertyRepository.findByUserId(userId).stream()
-                    .filter(p -> isSustainable.equals(p.getIsSustainable()))
-                    .collect(Collectors.toList());
+    /**
+     * Búsqueda tolerante a errores de tipeo por nombre de proyecto, ordenada por similitud
+     */
+    public List<PropertyDTO> fuzzySearchProperties(String query, int limit) {
+        Long userId = getCurrentUserId();
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_PAGE_SIZE);
+
+        List<Property> properties;
+        if (trigramSearchService.isAvailable()) {
+            List<Long> rankedIds = propertyRepository.findIdsByFuzzyProjectName(userId, query.trim(), boundedLimit);
+            Map<Long, Property> byId = new HashMap<>();
+            propertyRepository.findAllById(rankedIds).forEach(property -> byId.put(property.getId(), property));
+            properties = rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
         } else {
-            properties = propertyRepository.findByUserId(userId);
+            List<Property> candidates = propertyRepository.findByUserIdOrderByIdDesc(userId,
+                    PageRequest.of(0, TrigramSearchService.MAX_IN_MEMORY_CANDIDATES));
+            properties = trigramSearchService.rank(candidates, Property::getNombreProyecto, query.trim(), boundedLimit);
         }
 
-        return properties.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(properties);
+    }
+
+    private Sort resolveSort(String sort) {
+        if (sort == null) {
+            return Sort.by(Sort.Direction.DESC, "createdAt");
+        }
+        return switch (sort.toLowerCase()) {
+            case "oldest" -> Sort.by(Sort.Direction.ASC, "createdAt");
+            case "price_asc" -> Sort.by(Sort.Direction.ASC, "propertyPrice");
+            case "price_desc" -> Sort.by(Sort.Direction.DESC, "propertyPrice");
+            case "area_desc" -> Sort.by(Sort.Direction.DESC, "builtArea");
+            case "name" -> Sort.by(Sort.Direction.ASC, "nombreProyecto");
+            case "newest" -> Sort.by(Sort.Direction.DESC, "createdAt");
+            default -> throw new IllegalArgumentException("Invalid sort option: " + sort);
+        };
     }
 
     @Transactional
@@ -134,16 +197,11 @@ public class PropertyService {
         property.setGarages(request.getGarages());
         property.setPropertyPrice(request.getPropertyPrice());
         property.setIsSustainable(request.getIsSustainable());
-
-        // Convert photos array to comma-separated string for storage
-        String photosString = null;
-        if (request.getPhotos() != null && request.getPhotos().length > 0) {
-            photosString = String.join(",", request.getPhotos());
-        }
-        property.setPhotos(photosString);
+        property.setPhotos(null);
 
         property = propertyRepository.save(property);
-        return convertToDTO(property);
+        List<String> photos = replacePhotos(property.getId(), request.getPhotos());
+        return convertToDTO(property, photos);
     }
 
     @Transactional
@@ -156,7 +214,10 @@ public class PropertyService {
             throw new RuntimeException("Access denied");
         }
 
+        List<String> photoIds = findPhotoIds(propertyId);
+        propertyPhotoRepository.deleteByPropertyId(propertyId);
         propertyRepository.delete(property);
+        releasePhotos(photoIds);
     }
 
     private Long getCurrentUserId() {
@@ -168,38 +229,96 @@ public class PropertyService {
         throw new RuntimeException("User not authenticated");
     }
 
-    private PropertyDTO convertToDTO(Property property) {
-        PropertyDTO dto = modelMapper.map(property, PropertyDTO.class);
+    /**
+     * Reemplaza las fotos del inmueble conservando el orden recibido y descartando URLs repetidas
+     */
+    private List<String> replacePhotos(Long propertyId, String[] photoUrls) {
+        List<String> previousPhotoIds = findPhotoIds(propertyId);
+        propertyPhotoRepository.deleteByPropertyId(propertyId);
+        if (photoUrls == null || photoUrls.length == 0) {
+            releasePhotos(previousPhotoIds);
+            return List.of();
+        }
 
-        // Convert comma-separated photos string to array
-        if (property.getPhotos() != null && !property.getPhotos().trim().isEmpty()) {
-            dto.setPhotos(property.getPhotos().split(","));
-        } else {
-            dto.setPhotos(new String[0]);
+        Set<String> uniqueUrls = new LinkedHashSet<>();
+        for (String url : photoUrls) {
+            if (url != null && !url.trim().isEmpty()) {
+                uniqueUrls.add(url.trim());
+            }
         }
 
-        return dto;
+        List<PropertyPhoto> photos = new ArrayList<>();
+        int position = 0;
+        for (String url : uniqueUrls) {
+            photos.add(PropertyPhoto.builder()
+                    .propertyId(propertyId)
+                    .position(position++)
+                    .url(url)
+                    .photoId(photoService.resolvePhotoId(url))
+                    .build());
+        }
+        propertyPhotoRepository.saveAll(photos);
+        releasePhotos(previousPhotoIds);
+        return new ArrayList<>(uniqueUrls);
+    }
+
+    private List<String> findPhotoIds(Long propertyId) {
+        return propertyPhotoRepository.findByPropertyIdOrderByPositionAsc(propertyId).stream()
+                .map(PropertyPhoto::getPhotoId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
     }
 
-    private String convertPhotosToString(String photos) {
-        if (photos == null || photos.trim().isEmpty()) {
-            return null;
+    /**
+     * Suelta la referencia de cada foto que ya ninguna fila de property_photos usa (el mismo inmueble tras el
+     * reemplazo u otro que reutilizó la URL); el blob se borra del bucket al commit si ya nadie lo referencia
+     */
+    private void releasePhotos(List<String> photoIds) {
+        if (photoIds.isEmpty()) {
+            return;
         }
+        Set<String> stillReferenced = new HashSet<>(propertyPhotoRepository.findReferencedPhotoIds(photoIds));
+        List<String> released = photoIds.stream().filter(photoId -> !stillReferenced.contains(photoId)).toList();
+        if (released.isEmpty()) {
+            return;
+        }
+        try {
+            photoService.deletePhotos(released);
+        } catch (IOException e) {
+            log.warn("Could not delete {} released photos, storage not available: {}", released.size(), e.getMessage());
+        }
+    }
 
-        // Check if it's a JSON array string (starts with [ and ends with ])
-        if (photos.trim().startsWith("[") && photos.trim().endsWith("]")) {
-            try {
-                // Parse JSON array string to String array
-                String[] photoArray = objectMapper.readValue(photos, String[].class);
-                return String.join(",", photoArray);
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to parse photos JSON array, treating as comma-separated string: {}", photos);
-                // If JSON parsing fails, treat as comma-separated string
-                return photos;
-            }
-        } else {
-            // It's already a comma-separated string or single value
-            return photos;
+    private List<String> findPhotoUrls(Long propertyId) {
+        return propertyPhotoRepository.findByPropertyIdOrderByPositionAsc(propertyId)
+                .stream()
+                .map(PropertyPhoto::getUrl)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convierte una página de inmuebles cargando sus fotos en una sola consulta
+     */
+    private List<PropertyDTO> convertToDTOs(List<Property> properties) {
+        if (properties.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> propertyIds = properties.stream().map(Property::getId).toList();
+        Map<Long, List<String>> photosByProperty = new HashMap<>();
+        for (PropertyPhoto photo : propertyPhotoRepository.findByPropertyIdInOrderByPropertyIdAscPositionAsc(propertyIds)) {
+            photosByProperty.computeIfAbsent(photo.getPropertyId(), id -> new ArrayList<>()).add(photo.getUrl());
         }
+
+        return properties.stream()
+                .map(property -> convertToDTO(property, photosByProperty.getOrDefault(property.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private PropertyDTO convertToDTO(Property property, List<String> photoUrls) {
+        PropertyDTO dto = modelMapper.map(property, PropertyDTO.class);
+        dto.setPhotos(photoUrls.toArray(new String[0]));
+        return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.simucredito.property.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "photo_blobs", indexes = {
+        @Index(name = "idx_photo_blobs_blob_name", columnList = "blob_name")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_photo_blobs_owner_hash", columnNames = {"owner_id", "content_hash"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // La deduplicación es por usuario: nadie puede sondear lo que subieron otros. Las entradas anteriores a esta
+    // columna quedan en null: nunca se reutilizan y se liberan por blob_name como antes
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // SHA-256 en hexadecimal
+
+    @Column(name = "blob_name", nullable = false)
+    private String blobName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size")
+    private Long size;
+
+    @Column(name = "reference_count", nullable = false)
+    @Builder.Default
+    private Integer referenceCount = 1;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
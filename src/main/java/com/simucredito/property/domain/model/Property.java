@@ -11,7 +11,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "inmuebles")
+@Table(name = "inmuebles", indexes = {
+        @Index(name = "idx_inmuebles_usuario_created", columnList = "usuario_id, created_at"),
+        @Index(name = "idx_inmuebles_usuario_precio", columnList = "usuario_id, precio_vivienda"),
+        @Index(name = "idx_inmuebles_usuario_estado", columnList = "usuario_id, estado_inmueble"),
+        @Index(name = "idx_inmuebles_usuario_tipo", columnList = "usuario_id, tipo_inmueble_id"),
+        @Index(name = "idx_inmuebles_usuario_dormitorios", columnList = "usuario_id, num_dormitorios"),
+        @Index(name = "idx_inmuebles_usuario_area", columnList = "usuario_id, area_construida")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,6 +41,7 @@ public class Property {
     @Column(columnDefinition = "TEXT")
     private String descripcion;
 
+    @Column(name = "estado_inmueble")
     private String estadoInmueble;
 
     @Column(columnDefinition = "TEXT")
@@ -61,6 +69,7 @@ public class Property {
     @Builder.Default
     private Boolean isSustainable = false;
 
+    // Legacy: URLs separadas por comas. Las fotos viven en property_photos (ver PropertyPhotoMigration)
     @Column(columnDefinition = "TEXT")
     private String photos;
 
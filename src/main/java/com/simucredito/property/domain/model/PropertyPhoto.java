@@ -0,0 +1,45 @@
+package com.simucredito.property.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "property_photos", indexes = {
+        @Index(name = "idx_property_photos_property_position", columnList = "inmueble_id, position"),
+        @Index(name = "idx_property_photos_photo_id", columnList = "photo_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyPhoto {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "inmueble_id", nullable = false)
+    private Long propertyId;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    @Column(name = "url", nullable = false, columnDefinition = "TEXT")
+    private String url;
+
+    @Column(name = "photo_id")
+    private String photoId; // Nombre del objeto en Firebase Storage, si se pudo resolver
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
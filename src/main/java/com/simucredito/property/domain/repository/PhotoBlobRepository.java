@@ -0,0 +1,56 @@
+package com.simucredito.property.domain.repository;
+
+import com.simucredito.property.domain.model.PhotoBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, Long> {
+
+    Optional<PhotoBlob> findByOwnerIdAndContentHash(Long ownerId, String contentHash);
+
+    Optional<PhotoBlob> findByBlobName(String blobName);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PhotoBlob pb SET pb.referenceCount = pb.referenceCount + 1 WHERE pb.id = :id AND pb.referenceCount > 0")
+    int incrementReferenceCount(@Param("id") Long id); // 0 si el blob ya quedó sin referencias y se está eliminando
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PhotoBlob pb SET pb.referenceCount = pb.referenceCount - 1 WHERE pb.id = :id AND pb.referenceCount > 0")
+    int decrementReferenceCount(@Param("id") Long id);
+
+    /**
+     * Borra la entrada solo si sigue sin referencias; una subida concurrente que alcanzó a sumar una la conserva
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PhotoBlob pb WHERE pb.id = :id AND pb.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("id") Long id);
+
+    /**
+     * Apunta la entrada al blob recién subido si todavía apunta al que faltaba en el bucket
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PhotoBlob pb SET pb.blobName = :blobName, pb.contentType = :contentType, pb.size = :size, " +
+           "pb.referenceCount = 1, pb.updatedAt = :now WHERE pb.id = :id AND pb.blobName = :staleBlobName " +
+           "AND pb.referenceCount > 0")
+    int replaceStaleBlob(@Param("id") Long id, @Param("staleBlobName") String staleBlobName,
+                         @Param("blobName") String blobName, @Param("contentType") String contentType,
+                         @Param("size") Long size, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PhotoBlob pb WHERE pb.blobName IN :blobNames")
+    int deleteByBlobNames(@Param("blobNames") Collection<String> blobNames);
+}
@@ -0,0 +1,29 @@
+package com.simucredito.property.domain.repository;
+
+import com.simucredito.property.domain.model.PropertyPhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PropertyPhotoRepository extends JpaRepository<PropertyPhoto, Long> {
+
+    List<PropertyPhoto> findByPropertyIdOrderByPositionAsc(Long propertyId);
+
+    List<PropertyPhoto> findByPropertyIdInOrderByPropertyIdAscPositionAsc(Collection<Long> propertyIds);
+
+    @Query("SELECT pp.photoId FROM PropertyPhoto pp WHERE pp.photoId LIKE 'temp/%'")
+    List<String> findTempPhotoIds();
+
+    @Query("SELECT DISTINCT pp.photoId FROM PropertyPhoto pp WHERE pp.photoId IN :photoIds")
+    List<String> findReferencedPhotoIds(@Param("photoIds") Collection<String> photoIds);
+
+    @Modifying
+    @Query("DELETE FROM PropertyPhoto pp WHERE pp.propertyId = :propertyId")
+    int deleteByPropertyId(@Param("propertyId") Long propertyId);
+}
@@ -1,7 +1,9 @@
 package com.simucredito.property.domain.repository;
 
 import com.simucredito.property.domain.model.Property;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,10 +13,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
 
     List<Property> findByUserId(Long userId);
 
+    List<Property> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
     List<Property> findByPropertyTypeId(Long propertyTypeId);
 
     List<Property> findByIsSustainable(Boolean isSustainable);
@@ -28,10 +32,28 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     List<Property> findByUserIdAndProjectName(@Param("userId") Long userId,
                                             @Param("projectName") String projectName);
 
+    /**
+     * Búsqueda difusa (pg_trgm) por nombre de proyecto, ordenada por similitud. Requiere PostgreSQL.
+     */
+    @Query(value = "SELECT p.id FROM inmuebles p WHERE p.usuario_id = :userId AND " +
+            "(lower(p.nombre_proyecto) % lower(:query) OR lower(:query) <% lower(p.nombre_proyecto)) " +
+            "ORDER BY GREATEST(similarity(lower(p.nombre_proyecto), lower(:query)), " +
+            "word_similarity(lower(:query), lower(p.nombre_proyecto))) DESC, p.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsByFuzzyProjectName(@Param("userId") Long userId,
+                                         @Param("query") String query,
+                                         @Param("limit") int limit);
+
     @Query("SELECT p FROM Property p WHERE p.userId = :userId AND p.estadoInmueble = :status")
     List<Property> findByUserIdAndStatus(@Param("userId") Long userId,
                                        @Param("status") String status);
 
+    @Query("SELECT p.photos FROM Property p WHERE p.photos LIKE '%temp/%'")
+    List<String> findPhotosReferencingTempStorage();
+
+    @Query("SELECT p.id FROM Property p WHERE p.photos IS NOT NULL AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsWithLegacyPhotos(@Param("afterId") Long afterId, Pageable pageable);
+
     long countByUserId(Long userId);
     long countByUserIdAndIsSustainableTrue(Long userId);
     @Query("SELECT COUNT(p) FROM Property p WHERE p.userId = :userId AND p.createdAt >= :startDate")
@@ -0,0 +1,80 @@
+package com.simucredito.property.domain.repository;
+
+import com.simucredito.property.domain.model.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros componibles para la búsqueda de inmuebles. Cada método devuelve null si el filtro no aplica,
+ * de modo que Specification.and los ignora.
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> belongsToUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Property> projectNameContains(String projectName) {
+        if (projectName == null || projectName.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + projectName.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("nombreProyecto")), pattern);
+    }
+
+    public static Specification<Property> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        if (maxPrice == null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("propertyPrice"), minPrice);
+        }
+        if (minPrice == null) {
+            return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("propertyPrice"), maxPrice);
+        }
+        return (root, query, cb) -> cb.between(root.get("propertyPrice"), minPrice, maxPrice);
+    }
+
+    public static Specification<Property> hasStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("estadoInmueble"), status.trim());
+    }
+
+    public static Specification<Property> hasPropertyType(Long propertyTypeId) {
+        if (propertyTypeId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("propertyTypeId"), propertyTypeId);
+    }
+
+    public static Specification<Property> isSustainable(Boolean isSustainable) {
+        if (isSustainable == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("isSustainable"), isSustainable);
+    }
+
+    public static Specification<Property> bedroomsBetween(Integer minBedrooms, Integer maxBedrooms) {
+        if (minBedrooms == null && maxBedrooms == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.and(
+                minBedrooms != null ? cb.greaterThanOrEqualTo(root.get("bedrooms"), minBedrooms) : cb.conjunction(),
+                maxBedrooms != null ? cb.lessThanOrEqualTo(root.get("bedrooms"), maxBedrooms) : cb.conjunction());
+    }
+
+    public static Specification<Property> builtAreaBetween(BigDecimal minArea, BigDecimal maxArea) {
+        if (minArea == null && maxArea == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.and(
+                minArea != null ? cb.greaterThanOrEqualTo(root.get("builtArea"), minArea) : cb.conjunction(),
+                maxArea != null ? cb.lessThanOrEqualTo(root.get("builtArea"), maxArea) : cb.conjunction());
+    }
+}
@@ -0,0 +1,133 @@
+package com.simucredito.property.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simucredito.configuration.infrastructure.service.AdvisoryLockService;
+import com.simucredito.property.application.service.PhotoService;
+import com.simucredito.property.domain.model.Property;
+import com.simucredito.property.domain.model.PropertyPhoto;
+import com.simucredito.property.domain.repository.PropertyPhotoRepository;
+import com.simucredito.property.domain.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Migración única del campo legacy Property.photos (URLs separadas por comas o arreglo JSON) a la tabla
+ * property_photos. Solo el nodo que obtiene el advisory lock la ejecuta; cada inmueble se migra en su propia
+ * transacción y queda con photos = null, así que si se interrumpe se retoma sin repetir los ya migrados.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyPhotoMigration implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long MIGRATION_LOCK_KEY = AdvisoryLockService.keyFor("simucredito.property-photo-migration");
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyPhotoRepository propertyPhotoRepository;
+    private final PhotoService photoService;
+    private final AdvisoryLockService advisoryLockService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            boolean ran = advisoryLockService.runIfLeader(MIGRATION_LOCK_KEY, this::migrate);
+            if (!ran) {
+                log.info("Property photo migration skipped, another node holds the migration lock");
+            }
+        } catch (Exception e) {
+            log.error("Property photo migration failed", e);
+        }
+    }
+
+    private void migrate() {
+        int migrated = 0;
+        int failed = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = propertyRepository.findIdsWithLegacyPhotos(afterId, PageRequest.of(0, BATCH_SIZE));
+            for (Long id : ids) {
+                afterId = id;
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrateProperty(id)))) {
+                        migrated++;
+                    }
+                } catch (RuntimeException e) {
+                    // Queda con photos para el próximo arranque; no detiene al resto
+                    failed++;
+                    log.warn("Could not migrate photos of property {}: {}", id, e.getMessage());
+                }
+            }
+        } while (ids.size() == BATCH_SIZE);
+
+        if (migrated > 0 || failed > 0) {
+            log.info("Migrated photos of {} properties to property_photos ({} failed)", migrated, failed);
+        }
+    }
+
+    /**
+     * Migra un inmueble si aún conserva el campo legacy; reemplaza sus filas de property_photos en vez de sumarlas
+     */
+    private boolean migrateProperty(Long id) {
+        Property property = propertyRepository.findById(id).orElse(null);
+        if (property == null || property.getPhotos() == null) {
+            return false; // Borrado o ya migrado
+        }
+        List<PropertyPhoto> photos = new ArrayList<>();
+        int position = 0;
+        for (String url : parseLegacyPhotos(property.getPhotos())) {
+            photos.add(PropertyPhoto.builder()
+                    .propertyId(property.getId())
+                    .position(position++)
+                    .url(url)
+                    .photoId(photoService.resolvePhotoId(url))
+                    .build());
+        }
+        propertyPhotoRepository.deleteByPropertyId(property.getId());
+        propertyPhotoRepository.saveAll(photos);
+        property.setPhotos(null);
+        propertyRepository.save(property);
+        return true;
+    }
+
+    private Set<String> parseLegacyPhotos(String photos) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (photos == null || photos.trim().isEmpty()) {
+            return urls;
+        }
+
+        List<String> values;
+        // Check if it's a JSON array string (starts with [ and ends with ])
+        if (photos.trim().startsWith("[") && photos.trim().endsWith("]")) {
+            try {
+                values = Arrays.asList(objectMapper.readValue(photos, String[].class));
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to parse photos JSON array, treating as comma-separated string: {}", photos);
+                values = Arrays.asList(photos.split(","));
+            }
+        } else {
+            values = Arrays.asList(photos.split(","));
+        }
+
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                urls.add(value.trim());
+            }
+        }
+        return urls;
+    }
+}
@@ -1,29 +1,52 @@
 package com.simucredito.property.infrastructure.service;
 
+import com.google.api.gax.paging.Page;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.*;
 import com.simucredito.property.application.dto.UploadPhotosResponseDTO;
+import com.simucredito.property.domain.model.PhotoBlob;
+import com.simucredito.property.domain.repository.PhotoBlobRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FirebaseStorageService {
 
+    private static final String TEMP_PREFIX = "temp/";
+    private static final int INDEX_ATTEMPTS = 3;
+
+    private final PhotoBlobRepository photoBlobRepository;
+
     @Value("${firebase.storage.bucket}")
     private String bucketName;
 
@@ -33,7 +56,16 @@ public class FirebaseStorageService {
     @Value("${firebase.temp-photos.expiry-hours:24}")
     private int tempPhotoExpiryHours;
 
-    private Storage getStorage() throws IOException {
+    @Value("${firebase.temp-photos.sweep-page-size:500}")
+    private int sweepPageSize;
+
+    @Value("${firebase.temp-photos.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    /**
+     * Cliente del bucket con las credenciales configuradas; visible en el paquete para reemplazarlo en pruebas
+     */
+    Storage getStorage() throws IOException {
         GoogleCredentials credentials;
         InputStream serviceAccount;
 
@@ -71,38 +103,49 @@ public class FirebaseStorageService {
                 continue;
             }
 
-            // Generate unique filename
             String originalFilename = file.getOriginalFilename();
-            String extension = getFileExtension(originalFilename);
-            String uniqueFilename = generateUniqueFilename(userId, extension);
-
-            // Create blob info
-            BlobId blobId = BlobId.of(bucketName, uniqueFilename);
-            BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
-                    .setContentType(file.getContentType())
-                    .setMetadata(createMetadata(userId, now, expiryTime))
-                    .build();
 
-            // Upload file
             try {
-                Blob blob = storage.create(blobInfo, file.getBytes());
+                // Hash SHA-256 leyendo el archivo por bloques; si el contenido ya existe se reutiliza el blob
+                String contentHash = hash(file);
+                Optional<PhotoBlob> indexed = photoBlobRepository.findByOwnerIdAndContentHash(userId, contentHash);
+                Blob blob = indexed.map(photoBlob -> reuseBlob(storage, photoBlob, expiryTime)).orElse(null);
+                boolean deduplicated = blob != null;
+
+                if (blob == null) {
+                    String uniqueFilename = generateUniqueFilename(userId, getFileExtension(originalFilename));
+                    BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, uniqueFilename))
+                            .setContentType(file.getContentType())
+                            .setMetadata(createMetadata(userId, now, expiryTime))
+                            .build();
+                    try (InputStream inputStream = file.getInputStream()) {
+                        blob = storage.createFrom(blobInfo, inputStream);
+                    }
+                    indexBlob(userId, contentHash, indexed.map(PhotoBlob::getBlobName).orElse(null), uniqueFilename, file);
+                }
 
                 // Generate public URL (temporary access)
                 String publicUrl = generatePublicUrl(blob, tempPhotoExpiryHours);
 
                 UploadPhotosResponseDTO.PhotoMetadataDTO metadata = UploadPhotosResponseDTO.PhotoMetadataDTO.builder()
-                        .id(uniqueFilename)
+                        .id(blob.getName())
                         .originalFilename(originalFilename)
                         .firebaseUrl(publicUrl)
                         .contentType(file.getContentType())
                         .size(file.getSize())
+                        .contentHash(contentHash)
+                        .deduplicated(deduplicated)
                         .uploadedAt(now)
                         .expiresAt(expiryTime)
                         .build();
 
                 uploadedPhotos.add(metadata);
 
-                log.info("Photo uploaded successfully: {}", uniqueFilename);
+                if (deduplicated) {
+                    log.info("Photo {} reused existing blob {}", originalFilename, blob.getName());
+                } else {
+                    log.info("Photo uploaded successfully: {}", blob.getName());
+                }
 
             } catch (Exception e) {
                 log.error("Failed to upload photo: {}", originalFilename, e);
@@ -118,6 +161,11 @@ public class FirebaseStorageService {
     }
 
     public void deletePhoto(String photoId) throws IOException {
+        if (!releaseReference(photoId)) {
+            log.info("Photo {} is still shared by other uploads, keeping blob", photoId);
+            return;
+        }
+
         Storage storage = getStorage();
         BlobId blobId = BlobId.of(bucketName, photoId);
 
@@ -129,7 +177,36 @@ public class FirebaseStorageService {
         }
     }
 
-    public void deletePhotos(List<String> photoIds) throws IOException {
+    /**
+     * Libera las referencias y borra del bucket los blobs que quedaron sin ninguna. Dentro de una transacción el
+     * borrado del bucket espera al commit, para no perder objetos que un rollback volvería a referenciar.
+     */
+    public void deletePhotos(List<String> requestedPhotoIds) throws IOException {
+        List<String> photoIds = requestedPhotoIds.stream()
+                .filter(this::releaseReference)
+                .toList();
+        if (photoIds.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        deleteBlobs(photoIds);
+                    } catch (IOException e) {
+                        log.warn("Could not delete {} unreferenced photos, storage not available: {}",
+                                photoIds.size(), e.getMessage());
+                    }
+                }
+            });
+        } else {
+            deleteBlobs(photoIds);
+        }
+    }
+
+    private void deleteBlobs(List<String> photoIds) throws IOException {
         Storage storage = getStorage();
 
         List<BlobId> blobIds = photoIds.stream()
@@ -154,6 +231,208 @@ public class FirebaseStorageService {
         return blob != null && blob.exists();
     }
 
+    /**
+     * Recorre las fotos temporales página por página y elimina en lotes las que ya expiraron,
+     * omitiendo las que siguen referenciadas por algún inmueble
+     *
+     * @return cantidad de fotos eliminadas
+     */
+    public int purgeExpiredTempPhotos(LocalDateTime now, Predicate<String> isReferenced) throws IOException {
+        Storage storage = getStorage();
+        List<BlobId> pending = new ArrayList<>();
+        int deleted = 0;
+        int skipped = 0;
+
+        Page<Blob> page = storage.list(bucketName,
+                Storage.BlobListOption.prefix(TEMP_PREFIX),
+                Storage.BlobListOption.pageSize(sweepPageSize),
+                Storage.BlobListOption.fields(Storage.BlobField.NAME, Storage.BlobField.METADATA));
+
+        while (page != null) {
+            for (Blob blob : page.getValues()) {
+                if (!isExpired(blob, now)) {
+                    continue;
+                }
+                if (isReferenced.test(blob.getName())) {
+                    skipped++;
+                    continue;
+                }
+                pending.add(BlobId.of(bucketName, blob.getName()));
+                if (pending.size() >= sweepBatchSize) {
+                    deleted += deleteBatch(storage, pending);
+                    pending.clear();
+                }
+            }
+            page = page.hasNextPage() ? page.getNextPage() : null;
+        }
+
+        if (!pending.isEmpty()) {
+            deleted += deleteBatch(storage, pending);
+        }
+
+        if (skipped > 0) {
+            log.info("Kept {} expired temp photos still referenced by properties", skipped);
+        }
+        return deleted;
+    }
+
+    /**
+     * Obtiene el nombre del objeto (photoId) a partir de una URL de Firebase / Cloud Storage
+     */
+    public String extractPhotoId(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String path = url.trim();
+        int queryIndex = path.indexOf('?');
+        if (queryIndex >= 0) {
+            path = path.substring(0, queryIndex);
+        }
+
+        int objectIndex = path.indexOf("/o/");
+        int bucketIndex = path.indexOf("/" + bucketName + "/");
+        String encodedName;
+        if (objectIndex >= 0) {
+            encodedName = path.substring(objectIndex + 3);
+        } else if (bucketIndex >= 0) {
+            encodedName = path.substring(bucketIndex + bucketName.length() + 2);
+        } else {
+            return null;
+        }
+        return URLDecoder.decode(encodedName, StandardCharsets.UTF_8);
+    }
+
+    private boolean isExpired(Blob blob, LocalDateTime now) {
+        LocalDateTime expiresAt = expiresAt(blob);
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    /**
+     * Expiración guardada en la metadata del blob; null si falta o no se puede leer
+     */
+    private LocalDateTime expiresAt(Blob blob) {
+        String value = blob.getMetadata() != null ? blob.getMetadata().get("expiresAt") : null;
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid expiresAt metadata on photo {}: {}", blob.getName(), value);
+            return null;
+        }
+    }
+
+    private int deleteBatch(Storage storage, List<BlobId> blobIds) {
+        List<Boolean> results = storage.delete(blobIds);
+        photoBlobRepository.deleteByBlobNames(blobIds.stream().map(BlobId::getName).toList());
+        int deleted = 0;
+        for (Boolean result : results) {
+            if (Boolean.TRUE.equals(result)) {
+                deleted++;
+            }
+        }
+        log.debug("Deleted {}/{} expired temp photos in batch", deleted, blobIds.size());
+        return deleted;
+    }
+
+    /**
+     * SHA-256 del archivo leído por bloques, sin cargarlo entero en memoria
+     */
+    private String hash(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Reutiliza un blob ya almacenado con el mismo contenido: suma una referencia y extiende su expiración.
+     * La referencia se toma antes de tocar el bucket y solo si el blob aún tiene alguna; si otro hilo lo está
+     * liberando, o ya no existe en el bucket, devuelve null y la foto se sube de nuevo.
+     */
+    private Blob reuseBlob(Storage storage, PhotoBlob photoBlob, LocalDateTime expiryTime) {
+        if (photoBlobRepository.incrementReferenceCount(photoBlob.getId()) == 0) {
+            log.debug("Indexed photo blob {} is being released, uploading again", photoBlob.getBlobName());
+            return null;
+        }
+
+        Blob blob = storage.get(BlobId.of(bucketName, photoBlob.getBlobName()));
+        if (blob == null || !blob.exists()) {
+            log.warn("Indexed photo blob {} no longer exists, uploading again", photoBlob.getBlobName());
+            return null;
+        }
+
+        LocalDateTime currentExpiry = expiresAt(blob);
+        if (currentExpiry == null || currentExpiry.isBefore(expiryTime)) {
+            Map<String, String> metadata = blob.getMetadata() != null ? new HashMap<>(blob.getMetadata()) : new HashMap<>();
+            metadata.put("expiresAt", expiryTime.toString());
+            blob = blob.toBuilder().setMetadata(metadata).build().update();
+        }
+        return blob;
+    }
+
+    /**
+     * Indexa el blob recién subido. Si la entrada del hash apunta a un blob que ya no está en el bucket
+     * (staleBlobName) se reasigna con una actualización condicional; si no hay entrada se inserta una nueva. Una
+     * inserción que choca con otra subida concurrente, o con una entrada que se está liberando, se reintenta
+     * leyendo de nuevo. Si otra subida ganó, este blob queda como temporal sin deduplicar.
+     */
+    private void indexBlob(Long ownerId, String contentHash, String staleBlobName, String blobName, MultipartFile file) {
+        for (int attempt = 0; attempt < INDEX_ATTEMPTS; attempt++) {
+            Optional<PhotoBlob> existing = photoBlobRepository.findByOwnerIdAndContentHash(ownerId, contentHash);
+            if (existing.isPresent()) {
+                PhotoBlob entry = existing.get();
+                if (staleBlobName != null && photoBlobRepository.replaceStaleBlob(entry.getId(), staleBlobName,
+                        blobName, file.getContentType(), file.getSize(), LocalDateTime.now()) > 0) {
+                    return;
+                }
+                if (entry.getReferenceCount() > 0 && !entry.getBlobName().equals(staleBlobName)) {
+                    log.debug("Content hash {} indexed concurrently, blob {} left unindexed", contentHash, blobName);
+                    return;
+                }
+                continue; // La entrada se está liberando o cambió entre la lectura y la actualización
+            }
+
+            try {
+                photoBlobRepository.saveAndFlush(PhotoBlob.builder()
+                        .ownerId(ownerId)
+                        .contentHash(contentHash)
+                        .blobName(blobName)
+                        .contentType(file.getContentType())
+                        .size(file.getSize())
+                        .referenceCount(1)
+                        .build());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Content hash {} inserted concurrently, retrying", contentHash);
+            }
+        }
+        log.debug("Content hash {} could not be indexed, blob {} left unindexed", contentHash, blobName);
+    }
+
+    /**
+     * Resta una referencia al blob deduplicado. Devuelve true si el blob ya no tiene referencias y puede eliminarse.
+     * El borrado de la entrada es condicional en la misma sentencia, así que una subida que sumó una referencia
+     * entre medio conserva el blob.
+     */
+    private boolean releaseReference(String photoId) {
+        Optional<PhotoBlob> indexed = photoBlobRepository.findByBlobName(photoId);
+        if (indexed.isEmpty()) {
+            return true;
+        }
+
+        Long id = indexed.get().getId();
+        photoBlobRepository.decrementReferenceCount(id);
+        return photoBlobRepository.deleteIfUnreferenced(id) > 0;
+    }
+
     public String uploadFinancialEntityPhoto(MultipartFile file, String entityCode) throws IOException {
         Storage storage = getStorage();
         Bucket bucket = storage.get(bucketName);
@@ -225,4 +504,5 @@ public class FirebaseStorageService {
                 "temp", "true"
         );
     }
+
 }
\ No newline at end of file
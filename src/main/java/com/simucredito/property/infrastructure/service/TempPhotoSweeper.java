@@ -0,0 +1,67 @@
+package com.simucredito.property.infrastructure.service;
+
+import com.simucredito.configuration.infrastructure.service.AdvisoryLockService;
+import com.simucredito.property.domain.repository.PropertyPhotoRepository;
+import com.simucredito.property.domain.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TempPhotoSweeper {
+
+    private static final long SWEEP_LOCK_KEY = AdvisoryLockService.keyFor("simucredito.temp-photo-sweeper");
+
+    private final FirebaseStorageService firebaseStorageService;
+    private final PropertyRepository propertyRepository;
+    private final PropertyPhotoRepository propertyPhotoRepository;
+    private final AdvisoryLockService advisoryLockService;
+
+    /**
+     * Limpieza periódica de fotos temporales expiradas. Solo el nodo que obtiene el advisory lock ejecuta el barrido.
+     */
+    @Scheduled(fixedDelayString = "${firebase.temp-photos.sweep-interval-ms:3600000}",
+            initialDelayString = "${firebase.temp-photos.sweep-initial-delay-ms:300000}")
+    public void sweepExpiredTempPhotos() {
+        try {
+            boolean ran = advisoryLockService.runIfLeader(SWEEP_LOCK_KEY, this::sweep);
+            if (!ran) {
+                log.debug("Temp photo sweep skipped, another node holds the sweeper lock");
+            }
+        } catch (Exception e) {
+            log.error("Temp photo sweep failed", e);
+        }
+    }
+
+    private void sweep() {
+        Set<String> referencedPhotoIds = findReferencedTempPhotoIds();
+        try {
+            int deleted = firebaseStorageService.purgeExpiredTempPhotos(LocalDateTime.now(), referencedPhotoIds::contains);
+            log.info("Temp photo sweep completed: {} expired photos deleted", deleted);
+        } catch (IOException e) {
+            log.warn("Temp photo sweep aborted, storage not available: {}", e.getMessage());
+        }
+    }
+
+    private Set<String> findReferencedTempPhotoIds() {
+        Set<String> photoIds = new HashSet<>(propertyPhotoRepository.findTempPhotoIds());
+        // Inmuebles aún no migrados a property_photos
+        for (String photos : propertyRepository.findPhotosReferencingTempStorage()) {
+            for (String url : photos.split(",")) {
+                String photoId = firebaseStorageService.extractPhotoId(url);
+                if (photoId != null) {
+                    photoIds.add(photoId);
+                }
+            }
+        }
+        return photoIds;
+    }
+}
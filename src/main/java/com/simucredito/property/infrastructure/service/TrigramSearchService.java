@@ -0,0 +1,136 @@
+package com.simucredito.property.infrastructure.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Soporte de búsqueda difusa por trigramas. La extensión pg_trgm es un requisito de la base (la crea el dueño con
+ * CREATE EXTENSION pg_trgm, ver README); al arrancar solo se detecta y, si está, se crean los índices GIN sobre los
+ * nombres buscables. Sin ella, o en otras bases (H2), el mismo ranking se calcula en memoria sobre un número acotado
+ * de candidatos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrigramSearchService implements CommandLineRunner {
+
+    public static final double MIN_SIMILARITY = 0.3;
+    // Candidatos del ranking en memoria: los más recientes del usuario
+    public static final int MAX_IN_MEMORY_CANDIDATES = 2_000;
+
+    private static final List<String> TRIGRAM_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_inmuebles_nombre_proyecto_trgm ON inmuebles " +
+                    "USING gin (lower(nombre_proyecto) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_personas_nombre_completo_trgm ON personas " +
+                    "USING gin (lower(nombres || ' ' || apellidos) gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean available = false;
+
+    @Override
+    public void run(String... args) {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgres)) {
+            log.info("Trigram indexes not supported by this database, fuzzy search will rank in memory");
+            return;
+        }
+
+        Boolean installed = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+        if (!Boolean.TRUE.equals(installed)) {
+            log.warn("Extension pg_trgm is not installed (run CREATE EXTENSION pg_trgm as the database owner); "
+                    + "fuzzy search will rank the latest {} records in memory", MAX_IN_MEMORY_CANDIDATES);
+            return;
+        }
+
+        try {
+            TRIGRAM_INDEXES.forEach(jdbcTemplate::execute);
+            available = true;
+            log.info("Trigram indexes ready for fuzzy search");
+        } catch (Exception e) {
+            log.warn("Could not create trigram indexes, fuzzy search will rank in memory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si las consultas pueden usar los operadores e índices de pg_trgm
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Ranking en memoria equivalente a GREATEST(similarity, word_similarity) de pg_trgm
+     */
+    public <T> List<T> rank(List<T> candidates, Function<T, String> text, String query, int limit) {
+        record Scored<T>(T item, double score) {
+        }
+
+        List<Scored<T>> scored = new ArrayList<>();
+        for (T candidate : candidates) {
+            double score = score(query, text.apply(candidate));
+            if (score >= MIN_SIMILARITY) {
+                scored.add(new Scored<>(candidate, score));
+            }
+        }
+        return scored.stream()
+                .sorted(Comparator.comparingDouble((Scored<T> s) -> s.score()).reversed())
+                .limit(limit)
+                .map(Scored::item)
+                .toList();
+    }
+
+    public static double score(String query, String text) {
+        if (query == null || text == null) {
+            return 0.0;
+        }
+        double best = similarity(query, text);
+        for (String word : text.toLowerCase().split("\\s+")) {
+            best = Math.max(best, similarity(query, word));
+        }
+        return best;
+    }
+
+    /**
+     * Similitud de trigramas al estilo pg_trgm: |A ∩ B| / |A ∪ B|
+     */
+    public static double similarity(String a, String b) {
+        Set<String> trigramsA = trigrams(a);
+        Set<String> trigramsB = trigrams(b);
+        if (trigramsA.isEmpty() || trigramsB.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> intersection = new HashSet<>(trigramsA);
+        intersection.retainAll(trigramsB);
+        int union = trigramsA.size() + trigramsB.size() - intersection.size();
+        return (double) intersection.size() / union;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : value.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
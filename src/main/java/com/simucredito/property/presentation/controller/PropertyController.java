@@ -2,6 +2,8 @@ package com.simucredito.property.presentation.controller;
 
 import com.simucredito.property.application.dto.CreatePropertyRequestDTO;
 import com.simucredito.property.application.dto.PropertyDTO;
+import com.simucredito.property.application.dto.PropertyPhotoDTO;
+import com.simucredito.property.application.dto.PropertySearchCriteriaDTO;
 import com.simucredito.property.application.dto.UploadPhotosResponseDTO;
 import com.simucredito.property.application.service.PhotoService;
 import com.simucredito.property.application.service.PropertyService;
@@ -77,8 +79,24 @@ public class PropertyController {
         return ResponseEntity.ok(property);
     }
 
+    @GetMapping("/{propertyId}/photos")
+    @Operation(summary = "Get property photos", description = "Get the ordered photos of a property")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Photos retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = PropertyPhotoDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Property not found",
+            content = @Content),
+        @ApiResponse(responseCode = "403", description = "Access denied",
+            content = @Content)
+    })
+    public ResponseEntity<List<PropertyPhotoDTO>> getPropertyPhotos(@PathVariable Long propertyId) {
+        List<PropertyPhotoDTO> photos = propertyService.getPropertyPhotos(propertyId);
+        return ResponseEntity.ok(photos);
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search properties", description = "Search properties with various filters")
+    @Operation(summary = "Search properties", description = "Search properties combining all provided filters, with optional sorting and pagination")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Properties found successfully",
             content = @Content(mediaType = "application/json",
@@ -90,10 +108,46 @@ public class PropertyController {
             @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Property type ID") @RequestParam(required = false) Long propertyTypeId,
             @Parameter(description = "Sustainable property filter") @RequestParam(required = false) Boolean isSustainable,
-            @Parameter(description = "Property status") @RequestParam(required = false) String status) {
+            @Parameter(description = "Property status") @RequestParam(required = false) String status,
+            @Parameter(description = "Minimum number of bedrooms") @RequestParam(required = false) Integer minBedrooms,
+            @Parameter(description = "Maximum number of bedrooms") @RequestParam(required = false) Integer maxBedrooms,
+            @Parameter(description = "Minimum built area") @RequestParam(required = false) BigDecimal minArea,
+            @Parameter(description = "Maximum built area") @RequestParam(required = false) BigDecimal maxArea,
+            @Parameter(description = "Sort option (newest, oldest, price_asc, price_desc, area_desc, name)") @RequestParam(required = false) String sort,
+            @Parameter(description = "Page number (0-based)") @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size (omit to return all results)") @RequestParam(required = false) Integer size) {
 
-        List<PropertyDTO> properties = propertyService.searchProperties(
-                projectName, minPrice, maxPrice, propertyTypeId, isSustainable, status);
+        PropertySearchCriteriaDTO criteria = PropertySearchCriteriaDTO.builder()
+                .projectName(projectName)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .propertyTypeId(propertyTypeId)
+                .isSustainable(isSustainable)
+                .status(status)
+                .minBedrooms(minBedrooms)
+                .maxBedrooms(maxBedrooms)
+                .minArea(minArea)
+                .maxArea(maxArea)
+                .sort(sort)
+                .page(page)
+                .size(size)
+                .build();
+
+        List<PropertyDTO> properties = propertyService.searchProperties(criteria);
+        return ResponseEntity.ok(properties);
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Fuzzy search properties by project name", description = "Typo-tolerant search by project name, ranked by trigram similarity")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Properties found successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = PropertyDTO.class)))
+    })
+    public ResponseEntity<List<PropertyDTO>> fuzzySearchProperties(
+            @Parameter(description = "Project name, possibly misspelled") @RequestParam String query,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") int limit) {
+        List<PropertyDTO> properties = propertyService.fuzzySearchProperties(query, limit);
         return ResponseEntity.ok(properties);
     }
 
@@ -0,0 +1,53 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffordabilityRequestDTO {
+
+    private Long clientId; // Se usa su familyNetIncome si no se envía uno explícito
+
+    @DecimalMin(value = "0.01", message = "Family net income must be greater than 0")
+    private BigDecimal familyNetIncome; // Optional, tiene prioridad sobre el del cliente
+
+    @NotNull(message = "Maximum payment-to-income percentage is required")
+    @DecimalMin(value = "0.01", message = "Payment-to-income percentage must be greater than 0")
+    @DecimalMax(value = "100.00", message = "Payment-to-income percentage cannot exceed 100")
+    private BigDecimal maxPaymentToIncomePercentage; // Ej. 30 = la cuota no supera el 30% del ingreso
+
+    @NotNull(message = "Program type is required")
+    @Pattern(regexp = "mivivienda|techo_propio", message = "Program type must be 'mivivienda' or 'techo_propio'")
+    private String programType;
+
+    @Pattern(regexp = "TRADITIONAL|SUSTAINABLE|INTEGRATOR|INTEGRATOR_SUSTAINABLE",
+             message = "Bonus subtype must be TRADITIONAL, SUSTAINABLE, INTEGRATOR or INTEGRATOR_SUSTAINABLE")
+    private String bonusSubtype; // Optional, default TRADITIONAL; subtipo BBP al que postula la familia
+
+    private Boolean isSustainable; // Optional, default false; si la vivienda califica como sostenible
+
+    @DecimalMin(value = "0.00", message = "State contribution cannot be negative")
+    private BigDecimal stateContribution; // Optional, si se envía no se buscan bonos por precio
+
+    @DecimalMin(value = "0.00", message = "Initial payment cannot be negative")
+    private BigDecimal initialPayment; // Optional, default 0
+
+    @DecimalMin(value = "0.00", message = "Initial costs cannot be negative")
+    private BigDecimal initialCosts; // Optional, default 0; se financian junto con el préstamo
+
+    @Valid
+    @NotNull(message = "Financing details are required")
+    private CreateSimulationRequestDTO.FinancingDetails financingDetails;
+}
@@ -0,0 +1,34 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffordabilityResponseDTO {
+
+    private BigDecimal familyNetIncome;
+    private BigDecimal maxMonthlyPayment;
+    private BigDecimal maxFinancingAmount;
+    private BigDecimal maxPropertyPrice;
+    private BigDecimal stateContribution;
+    private BigDecimal tcea; // Del préstamo máximo
+    private Solution principalSolution;
+    private Solution priceSolution;
+    private CreateSimulationRequestDTO.CalculatedValues calculatedValues; // Listos para crear la simulación
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Solution {
+        private String method; // "closed-form", "bracketing" o "bands"
+        private Integer iterations;
+    }
+}
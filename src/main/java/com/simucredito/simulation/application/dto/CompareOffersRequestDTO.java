@@ -0,0 +1,27 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompareOffersRequestDTO {
+
+    @Valid
+    @NotNull(message = "Base request is required")
+    private CreateSimulationRequestDTO baseRequest; // Tasa y seguros se reemplazan con los de cada entidad
+
+    @Pattern(regexp = "tcea|totalCost|van|monthlyPayment", message = "Rank criterion must be 'tcea', 'totalCost', 'van' or 'monthlyPayment'")
+    private String rankBy; // Optional, default "tcea"
+
+    private Boolean persist; // Optional, guarda una simulación por entidad
+
+    private Boolean includeSchedule; // Optional
+}
@@ -1,5 +1,6 @@
 package com.simucredito.simulation.application.dto;
 
+import com.simucredito.simulation.domain.model.PrecisionMode;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +33,8 @@ public class CreateSimulationRequestDTO {
     @NotNull(message = "Financing details are required")
     private FinancingDetails financingDetails;
 
+    private PrecisionMode precision; // Optional; por defecto simulation.precision
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -93,6 +96,13 @@ public class CreateSimulationRequestDTO {
 
         @NotNull(message = "Insurance is required")
         private Insurance insurance;
+
+        @Pattern(regexp = "french|german|american|balloon", message = "Amortization method must be 'french', 'german', 'american' or 'balloon'")
+        private String amortizationMethod; // Optional, default french
+
+        @DecimalMin(value = "0.00", inclusive = false, message = "Balloon percentage must be positive")
+        @DecimalMax(value = "100.00", inclusive = false, message = "Balloon percentage must be lower than 100")
+        private BigDecimal balloonPercentage; // Only for balloon; % of the financing amount
     }
 
     @Data
@@ -0,0 +1,58 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * La tasa de baseRequest es el punto de partida. La tasa de mercado (TEA) sigue un proceso con reversión a la media
+ * paso a paso mensual y el crédito la adopta cada repricingMonths meses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonteCarloRequestDTO {
+
+    @Valid
+    @NotNull(message = "Base request is required")
+    private CreateSimulationRequestDTO baseRequest;
+
+    @Builder.Default
+    @Min(value = 100, message = "At least 100 paths are required")
+    @Max(value = 200000, message = "Paths cannot exceed 200000")
+    private Integer paths = 10000;
+
+    private Long seed; // Si no se envía se genera uno y se devuelve para reproducir la corrida
+
+    @Builder.Default
+    @DecimalMin(value = "0.0", message = "Volatility cannot be negative")
+    @DecimalMax(value = "20.0", message = "Volatility cannot exceed 20 percentage points")
+    private BigDecimal volatility = new BigDecimal("1.5"); // Puntos porcentuales de TEA por año
+
+    @Builder.Default
+    @DecimalMin(value = "0.0", message = "Mean reversion cannot be negative")
+    @DecimalMax(value = "5.0", message = "Mean reversion cannot exceed 5")
+    private BigDecimal meanReversion = new BigDecimal("0.2"); // Por año
+
+    @DecimalMin(value = "0.0", message = "Long-run rate cannot be negative")
+    private BigDecimal longRunRate; // TEA en porcentaje; por defecto la TEA inicial
+
+    @Builder.Default
+    @DecimalMin(value = "0.0", message = "Rate floor cannot be negative")
+    private BigDecimal rateFloor = BigDecimal.ZERO; // TEA mínima en porcentaje
+
+    @Builder.Default
+    @Min(value = 1, message = "Repricing interval must be at least 1 month")
+    @Max(value = 360, message = "Repricing interval cannot exceed 360 months")
+    private Integer repricingMonths = 12;
+}
@@ -0,0 +1,38 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonteCarloResponseDTO {
+
+    private Integer paths;
+    private Long seed;
+    private BigDecimal relativeAccuracy; // Error relativo máximo de los percentiles
+    private BigDecimal baselineMonthlyPayment; // Con la tasa inicial fija todo el plazo
+    private BigDecimal baselineTotalInterest;
+    private BigDecimal baselineTcea;
+    private List<Distribution> distributions;
+    private Long elapsedMillis;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Distribution {
+        private String metric; // maxMonthlyPayment, paymentShock (%), totalInterest, tcea
+        private BigDecimal mean;
+        private BigDecimal min;
+        private BigDecimal max;
+        private Map<String, BigDecimal> percentiles; // p1, p5, p25, p50, p75, p95, p99
+    }
+}
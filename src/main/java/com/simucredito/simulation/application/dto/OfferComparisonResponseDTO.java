@@ -0,0 +1,49 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferComparisonResponseDTO {
+
+    private String rankBy;
+    private BigDecimal financingAmountInPen;
+    private Integer termMonths;
+    private Integer evaluatedEntities;
+    private List<Offer> offers;
+    private LocalDateTime generatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Offer {
+        private Integer rank;
+        private Long financialEntityId;
+        private String entityName;
+        private String entityCode;
+        private BigDecimal interestRate;
+        private String interestRateType;
+        private String capitalization;
+        private BigDecimal tem;
+        private BigDecimal monthlyPayment;
+        private BigDecimal tcea;
+        private BigDecimal van;
+        private BigDecimal tir;
+        private BigDecimal totalInterest;
+        private BigDecimal totalInsurance;
+        private BigDecimal totalPaid;
+        private BigDecimal totalCost; // Total pagado menos el monto financiado
+        private String simulationId; // Solo si persist = true
+        private List<AmortizationEntryDTO> schedule; // Solo si includeSchedule = true
+    }
+}
@@ -0,0 +1,42 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Flujos esperados de la cartera por mes calendario: la posición m de cada arreglo corresponde a startMonth + m.
+ * Los montos son lo que cobra la entidad (cuotas de los prestatarios).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioCashFlowDTO {
+
+    private Long userId;
+    private Long financialEntityId;
+    private String programType;
+    private String currency;
+    private List<String> statuses;
+
+    private Long simulations;
+    private BigDecimal financedAmount;
+    private Long scheduleRows; // Filas futuras leídas
+
+    private String startMonth; // yyyy-MM
+    private double[] principal;
+    private double[] interest;
+    private double[] insurance; // Desgravamen + seguro del inmueble
+    private double[] costs; // Comisiones, gastos administrativos y envío de estado de cuenta
+    private double[] total;
+    private double[] outstandingBalance; // Saldo pendiente al cierre de cada mes
+
+    private BigDecimal cokMonthlyRate;
+    private BigDecimal npv; // Valor presente de total al COK; el mes inicial no se descuenta
+    private Long elapsedMillis;
+}
@@ -0,0 +1,52 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentRequestDTO {
+
+    @Valid
+    @NotEmpty(message = "At least one prepayment is required")
+    @Size(max = 60, message = "Cannot apply more than 60 prepayments at once")
+    private List<Event> prepayments;
+
+    @Builder.Default
+    private Boolean includeSchedule = true;
+
+    /**
+     * El pago anticipado se abona al inicio del periodo: el interés de ese periodo ya se calcula sobre el saldo reducido
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        @NotNull(message = "Prepayment period is required")
+        @Min(value = 1, message = "Prepayment period must be at least 1")
+        private Integer period;
+
+        @NotNull(message = "Prepayment amount is required")
+        @DecimalMin(value = "0.01", message = "Prepayment amount must be greater than 0")
+        private BigDecimal amount;
+
+        @NotNull(message = "Prepayment mode is required")
+        @Pattern(regexp = "reduce_term|reduce_payment", message = "Mode must be 'reduce_term' or 'reduce_payment'")
+        private String mode;
+    }
+}
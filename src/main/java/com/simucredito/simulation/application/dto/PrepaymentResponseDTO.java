@@ -0,0 +1,43 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentResponseDTO {
+
+    private Long simulationId;
+    private List<AppliedPrepayment> prepayments;
+    private Integer originalTermMonths;
+    private Integer newTermMonths;
+    private BigDecimal originalMonthlyPayment;
+    private BigDecimal newMonthlyPayment; // Cuota total del último tramo recalculado
+    private BigDecimal originalTotalInterest;
+    private BigDecimal newTotalInterest;
+    private BigDecimal interestSaved;
+    private BigDecimal tcea;
+    private BigDecimal van;
+    private BigDecimal tir; // Mensual
+    private List<AmortizationEntryDTO> schedule;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AppliedPrepayment {
+        private Integer period;
+        private BigDecimal amount;
+        private String mode;
+        private BigDecimal balanceBefore;
+        private BigDecimal balanceAfter;
+        private Integer remainingPeriods; // Filas regeneradas, incluido el periodo del pago anticipado
+    }
+}
@@ -0,0 +1,57 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteTableDTO {
+
+    private String version; // SHA-256 del contenido: cambia solo cuando cambian las tablas
+    private LocalDateTime generatedAt;
+    private List<EntityTable> entities;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntityTable {
+        private Long financialEntityId;
+        private String entityName;
+        private String entityCode;
+        private BigDecimal tem; // En porcentaje
+        private BigDecimal lifeInsuranceRate; // Mensual, en decimal
+        private List<TermQuote> terms;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TermQuote {
+        private Integer termMonths;
+        private BigDecimal paymentPer1000; // Cuota (capital + interés) por cada 1,000 financiados
+        private BigDecimal baselineTcea; // Tasa + desgravamen + comisión de desembolso, en porcentaje
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quote {
+        private Long financialEntityId;
+        private Integer termMonths;
+        private BigDecimal amount;
+        private BigDecimal monthlyPayment;
+        private BigDecimal baselineTcea;
+        private String version;
+    }
+}
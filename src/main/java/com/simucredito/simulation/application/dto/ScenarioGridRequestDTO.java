@@ -0,0 +1,52 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioGridRequestDTO {
+
+    @Valid
+    @NotNull(message = "Base request is required")
+    private CreateSimulationRequestDTO baseRequest; // Tipo, periodo y capitalización de la tasa, seguros, gracia y costos
+
+    @Valid
+    @NotNull(message = "Interest rate axis is required")
+    private Axis interestRate; // Mismo tipo/periodo que la tasa de baseRequest
+
+    @Valid
+    @NotNull(message = "Term axis is required")
+    private Axis termYears; // Valores enteros entre 1 y 30
+
+    @Valid
+    @NotNull(message = "Initial payment axis is required")
+    private Axis initialPayment; // El monto financiado varía en sentido contrario a la cuota inicial
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Axis {
+        @NotNull(message = "Axis start is required")
+        private BigDecimal from;
+
+        @NotNull(message = "Axis end is required")
+        private BigDecimal to;
+
+        @NotNull(message = "Axis points are required")
+        @Min(value = 1, message = "Axis must have at least 1 point")
+        @Max(value = 200, message = "Axis cannot exceed 200 points")
+        private Integer points;
+    }
+}
@@ -0,0 +1,29 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Matrices densas aplanadas en orden [tasa][plazo][cuota inicial]:
+ * índice = (iTasa * plazos + iPlazo) * cuotasIniciales + iCuotaInicial. Celdas sin monto a financiar quedan en null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioGridResponseDTO {
+
+    private List<BigDecimal> interestRates;
+    private List<Integer> termYears;
+    private List<BigDecimal> initialPayments;
+    private int[] shape;
+    private Double[] monthlyPayment;
+    private Double[] tcea;
+    private Double[] totalCost; // Total pagado menos el monto financiado
+    private Long elapsedMillis;
+}
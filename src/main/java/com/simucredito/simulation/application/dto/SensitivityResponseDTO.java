@@ -0,0 +1,36 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensitivityResponseDTO {
+
+    private BigDecimal monthlyPayment;
+    private BigDecimal tcea;
+    private BigDecimal van;
+    private BigDecimal totalInterest;
+    private List<Sensitivity> sensitivities;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Sensitivity {
+        private String parameter; // "interestRate", "termYears", "graceMonths", "desgravamenRate", "propertyInsuranceRate"
+        private String method; // "analytic" (derivada exacta) o "discrete" (diferencia con el siguiente valor permitido)
+        private BigDecimal step; // Variación del parámetro a la que corresponden los cambios
+        private BigDecimal monthlyPayment;
+        private BigDecimal tcea;
+        private BigDecimal van;
+        private BigDecimal totalInterest;
+    }
+}
@@ -0,0 +1,56 @@
+package com.simucredito.simulation.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StressRunDTO {
+
+    private Long id;
+    private String status;
+    private List<Integer> shocksBps;
+    private Long userId;
+    private Long financialEntityId;
+    private String programType;
+    private String currency;
+    private Long totalSimulations;
+    private Long processedSimulations;
+    private Long skippedSimulations;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private List<ShockResult> results; // Parciales mientras la corrida avanza
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShockResult {
+        private Integer shockBps;
+        private List<MonteCarloResponseDTO.Distribution> distributions; // paymentChange, paymentChangePercentage, totalInterestChange, tceaChange
+        private List<AffectedSimulation> mostAffected; // Ordenado por variación porcentual de la cuota
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AffectedSimulation {
+        private Long simulationId;
+        private Long clientId;
+        private BigDecimal monthlyPayment;
+        private BigDecimal paymentChange;
+        private BigDecimal paymentChangePercentage;
+        private BigDecimal tceaChange;
+    }
+}
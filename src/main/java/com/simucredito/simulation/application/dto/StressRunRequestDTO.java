@@ -0,0 +1,42 @@
+package com.simucredito.simulation.application.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StressRunRequestDTO {
+
+    @NotEmpty(message = "At least one rate shock is required")
+    @Size(max = 20, message = "Cannot run more than 20 shocks at once")
+    private List<@NotNull @Min(value = -1000, message = "Shock cannot be lower than -1000 bp")
+            @Max(value = 3000, message = "Shock cannot exceed 3000 bp") Integer> shocksBps; // Sobre la TEA
+
+    private Long userId; // Solo administradores pueden omitirlo o usar otro agente; para los demás es el propio
+
+    private Long financialEntityId;
+
+    @Pattern(regexp = "mivivienda|techo_propio", message = "Program type must be 'mivivienda' or 'techo_propio'")
+    private String programType;
+
+    @Builder.Default
+    @Pattern(regexp = "PEN|USD", message = "Currency must be 'PEN' or 'USD'")
+    private String currency = "PEN";
+
+    @Builder.Default
+    @Min(value = 1, message = "Top N must be at least 1")
+    @Max(value = 100, message = "Top N cannot exceed 100")
+    private Integer topN = 10;
+}
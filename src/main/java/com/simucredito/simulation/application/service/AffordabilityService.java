@@ -0,0 +1,251 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.client.application.service.ClientService;
+import com.simucredito.configuration.application.dto.BonusParameterDTO;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.AffordabilityRequestDTO;
+import com.simucredito.simulation.application.dto.AffordabilityResponseDTO;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import com.simucredito.simulation.domain.service.StandardAmortizationMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Búsqueda inversa: máximo préstamo y máximo precio de vivienda que admite el ingreso familiar.
+ * La cuota mensual total (la que muestra la simulación) es afín en el capital. Sin gracia se invierte la
+ * anualidad en forma cerrada: M = P·(a + d) + K. Con gracia, o con otro método de amortización, se acota la raíz
+ * y se refina con regula falsi (Illinois) sobre ScheduleKernel; con balón o bullet se exige que también la cuota
+ * final quepa en el ingreso. Para el precio, el bono BBP depende de la franja de precio, así que se revisa cada
+ * franja configurada del subtipo solicitado contra la condición precio − bono − aportes ≤ préstamo máximo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AffordabilityService {
+
+    private static final String CLOSED_FORM = "closed-form";
+    private static final String BRACKETING = "bracketing";
+    private static final String BANDS = "bands";
+    private static final String DEFAULT_BONUS_SUBTYPE = "TRADITIONAL";
+    private static final int MAX_ITERATIONS = 200;
+    private static final int MAX_BRACKET_DOUBLINGS = 40; // El capital inicial por 2^40: ninguna cuota razonable
+    private static final double PRINCIPAL_TOLERANCE = 0.005; // Medio céntimo
+
+    private final ClientService clientService;
+    private final SimulationService simulationService;
+    private final ScheduleKernel scheduleKernel;
+
+    public AffordabilityResponseDTO solve(AffordabilityRequestDTO request) {
+        BigDecimal income = resolveIncome(request);
+        BigDecimal maxPayment = income.multiply(request.getMaxPaymentToIncomePercentage())
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.DOWN);
+
+        CreateSimulationRequestDTO.FinancingDetails details = request.getFinancingDetails();
+        CreateSimulationRequestDTO.InterestRate interestRate = details.getInterestRate();
+        double monthlyRate = RateSpec.of(interestRate.getRate(), interestRate.getType(),
+                interestRate.getPeriod(), interestRate.getCapitalization()).tem().doubleValue();
+
+        PrincipalSearch principal = solvePrincipal(details, monthlyRate, maxPayment.doubleValue());
+        BigDecimal maxFinancing = BigDecimal.valueOf(principal.principal()).setScale(2, RoundingMode.DOWN);
+
+        BigDecimal initialPayment = request.getInitialPayment() != null ? request.getInitialPayment() : BigDecimal.ZERO;
+        BigDecimal initialCosts = request.getInitialCosts() != null ? request.getInitialCosts() : BigDecimal.ZERO;
+        // financiamiento = precio − aporte del Estado − cuota inicial + costos iniciales
+        BigDecimal ownFunds = initialPayment.subtract(initialCosts);
+
+        PriceSearch price = solvePrice(request, maxFinancing, ownFunds);
+        BigDecimal financingAtPrice = price.price().subtract(price.bonus()).subtract(ownFunds).max(BigDecimal.ZERO);
+
+        return AffordabilityResponseDTO.builder()
+                .familyNetIncome(income)
+                .maxMonthlyPayment(maxPayment)
+                .maxFinancingAmount(maxFinancing)
+                .maxPropertyPrice(price.price())
+                .stateContribution(price.bonus())
+                .tcea(principal.tcea() != null ? BigDecimal.valueOf(principal.tcea()).setScale(4, RoundingMode.HALF_UP) : null)
+                .principalSolution(new AffordabilityResponseDTO.Solution(principal.method(), principal.iterations()))
+                .priceSolution(new AffordabilityResponseDTO.Solution(price.method(), price.iterations()))
+                .calculatedValues(CreateSimulationRequestDTO.CalculatedValues.builder()
+                        .propertyPrice(price.price())
+                        .stateContribution(price.bonus())
+                        .initialPayment(initialPayment)
+                        .initialCosts(initialCosts)
+                        .financingAmount(financingAtPrice)
+                        .build())
+                .build();
+    }
+
+    private BigDecimal resolveIncome(AffordabilityRequestDTO request) {
+        if (request.getFamilyNetIncome() != null) {
+            return request.getFamilyNetIncome();
+        }
+        if (request.getClientId() == null) {
+            throw new IllegalArgumentException("Either clientId or familyNetIncome is required");
+        }
+        BigDecimal income = clientService.getClientById(request.getClientId()).getFamilyNetIncome();
+        if (income == null || income.signum() <= 0) {
+            throw new IllegalArgumentException("Client has no family net income registered");
+        }
+        return income;
+    }
+
+    private PrincipalSearch solvePrincipal(CreateSimulationRequestDTO.FinancingDetails details, double monthlyRate,
+                                           double maxPayment) {
+        int termMonths = details.getTermYears() * 12;
+        Integer graceValue = details.getGracePeriod().getDurationMonths();
+        int graceMonths = graceValue != null ? graceValue : 0;
+        if (graceMonths >= termMonths) {
+            throw new IllegalArgumentException("Grace period must be shorter than the loan term");
+        }
+
+        CreateSimulationRequestDTO.Insurance insurance = details.getInsurance();
+        double lifeRate = Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled())
+                ? insurance.getDesgravamen().getRate().doubleValue() : 0.0;
+        double propertyInsurance = Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled())
+                ? insurance.getPropertyInsurance().getValue().multiply(insurance.getPropertyInsurance().getRate()).doubleValue() : 0.0;
+        double fixedCosts = details.getMonthlyCosts().getConstantCommissions()
+                .add(details.getMonthlyCosts().getAdministrationCosts()).doubleValue()
+                + ("physical".equals(details.getStatementDelivery()) ? 10.0 : 0.0); // Igual que FinancialCalculator
+        double independentOfPrincipal = propertyInsurance + fixedCosts;
+        AmortizationMethod method = AmortizationMethod.of(details.getAmortizationMethod());
+        // Con balón o bullet la última cuota liquida el capital, así que es la que debe caber en el ingreso
+        boolean lumpSum = method.hasBalloon() || method == StandardAmortizationMethod.AMERICAN;
+        // Principal y tasa se completan en cada evaluación
+        ScheduleKernel.Terms shape = new ScheduleKernel.Terms(0.0, monthlyRate, termMonths, graceMonths,
+                details.getGracePeriod().getType(), lifeRate, propertyInsurance, fixedCosts,
+                method, SimulationService.balloonFraction(method, details.getBalloonPercentage()));
+
+        if (maxPayment <= independentOfPrincipal) {
+            return new PrincipalSearch(0.0, CLOSED_FORM, 0, null); // Seguros y comisiones ya consumen la cuota
+        }
+
+        double[] buffer = new double[termMonths + 1];
+        if (graceMonths == 0 && method == StandardAmortizationMethod.FRENCH) {
+            // Primera cuota = anualidad + desgravamen sobre el capital + costos fijos
+            double perUnit = scheduleKernel.annuity(1.0, monthlyRate, termMonths) + lifeRate;
+            double principal = (maxPayment - independentOfPrincipal) / perUnit;
+            return new PrincipalSearch(principal, CLOSED_FORM, 0, tcea(shape, principal, buffer));
+        }
+
+        // Con gracia, o con otro método (cuotas redondeadas al céntimo o balón), se acota la raíz
+        double low = 0.0;
+        double lowValue = independentOfPrincipal - maxPayment;
+        double high = (maxPayment - independentOfPrincipal) * termMonths; // La cuota nunca baja de capital / plazo
+        double highValue = payment(shape, high, buffer, lumpSum) - maxPayment;
+        int iterations = 0;
+        while (highValue < 0 && iterations < MAX_BRACKET_DOUBLINGS) {
+            low = high;
+            lowValue = highValue;
+            high *= 2;
+            highValue = payment(shape, high, buffer, lumpSum) - maxPayment;
+            iterations++;
+        }
+        if (highValue < 0) {
+            // La cuota evaluada no crece con el capital (p. ej. solo intereses a tasa 0): no hay préstamo máximo
+            throw new IllegalArgumentException("The monthly payment does not grow with the loan amount; "
+                    + "no maximum financing can be derived for these terms");
+        }
+
+        // Regula falsi con la modificación de Illinois: mantiene el intervalo y converge superlinealmente
+        int retainedSide = 0;
+        double root = low;
+        while (iterations < MAX_ITERATIONS && high - low > PRINCIPAL_TOLERANCE) {
+            iterations++;
+            root = (low * highValue - high * lowValue) / (highValue - lowValue);
+            double value = payment(shape, root, buffer, lumpSum) - maxPayment;
+            if (Math.abs(value) < 1e-9) {
+                break;
+            }
+            if (value < 0) {
+                low = root;
+                lowValue = value;
+                if (retainedSide == -1) {
+                    highValue /= 2;
+                }
+                retainedSide = -1;
+            } else {
+                high = root;
+                highValue = value;
+                if (retainedSide == 1) {
+                    lowValue /= 2;
+                }
+                retainedSide = 1;
+            }
+        }
+        // Nos quedamos del lado que cumple la cuota máxima
+        double principal = payment(shape, root, buffer, lumpSum) > maxPayment ? low : root;
+        return new PrincipalSearch(principal, BRACKETING, iterations, tcea(shape, principal, buffer));
+    }
+
+    /**
+     * Con bono fijo (enviado o Techo Propio) el precio sale directo. Con BBP el bono es constante dentro de cada
+     * franja [mínimo, máximo], así que en cada franja el mayor precio alcanzable es min(máximo, base + bono); se
+     * toma el mejor entre las franjas y el precio sin bono (base = préstamo máximo + aportes).
+     */
+    private PriceSearch solvePrice(AffordabilityRequestDTO request, BigDecimal maxFinancing, BigDecimal ownFunds) {
+        LocalDateTime now = LocalDateTime.now();
+        String subtype = request.getBonusSubtype() != null ? request.getBonusSubtype() : DEFAULT_BONUS_SUBTYPE;
+        boolean sustainable = Boolean.TRUE.equals(request.getIsSustainable());
+        if (request.getStateContribution() != null || "techo_propio".equalsIgnoreCase(request.getProgramType())) {
+            BigDecimal bonus = request.getStateContribution() != null
+                    ? request.getStateContribution()
+                    : orZero(simulationService.calculateApplicableBonus(request.getProgramType(), subtype,
+                            sustainable, BigDecimal.ZERO, now));
+            return new PriceSearch(maxFinancing.add(bonus).add(ownFunds).max(BigDecimal.ZERO), bonus, CLOSED_FORM, 0);
+        }
+
+        // Sin bono el precio es alcanzable; el bono solo puede ampliar el rango
+        BigDecimal base = maxFinancing.add(ownFunds).max(BigDecimal.ZERO);
+        BigDecimal best = base;
+        List<BonusParameterDTO> bands = simulationService.bonusBands(subtype, sustainable, now);
+        for (BonusParameterDTO band : bands) {
+            BigDecimal bonus = orZero(band.getBonusAmount());
+            BigDecimal candidate = base.add(bonus);
+            if (band.getMaxPropertyValue() != null) {
+                candidate = candidate.min(band.getMaxPropertyValue());
+            }
+            // Si aun con el bono no se llega al mínimo de la franja, la franja no es alcanzable
+            if (band.getMinPropertyValue() != null && candidate.compareTo(band.getMinPropertyValue()) < 0) {
+                continue;
+            }
+            best = best.max(candidate);
+        }
+        // Si las franjas se solapan el bono aplicable es el mayor, así que el precio elegido sigue cumpliendo
+        BigDecimal bonus = orZero(simulationService.calculateApplicableBonus(request.getProgramType(), subtype,
+                sustainable, best, now));
+        return new PriceSearch(best, bonus, BANDS, bands.size());
+    }
+
+    /**
+     * @param lumpSum si es true se compara la mayor cuota del cronograma (la final de balón o bullet)
+     */
+    private double payment(ScheduleKernel.Terms shape, double principal, double[] buffer, boolean lumpSum) {
+        ScheduleKernel.Outcome outcome = scheduleKernel.evaluate(shape.with(principal, shape.monthlyRate()), buffer);
+        return lumpSum ? outcome.maxPayment() : outcome.monthlyPayment();
+    }
+
+    private Double tcea(ScheduleKernel.Terms shape, double principal, double[] buffer) {
+        if (principal <= 0.0) {
+            return null;
+        }
+        return scheduleKernel.evaluate(shape.with(principal, shape.monthlyRate()), buffer).tcea();
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private record PrincipalSearch(double principal, String method, int iterations, Double tcea) {
+    }
+
+    private record PriceSearch(BigDecimal price, BigDecimal bonus, String method, int iterations) {
+    }
+}
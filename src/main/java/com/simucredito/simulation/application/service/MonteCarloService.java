@@ -0,0 +1,203 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.application.dto.MonteCarloRequestDTO;
+import com.simucredito.simulation.application.dto.MonteCarloResponseDTO;
+import com.simucredito.simulation.domain.service.QuantileSketch;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estrés de tasa variable por Monte Carlo. Cada trayectoria simula la TEA de mercado mes a mes
+ * (dr = κ(θ − r)dt + σ√dt·Z, con piso) y el crédito la adopta en cada reajuste; el cronograma se recorre con
+ * ScheduleKernel. Las trayectorias se reparten con fork-join: cada tarea parte su generador con
+ * SplittableRandom.split(), de modo que una misma semilla da el mismo resultado con cualquier paralelismo. Solo se
+ * guardan sketches de cuantiles por tarea, que se fusionan al volver; nunca la lista de trayectorias.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonteCarloService {
+
+    private static final double RELATIVE_ACCURACY = 0.005;
+    private static final int PATHS_PER_TASK = 64;
+    private static final double[] PERCENTILES = {1, 5, 25, 50, 75, 95, 99};
+
+    private final ScheduleKernel scheduleKernel;
+
+    public MonteCarloResponseDTO simulate(MonteCarloRequestDTO request) {
+        long start = System.nanoTime();
+        CreateSimulationRequestDTO.FinancingDetails details = request.getBaseRequest().getFinancingDetails();
+        CreateSimulationRequestDTO.InterestRate interestRate = details.getInterestRate();
+        double initialTem = RateSpec.of(interestRate.getRate(), interestRate.getType(),
+                interestRate.getPeriod(), interestRate.getCapitalization()).tem().doubleValue();
+        double initialTea = Math.pow(1.0 + initialTem, 12) - 1.0;
+
+        int termMonths = details.getTermYears() * 12;
+        Integer graceValue = details.getGracePeriod().getDurationMonths();
+        int graceMonths = graceValue != null ? graceValue : 0;
+        if (graceMonths >= termMonths) {
+            throw new IllegalArgumentException("Grace period must be shorter than the loan term");
+        }
+
+        CreateSimulationRequestDTO.Insurance insurance = details.getInsurance();
+        AmortizationMethod method = AmortizationMethod.of(details.getAmortizationMethod());
+        ScheduleKernel.Terms terms = new ScheduleKernel.Terms(
+                request.getBaseRequest().getCalculatedValues().getFinancingAmount().doubleValue(),
+                initialTem, termMonths, graceMonths, details.getGracePeriod().getType(),
+                Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled())
+                        ? insurance.getDesgravamen().getRate().doubleValue() : 0.0,
+                Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled())
+                        ? insurance.getPropertyInsurance().getValue().multiply(insurance.getPropertyInsurance().getRate()).doubleValue() : 0.0,
+                details.getMonthlyCosts().getConstantCommissions()
+                        .add(details.getMonthlyCosts().getAdministrationCosts()).doubleValue()
+                        + ("physical".equals(details.getStatementDelivery()) ? 10.0 : 0.0), // Igual que FinancialCalculator
+                method, SimulationService.balloonFraction(method, details.getBalloonPercentage()));
+        ScheduleKernel.Outcome baseline = scheduleKernel.evaluate(terms, new double[termMonths + 1]);
+
+        RateModel model = new RateModel(
+                initialTea,
+                request.getLongRunRate() != null ? percent(request.getLongRunRate()) : initialTea,
+                request.getMeanReversion().doubleValue(),
+                percent(request.getVolatility()),
+                percent(request.getRateFloor()),
+                request.getRepricingMonths());
+
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
+        Sketches sketches = ForkJoinPool.commonPool().invoke(new PathTask(terms, model, baseline.monthlyPayment(),
+                new SplittableRandom(seed), request.getPaths()));
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Monte Carlo stress of {} paths evaluated in {} ms", request.getPaths(), elapsedMillis);
+
+        return MonteCarloResponseDTO.builder()
+                .paths(request.getPaths())
+                .seed(seed)
+                .relativeAccuracy(BigDecimal.valueOf(RELATIVE_ACCURACY))
+                .baselineMonthlyPayment(round(baseline.monthlyPayment(), 2))
+                .baselineTotalInterest(round(baseline.totalInterest(), 2))
+                .baselineTcea(round(baseline.tcea(), 4))
+                .distributions(List.of(
+                        distribution("maxMonthlyPayment", sketches.maxPayment(), 2),
+                        distribution("paymentShock", sketches.paymentShock(), 4),
+                        distribution("totalInterest", sketches.totalInterest(), 2),
+                        distribution("tcea", sketches.tcea(), 4)))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    static MonteCarloResponseDTO.Distribution distribution(String metric, QuantileSketch sketch, int scale) {
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put("p" + (int) percentile, round(sketch.quantile(percentile / 100.0), scale));
+        }
+        return MonteCarloResponseDTO.Distribution.builder()
+                .metric(metric)
+                .mean(round(sketch.mean(), scale))
+                .min(round(sketch.min(), scale))
+                .max(round(sketch.max(), scale))
+                .percentiles(percentiles)
+                .build();
+    }
+
+    private static double percent(BigDecimal value) {
+        return value.doubleValue() / 100.0;
+    }
+
+    private static BigDecimal round(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Tasas en decimal (TEA); reversión y volatilidad anuales
+     */
+    private record RateModel(double initialTea, double longRunTea, double meanReversion, double volatility,
+                             double floor, int repricingMonths) {
+    }
+
+    private record Sketches(QuantileSketch maxPayment, QuantileSketch paymentShock, QuantileSketch totalInterest,
+                            QuantileSketch tcea) {
+
+        static Sketches empty() {
+            return new Sketches(new QuantileSketch(RELATIVE_ACCURACY), new QuantileSketch(RELATIVE_ACCURACY),
+                    new QuantileSketch(RELATIVE_ACCURACY), new QuantileSketch(RELATIVE_ACCURACY));
+        }
+
+        Sketches merge(Sketches other) {
+            maxPayment.merge(other.maxPayment);
+            paymentShock.merge(other.paymentShock);
+            totalInterest.merge(other.totalInterest);
+            tcea.merge(other.tcea);
+            return this;
+        }
+    }
+
+    private class PathTask extends RecursiveTask<Sketches> {
+        private final ScheduleKernel.Terms terms;
+        private final RateModel model;
+        private final double baselinePayment;
+        private final SplittableRandom random;
+        private final int paths;
+
+        PathTask(ScheduleKernel.Terms terms, RateModel model, double baselinePayment, SplittableRandom random, int paths) {
+            this.terms = terms;
+            this.model = model;
+            this.baselinePayment = baselinePayment;
+            this.random = random;
+            this.paths = paths;
+        }
+
+        @Override
+        protected Sketches compute() {
+            if (paths > PATHS_PER_TASK) {
+                int half = paths >>> 1;
+                PathTask left = new PathTask(terms, model, baselinePayment, random.split(), half);
+                PathTask right = new PathTask(terms, model, baselinePayment, random, paths - half);
+                left.fork();
+                return right.compute().merge(left.join());
+            }
+
+            Sketches sketches = Sketches.empty();
+            int termMonths = terms.termMonths();
+            double[] ratePath = new double[termMonths + 1];
+            double[] buffer = new double[termMonths + 1];
+            double dt = 1.0 / 12.0;
+            double diffusion = model.volatility() * Math.sqrt(dt);
+            for (int path = 0; path < paths; path++) {
+                double marketRate = model.initialTea();
+                double loanRate = terms.monthlyRate();
+                for (int period = 1; period <= termMonths; period++) {
+                    if (period > 1) {
+                        marketRate += model.meanReversion() * (model.longRunTea() - marketRate) * dt
+                                + diffusion * random.nextGaussian();
+                        marketRate = Math.max(model.floor(), marketRate);
+                        if ((period - 1) % model.repricingMonths() == 0) {
+                            loanRate = Math.pow(1.0 + marketRate, dt) - 1.0;
+                        }
+                    }
+                    ratePath[period] = loanRate;
+                }
+
+                ScheduleKernel.Outcome outcome = scheduleKernel.evaluate(terms, ratePath, buffer);
+                sketches.maxPayment().add(outcome.maxPayment());
+                sketches.paymentShock().add((outcome.maxPayment() / baselinePayment - 1.0) * 100.0);
+                sketches.totalInterest().add(outcome.totalInterest());
+                sketches.tcea().add(outcome.tcea());
+            }
+            return sketches;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.application.dto.FinancialEntityDTO;
+import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.AmortizationEntryDTO;
+import com.simucredito.simulation.application.dto.CompareOffersRequestDTO;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.application.dto.OfferComparisonResponseDTO;
+import com.simucredito.simulation.domain.model.ScheduleColumns;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compara la misma solicitud contra todas las entidades activas cuyos límites de monto y plazo la aceptan.
+ * Cada oferta usa la tasa (TEA o TNA con su capitalización) y los seguros de la entidad; los cálculos son
+ * independientes entre sí y se ejecutan en paralelo sin tocar la base de datos, salvo que se pida persistir.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OfferComparisonService {
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    private static final String DEFAULT_RANK = "tcea";
+
+    private final SimulationService simulationService;
+    private final ConfigurationService configurationService;
+
+    public OfferComparisonResponseDTO compareOffers(CompareOffersRequestDTO request) {
+        CreateSimulationRequestDTO base = request.getBaseRequest();
+        String rankBy = request.getRankBy() != null ? request.getRankBy() : DEFAULT_RANK;
+        Comparator<Candidate> ranking = comparatorFor(rankBy);
+        boolean includeSchedule = Boolean.TRUE.equals(request.getIncludeSchedule());
+
+        // Fija el tipo de cambio en la solicitud base: cada oferta, y la simulación guardada si persist = true, lo copia
+        BigDecimal amountInPen = simulationService.financingAmountInPen(base);
+        int termMonths = base.getFinancingDetails().getTermYears() * 12;
+        List<FinancialEntityDTO> entities = configurationService.getFinancialEntitiesForLoan(amountInPen, termMonths);
+
+        List<Candidate> candidates = entities.parallelStream()
+                .map(entity -> evaluate(base, entity))
+                .filter(Objects::nonNull)
+                .sorted(ranking)
+                .toList();
+
+        List<OfferComparisonResponseDTO.Offer> offers = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            OfferComparisonResponseDTO.Offer offer = toOffer(candidate, base, i + 1, includeSchedule);
+            if (Boolean.TRUE.equals(request.getPersist())) {
+                // Secuencial y en el hilo de la petición: createSimulation necesita el usuario autenticado
+                offer.setSimulationId(simulationService.createSimulation(candidate.request()).getSimulationId());
+            }
+            offers.add(offer);
+        }
+
+        return OfferComparisonResponseDTO.builder()
+                .rankBy(rankBy)
+                .financingAmountInPen(amountInPen.setScale(2, RoundingMode.HALF_UP))
+                .termMonths(termMonths)
+                .evaluatedEntities(entities.size())
+                .offers(offers)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Candidate evaluate(CreateSimulationRequestDTO base, FinancialEntityDTO entity) {
+        CreateSimulationRequestDTO entityRequest = forEntity(base, entity);
+        if (entityRequest == null) {
+            log.debug("Financial entity {} has no published rate, skipping", entity.getEntityCode());
+            return null;
+        }
+        try {
+            return new Candidate(entity, entityRequest, simulationService.calculate(entityRequest));
+        } catch (RuntimeException e) {
+            log.warn("Could not evaluate offer for financial entity {}: {}", entity.getEntityCode(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copia de la solicitud con la tasa y seguros de la entidad; null si la entidad no publica tasa
+     */
+    private CreateSimulationRequestDTO forEntity(CreateSimulationRequestDTO base, FinancialEntityDTO entity) {
+        RateSpec rateSpec = RateSpec.ofAnnual(entity.getInterestRateTea(), entity.getInterestRateTna(),
+                entity.getCapitalizationPeriod());
+        if (rateSpec == null) {
+            return null;
+        }
+        CreateSimulationRequestDTO.InterestRate interestRate = CreateSimulationRequestDTO.InterestRate.builder()
+                .rate(rateSpec.rate())
+                .type(rateSpec.type().name())
+                .period("annual")
+                .capitalization(rateSpec.type() == RateSpec.RateType.TN ? entity.getCapitalizationPeriod() : null)
+                .build();
+
+        CreateSimulationRequestDTO.FinancingDetails details = base.getFinancingDetails();
+        CreateSimulationRequestDTO.Desgravamen desgravamen = details.getInsurance().getDesgravamen();
+        CreateSimulationRequestDTO.PropertyInsurance propertyInsurance = details.getInsurance().getPropertyInsurance();
+
+        // Los porcentajes de la entidad están en %, la solicitud usa la tasa mensual en decimal
+        CreateSimulationRequestDTO.Insurance insurance = CreateSimulationRequestDTO.Insurance.builder()
+                .desgravamen(CreateSimulationRequestDTO.Desgravamen.builder()
+                        .enabled(desgravamen.getEnabled())
+                        .rate(entity.getLifeInsurancePercentage() != null
+                                ? percentageToRate(entity.getLifeInsurancePercentage()) : desgravamen.getRate())
+                        .build())
+                .propertyInsurance(CreateSimulationRequestDTO.PropertyInsurance.builder()
+                        .enabled(propertyInsurance.getEnabled())
+                        .rate(entity.getPropertyInsurancePercentage() != null
+                                ? percentageToRate(entity.getPropertyInsurancePercentage()) : propertyInsurance.getRate())
+                        .value(propertyInsurance.getValue())
+                        .build())
+                .build();
+
+        return CreateSimulationRequestDTO.builder()
+                .clientId(base.getClientId())
+                .propertyId(base.getPropertyId())
+                .programType(base.getProgramType())
+                .financialEntityId(entity.getId())
+                .precision(base.getPrecision())
+                .calculatedValues(base.getCalculatedValues())
+                .financingDetails(CreateSimulationRequestDTO.FinancingDetails.builder()
+                        .currency(details.getCurrency())
+                        .usdValue(details.getUsdValue())
+                        .termYears(details.getTermYears())
+                        .interestRate(interestRate)
+                        .opportunityCost(details.getOpportunityCost())
+                        .gracePeriod(details.getGracePeriod())
+                        .monthlyCosts(details.getMonthlyCosts())
+                        .statementDelivery(details.getStatementDelivery())
+                        .insurance(insurance)
+                        .amortizationMethod(details.getAmortizationMethod())
+                        .balloonPercentage(details.getBalloonPercentage())
+                        .build())
+                .build();
+    }
+
+    private OfferComparisonResponseDTO.Offer toOffer(Candidate candidate, CreateSimulationRequestDTO base,
+                                                     int rank, boolean includeSchedule) {
+        SimulationService.Calculation calculation = candidate.calculation();
+        CreateSimulationRequestDTO.InterestRate rate = candidate.request().getFinancingDetails().getInterestRate();
+        BigDecimal totalCost = calculation.getTotalPaid().subtract(base.getCalculatedValues().getFinancingAmount());
+
+        return OfferComparisonResponseDTO.Offer.builder()
+                .rank(rank)
+                .financialEntityId(candidate.entity().getId())
+                .entityName(candidate.entity().getEntityName())
+                .entityCode(candidate.entity().getEntityCode())
+                .interestRate(rate.getRate())
+                .interestRateType(rate.getType())
+                .capitalization(rate.getCapitalization())
+                .tem(calculation.getMonthlyRate().multiply(BigDecimal.valueOf(100)).setScale(4, RoundingMode.HALF_UP))
+                .monthlyPayment(calculation.getRepresentativeMonthlyPayment().setScale(2, RoundingMode.HALF_UP))
+                .tcea(calculation.getTcea().setScale(2, RoundingMode.HALF_UP))
+                .van(calculation.getVan().setScale(2, RoundingMode.HALF_UP))
+                .tir(calculation.getTir().setScale(4, RoundingMode.HALF_UP))
+                .totalInterest(calculation.getTotalInterest().setScale(2, RoundingMode.HALF_UP))
+                .totalInsurance(calculation.getTotalDesgravamen().add(calculation.getTotalRiskInsurance())
+                        .setScale(2, RoundingMode.HALF_UP))
+                .totalPaid(calculation.getTotalPaid().setScale(2, RoundingMode.HALF_UP))
+                .totalCost(totalCost.setScale(2, RoundingMode.HALF_UP))
+                .schedule(includeSchedule ? toSchedule(calculation) : null)
+                .build();
+    }
+
+    /**
+     * Filas del cronograma para la respuesta: las columnas se calculan sin redondear y aquí se llevan al céntimo
+     */
+    private List<AmortizationEntryDTO> toSchedule(SimulationService.Calculation calculation) {
+        ScheduleColumns columns = calculation.getColumns();
+        List<AmortizationEntryDTO> schedule = new ArrayList<>(columns.getLength());
+        for (int i = 0; i < columns.getLength(); i++) {
+            schedule.add(AmortizationEntryDTO.builder()
+                    .paymentNumber(i + 1)
+                    .tem(calculation.getMonthlyRate())
+                    .gracePeriod(columns.getGracePeriod()[i] ? 1 : 0)
+                    .initialBalance(money(columns.getBeginningBalance()[i]))
+                    .interest(money(columns.getInterest()[i]))
+                    .payment(money(columns.getScheduledPayment()[i]))
+                    .principal(money(columns.getPrincipal()[i]))
+                    .lifeInsurance(money(columns.getLifeInsurance()[i]))
+                    .propertyInsurance(money(columns.getPropertyInsurance()[i]))
+                    .commissions(money(columns.getCommissions()[i]))
+                    .adminCosts(money(columns.getAdminCosts()[i]))
+                    .deliveryCosts(money(columns.getDeliveryCosts()[i]))
+                    .finalBalance(money(columns.getEndingBalance()[i]))
+                    .cashFlow(money(-columns.getPayment()[i]))
+                    .build());
+        }
+        return schedule;
+    }
+
+    /**
+     * TCEA, costo total y cuota: menor es mejor. VAN (desde el prestatario): mayor es mejor. Otro criterio se rechaza
+     * antes de evaluar las entidades.
+     */
+    private Comparator<Candidate> comparatorFor(String rankBy) {
+        Comparator<Candidate> comparator = switch (rankBy) {
+            case "totalCost" -> Comparator.comparing(candidate -> candidate.calculation().getTotalPaid());
+            case "van" -> Comparator.comparing((Candidate candidate) -> candidate.calculation().getVan()).reversed();
+            case "monthlyPayment" -> Comparator.comparing(candidate -> candidate.calculation().getRepresentativeMonthlyPayment());
+            case "tcea" -> Comparator.comparing(candidate -> candidate.calculation().getTcea());
+            default -> throw new IllegalArgumentException(
+                    "Invalid rank criterion: " + rankBy + ". Must be 'tcea', 'totalCost', 'van' or 'monthlyPayment'");
+        };
+        return comparator.thenComparing(candidate -> candidate.entity().getEntityCode());
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentageToRate(BigDecimal percentage) {
+        return percentage.divide(BigDecimal.valueOf(100), MATH_CONTEXT);
+    }
+
+    private record Candidate(FinancialEntityDTO entity, CreateSimulationRequestDTO request,
+                             SimulationService.Calculation calculation) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.PortfolioCashFlowDTO;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.repository.AmortizationScheduleRepository;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Exposición agregada de una cartera (por agente, entidad financiera y/o programa). Las filas futuras de los
+ * cronogramas se leen por bloques con paginación por clave y se acumulan en céntimos en arreglos indexados por
+ * mes, así que la memoria depende del horizonte (30 años) y no de la cantidad de simulaciones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioService {
+
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int HORIZON_MONTHS = 30 * 12 + 1; // Una simulación creada hoy paga hasta el mes 360
+    private static final List<Simulation.SimulationStatus> DEFAULT_STATUSES =
+            List.of(Simulation.SimulationStatus.COMPLETED, Simulation.SimulationStatus.APPROVED);
+
+    private final SimulationRepository simulationRepository;
+    private final AmortizationScheduleRepository amortizationScheduleRepository;
+
+    public PortfolioCashFlowDTO aggregate(Long userId, Long financialEntityId, String programType, String currency,
+                                          List<Simulation.SimulationStatus> statuses, RateSpec cok) {
+        long start = System.nanoTime();
+        List<Simulation.SimulationStatus> scope = statuses == null || statuses.isEmpty() ? DEFAULT_STATUSES : statuses;
+        YearMonth startMonth = YearMonth.now();
+        LocalDate from = startMonth.atDay(1);
+
+        long[] principal = new long[HORIZON_MONTHS];
+        long[] interest = new long[HORIZON_MONTHS];
+        long[] insurance = new long[HORIZON_MONTHS];
+        long[] costs = new long[HORIZON_MONTHS];
+        long[] total = new long[HORIZON_MONTHS];
+        long[] balance = new long[HORIZON_MONTHS];
+
+        long rows = 0;
+        long skipped = 0;
+        long afterId = 0L;
+        List<Object[]> chunk;
+        do {
+            chunk = amortizationScheduleRepository.findPortfolioFlows(afterId, from, currency, scope, userId,
+                    financialEntityId, programType, PageRequest.of(0, CHUNK_SIZE));
+            for (Object[] row : chunk) {
+                afterId = (Long) row[0];
+                int month = (int) ChronoUnit.MONTHS.between(startMonth, YearMonth.from((LocalDate) row[1]));
+                if (month < 0 || month >= HORIZON_MONTHS) {
+                    skipped++;
+                    continue;
+                }
+                principal[month] += cents(row[2]);
+                interest[month] += cents(row[3]);
+                insurance[month] += cents(row[4]) + cents(row[5]);
+                costs[month] += cents(row[6]);
+                total[month] -= cents(row[7]); // cash_flow es negativo desde el prestatario
+                balance[month] += cents(row[8]);
+                rows++;
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        if (skipped > 0) {
+            log.warn("Skipped {} schedule rows outside the {}-month portfolio horizon", skipped, HORIZON_MONTHS);
+        }
+
+        // Se recorta el horizonte al último mes con flujos
+        int months = HORIZON_MONTHS;
+        while (months > 0 && total[months - 1] == 0 && balance[months - 1] == 0) {
+            months--;
+        }
+
+        double monthlyRate = cok.tem().doubleValue();
+        double discountFactor = 1.0 / (1.0 + monthlyRate);
+        double discount = 1.0;
+        double npv = 0.0;
+        for (int m = 0; m < months; m++) {
+            npv += total[m] * discount;
+            discount *= discountFactor;
+        }
+
+        List<Object[]> summary = simulationRepository.summarizePortfolio(currency, scope, userId, financialEntityId, programType);
+        Object[] totals = summary.isEmpty() ? new Object[]{0L, BigDecimal.ZERO} : summary.get(0);
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Portfolio of {} schedule rows aggregated in {} ms", rows, elapsedMillis);
+
+        return PortfolioCashFlowDTO.builder()
+                .userId(userId)
+                .financialEntityId(financialEntityId)
+                .programType(programType)
+                .currency(currency)
+                .statuses(scope.stream().map(Enum::name).toList())
+                .simulations((Long) totals[0])
+                .financedAmount(((BigDecimal) totals[1]).setScale(2, RoundingMode.HALF_UP))
+                .scheduleRows(rows)
+                .startMonth(startMonth.toString())
+                .principal(toAmounts(principal, months))
+                .interest(toAmounts(interest, months))
+                .insurance(toAmounts(insurance, months))
+                .costs(toAmounts(costs, months))
+                .total(toAmounts(total, months))
+                .outstandingBalance(toAmounts(balance, months))
+                .cokMonthlyRate(cok.tem())
+                .npv(BigDecimal.valueOf(npv / 100.0).setScale(2, RoundingMode.HALF_UP))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private static long cents(Object value) {
+        return value == null ? 0L : ((BigDecimal) value).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static double[] toAmounts(long[] cents, int months) {
+        double[] amounts = new double[months];
+        for (int m = 0; m < months; m++) {
+            amounts[m] = cents[m] / 100.0;
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,280 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.AmortizationEntryDTO;
+import com.simucredito.simulation.application.dto.PrepaymentRequestDTO;
+import com.simucredito.simulation.application.dto.PrepaymentResponseDTO;
+import com.simucredito.simulation.domain.model.AmortizationSchedule;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.FinancialCalculator;
+import com.simucredito.simulation.domain.service.StandardAmortizationMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Amortización anticipada sobre una simulación guardada. Los periodos 1..k−1 se toman tal cual del cronograma
+ * almacenado y solo se regenera la cola desde el saldo reducido con FinancialCalculator; con varios eventos se
+ * repite sobre el cronograma ya ajustado. El resultado no se persiste.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrepaymentService {
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    private static final String REDUCE_TERM = "reduce_term";
+
+    private final SimulationRepository simulationRepository;
+    private final FinancialCalculator financialCalculator;
+
+    @Transactional(readOnly = true)
+    public Optional<PrepaymentResponseDTO> applyPrepayments(Long simulationId, PrepaymentRequestDTO request) {
+        return simulationRepository.findById(simulationId).map(simulation -> apply(simulation, request));
+    }
+
+    private PrepaymentResponseDTO apply(Simulation simulation, PrepaymentRequestDTO request) {
+        if (simulation.getAmortizationSchedule() == null || simulation.getAmortizationSchedule().isEmpty()) {
+            throw new IllegalArgumentException("Simulation has no stored amortization schedule");
+        }
+        if (AmortizationMethod.of(simulation.getAmortizationMethod()) != StandardAmortizationMethod.FRENCH) {
+            // El recálculo del tramo restante usa la cuota francesa
+            throw new IllegalArgumentException("Prepayments are only supported for French method simulations");
+        }
+        List<PrepaymentRequestDTO.Event> events = new ArrayList<>(request.getPrepayments());
+        events.sort(Comparator.comparing(PrepaymentRequestDTO.Event::getPeriod));
+        for (int i = 1; i < events.size(); i++) {
+            if (events.get(i).getPeriod().equals(events.get(i - 1).getPeriod())) {
+                throw new IllegalArgumentException("Only one prepayment per period is allowed");
+            }
+        }
+
+        BigDecimal monthlyRate = RateSpec.of(simulation.getInterestRate(), simulation.getInterestRateType(),
+                simulation.getInterestRatePeriod(), simulation.getInterestRateCapitalization()).tem();
+
+        List<FinancialCalculator.AmortizationEntry> entries = new ArrayList<>();
+        simulation.getAmortizationSchedule().stream()
+                .sorted(Comparator.comparing(AmortizationSchedule::getPeriodNumber))
+                .forEach(row -> entries.add(toEntry(row)));
+        int originalTermMonths = entries.size();
+
+        List<PrepaymentResponseDTO.AppliedPrepayment> applied = new ArrayList<>();
+        for (PrepaymentRequestDTO.Event event : events) {
+            applied.add(applyEvent(simulation, entries, event, monthlyRate));
+        }
+
+        // Indicadores con los flujos actualizados
+        List<BigDecimal> cashFlows = new ArrayList<>(entries.size() + 1);
+        cashFlows.add(simulation.getFinancingAmount());
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        for (FinancialCalculator.AmortizationEntry entry : entries) {
+            cashFlows.add(entry.getPayment().negate());
+            totalInterest = totalInterest.add(entry.getInterestPayment());
+        }
+        BigDecimal tir = financialCalculator.calculateScheduleTIR(cashFlows);
+        BigDecimal tcea = tir.divide(BigDecimal.valueOf(100), MATH_CONTEXT).add(BigDecimal.ONE)
+                .pow(12, MATH_CONTEXT)
+                .subtract(BigDecimal.ONE)
+                .multiply(BigDecimal.valueOf(100));
+        BigDecimal opportunityCostRate = RateSpec.of(simulation.getOpportunityCostRate(), simulation.getOpportunityCostType(),
+                simulation.getOpportunityCostPeriod(), simulation.getOpportunityCostCapitalization()).tem();
+        BigDecimal van = financialCalculator.calculateScheduleVAN(cashFlows, opportunityCostRate);
+
+        PrepaymentRequestDTO.Event last = events.get(events.size() - 1);
+        BigDecimal originalTotalInterest = simulation.getTotalInterest();
+        return PrepaymentResponseDTO.builder()
+                .simulationId(simulation.getId())
+                .prepayments(applied)
+                .originalTermMonths(originalTermMonths)
+                .newTermMonths(entries.size())
+                .originalMonthlyPayment(simulation.getMonthlyPayment())
+                .newMonthlyPayment(paymentAfter(entries, last, graceMonths(simulation)).setScale(2, RoundingMode.HALF_UP))
+                .originalTotalInterest(originalTotalInterest)
+                .newTotalInterest(totalInterest.setScale(2, RoundingMode.HALF_UP))
+                .interestSaved(originalTotalInterest.subtract(totalInterest).setScale(2, RoundingMode.HALF_UP))
+                .tcea(tcea.setScale(2, RoundingMode.HALF_UP))
+                .van(van.setScale(2, RoundingMode.HALF_UP))
+                .tir(tir.setScale(4, RoundingMode.HALF_UP))
+                .schedule(Boolean.FALSE.equals(request.getIncludeSchedule()) ? null : toSchedule(entries, monthlyRate))
+                .build();
+    }
+
+    /**
+     * Reemplaza en entries los periodos k..N por la cola regenerada desde el saldo reducido
+     */
+    private PrepaymentResponseDTO.AppliedPrepayment applyEvent(Simulation simulation,
+                                                              List<FinancialCalculator.AmortizationEntry> entries,
+                                                              PrepaymentRequestDTO.Event event, BigDecimal monthlyRate) {
+        int period = event.getPeriod();
+        int termMonths = entries.size();
+        if (period >= termMonths) {
+            throw new IllegalArgumentException("Prepayment period must be before the last installment (" + termMonths + ")");
+        }
+
+        FinancialCalculator.AmortizationEntry previous = period > 1 ? entries.get(period - 2) : null;
+        BigDecimal balanceBefore = previous != null ? previous.getEndingBalance() : simulation.getFinancingAmount();
+        BigDecimal balanceAfter = balanceBefore.subtract(event.getAmount());
+        if (balanceAfter.signum() <= 0) {
+            throw new IllegalArgumentException("Prepayment in period " + period + " must be lower than the outstanding balance " +
+                    balanceBefore.setScale(2, RoundingMode.HALF_UP));
+        }
+
+        int graceMonths = graceMonths(simulation);
+        Integer remainingGrace = period <= graceMonths ? graceMonths - period + 1 : null;
+        int tailMonths = termMonths - period + 1;
+        BigDecimal basePayment;
+        if (REDUCE_TERM.equals(event.getMode())) {
+            if (remainingGrace != null) {
+                throw new IllegalArgumentException("Prepayments during the grace period can only reduce the payment");
+            }
+            // Se mantiene la cuota vigente y se acorta el plazo
+            basePayment = entries.get(period - 1).getScheduledPayment();
+            tailMonths = Math.min(tailMonths, periodsFor(balanceAfter, monthlyRate, basePayment));
+        } else {
+            basePayment = financialCalculator.calculateMonthlyPayment(balanceAfter, monthlyRate, tailMonths);
+        }
+
+        List<FinancialCalculator.AmortizationEntry> tail = financialCalculator.generateAmortizationSchedule(
+                balanceAfter,
+                monthlyRate,
+                basePayment,
+                tailMonths,
+                remainingGrace,
+                simulation.getGracePeriodType(),
+                Boolean.TRUE.equals(simulation.getDesgravamenEnabled()) ? simulation.getDesgravamenRate() : BigDecimal.ZERO,
+                Boolean.TRUE.equals(simulation.getPropertyInsuranceEnabled()) ? simulation.getPropertyInsuranceRate() : BigDecimal.ZERO,
+                simulation.getMonthlyCommissions(),
+                simulation.getAdministrationCosts(),
+                simulation.getStatementDelivery(),
+                simulation.getPropertyInsuranceValue());
+
+        BigDecimal cumulativePrincipal = previous != null ? previous.getCumulativePrincipal() : BigDecimal.ZERO;
+        BigDecimal cumulativeInterest = previous != null ? previous.getCumulativeInterest() : BigDecimal.ZERO;
+        entries.subList(period - 1, termMonths).clear();
+        for (FinancialCalculator.AmortizationEntry entry : tail) {
+            entries.add(shift(entry, period - 1, cumulativePrincipal.add(event.getAmount()), cumulativeInterest,
+                    entry.getPeriodNumber() == 1 ? event.getAmount() : BigDecimal.ZERO, balanceBefore));
+        }
+
+        return PrepaymentResponseDTO.AppliedPrepayment.builder()
+                .period(period)
+                .amount(event.getAmount())
+                .mode(event.getMode())
+                .balanceBefore(balanceBefore.setScale(2, RoundingMode.HALF_UP))
+                .balanceAfter(balanceAfter.setScale(2, RoundingMode.HALF_UP))
+                .remainingPeriods(tail.size())
+                .build();
+    }
+
+    /**
+     * Periodos para amortizar el saldo con la cuota dada: n = ⌈−ln(1 − S·i / C) / ln(1 + i)⌉
+     */
+    private static int periodsFor(BigDecimal balance, BigDecimal monthlyRate, BigDecimal payment) {
+        double rate = monthlyRate.doubleValue();
+        double ratio = balance.doubleValue() / payment.doubleValue();
+        if (rate == 0.0) {
+            return (int) Math.ceil(ratio);
+        }
+        return (int) Math.ceil(-Math.log(1.0 - ratio * rate) / Math.log(1.0 + rate) - 1e-9);
+    }
+
+    /**
+     * Renumera una fila de la cola y le suma los acumulados previos; la primera fila lleva además el pago anticipado
+     */
+    private static FinancialCalculator.AmortizationEntry shift(FinancialCalculator.AmortizationEntry entry, int offset,
+                                                               BigDecimal principalBefore, BigDecimal interestBefore,
+                                                               BigDecimal prepayment, BigDecimal balanceBefore) {
+        boolean first = prepayment.signum() > 0;
+        return FinancialCalculator.AmortizationEntry.builder()
+                .periodNumber(entry.getPeriodNumber() + offset)
+                .beginningBalance(first ? balanceBefore : entry.getBeginningBalance())
+                .scheduledPayment(entry.getScheduledPayment().add(prepayment))
+                .principalPayment(entry.getPrincipalPayment().add(prepayment))
+                .interestPayment(entry.getInterestPayment())
+                .payment(entry.getPayment().add(prepayment))
+                .lifeInsurancePayment(entry.getLifeInsurancePayment())
+                .propertyInsurancePayment(entry.getPropertyInsurancePayment())
+                .commissions(entry.getCommissions())
+                .adminCosts(entry.getAdminCosts())
+                .deliveryCosts(entry.getDeliveryCosts())
+                .endingBalance(entry.getEndingBalance())
+                .cumulativePrincipal(entry.getCumulativePrincipal().add(principalBefore))
+                .cumulativeInterest(entry.getCumulativeInterest().add(interestBefore))
+                .cashFlow(entry.getCashFlow().subtract(prepayment))
+                .isGracePeriod(entry.isGracePeriod())
+                .build();
+    }
+
+    /**
+     * Cuota total del primer periodo regular posterior al último pago anticipado
+     */
+    private static BigDecimal paymentAfter(List<FinancialCalculator.AmortizationEntry> entries,
+                                           PrepaymentRequestDTO.Event last, int graceMonths) {
+        int index = Math.max(last.getPeriod(), graceMonths);
+        if (index < entries.size()) {
+            return entries.get(index).getPayment();
+        }
+        return entries.get(last.getPeriod() - 1).getPayment().subtract(last.getAmount());
+    }
+
+    private static int graceMonths(Simulation simulation) {
+        return simulation.getGracePeriodDurationMonths() != null ? simulation.getGracePeriodDurationMonths() : 0;
+    }
+
+    private static FinancialCalculator.AmortizationEntry toEntry(AmortizationSchedule row) {
+        // En la tabla, payment es la cuota base y cash_flow el negativo de la cuota total
+        return FinancialCalculator.AmortizationEntry.builder()
+                .periodNumber(row.getPeriodNumber())
+                .beginningBalance(row.getInitialBalance())
+                .scheduledPayment(row.getPayment())
+                .principalPayment(row.getPrincipal())
+                .interestPayment(row.getInterest())
+                .payment(row.getCashFlow().negate())
+                .lifeInsurancePayment(row.getLifeInsurance())
+                .propertyInsurancePayment(row.getPropertyInsurance())
+                .commissions(row.getCommissions())
+                .adminCosts(row.getAdminCosts())
+                .deliveryCosts(row.getDeliveryCosts())
+                .endingBalance(row.getFinalBalance())
+                .cumulativePrincipal(row.getCumulativePrincipal())
+                .cumulativeInterest(row.getCumulativeInterest())
+                .cashFlow(row.getCashFlow())
+                .isGracePeriod(Boolean.TRUE.equals(row.getIsGracePeriod()))
+                .build();
+    }
+
+    private static List<AmortizationEntryDTO> toSchedule(List<FinancialCalculator.AmortizationEntry> entries,
+                                                         BigDecimal monthlyRate) {
+        List<AmortizationEntryDTO> schedule = new ArrayList<>(entries.size());
+        for (FinancialCalculator.AmortizationEntry entry : entries) {
+            schedule.add(AmortizationEntryDTO.builder()
+                    .paymentNumber(entry.getPeriodNumber())
+                    .tem(monthlyRate)
+                    .gracePeriod(entry.isGracePeriod() ? 1 : 0)
+                    .initialBalance(entry.getBeginningBalance().setScale(2, RoundingMode.HALF_UP))
+                    .interest(entry.getInterestPayment().setScale(2, RoundingMode.HALF_UP))
+                    .payment(entry.getScheduledPayment().setScale(2, RoundingMode.HALF_UP))
+                    .principal(entry.getPrincipalPayment().setScale(2, RoundingMode.HALF_UP))
+                    .lifeInsurance(entry.getLifeInsurancePayment().setScale(2, RoundingMode.HALF_UP))
+                    .propertyInsurance(entry.getPropertyInsurancePayment().setScale(2, RoundingMode.HALF_UP))
+                    .commissions(entry.getCommissions())
+                    .adminCosts(entry.getAdminCosts())
+                    .deliveryCosts(entry.getDeliveryCosts())
+                    .finalBalance(entry.getEndingBalance().setScale(2, RoundingMode.HALF_UP))
+                    .cashFlow(entry.getCashFlow().setScale(2, RoundingMode.HALF_UP))
+                    .build());
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,233 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.application.dto.FinancialEntityDTO;
+import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.configuration.infrastructure.service.CacheInvalidationBus;
+import com.simucredito.simulation.application.dto.QuoteTableDTO;
+import com.simucredito.simulation.domain.service.FinancialCalculator;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tablas de cotización precalculadas por entidad financiera y plazo (en años completos, como las simulaciones):
+ * cuota por cada 1,000 de capital y TCEA base. Cotizar un monto es entonces una multiplicación. Las tablas se
+ * reconstruyen cuando el bus de invalidación avisa cambios en entidades; la versión es el SHA-256 del contenido,
+ * igual en todos los nodos, para que la UI pueda consultar con If-None-Match.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteTableService {
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    private static final BigDecimal PER_THOUSAND = BigDecimal.valueOf(1000);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int MIN_TERM_YEARS = 1;
+    private static final int MAX_TERM_YEARS = 30; // Mismo límite que CreateSimulationRequestDTO
+
+    private final ConfigurationService configurationService;
+    private final FinancialCalculator financialCalculator;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private volatile Tables snapshot;
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.FINANCIAL_ENTITIES, key -> refresh());
+    }
+
+    public QuoteTableDTO getQuoteTables() {
+        return currentSnapshot().view();
+    }
+
+    /**
+     * Cuota de capital + interés para el monto y plazo indicados, a partir de la tabla de la entidad
+     */
+    public QuoteTableDTO.Quote quote(Long financialEntityId, int termMonths, BigDecimal amount) {
+        Tables tables = currentSnapshot();
+        EntityQuotes quotes = tables.byEntity().get(financialEntityId);
+        if (quotes == null) {
+            throw new IllegalArgumentException("No quote table for financial entity " + financialEntityId);
+        }
+        int years = termMonths / 12;
+        if (termMonths % 12 != 0 || years < MIN_TERM_YEARS || years > MAX_TERM_YEARS
+                || quotes.paymentPer1000()[years] == null) {
+            throw new IllegalArgumentException("Term of " + termMonths + " months is not offered by financial entity " + financialEntityId);
+        }
+
+        return QuoteTableDTO.Quote.builder()
+                .financialEntityId(financialEntityId)
+                .termMonths(termMonths)
+                .amount(amount)
+                .monthlyPayment(amount.multiply(quotes.paymentPer1000()[years])
+                        .divide(PER_THOUSAND, 2, RoundingMode.HALF_UP))
+                .baselineTcea(quotes.baselineTcea()[years])
+                .version(tables.view().getVersion())
+                .build();
+    }
+
+    public synchronized void refresh() {
+        snapshot = build(configurationService.getActiveFinancialEntities());
+        log.debug("Quote tables rebuilt for {} financial entities (version {})",
+                snapshot.byEntity().size(), snapshot.view().getVersion());
+    }
+
+    private Tables currentSnapshot() {
+        Tables current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Tables build(List<FinancialEntityDTO> entities) {
+        Map<Long, EntityQuotes> byEntity = new HashMap<>();
+        List<QuoteTableDTO.EntityTable> views = new ArrayList<>();
+
+        for (FinancialEntityDTO entity : entities) {
+            RateSpec rateSpec = RateSpec.ofAnnual(entity.getInterestRateTea(), entity.getInterestRateTna(),
+                    entity.getCapitalizationPeriod());
+            if (rateSpec == null) {
+                continue; // Sin tasa publicada no hay cotización
+            }
+            BigDecimal tem = rateSpec.tem();
+            BigDecimal lifeInsuranceRate = percentageToRate(entity.getLifeInsurancePercentage());
+            BigDecimal processingFee = percentageToRate(entity.getProcessingFeePercentage());
+
+            BigDecimal[] payments = new BigDecimal[MAX_TERM_YEARS + 1];
+            BigDecimal[] tceas = new BigDecimal[MAX_TERM_YEARS + 1];
+            List<QuoteTableDTO.TermQuote> terms = new ArrayList<>();
+            for (int years = MIN_TERM_YEARS; years <= MAX_TERM_YEARS; years++) {
+                int termMonths = years * 12;
+                if ((entity.getMinTermMonths() != null && termMonths < entity.getMinTermMonths())
+                        || (entity.getMaxTermMonths() != null && termMonths > entity.getMaxTermMonths())) {
+                    continue;
+                }
+                payments[years] = paymentPer1000(tem, termMonths);
+                tceas[years] = baselineTcea(tem, lifeInsuranceRate, processingFee, payments[years], termMonths);
+                terms.add(QuoteTableDTO.TermQuote.builder()
+                        .termMonths(termMonths)
+                        .paymentPer1000(payments[years])
+                        .baselineTcea(tceas[years])
+                        .build());
+            }
+
+            byEntity.put(entity.getId(), new EntityQuotes(payments, tceas));
+            views.add(QuoteTableDTO.EntityTable.builder()
+                    .financialEntityId(entity.getId())
+                    .entityName(entity.getEntityName())
+                    .entityCode(entity.getEntityCode())
+                    .tem(tem.multiply(HUNDRED).setScale(6, RoundingMode.HALF_UP))
+                    .lifeInsuranceRate(lifeInsuranceRate)
+                    .terms(List.copyOf(terms))
+                    .build());
+        }
+
+        // Mismo orden en todos los nodos, sin depender del orden de la consulta
+        views.sort(Comparator.comparing(QuoteTableDTO.EntityTable::getFinancialEntityId));
+        QuoteTableDTO view = QuoteTableDTO.builder()
+                .version(version(views))
+                .generatedAt(LocalDateTime.now())
+                .entities(List.copyOf(views))
+                .build();
+        return new Tables(Collections.unmodifiableMap(byEntity), view);
+    }
+
+    /**
+     * SHA-256 de cada campo de las tablas en orden; un hash de 32 bits podía repetirse entre versiones distintas
+     * y dejar a un cliente con la tabla vieja tras un 304
+     */
+    private static String version(List<QuoteTableDTO.EntityTable> views) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (QuoteTableDTO.EntityTable view : views) {
+            update(digest, view.getFinancialEntityId(), view.getEntityName(), view.getEntityCode(), view.getTem(),
+                    view.getLifeInsuranceRate());
+            for (QuoteTableDTO.TermQuote term : view.getTerms()) {
+                update(digest, term.getTermMonths(), term.getPaymentPer1000(), term.getBaselineTcea());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            String text = field instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(field);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0); // Separador: ("1", "23") y ("12", "3") no deben dar lo mismo
+        }
+    }
+
+    private static BigDecimal paymentPer1000(BigDecimal tem, int termMonths) {
+        if (tem.signum() == 0) {
+            return PER_THOUSAND.divide(BigDecimal.valueOf(termMonths), 8, RoundingMode.HALF_UP);
+        }
+        BigDecimal factor = tem.add(BigDecimal.ONE).pow(termMonths, MATH_CONTEXT);
+        return PER_THOUSAND.multiply(tem.multiply(factor, MATH_CONTEXT), MATH_CONTEXT)
+                .divide(factor.subtract(BigDecimal.ONE), MATH_CONTEXT)
+                .setScale(8, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sin comisión de desembolso la TIR mensual es exactamente TEM + desgravamen (el seguro se cobra sobre el
+     * saldo), así que la TCEA no depende del plazo. Con comisión se resuelve la TIR del flujo neto recibido.
+     */
+    private BigDecimal baselineTcea(BigDecimal tem, BigDecimal lifeInsuranceRate, BigDecimal processingFee,
+                                    BigDecimal paymentPer1000, int termMonths) {
+        BigDecimal monthlyIrr;
+        if (processingFee.signum() == 0) {
+            monthlyIrr = tem.add(lifeInsuranceRate);
+        } else {
+            List<BigDecimal> cashFlows = new ArrayList<>(termMonths + 1);
+            cashFlows.add(PER_THOUSAND.multiply(BigDecimal.ONE.subtract(processingFee)));
+            BigDecimal balance = PER_THOUSAND;
+            for (int period = 1; period <= termMonths; period++) {
+                BigDecimal interest = balance.multiply(tem, MATH_CONTEXT);
+                cashFlows.add(paymentPer1000.add(balance.multiply(lifeInsuranceRate, MATH_CONTEXT), MATH_CONTEXT).negate());
+                balance = balance.add(interest, MATH_CONTEXT).subtract(paymentPer1000, MATH_CONTEXT);
+            }
+            monthlyIrr = financialCalculator.calculateScheduleTIR(cashFlows).divide(HUNDRED, MATH_CONTEXT);
+        }
+        return monthlyIrr.add(BigDecimal.ONE).pow(12, MATH_CONTEXT)
+                .subtract(BigDecimal.ONE)
+                .multiply(HUNDRED)
+                .setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentageToRate(BigDecimal percentage) {
+        return percentage != null ? percentage.divide(HUNDRED, MATH_CONTEXT) : BigDecimal.ZERO;
+    }
+
+    private record EntityQuotes(BigDecimal[] paymentPer1000, BigDecimal[] baselineTcea) {
+    }
+
+    private record Tables(Map<Long, EntityQuotes> byEntity, QuoteTableDTO view) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.application.dto.ScenarioGridRequestDTO;
+import com.simucredito.simulation.application.dto.ScenarioGridResponseDTO;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.BatchScheduleKernel;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Grilla de escenarios tasa × plazo × cuota inicial para mapas de calor. Cada fila (tasa, plazo) se evalúa con
+ * BatchScheduleKernel en doble precisión; las filas se reparten con fork-join y cada hoja reutiliza sus buffers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScenarioGridService {
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+    private static final int MAX_CELLS = 100_000;
+    private static final int ROWS_PER_TASK = 4;
+
+    private final BatchScheduleKernel batchScheduleKernel;
+
+    public ScenarioGridResponseDTO evaluate(ScenarioGridRequestDTO request) {
+        long start = System.nanoTime();
+        CreateSimulationRequestDTO base = request.getBaseRequest();
+        CreateSimulationRequestDTO.FinancingDetails details = base.getFinancingDetails();
+
+        List<BigDecimal> rates = points(request.getInterestRate());
+        List<Integer> terms = termPoints(request.getTermYears());
+        List<BigDecimal> initialPayments = points(request.getInitialPayment());
+        int cells = rates.size() * terms.size() * initialPayments.size();
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid cannot exceed " + MAX_CELLS + " cells");
+        }
+
+        // La TEM se calcula una vez por tasa (y queda memoizada en RateSpec)
+        double[] monthlyRates = new double[rates.size()];
+        for (int i = 0; i < rates.size(); i++) {
+            monthlyRates[i] = RateSpec.of(rates.get(i), details.getInterestRate().getType(),
+                    details.getInterestRate().getPeriod(), details.getInterestRate().getCapitalization()).tem().doubleValue();
+        }
+
+        // Monto financiado de cada columna: el de la solicitud base ajustado por la diferencia de cuota inicial
+        BigDecimal baseFinancing = base.getCalculatedValues().getFinancingAmount();
+        BigDecimal baseInitialPayment = base.getCalculatedValues().getInitialPayment();
+        double[] principals = new double[initialPayments.size()];
+        for (int i = 0; i < initialPayments.size(); i++) {
+            principals[i] = baseFinancing.add(baseInitialPayment).subtract(initialPayments.get(i)).doubleValue();
+        }
+
+        CreateSimulationRequestDTO.Insurance insurance = details.getInsurance();
+        Integer graceMonths = details.getGracePeriod().getDurationMonths();
+        AmortizationMethod method = AmortizationMethod.of(details.getAmortizationMethod());
+        GridSpec spec = new GridSpec(monthlyRates, terms.stream().mapToInt(Integer::intValue).toArray(), principals,
+                graceMonths != null ? graceMonths : 0,
+                details.getGracePeriod().getType(),
+                Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled())
+                        ? insurance.getDesgravamen().getRate().doubleValue() : 0.0,
+                Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled())
+                        ? insurance.getPropertyInsurance().getValue().multiply(insurance.getPropertyInsurance().getRate()).doubleValue() : 0.0,
+                details.getMonthlyCosts().getConstantCommissions()
+                        .add(details.getMonthlyCosts().getAdministrationCosts()).doubleValue()
+                        + ("physical".equals(details.getStatementDelivery()) ? 10.0 : 0.0), // Igual que FinancialCalculator
+                method, SimulationService.balloonFraction(method, details.getBalloonPercentage()),
+                new Double[cells], new Double[cells], new Double[cells]);
+
+        ForkJoinPool.commonPool().invoke(new GridTask(spec, 0, rates.size() * terms.size()));
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Scenario grid of {} cells evaluated in {} ms", cells, elapsedMillis);
+
+        return ScenarioGridResponseDTO.builder()
+                .interestRates(rates)
+                .termYears(terms)
+                .initialPayments(initialPayments)
+                .shape(new int[]{rates.size(), terms.size(), initialPayments.size()})
+                .monthlyPayment(spec.monthlyPayment())
+                .tcea(spec.tcea())
+                .totalCost(spec.totalCost())
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private List<BigDecimal> points(ScenarioGridRequestDTO.Axis axis) {
+        int count = axis.getPoints();
+        List<BigDecimal> values = new ArrayList<>(count);
+        if (count == 1) {
+            values.add(axis.getFrom());
+            return values;
+        }
+        BigDecimal step = axis.getTo().subtract(axis.getFrom()).divide(BigDecimal.valueOf(count - 1), MATH_CONTEXT);
+        for (int i = 0; i < count; i++) {
+            values.add(axis.getFrom().add(step.multiply(BigDecimal.valueOf(i))).setScale(4, RoundingMode.HALF_UP).stripTrailingZeros());
+        }
+        return values;
+    }
+
+    private List<Integer> termPoints(ScenarioGridRequestDTO.Axis axis) {
+        List<Integer> terms = new ArrayList<>();
+        for (BigDecimal value : points(axis)) {
+            int years = value.setScale(0, RoundingMode.HALF_UP).intValueExact();
+            if (years < 1 || years > 30) {
+                throw new IllegalArgumentException("Term axis values must be between 1 and 30 years");
+            }
+            terms.add(years);
+        }
+        return terms;
+    }
+
+    private record GridSpec(double[] monthlyRates, int[] termYears, double[] principals, int graceMonths,
+                            String graceType, double lifeInsuranceRate, double propertyInsurance, double fixedCosts,
+                            AmortizationMethod amortizationMethod, double balloonFraction,
+                            Double[] monthlyPayment, Double[] tcea, Double[] totalCost) {
+    }
+
+    /**
+     * Cada fila es un par (tasa, plazo) y cubre todas las cuotas iniciales
+     */
+    private class GridTask extends RecursiveAction {
+        private final GridSpec spec;
+        private final int fromRow;
+        private final int toRow;
+
+        GridTask(GridSpec spec, int fromRow, int toRow) {
+            this.spec = spec;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > ROWS_PER_TASK) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new GridTask(spec, fromRow, middle), new GridTask(spec, middle, toRow));
+                return;
+            }
+
+            int termCount = spec.termYears().length;
+            int columns = spec.principals().length;
+            // Las cuotas iniciales de una fila comparten tasa y plazo: se evalúan juntas en el kernel por lotes
+            double[] rates = new double[columns];
+            BatchScheduleKernel.Results results = new BatchScheduleKernel.Results(columns);
+            for (int row = fromRow; row < toRow; row++) {
+                double monthlyRate = spec.monthlyRates()[row / termCount];
+                int termMonths = spec.termYears()[row % termCount] * 12;
+                if (spec.graceMonths() >= termMonths) {
+                    continue; // La gracia no puede cubrir todo el plazo
+                }
+                Arrays.fill(rates, monthlyRate);
+                batchScheduleKernel.evaluate(new ScheduleKernel.Terms(0.0, monthlyRate, termMonths, spec.graceMonths(),
+                                spec.graceType(), spec.lifeInsuranceRate(), spec.propertyInsurance(), spec.fixedCosts(),
+                                spec.amortizationMethod(), spec.balloonFraction()),
+                        spec.principals(), rates, columns, results);
+                for (int column = 0; column < columns; column++) {
+                    double principal = spec.principals()[column];
+                    if (principal <= 0.0) {
+                        continue;
+                    }
+                    int index = row * columns + column;
+                    spec.monthlyPayment()[index] = round(results.getMonthlyPayment()[column], 100.0);
+                    spec.tcea()[index] = round(results.getTcea()[column], 10_000.0);
+                    spec.totalCost()[index] = round(results.getTotalPaid()[column] - principal, 100.0);
+                }
+            }
+        }
+    }
+
+    private static double round(double value, double factor) {
+        return Math.round(value * factor) / factor;
+    }
+}
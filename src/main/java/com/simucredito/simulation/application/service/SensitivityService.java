@@ -0,0 +1,130 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.application.dto.SensitivityResponseDTO;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.SensitivityCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sensibilidad de cuota, TCEA, VAN e interés total. Tasa y seguros son continuos y salen de un solo recorrido
+ * con números duales; plazo y meses de gracia son enteros, así que se informa la diferencia exacta con el
+ * siguiente valor permitido usando el mismo recorrido en doble precisión (sin persistir ni volver a simular).
+ */
+@Service
+@RequiredArgsConstructor
+public class SensitivityService {
+
+    private static final BigDecimal RATE_STEP = BigDecimal.ONE; // 1 punto porcentual de la tasa ingresada
+    private static final BigDecimal INSURANCE_STEP = new BigDecimal("0.0001"); // 0.01 puntos porcentuales
+    private static final int MAX_TERM_YEARS = 30;
+    private static final int MAX_GRACE_MONTHS = 24;
+
+    private final SimulationService simulationService;
+    private final SensitivityCalculator sensitivityCalculator;
+
+    public SensitivityResponseDTO analyze(CreateSimulationRequestDTO request) {
+        SimulationService.Calculation base = simulationService.calculate(request);
+        SensitivityCalculator.Inputs inputs = toInputs(request, base);
+        SensitivityCalculator.Result result = sensitivityCalculator.evaluate(inputs);
+
+        List<SensitivityResponseDTO.Sensitivity> sensitivities = new ArrayList<>();
+
+        // d/d(tasa) = d/dTEM * dTEM/d(tasa)
+        double temPerPoint = base.getInterestRate().temDerivative();
+        sensitivities.add(analytic("interestRate", result, SensitivityCalculator.TEM, temPerPoint, RATE_STEP));
+
+        CreateSimulationRequestDTO.Insurance insurance = request.getFinancingDetails().getInsurance();
+        if (Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled())) {
+            sensitivities.add(analytic("desgravamenRate", result, SensitivityCalculator.LIFE_INSURANCE_RATE, 1.0, INSURANCE_STEP));
+        }
+        if (Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled())) {
+            sensitivities.add(analytic("propertyInsuranceRate", result, SensitivityCalculator.PROPERTY_INSURANCE_RATE, 1.0, INSURANCE_STEP));
+        }
+
+        int termYears = request.getFinancingDetails().getTermYears();
+        int termStep = termYears < MAX_TERM_YEARS ? 1 : -1;
+        sensitivities.add(discrete("termYears", result,
+                sensitivityCalculator.evaluate(inputs.withTermMonths((termYears + termStep) * 12)), termStep));
+
+        String graceType = request.getFinancingDetails().getGracePeriod().getType();
+        int graceMonths = inputs.graceMonths();
+        if (!"none".equals(graceType)) {
+            int graceStep = graceMonths < MAX_GRACE_MONTHS && graceMonths + 1 < inputs.termMonths() ? 1 : -1;
+            if (graceMonths + graceStep >= 0) {
+                sensitivities.add(discrete("graceMonths", result,
+                        sensitivityCalculator.evaluate(inputs.withGraceMonths(graceMonths + graceStep)), graceStep));
+            }
+        }
+
+        return SensitivityResponseDTO.builder()
+                .monthlyPayment(base.getRepresentativeMonthlyPayment().setScale(2, RoundingMode.HALF_UP))
+                .tcea(base.getTcea().setScale(4, RoundingMode.HALF_UP))
+                .van(base.getVan().setScale(2, RoundingMode.HALF_UP))
+                .totalInterest(base.getTotalInterest().setScale(2, RoundingMode.HALF_UP))
+                .sensitivities(sensitivities)
+                .build();
+    }
+
+    private SensitivityCalculator.Inputs toInputs(CreateSimulationRequestDTO request, SimulationService.Calculation base) {
+        CreateSimulationRequestDTO.FinancingDetails details = request.getFinancingDetails();
+        CreateSimulationRequestDTO.Insurance insurance = details.getInsurance();
+        Integer graceMonths = details.getGracePeriod().getDurationMonths();
+        AmortizationMethod method = AmortizationMethod.of(details.getAmortizationMethod());
+        return new SensitivityCalculator.Inputs(
+                request.getCalculatedValues().getFinancingAmount().doubleValue(),
+                base.getMonthlyRate().doubleValue(),
+                details.getTermYears() * 12,
+                graceMonths != null ? graceMonths : 0,
+                details.getGracePeriod().getType(),
+                Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled()),
+                insurance.getDesgravamen().getRate().doubleValue(),
+                Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled()),
+                insurance.getPropertyInsurance().getRate().doubleValue(),
+                insurance.getPropertyInsurance().getValue().doubleValue(),
+                details.getMonthlyCosts().getConstantCommissions().doubleValue(),
+                details.getMonthlyCosts().getAdministrationCosts().doubleValue(),
+                "physical".equals(details.getStatementDelivery()) ? 10.0 : 0.0, // Igual que FinancialCalculator
+                base.getOpportunityCostRate().doubleValue(),
+                method,
+                SimulationService.balloonFraction(method, details.getBalloonPercentage()));
+    }
+
+    private static SensitivityResponseDTO.Sensitivity analytic(String parameter, SensitivityCalculator.Result result,
+                                                               int index, double chain, BigDecimal step) {
+        double scale = chain * step.doubleValue();
+        return SensitivityResponseDTO.Sensitivity.builder()
+                .parameter(parameter)
+                .method("analytic")
+                .step(step)
+                .monthlyPayment(round(result.monthlyPayment().derivative(index) * scale))
+                .tcea(round(result.tcea().derivative(index) * scale))
+                .van(round(result.van().derivative(index) * scale))
+                .totalInterest(round(result.totalInterest().derivative(index) * scale))
+                .build();
+    }
+
+    private static SensitivityResponseDTO.Sensitivity discrete(String parameter, SensitivityCalculator.Result base,
+                                                               SensitivityCalculator.Result shifted, int step) {
+        return SensitivityResponseDTO.Sensitivity.builder()
+                .parameter(parameter)
+                .method("discrete")
+                .step(BigDecimal.valueOf(step))
+                .monthlyPayment(round(shifted.monthlyPayment().value() - base.monthlyPayment().value()))
+                .tcea(round(shifted.tcea().value() - base.tcea().value()))
+                .van(round(shifted.van().value() - base.van().value()))
+                .totalInterest(round(shifted.totalInterest().value() - base.totalInterest().value()))
+                .build();
+    }
+
+    private static BigDecimal round(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+}
@@ -1,21 +1,31 @@
 package com.simucredito.simulation.application.service;
 
 import com.simucredito.client.application.service.ClientService;
+import com.simucredito.configuration.application.dto.BonusParameterDTO;
 import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.configuration.infrastructure.service.ExchangeRateHistoryService;
 import com.simucredito.iam.domain.model.User;
 import com.simucredito.iam.domain.repository.UserRepository;
 import com.simucredito.property.application.service.PropertyService;
 import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
 import com.simucredito.simulation.application.dto.SimulationResponseDTO;
 import com.simucredito.simulation.domain.model.AmortizationSchedule;
+import com.simucredito.simulation.domain.model.PrecisionMode;
+import com.simucredito.simulation.domain.model.ScheduleColumns;
 import com.simucredito.simulation.domain.model.Simulation;
 import com.simucredito.simulation.domain.repository.SimulationRepository;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
 import com.simucredito.simulation.domain.service.FinancialCalculator;
+import com.simucredito.simulation.domain.service.StandardAmortizationMethod;
 import com.simucredito.client.application.dto.ClientDTO;
 import com.simucredito.property.application.dto.PropertyDTO;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -25,6 +35,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -43,6 +54,10 @@ public class SimulationService {
     private final ConfigurationService configurationService;
     private final FinancialCalculator financialCalculator;
     private final ModelMapper modelMapper;
+    private final ExchangeRateHistoryService exchangeRateHistoryService;
+
+    @Value("${simulation.precision:DECIMAL128_REFERENCE}")
+    private PrecisionMode defaultPrecision;
 
     @Transactional
     public SimulationResponseDTO createSimulation(CreateSimulationRequestDTO request) {
@@ -59,50 +74,17 @@ public class SimulationService {
             configurationService.getFinancialEntityById(request.getFinancialEntityId());
         }
 
-        // 1. Conversión de Tasas (Igual que antes)
-        BigDecimal interestRateTEM = financialCalculator.convertToTEM(
-                request.getFinancingDetails().getInterestRate().getRate(),
-                request.getFinancingDetails().getInterestRate().getType(),
-                request.getFinancingDetails().getInterestRate().getPeriod(),
-                request.getFinancingDetails().getInterestRate().getCapitalization()
-        );
+        // El tipo de cambio usado en la validación es el que se guarda con la simulación
+        resolveUsdValue(request);
 
-        /*
-        BigDecimal rateForAnnuity = interestRateTEM;
-        if (Boolean.TRUE.equals(request.getFinancingDetails().getInsurance().getDesgravamen().getEnabled())) {
-            rateForAnnuity = rateForAnnuity.add(
-                    request.getFinancingDetails().getInsurance().getDesgravamen().getRate()
-            );
-        }
-
-         */
-
-
-        BigDecimal opportunityCostTEM = financialCalculator.calculateCOK(
-                request.getFinancingDetails().getOpportunityCost().getRate(),
-                request.getFinancingDetails().getOpportunityCost().getType(),
-                request.getFinancingDetails().getOpportunityCost().getPeriod(),
-                request.getFinancingDetails().getOpportunityCost().getCapitalization()
-        );
+        // 1-2. Tasas, cronograma e indicadores (cálculo puro, ver calculate)
+        Calculation calculation = calculate(request);
+        BigDecimal interestRateTEM = calculation.getMonthlyRate();
 
-        BigDecimal opportunityCostTEMPercentage = opportunityCostTEM.multiply(BigDecimal.valueOf(100), MATH_CONTEXT)
+        BigDecimal opportunityCostTEMPercentage = calculation.getOpportunityCostRate().multiply(BigDecimal.valueOf(100), MATH_CONTEXT)
                 .setScale(4, RoundingMode.HALF_UP);
 
-        BigDecimal monthlyPaymentRef = financialCalculator.calculateMonthlyPayment(
-                request.getCalculatedValues().getFinancingAmount(),
-                interestRateTEM, // Usamos la tasa combinada aquí
-                request.getFinancingDetails().getTermYears() * 12
-        );
-
-        /*
-        // 2. Calculo Inicial Referencial (Igual que antes)
-        BigDecimal monthlyPaymentRef = financialCalculator.calculateMonthlyPayment(
-                request.getCalculatedValues().getFinancingAmount(),
-                interestRateTEM,
-                request.getFinancingDetails().getTermYears() * 12
-        );
-
-         */
+        AmortizationMethod method = AmortizationMethod.of(request.getFinancingDetails().getAmortizationMethod());
 
         // 3. Crear Entidad (Guardamos temporalmente valores referenciales)
         Simulation simulation = Simulation.builder()
@@ -129,6 +111,8 @@ public class SimulationService {
                 .opportunityCostCapitalization(request.getFinancingDetails().getOpportunityCost().getCapitalization())
                 .gracePeriodType(request.getFinancingDetails().getGracePeriod().getType())
                 .gracePeriodDurationMonths(request.getFinancingDetails().getGracePeriod().getDurationMonths())
+                .amortizationMethod(method.code())
+                .balloonPercentage(method.hasBalloon() ? request.getFinancingDetails().getBalloonPercentage() : null)
                 .monthlyCommissions(request.getFinancingDetails().getMonthlyCosts().getConstantCommissions())
                 .administrationCosts(request.getFinancingDetails().getMonthlyCosts().getAdministrationCosts())
                 .statementDelivery(request.getFinancingDetails().getStatementDelivery())
@@ -149,84 +133,159 @@ public class SimulationService {
                 .status(Simulation.SimulationStatus.COMPLETED)
                 .build();
 
-        // 4. Generar Cronograma (Aquí ocurre la magia real)
-        List<FinancialCalculator.AmortizationEntry> entries = financialCalculator.generateAmortizationSchedule(
-                simulation.getFinancingAmount(),
-                interestRateTEM,
-                monthlyPaymentRef,
-                simulation.getTermYears() * 12,
-                simulation.getGracePeriodDurationMonths(),
-                simulation.getGracePeriodType(),
-                simulation.getDesgravamenEnabled() ? simulation.getDesgravamenRate() : BigDecimal.ZERO,
-                simulation.getPropertyInsuranceEnabled() ? simulation.getPropertyInsuranceRate() : BigDecimal.ZERO,
-                simulation.getMonthlyCommissions(),
-                simulation.getAdministrationCosts(),
-                simulation.getStatementDelivery(),
-                simulation.getPropertyInsuranceValue()
-        );
-
-        BigDecimal realTotalInterest = BigDecimal.ZERO;
-        BigDecimal sumPrincipal = BigDecimal.ZERO;
-        BigDecimal sumDesgravamen = BigDecimal.ZERO;
-        BigDecimal sumRisk = BigDecimal.ZERO;
-        BigDecimal sumCommissions = BigDecimal.ZERO;
-        BigDecimal sumAdmin = BigDecimal.ZERO;
-        // Lista de flujos para la TIR: [ -Prestamo, Cuota1, Cuota2, ..., CuotaN ]
-        List<BigDecimal> cashFlows = new java.util.ArrayList<>();
-        cashFlows.add(request.getCalculatedValues().getFinancingAmount()); // Periodo 0: Desembolso (Negativo)
-
-        BigDecimal representativeMonthlyPayment = BigDecimal.ZERO;
-
+        // 4. Filas del cronograma a persistir
         List<AmortizationSchedule> schedule = new java.util.ArrayList<>();
-        for (FinancialCalculator.AmortizationEntry entry : entries) {
-            realTotalInterest = realTotalInterest.add(entry.getInterestPayment());
-            sumPrincipal = sumPrincipal.add(entry.getPrincipalPayment());
-            sumDesgravamen = sumDesgravamen.add(entry.getLifeInsurancePayment());
-            sumRisk = sumRisk.add(entry.getPropertyInsurancePayment());
-            sumCommissions = sumCommissions.add(entry.getCommissions());
-            sumAdmin = sumAdmin.add(entry.getAdminCosts()).add(entry.getDeliveryCosts());
-
-            cashFlows.add(entry.getPayment().negate());
-
-            // Lógica para elegir qué cuota mostrar en el resumen ("Cuota Mensual Total")
-            // Si hay gracia, mostramos la primera cuota "NORMAL" (después de la gracia).
-            // Si no hay gracia (o estamos en ella), tomamos la del periodo actual si no se ha seteado.
-            int graceMonths = simulation.getGracePeriodDurationMonths() != null ? simulation.getGracePeriodDurationMonths() : 0;
-
-            if (entry.getPeriodNumber() == graceMonths + 1) {
-                representativeMonthlyPayment = entry.getPayment();
-            } else if (graceMonths == 0 && entry.getPeriodNumber() == 1) {
-                representativeMonthlyPayment = entry.getScheduledPayment();
-            }
-
-            // Fallback por si acaso
-            if (representativeMonthlyPayment.compareTo(BigDecimal.ZERO) == 0 && entry.getPeriodNumber() == 1) {
-                representativeMonthlyPayment = entry.getScheduledPayment();
-            }
-
+        ScheduleColumns columns = calculation.getColumns();
+        for (int i = 0; i < columns.getLength(); i++) {
+            int period = i + 1;
             schedule.add(AmortizationSchedule.builder()
                     .simulation(simulation)
-                    .periodNumber(entry.getPeriodNumber())
-                    .paymentDate(LocalDate.now().plusMonths(entry.getPeriodNumber()))
+                    .periodNumber(period)
+                    .paymentDate(LocalDate.now().plusMonths(period))
                     .tem(interestRateTEM)
                     .gracePeriod(simulation.getGracePeriodDurationMonths() != null ? simulation.getGracePeriodDurationMonths() : 0)
-                    .initialBalance(entry.getBeginningBalance())
-                    .interest(entry.getInterestPayment())
-                    .payment(entry.getScheduledPayment())
-                    .principal(entry.getPrincipalPayment())
-                    .lifeInsurance(entry.getLifeInsurancePayment())
-                    .propertyInsurance(entry.getPropertyInsurancePayment())
-                    .commissions(entry.getCommissions())
-                    .adminCosts(entry.getAdminCosts())
-                    .deliveryCosts(entry.getDeliveryCosts())
-                    .finalBalance(entry.getEndingBalance())
-                    .cashFlow(entry.getCashFlow())
-                    .cumulativePrincipal(entry.getCumulativePrincipal())
-                    .cumulativeInterest(entry.getCumulativeInterest())
-                    .isGracePeriod(entry.isGracePeriod())
+                    .initialBalance(BigDecimal.valueOf(columns.getBeginningBalance()[i]))
+                    .interest(BigDecimal.valueOf(columns.getInterest()[i]))
+                    .payment(BigDecimal.valueOf(columns.getScheduledPayment()[i]))
+                    .principal(BigDecimal.valueOf(columns.getPrincipal()[i]))
+                    .lifeInsurance(BigDecimal.valueOf(columns.getLifeInsurance()[i]))
+                    .propertyInsurance(BigDecimal.valueOf(columns.getPropertyInsurance()[i]))
+                    .commissions(BigDecimal.valueOf(columns.getCommissions()[i]))
+                    .adminCosts(BigDecimal.valueOf(columns.getAdminCosts()[i]))
+                    .deliveryCosts(BigDecimal.valueOf(columns.getDeliveryCosts()[i]))
+                    .finalBalance(BigDecimal.valueOf(columns.getEndingBalance()[i]))
+                    .cashFlow(BigDecimal.valueOf(-columns.getPayment()[i]))
+                    .cumulativePrincipal(BigDecimal.valueOf(columns.getCumulativePrincipal()[i]))
+                    .cumulativeInterest(BigDecimal.valueOf(columns.getCumulativeInterest()[i]))
+                    .isGracePeriod(columns.getGracePeriod()[i])
+                    .isBalloonPayment(columns.getBalloonPayment()[i])
                     .build());
         }
 
+        // 7. Actualizar Entidad con Valores Reales
+        simulation.setMonthlyPayment(calculation.getRepresentativeMonthlyPayment().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTcea(calculation.getTcea().setScale(2, RoundingMode.HALF_UP));
+        simulation.setVan(calculation.getVan().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTir(calculation.getTir().setScale(4, RoundingMode.HALF_UP)); // TIR Mensual
+
+        simulation.setTotalInterest(calculation.getTotalInterest().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalCapitalAmortization(calculation.getTotalPrincipal().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalDesgravamen(calculation.getTotalDesgravamen().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalRiskInsurance(calculation.getTotalRiskInsurance().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalCommissions(calculation.getTotalCommissions().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalAdminExpenses(calculation.getTotalAdminExpenses().setScale(2, RoundingMode.HALF_UP));
+
+        // Guardar todo
+        simulation.setAmortizationSchedule(schedule);
+        simulation = simulationRepository.save(simulation);
+
+
+        return mapToResponseDTO(simulation, client, property, false);
+    }
+
+    /**
+     * Calcula cronograma, TCEA, TIR y VAN de una solicitud sin persistir nada
+     */
+    public Calculation calculate(CreateSimulationRequestDTO request) {
+        // 1. Conversión de Tasas (Igual que antes)
+        RateSpec interestRate = RateSpec.of(
+                request.getFinancingDetails().getInterestRate().getRate(),
+                request.getFinancingDetails().getInterestRate().getType(),
+                request.getFinancingDetails().getInterestRate().getPeriod(),
+                request.getFinancingDetails().getInterestRate().getCapitalization()
+        );
+        BigDecimal interestRateTEM = interestRate.tem();
+        PrecisionMode precision = request.getPrecision() != null ? request.getPrecision() : defaultPrecision;
+        MathContext mc = precision.mathContext();
+
+        /*
+        BigDecimal rateForAnnuity = interestRateTEM;
+        if (Boolean.TRUE.equals(request.getFinancingDetails().getInsurance().getDesgravamen().getEnabled())) {
+            rateForAnnuity = rateForAnnuity.add(
+                    request.getFinancingDetails().getInsurance().getDesgravamen().getRate()
+            );
+        }
+
+         */
+
+
+        BigDecimal opportunityCostTEM = RateSpec.of(
+                request.getFinancingDetails().getOpportunityCost().getRate(),
+                request.getFinancingDetails().getOpportunityCost().getType(),
+                request.getFinancingDetails().getOpportunityCost().getPeriod(),
+                request.getFinancingDetails().getOpportunityCost().getCapitalization()
+        ).tem();
+
+        BigDecimal monthlyPaymentRef = financialCalculator.calculateMonthlyPayment(
+                request.getCalculatedValues().getFinancingAmount(),
+                interestRateTEM, // Usamos la tasa combinada aquí
+                request.getFinancingDetails().getTermYears() * 12,
+                mc
+        );
+
+        /*
+        // 2. Calculo Inicial Referencial (Igual que antes)
+        BigDecimal monthlyPaymentRef = financialCalculator.calculateMonthlyPayment(
+                request.getCalculatedValues().getFinancingAmount(),
+                interestRateTEM,
+                request.getFinancingDetails().getTermYears() * 12
+        );
+
+         */
+
+        int termMonths = request.getFinancingDetails().getTermYears() * 12;
+        Integer graceMonthsValue = request.getFinancingDetails().getGracePeriod().getDurationMonths();
+        CreateSimulationRequestDTO.Insurance insurance = request.getFinancingDetails().getInsurance();
+        boolean desgravamenEnabled = Boolean.TRUE.equals(insurance.getDesgravamen().getEnabled());
+        boolean propertyInsuranceEnabled = Boolean.TRUE.equals(insurance.getPropertyInsurance().getEnabled());
+        AmortizationMethod method = AmortizationMethod.of(request.getFinancingDetails().getAmortizationMethod());
+        BigDecimal balloonAmount = BigDecimal.ZERO;
+        if (method.hasBalloon()) {
+            balloonAmount = request.getCalculatedValues().getFinancingAmount()
+                    .multiply(requireBalloonPercentage(method, request.getFinancingDetails().getBalloonPercentage()), mc)
+                    .divide(BigDecimal.valueOf(100), mc);
+        }
+
+        // 4. Generar Cronograma (Aquí ocurre la magia real)
+        ScheduleColumns columns = financialCalculator.generateScheduleColumns(
+                request.getCalculatedValues().getFinancingAmount(),
+                interestRateTEM,
+                monthlyPaymentRef,
+                termMonths,
+                graceMonthsValue,
+                request.getFinancingDetails().getGracePeriod().getType(),
+                desgravamenEnabled ? insurance.getDesgravamen().getRate() : BigDecimal.ZERO,
+                propertyInsuranceEnabled ? insurance.getPropertyInsurance().getRate() : BigDecimal.ZERO,
+                request.getFinancingDetails().getMonthlyCosts().getConstantCommissions(),
+                request.getFinancingDetails().getMonthlyCosts().getAdministrationCosts(),
+                request.getFinancingDetails().getStatementDelivery(),
+                insurance.getPropertyInsurance().getValue(),
+                schedulePrecision(request.getPrecision(), precision, method),
+                method,
+                balloonAmount
+        );
+
+        // Totales: una pasada por columna
+        BigDecimal realTotalInterest = BigDecimal.valueOf(ScheduleColumns.sum(columns.getInterest()));
+        BigDecimal sumPrincipal = BigDecimal.valueOf(ScheduleColumns.sum(columns.getPrincipal()));
+        BigDecimal sumDesgravamen = BigDecimal.valueOf(ScheduleColumns.sum(columns.getLifeInsurance()));
+        BigDecimal sumRisk = BigDecimal.valueOf(ScheduleColumns.sum(columns.getPropertyInsurance()));
+        BigDecimal sumCommissions = BigDecimal.valueOf(ScheduleColumns.sum(columns.getCommissions()));
+        BigDecimal sumAdmin = BigDecimal.valueOf(ScheduleColumns.sum(columns.getAdminCosts())
+                + ScheduleColumns.sum(columns.getDeliveryCosts()));
+        BigDecimal totalPaid = BigDecimal.valueOf(ScheduleColumns.sum(columns.getPayment()));
+        // Flujos para la TIR: [ Prestamo, -Cuota1, -Cuota2, ..., -CuotaN ]
+        double[] cashFlows = columns.cashFlows(request.getCalculatedValues().getFinancingAmount().doubleValue());
+
+        // Cuota a mostrar en el resumen ("Cuota Mensual Total"): la primera cuota "NORMAL" (después de la gracia)
+        int graceMonths = graceMonthsValue != null ? graceMonthsValue : 0;
+        double representative = graceMonths < termMonths ? columns.getPayment()[graceMonths] : 0.0;
+        // Fallback por si acaso
+        if (representative == 0.0 && termMonths > 0) {
+            representative = columns.getScheduledPayment()[0];
+        }
+        BigDecimal representativeMonthlyPayment = BigDecimal.valueOf(representative);
+
         // 6. Calcular VAN y TIR reales basados en el flujo de caja EXACTO
 
         // TIR Mensual
@@ -234,33 +293,32 @@ public class SimulationService {
 
         // TIR Anual (TCEA) = (1 + TIR_Mensual)^12 - 1
         // Nota: tirMensual viene en porcentaje (ej: 0.85), hay que dividir por 100
-        BigDecimal tirDecimal = tirMensual.divide(BigDecimal.valueOf(100), MATH_CONTEXT);
+        BigDecimal tirDecimal = tirMensual.divide(BigDecimal.valueOf(100), mc);
         BigDecimal tcea = tirDecimal.add(BigDecimal.ONE)
-                .pow(12, MATH_CONTEXT)
+                .pow(12, mc)
                 .subtract(BigDecimal.ONE)
                 .multiply(BigDecimal.valueOf(100));
 
         // VAN
         BigDecimal van = financialCalculator.calculateScheduleVAN(cashFlows, opportunityCostTEM);
 
-        // 7. Actualizar Entidad con Valores Reales
-        simulation.setMonthlyPayment(representativeMonthlyPayment.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTcea(tcea.setScale(2, RoundingMode.HALF_UP));
-        simulation.setVan(van.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTir(tirMensual.setScale(4, RoundingMode.HALF_UP)); // TIR Mensual
-
-        simulation.setTotalInterest(realTotalInterest.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTotalCapitalAmortization(sumPrincipal.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTotalDesgravamen(sumDesgravamen.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTotalRiskInsurance(sumRisk.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTotalCommissions(sumCommissions.setScale(2, RoundingMode.HALF_UP));
-        simulation.setTotalAdminExpenses(sumAdmin.setScale(2, RoundingMode.HALF_UP));
-
-        // Guardar todo
-        simulation.setAmortizationSchedule(schedule);
-        simulation = simulationRepository.save(simulation);
-
-        return mapToResponseDTO(simulation, client, property, false);
+        return Calculation.builder()
+                .interestRate(interestRate)
+                .monthlyRate(interestRateTEM)
+                .opportunityCostRate(opportunityCostTEM)
+                .columns(columns)
+                .representativeMonthlyPayment(representativeMonthlyPayment)
+                .totalInterest(realTotalInterest)
+                .totalPrincipal(sumPrincipal)
+                .totalDesgravamen(sumDesgravamen)
+                .totalRiskInsurance(sumRisk)
+                .totalCommissions(sumCommissions)
+                .totalAdminExpenses(sumAdmin)
+                .totalPaid(totalPaid)
+                .tir(tirMensual)
+                .tcea(tcea)
+                .van(van)
+                .build();
     }
 
     private BigDecimal calculateMonthlyCosts(CreateSimulationRequestDTO request) {
@@ -294,9 +352,93 @@ public class SimulationService {
         return calculateMonthlyCosts(request).multiply(BigDecimal.valueOf(request.getFinancingDetails().getTermYears() * 12));
     }
 
-    private BigDecimal calculateApplicableBonus(CreateSimulationRequestDTO request) {
-        // Simplified bonus calculation - return default bonus
-        return BigDecimal.valueOf(5000);
+    /**
+     * Parte del principal que queda para la cuota balón, como fracción (0 si el método no tiene balón). Es la forma
+     * en que ScheduleKernel.Terms lleva el balón, para que escale con el principal de cada escenario.
+     */
+    /**
+     * Los modos decimales solo existen para el francés: el modo por defecto se aplica a ese método y los demás
+     * usan FAST_DOUBLE; uno pedido explícitamente se respeta (y FinancialCalculator lo rechaza si no es francés)
+     */
+    static PrecisionMode schedulePrecision(PrecisionMode requested, PrecisionMode resolved, AmortizationMethod method) {
+        if (requested == null && method != StandardAmortizationMethod.FRENCH) {
+            return PrecisionMode.FAST_DOUBLE;
+        }
+        return resolved;
+    }
+
+    static double balloonFraction(AmortizationMethod method, BigDecimal balloonPercentage) {
+        if (!method.hasBalloon()) {
+            return 0.0;
+        }
+        return requireBalloonPercentage(method, balloonPercentage).doubleValue() / 100.0;
+    }
+
+    private static BigDecimal requireBalloonPercentage(AmortizationMethod method, BigDecimal balloonPercentage) {
+        if (balloonPercentage == null) {
+            throw new IllegalArgumentException("Balloon percentage is required for the " + method.code() + " method");
+        }
+        return balloonPercentage;
+    }
+
+    /**
+     * Tipo de cambio (venta) de una solicitud en USD: el enviado o, si falta, el del histórico a la fecha. Se
+     * escribe en la solicitud para que los límites, la comparación de ofertas y la fila guardada usen el mismo.
+     * Devuelve null si la solicitud no es en USD.
+     */
+    public BigDecimal resolveUsdValue(CreateSimulationRequestDTO request) {
+        CreateSimulationRequestDTO.FinancingDetails details = request.getFinancingDetails();
+        if (!"USD".equals(details.getCurrency())) {
+            return null;
+        }
+        BigDecimal exchangeRate = details.getUsdValue();
+        if (exchangeRate == null) {
+            exchangeRate = exchangeRateHistoryService.sellPriceAt(LocalDate.now()).orElse(null);
+        }
+        if (exchangeRate == null || exchangeRate.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Exchange rate (usdValue) is required for USD simulations");
+        }
+        details.setUsdValue(exchangeRate);
+        return exchangeRate;
+    }
+
+    /**
+     * Monto a financiar en soles, con el tipo de cambio de resolveUsdValue
+     */
+    public BigDecimal financingAmountInPen(CreateSimulationRequestDTO request) {
+        BigDecimal amount = request.getCalculatedValues().getFinancingAmount();
+        BigDecimal exchangeRate = resolveUsdValue(request);
+        return exchangeRate != null ? amount.multiply(exchangeRate) : amount;
+    }
+
+    /**
+     * Bono del programa para un subtipo BBP concreto y la condición de sostenibilidad de la vivienda, según la
+     * configuración que regía en la fecha indicada (null si Techo Propio no tiene el monto configurado)
+     */
+    BigDecimal calculateApplicableBonus(String programType, String bonusSubtype, boolean isSustainable,
+                                        BigDecimal propertyPrice, LocalDateTime at) {
+        if ("techo_propio".equalsIgnoreCase(programType)) {
+            try {
+                return configurationService.getNumericValueAt("BFH_AVN_AMOUNT", at);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        BigDecimal maxBonus = BigDecimal.ZERO;
+        for (BonusParameterDTO bonus : configurationService.getApplicableBonusesAt(at, "BBP", bonusSubtype, propertyPrice, isSustainable)) {
+            if (bonus.getBonusAmount() != null && bonus.getBonusAmount().compareTo(maxBonus) > 0) {
+                maxBonus = bonus.getBonusAmount();
+            }
+        }
+        return maxBonus;
+    }
+
+    /**
+     * Franjas de precio del BBP para el subtipo y la sostenibilidad indicados
+     */
+    List<BonusParameterDTO> bonusBands(String bonusSubtype, boolean isSustainable, LocalDateTime at) {
+        return configurationService.getBonusBandsAt(at, "BBP", bonusSubtype, isSustainable);
     }
 
     private void generateAmortizationSchedule(Simulation simulation, BigDecimal monthlyRate, BigDecimal monthlyPayment) {
@@ -520,7 +662,7 @@ public class SimulationService {
                 .keyIndicators(keyIndicators)
                 .totalResults(totalResults)
                 .inputs(inputs)
-                .calculationMethod("French Method (Ordinary Annuity)")
+                .calculationMethod(AmortizationMethod.of(simulation.getAmortizationMethod()).description())
                 .generatedAt(simulation.getCreatedAt())
                 .build();
 
@@ -576,4 +718,27 @@ public class SimulationService {
 
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resultado de calcular una simulación sin persistirla
+     */
+    @Getter
+    @Builder
+    public static class Calculation {
+        private final RateSpec interestRate;
+        private final BigDecimal monthlyRate;
+        private final BigDecimal opportunityCostRate;
+        private final ScheduleColumns columns;
+        private final BigDecimal representativeMonthlyPayment;
+        private final BigDecimal totalInterest;
+        private final BigDecimal totalPrincipal;
+        private final BigDecimal totalDesgravamen;
+        private final BigDecimal totalRiskInsurance;
+        private final BigDecimal totalCommissions;
+        private final BigDecimal totalAdminExpenses;
+        private final BigDecimal totalPaid;
+        private final BigDecimal tir; // Mensual, en porcentaje
+        private final BigDecimal tcea; // En porcentaje
+        private final BigDecimal van;
+    }
+}
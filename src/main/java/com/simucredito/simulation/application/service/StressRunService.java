@@ -0,0 +1,454 @@
+package com.simucredito.simulation.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.configuration.infrastructure.service.AdvisoryLockService;
+import com.simucredito.iam.domain.model.User;
+import com.simucredito.simulation.application.dto.StressRunDTO;
+import com.simucredito.simulation.application.dto.StressRunRequestDTO;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.model.StressRun;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import com.simucredito.simulation.domain.repository.StressRunRepository;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.BatchScheduleKernel;
+import com.simucredito.simulation.domain.service.QuantileSketch;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Re-precia la cartera guardada bajo shocks de tasa (puntos básicos sobre la TEA) y resume la variación de cuota,
+ * interés total y TCEA por shock. Las simulaciones se leen por bloques en orden de id; cada bloque se reparte en un
+ * ForkJoinPool propio (work-stealing), cada simulación evalúa todos sus shocks juntos en BatchScheduleKernel y, al
+ * terminar el bloque, se guarda el checkpoint (último id y sketches/top-N acumulados) en stress_runs. Una corrida
+ * interrumpida se retoma desde ese punto; el advisory lock evita que dos nodos procesen la misma corrida.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StressRunService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int SIMULATIONS_PER_TASK = 32;
+    private static final double RELATIVE_ACCURACY = 0.005;
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final List<Simulation.SimulationStatus> STATUSES =
+            List.of(Simulation.SimulationStatus.COMPLETED, Simulation.SimulationStatus.APPROVED);
+    private static final Comparator<Affected> BY_PAYMENT_CHANGE = Comparator.comparingDouble(Affected::paymentChangePercentage);
+
+    private final StressRunRepository stressRunRepository;
+    private final SimulationRepository simulationRepository;
+    private final BatchScheduleKernel batchScheduleKernel;
+    private final AdvisoryLockService advisoryLockService;
+    private final ObjectMapper objectMapper;
+
+    private final ForkJoinPool workers = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stress-run-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Encola una corrida con el alcance ya resuelto por el controlador (request.userId es el agente o null para toda
+     * la cartera, solo para administradores)
+     */
+    public StressRunDTO start(StressRunRequestDTO request, User caller) {
+        List<Object[]> summary = simulationRepository.summarizePortfolio(request.getCurrency(), STATUSES,
+                request.getUserId(), request.getFinancialEntityId(), request.getProgramType());
+        long total = summary.isEmpty() ? 0L : (Long) summary.get(0)[0];
+
+        StressRun run = stressRunRepository.save(StressRun.builder()
+                .shocksBps(request.getShocksBps().stream().distinct().sorted().map(String::valueOf).collect(Collectors.joining(",")))
+                .createdBy(caller.getId())
+                .userId(request.getUserId())
+                .financialEntityId(request.getFinancialEntityId())
+                .programType(request.getProgramType())
+                .currency(request.getCurrency())
+                .topN(request.getTopN())
+                .status(StressRun.Status.QUEUED)
+                .totalSimulations(total)
+                .processedSimulations(0L)
+                .skippedSimulations(0L)
+                .lastSimulationId(0L)
+                .build());
+        log.info("Stress run {} queued for {} simulations with shocks {}", run.getId(), total, run.getShocksBps());
+        submit(run.getId());
+        return toDTO(run);
+    }
+
+    public Optional<StressRunDTO> getRun(Long id, User caller) {
+        return stressRunRepository.findById(id).filter(run -> canAccess(run, caller)).map(this::toDTO);
+    }
+
+    /**
+     * Retoma una corrida interrumpida desde su último checkpoint; si ya terminó o está en curso en este nodo no hace nada
+     */
+    public Optional<StressRunDTO> resume(Long id, User caller) {
+        return stressRunRepository.findById(id).filter(run -> canAccess(run, caller)).map(run -> {
+            if (run.getStatus() != StressRun.Status.COMPLETED) {
+                submit(run.getId());
+            }
+            return toDTO(run);
+        });
+    }
+
+    /**
+     * Las corridas ajenas se tratan como inexistentes, así no se revela ni su id ni las simulaciones de otros agentes
+     */
+    private static boolean canAccess(StressRun run, User caller) {
+        return caller.getRole() == User.UserRole.ADMIN || caller.getId().equals(run.getCreatedBy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void submit(Long runId) {
+        if (!activeRuns.add(runId)) {
+            return;
+        }
+        coordinator.submit(() -> {
+            try {
+                boolean ran = advisoryLockService.runIfLeader(AdvisoryLockService.keyFor("simucredito.stress-run." + runId),
+                        () -> execute(runId));
+                if (!ran) {
+                    log.info("Stress run {} skipped, another node is processing it", runId);
+                }
+            } catch (Exception e) {
+                log.error("Stress run {} failed", runId, e);
+                markFailed(runId, e);
+            } finally {
+                activeRuns.remove(runId);
+            }
+        });
+    }
+
+    private void execute(Long runId) {
+        StressRun run = stressRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Stress run not found"));
+        if (run.getStatus() == StressRun.Status.COMPLETED) {
+            return;
+        }
+        int[] shocks = parseShocks(run.getShocksBps());
+        Accumulator accumulator = run.getCheckpoint() != null
+                ? readCheckpoint(run.getCheckpoint(), run.getTopN())
+                : new Accumulator(shocks, run.getTopN());
+        if (run.getCheckpoint() != null) {
+            log.info("Resuming stress run {} after simulation {}", runId, run.getLastSimulationId());
+        }
+
+        run.setStatus(StressRun.Status.RUNNING);
+        run.setErrorMessage(null);
+        run = stressRunRepository.save(run);
+
+        long start = System.nanoTime();
+        List<Simulation> chunk;
+        do {
+            chunk = simulationRepository.findPortfolioAfter(run.getLastSimulationId(), run.getCurrency(), STATUSES,
+                    run.getUserId(), run.getFinancialEntityId(), run.getProgramType(), PageRequest.of(0, CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Scenario> scenarios = new ArrayList<>(chunk.size());
+            long skipped = 0;
+            for (Simulation simulation : chunk) {
+                Scenario scenario = toScenario(simulation);
+                if (scenario != null) {
+                    scenarios.add(scenario);
+                } else {
+                    skipped++;
+                }
+            }
+            accumulator.merge(workers.invoke(new ChunkTask(scenarios, shocks, run.getTopN(), 0, scenarios.size())));
+
+            // Checkpoint: lo ya procesado no se repite al retomar
+            run.setLastSimulationId(chunk.get(chunk.size() - 1).getId());
+            run.setProcessedSimulations(run.getProcessedSimulations() + scenarios.size());
+            run.setSkippedSimulations(orZero(run.getSkippedSimulations()) + skipped);
+            run.setCheckpoint(writeCheckpoint(accumulator));
+            run = stressRunRepository.save(run);
+        } while (chunk.size() == CHUNK_SIZE);
+
+        run.setStatus(StressRun.Status.COMPLETED);
+        run.setCompletedAt(LocalDateTime.now());
+        stressRunRepository.save(run);
+        log.info("Stress run {} completed: {} simulations ({} skipped) in {} ms", runId, run.getProcessedSimulations(),
+                orZero(run.getSkippedSimulations()), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void markFailed(Long runId, Exception error) {
+        try {
+            stressRunRepository.findById(runId).ifPresent(run -> {
+                String message = String.valueOf(error.getMessage());
+                run.setStatus(StressRun.Status.FAILED);
+                run.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                stressRunRepository.save(run);
+            });
+        } catch (Exception e) {
+            log.warn("Could not mark stress run {} as failed: {}", runId, e.getMessage());
+        }
+    }
+
+    /**
+     * Condiciones de la simulación guardada, con su método de amortización; null si no se pueden re-preciar (sin
+     * plazo, gracia inválida, monto nulo o un balón sin porcentaje)
+     */
+    private Scenario toScenario(Simulation simulation) {
+        int termMonths = simulation.getTermYears() * 12;
+        int graceMonths = simulation.getGracePeriodDurationMonths() != null ? simulation.getGracePeriodDurationMonths() : 0;
+        AmortizationMethod method = AmortizationMethod.of(simulation.getAmortizationMethod());
+        if (termMonths <= 0 || graceMonths >= termMonths || simulation.getFinancingAmount().signum() <= 0
+                || (method.hasBalloon() && simulation.getBalloonPercentage() == null)) {
+            return null;
+        }
+        double monthlyRate = RateSpec.of(simulation.getInterestRate(), simulation.getInterestRateType(),
+                simulation.getInterestRatePeriod(), simulation.getInterestRateCapitalization()).tem().doubleValue();
+        ScheduleKernel.Terms terms = new ScheduleKernel.Terms(
+                simulation.getFinancingAmount().doubleValue(),
+                monthlyRate, termMonths, graceMonths, simulation.getGracePeriodType(),
+                Boolean.TRUE.equals(simulation.getDesgravamenEnabled()) ? simulation.getDesgravamenRate().doubleValue() : 0.0,
+                Boolean.TRUE.equals(simulation.getPropertyInsuranceEnabled())
+                        ? simulation.getPropertyInsuranceValue().multiply(simulation.getPropertyInsuranceRate()).doubleValue() : 0.0,
+                simulation.getMonthlyCommissions().add(simulation.getAdministrationCosts()).doubleValue()
+                        + ("physical".equals(simulation.getStatementDelivery()) ? 10.0 : 0.0), // Igual que FinancialCalculator
+                method, SimulationService.balloonFraction(method, simulation.getBalloonPercentage()));
+        return new Scenario(simulation.getId(), simulation.getClientId(), terms);
+    }
+
+    private StressRunDTO toDTO(StressRun run) {
+        List<StressRunDTO.ShockResult> results = null;
+        if (run.getCheckpoint() != null) {
+            results = new ArrayList<>();
+            Accumulator accumulator = readCheckpoint(run.getCheckpoint(), run.getTopN());
+            for (int s = 0; s < accumulator.shocks.length; s++) {
+                List<StressRunDTO.AffectedSimulation> mostAffected = new ArrayList<>();
+                accumulator.top[s].stream().sorted(BY_PAYMENT_CHANGE.reversed()).forEach(affected ->
+                        mostAffected.add(StressRunDTO.AffectedSimulation.builder()
+                                .simulationId(affected.simulationId())
+                                .clientId(affected.clientId())
+                                .monthlyPayment(round(affected.monthlyPayment(), 2))
+                                .paymentChange(round(affected.paymentChange(), 2))
+                                .paymentChangePercentage(round(affected.paymentChangePercentage(), 4))
+                                .tceaChange(round(affected.tceaChange(), 4))
+                                .build()));
+                results.add(StressRunDTO.ShockResult.builder()
+                        .shockBps(accumulator.shocks[s])
+                        .distributions(accumulator.sketches[s][0].count() == 0 ? List.of() : List.of(
+                                MonteCarloService.distribution("paymentChange", accumulator.sketches[s][0], 2),
+                                MonteCarloService.distribution("paymentChangePercentage", accumulator.sketches[s][1], 4),
+                                MonteCarloService.distribution("totalInterestChange", accumulator.sketches[s][2], 2),
+                                MonteCarloService.distribution("tceaChange", accumulator.sketches[s][3], 4)))
+                        .mostAffected(mostAffected)
+                        .build());
+            }
+        }
+        return StressRunDTO.builder()
+                .id(run.getId())
+                .status(run.getStatus().name())
+                .shocksBps(Arrays.stream(parseShocks(run.getShocksBps())).boxed().toList())
+                .userId(run.getUserId())
+                .financialEntityId(run.getFinancialEntityId())
+                .programType(run.getProgramType())
+                .currency(run.getCurrency())
+                .totalSimulations(run.getTotalSimulations())
+                .processedSimulations(run.getProcessedSimulations())
+                .skippedSimulations(orZero(run.getSkippedSimulations()))
+                .errorMessage(run.getErrorMessage())
+                .createdAt(run.getCreatedAt())
+                .updatedAt(run.getUpdatedAt())
+                .completedAt(run.getCompletedAt())
+                .results(results)
+                .build();
+    }
+
+    private String writeCheckpoint(Accumulator accumulator) {
+        List<ShockState> states = new ArrayList<>(accumulator.shocks.length);
+        for (int s = 0; s < accumulator.shocks.length; s++) {
+            QuantileSketch[] sketches = accumulator.sketches[s];
+            states.add(new ShockState(accumulator.shocks[s], sketches[0].snapshot(), sketches[1].snapshot(),
+                    sketches[2].snapshot(), sketches[3].snapshot(), new ArrayList<>(accumulator.top[s])));
+        }
+        try {
+            return objectMapper.writeValueAsString(states);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write stress run checkpoint", e);
+        }
+    }
+
+    private Accumulator readCheckpoint(String checkpoint, int topN) {
+        try {
+            ShockState[] states = objectMapper.readValue(checkpoint, ShockState[].class);
+            Accumulator accumulator = new Accumulator(Arrays.stream(states).mapToInt(ShockState::shockBps).toArray(), topN);
+            for (int s = 0; s < states.length; s++) {
+                accumulator.sketches[s] = new QuantileSketch[]{
+                        QuantileSketch.fromSnapshot(states[s].paymentChange()),
+                        QuantileSketch.fromSnapshot(states[s].paymentChangePercentage()),
+                        QuantileSketch.fromSnapshot(states[s].totalInterestChange()),
+                        QuantileSketch.fromSnapshot(states[s].tceaChange())};
+                accumulator.top[s].addAll(states[s].mostAffected());
+            }
+            return accumulator;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stress run checkpoint", e);
+        }
+    }
+
+    private static int[] parseShocks(String shocks) {
+        return Arrays.stream(shocks.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L; // Corridas anteriores a la columna
+    }
+
+    private static BigDecimal round(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private record Scenario(Long simulationId, Long clientId, ScheduleKernel.Terms terms) {
+    }
+
+    record Affected(Long simulationId, Long clientId, double monthlyPayment, double paymentChange,
+                    double paymentChangePercentage, double tceaChange) {
+    }
+
+    record ShockState(int shockBps, QuantileSketch.Snapshot paymentChange, QuantileSketch.Snapshot paymentChangePercentage,
+                      QuantileSketch.Snapshot totalInterestChange, QuantileSketch.Snapshot tceaChange,
+                      List<Affected> mostAffected) {
+    }
+
+    /**
+     * Por shock: sketches de variación de cuota (monto y %), interés total y TCEA, y el top-N por variación de cuota
+     */
+    private static final class Accumulator {
+        private final int[] shocks;
+        private final int topN;
+        private final QuantileSketch[][] sketches;
+        private final PriorityQueue<Affected>[] top;
+
+        @SuppressWarnings("unchecked")
+        Accumulator(int[] shocks, int topN) {
+            this.shocks = shocks;
+            this.topN = topN;
+            this.sketches = new QuantileSketch[shocks.length][];
+            this.top = new PriorityQueue[shocks.length];
+            for (int s = 0; s < shocks.length; s++) {
+                sketches[s] = new QuantileSketch[]{new QuantileSketch(RELATIVE_ACCURACY), new QuantileSketch(RELATIVE_ACCURACY),
+                        new QuantileSketch(RELATIVE_ACCURACY), new QuantileSketch(RELATIVE_ACCURACY)};
+                top[s] = new PriorityQueue<>(BY_PAYMENT_CHANGE);
+            }
+        }
+
+        void add(int shock, Affected affected, double interestChange) {
+            sketches[shock][0].add(affected.paymentChange());
+            sketches[shock][1].add(affected.paymentChangePercentage());
+            sketches[shock][2].add(interestChange);
+            sketches[shock][3].add(affected.tceaChange());
+            offer(shock, affected);
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int s = 0; s < shocks.length; s++) {
+                for (int m = 0; m < sketches[s].length; m++) {
+                    sketches[s][m].merge(other.sketches[s][m]);
+                }
+                for (Affected affected : other.top[s]) {
+                    offer(s, affected);
+                }
+            }
+            return this;
+        }
+
+        private void offer(int shock, Affected affected) {
+            PriorityQueue<Affected> heap = top[shock];
+            if (heap.size() < topN) {
+                heap.add(affected);
+            } else if (BY_PAYMENT_CHANGE.compare(affected, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(affected);
+            }
+        }
+    }
+
+    private class ChunkTask extends RecursiveTask<Accumulator> {
+        private final List<Scenario> scenarios;
+        private final int[] shocks;
+        private final int topN;
+        private final int from;
+        private final int to;
+
+        ChunkTask(List<Scenario> scenarios, int[] shocks, int topN, int from, int to) {
+            this.scenarios = scenarios;
+            this.shocks = shocks;
+            this.topN = topN;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from > SIMULATIONS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(scenarios, shocks, topN, from, middle);
+                left.fork();
+                Accumulator right = new ChunkTask(scenarios, shocks, topN, middle, to).compute();
+                return right.merge(left.join());
+            }
+
+            Accumulator accumulator = new Accumulator(shocks, topN);
+            // Carril 0: tasa original; carril s + 1: choque s. Todos comparten la forma de la simulación
+            double[] principals = new double[shocks.length + 1];
+            double[] rates = new double[shocks.length + 1];
+            BatchScheduleKernel.Results results = new BatchScheduleKernel.Results(shocks.length + 1);
+            for (int i = from; i < to; i++) {
+                Scenario scenario = scenarios.get(i);
+                ScheduleKernel.Terms terms = scenario.terms();
+                double tea = Math.pow(1.0 + terms.monthlyRate(), 12) - 1.0;
+                Arrays.fill(principals, terms.principal());
+                rates[0] = terms.monthlyRate();
+                for (int s = 0; s < shocks.length; s++) {
+                    double shockedTea = Math.max(0.0, tea + shocks[s] / 10_000.0);
+                    rates[s + 1] = Math.pow(1.0 + shockedTea, 1.0 / 12.0) - 1.0;
+                }
+                batchScheduleKernel.evaluate(terms, principals, rates, rates.length, results);
+
+                double basePayment = results.getMonthlyPayment()[0];
+                for (int s = 0; s < shocks.length; s++) {
+                    double shockedPayment = results.getMonthlyPayment()[s + 1];
+                    double paymentChange = shockedPayment - basePayment;
+                    accumulator.add(s, new Affected(scenario.simulationId(), scenario.clientId(), shockedPayment,
+                                    paymentChange, paymentChange / basePayment * 100.0,
+                                    results.getTcea()[s + 1] - results.getTcea()[0]),
+                            results.getTotalInterest()[s + 1] - results.getTotalInterest()[0]);
+                }
+            }
+            return accumulator;
+        }
+    }
+}
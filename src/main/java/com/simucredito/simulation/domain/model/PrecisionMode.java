@@ -0,0 +1,48 @@
+package com.simucredito.simulation.domain.model;
+
+import java.math.MathContext;
+
+/**
+ * Aritmética con la que se calcula la recurrencia del cronograma. Se elige por solicitud
+ * (CreateSimulationRequestDTO.precision) o por despliegue (simulation.precision); por defecto es la de referencia.
+ * <p>
+ * Cotas de error frente a DECIMAL128_REFERENCE (34 dígitos), para principal ≤ 10^8, TEM ≤ 2% (TEA ≈ 27%) y plazo
+ * ≤ 480 meses; las verifica PrecisionModeDifferentialTest:
+ * <ul>
+ *     <li>DECIMAL64: 16 dígitos significativos. Cada monto del cronograma difiere en menos de 10^-9 × principal
+ *     (menos de un céntimo hasta 10^7) y la TIR coincide al sexto decimal.</li>
+ *     <li>FAST_DOUBLE: binario de 53 bits (ε ≈ 1.1 × 10^-16), misma cota. La cuota se redondea al céntimo con
+ *     Math.round, igual que HALF_UP salvo en un empate exacto de medio céntimo.</li>
+ * </ul>
+ * El error de redondeo del saldo crece como (1 + TEM)^n: con TEM de 3% y 480 meses ya llega a 10^-9 × principal, así
+ * que fuera de ese rango conviene la referencia.
+ * <p>
+ * La TIR y el VAN ya se calculan en double en todos los modos; lo que cambia es el costo de generar el cronograma.
+ * <p>
+ * El modo solo fija la aritmética intermedia de la recurrencia. El resultado se entrega en ScheduleColumns (double,
+ * unos 16 dígitos) y AmortizationSchedule lo guarda con escala 2, así que con DECIMAL128_REFERENCE lo persistido no
+ * tiene más dígitos: lo que se evita es el error de redondeo acumulado en el saldo periodo a periodo.
+ * <p>
+ * Los modos decimales solo existen para el método francés. Pedir DECIMAL64 o DECIMAL128_REFERENCE con otro método
+ * se rechaza; el modo por defecto del despliegue solo se aplica al francés y los demás métodos usan FAST_DOUBLE.
+ */
+public enum PrecisionMode {
+
+    FAST_DOUBLE(MathContext.DECIMAL64),
+    DECIMAL64(MathContext.DECIMAL64),
+    DECIMAL128_REFERENCE(MathContext.DECIMAL128);
+
+    private final MathContext mathContext;
+
+    PrecisionMode(MathContext mathContext) {
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * Contexto para las operaciones BigDecimal del modo; en FAST_DOUBLE solo lo usan las pocas operaciones escalares
+     * fuera del bucle (cuota inicial, TCEA)
+     */
+    public MathContext mathContext() {
+        return mathContext;
+    }
+}
@@ -0,0 +1,68 @@
+package com.simucredito.simulation.domain.model;
+
+import lombok.Getter;
+
+/**
+ * Cronograma en columnas: un arreglo primitivo por campo, posición i = periodo i + 1. Reemplaza la lista de
+ * AmortizationEntry (16 BigDecimal por periodo) en el cálculo: totales, TIR y VAN son recorridos de arreglos y
+ * Jackson lo serializa como un objeto de arreglos. Los montos se guardan sin redondear.
+ */
+@Getter
+public final class ScheduleColumns {
+
+    private final int length;
+    private final double[] beginningBalance;
+    private final double[] interest;
+    private final double[] principal;
+    private final double[] scheduledPayment; // Capital + interés (cuota base)
+    private final double[] lifeInsurance;
+    private final double[] propertyInsurance;
+    private final double[] commissions;
+    private final double[] adminCosts;
+    private final double[] deliveryCosts;
+    private final double[] payment; // Cuota total
+    private final double[] endingBalance;
+    private final double[] cumulativePrincipal;
+    private final double[] cumulativeInterest;
+    private final boolean[] gracePeriod;
+    private final boolean[] balloonPayment;
+
+    public ScheduleColumns(int length) {
+        this.length = length;
+        this.beginningBalance = new double[length];
+        this.interest = new double[length];
+        this.principal = new double[length];
+        this.scheduledPayment = new double[length];
+        this.lifeInsurance = new double[length];
+        this.propertyInsurance = new double[length];
+        this.commissions = new double[length];
+        this.adminCosts = new double[length];
+        this.deliveryCosts = new double[length];
+        this.payment = new double[length];
+        this.endingBalance = new double[length];
+        this.cumulativePrincipal = new double[length];
+        this.cumulativeInterest = new double[length];
+        this.gracePeriod = new boolean[length];
+        this.balloonPayment = new boolean[length];
+    }
+
+    /**
+     * Flujos desde el prestatario: [desembolso, −cuota 1, ..., −cuota n]
+     */
+    public double[] cashFlows(double disbursement) {
+        double[] flows = new double[length + 1];
+        flows[0] = disbursement;
+        for (int i = 0; i < length; i++) {
+            flows[i + 1] = -payment[i];
+        }
+        return flows;
+    }
+
+    public static double sum(double[] column) {
+        double total = 0.0;
+        for (double value : column) {
+            total += value;
+        }
+        return total;
+    }
+}
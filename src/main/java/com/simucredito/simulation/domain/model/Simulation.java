@@ -89,6 +89,12 @@ public class Simulation {
     @Column(name = "grace_period_duration_months")
     private Integer gracePeriodDurationMonths; // Optional
 
+    @Column(name = "amortization_method")
+    private String amortizationMethod; // "french", "german", "american", "balloon"; null = french
+
+    @Column(name = "balloon_percentage", precision = 5, scale = 2)
+    private BigDecimal balloonPercentage; // Only for balloon
+
     @Column(name = "monthly_commissions", nullable = false)
     private BigDecimal monthlyCommissions;
 
@@ -0,0 +1,92 @@
+package com.simucredito.simulation.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Corrida de estrés de tasa sobre la cartera. Avanza por bloques de simulaciones en orden de id; tras cada bloque
+ * se guarda el último id procesado y el estado acumulado (checkpoint), de modo que se puede retomar.
+ */
+@Entity
+@Table(name = "stress_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StressRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "shocks_bps", nullable = false)
+    private String shocksBps; // "100,200,300"
+
+    @Column(name = "created_by")
+    private Long createdBy; // Usuario que lanzó la corrida; solo él o un administrador la consultan
+
+    @Column(name = "user_id")
+    private Long userId; // Alcance: agente; sin él la corrida abarca toda la cartera (solo administradores)
+
+    @Column(name = "financial_entity_id")
+    private Long financialEntityId;
+
+    @Column(name = "program_type")
+    private String programType;
+
+    @Column(name = "currency", nullable = false)
+    private String currency;
+
+    @Column(name = "top_n", nullable = false)
+    private Integer topN;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "total_simulations", nullable = false)
+    private Long totalSimulations;
+
+    @Column(name = "processed_simulations", nullable = false)
+    private Long processedSimulations; // Re-preciadas
+
+    @Column(name = "skipped_simulations")
+    private Long skippedSimulations; // Sin plazo, gracia inválida, monto nulo o balón sin porcentaje; no entran en los resultados
+
+    @Column(name = "last_simulation_id", nullable = false)
+    private Long lastSimulationId;
+
+    @Column(name = "checkpoint", columnDefinition = "TEXT")
+    private String checkpoint; // JSON con sketches y top-N por shock
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,39 @@
+package com.simucredito.simulation.domain.repository;
+
+import com.simucredito.simulation.domain.model.AmortizationSchedule;
+import com.simucredito.simulation.domain.model.Simulation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AmortizationScheduleRepository extends JpaRepository<AmortizationSchedule, Long> {
+
+    /**
+     * Filas del cronograma de la cartera desde una fecha, por bloques en orden de id (paginación por clave:
+     * se pasa el último id leído). Columnas: id, paymentDate, principal, interest, lifeInsurance,
+     * propertyInsurance, commissions + adminCosts + deliveryCosts, cashFlow, finalBalance.
+     */
+    @Query("SELECT a.id, a.paymentDate, a.principal, a.interest, a.lifeInsurance, a.propertyInsurance, " +
+            "a.commissions + a.adminCosts + a.deliveryCosts, a.cashFlow, a.finalBalance " +
+            "FROM AmortizationSchedule a JOIN a.simulation s " +
+            "WHERE a.id > :afterId AND a.paymentDate >= :from AND s.currency = :currency AND s.status IN :statuses " +
+            "AND (:userId IS NULL OR s.userId = :userId) " +
+            "AND (:financialEntityId IS NULL OR s.financialEntityId = :financialEntityId) " +
+            "AND (:programType IS NULL OR s.programType = :programType) " +
+            "ORDER BY a.id")
+    List<Object[]> findPortfolioFlows(@Param("afterId") Long afterId,
+                                      @Param("from") LocalDate from,
+                                      @Param("currency") String currency,
+                                      @Param("statuses") Collection<Simulation.SimulationStatus> statuses,
+                                      @Param("userId") Long userId,
+                                      @Param("financialEntityId") Long financialEntityId,
+                                      @Param("programType") String programType,
+                                      Pageable pageable);
+}
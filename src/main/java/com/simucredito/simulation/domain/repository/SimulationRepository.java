@@ -1,12 +1,14 @@
 package com.simucredito.simulation.domain.repository;
 
 import com.simucredito.simulation.domain.model.Simulation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -35,6 +37,31 @@ public interface SimulationRepository extends JpaRepository<Simulation, Long> {
 
     long countByUserId(Long userId);
 
+    @Query("SELECT s FROM Simulation s " +
+            "WHERE s.id > :afterId AND s.currency = :currency AND s.status IN :statuses " +
+            "AND (:userId IS NULL OR s.userId = :userId) " +
+            "AND (:financialEntityId IS NULL OR s.financialEntityId = :financialEntityId) " +
+            "AND (:programType IS NULL OR s.programType = :programType) " +
+            "ORDER BY s.id")
+    List<Simulation> findPortfolioAfter(@Param("afterId") Long afterId,
+                                        @Param("currency") String currency,
+                                        @Param("statuses") Collection<Simulation.SimulationStatus> statuses,
+                                        @Param("userId") Long userId,
+                                        @Param("financialEntityId") Long financialEntityId,
+                                        @Param("programType") String programType,
+                                        Pageable pageable);
+
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.financingAmount), 0) FROM Simulation s " +
+            "WHERE s.currency = :currency AND s.status IN :statuses " +
+            "AND (:userId IS NULL OR s.userId = :userId) " +
+            "AND (:financialEntityId IS NULL OR s.financialEntityId = :financialEntityId) " +
+            "AND (:programType IS NULL OR s.programType = :programType)")
+    List<Object[]> summarizePortfolio(@Param("currency") String currency,
+                                      @Param("statuses") Collection<Simulation.SimulationStatus> statuses,
+                                      @Param("userId") Long userId,
+                                      @Param("financialEntityId") Long financialEntityId,
+                                      @Param("programType") String programType);
+
     @Query(value = "SELECT cast(s.created_at as date) as date, COUNT(*) as count " +
             "FROM simulations s " +
             "WHERE s.user_id = :userId AND s.created_at >= :startDate " +
@@ -0,0 +1,9 @@
+package com.simucredito.simulation.domain.repository;
+
+import com.simucredito.simulation.domain.model.StressRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StressRunRepository extends JpaRepository<StressRun, Long> {
+}
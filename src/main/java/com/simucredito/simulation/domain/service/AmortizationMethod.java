@@ -0,0 +1,53 @@
+package com.simucredito.simulation.domain.service;
+
+/**
+ * Regla de amortización del tramo posterior a la gracia. Los bucles de FinancialCalculator y ScheduleKernel se
+ * encargan de lo común (gracia, seguros, comisiones, última cuota que liquida el saldo); el método solo decide cuánto
+ * capital se paga en cada periodo normal, en double. Para agregar un método basta con implementar esta interfaz;
+ * BatchScheduleKernel lo evalúa escenario por escenario y SensitivityCalculator solo admite los estándar.
+ */
+public interface AmortizationMethod {
+
+    /**
+     * Código que llega en la solicitud y se guarda en la simulación ("french", "german", ...)
+     */
+    String code();
+
+    String description();
+
+    /**
+     * Si la última cuota es una cuota balón (marca AmortizationSchedule.isBalloonPayment)
+     */
+    default boolean hasBalloon() {
+        return false;
+    }
+
+    /**
+     * Valor nivelado del tramo (cuota, capital constante, ...), calculado una vez al empezar a amortizar
+     *
+     * @param balance       saldo al terminar la gracia
+     * @param periods       periodos que quedan, incluida la última cuota
+     * @param balloonAmount monto que queda para la última cuota (0 si el método no tiene balón)
+     */
+    double plan(double balance, double monthlyRate, int periods, double balloonAmount);
+
+    /**
+     * Capital de un periodo normal (no la última cuota) dado el valor nivelado y el interés del periodo
+     */
+    double principal(double level, double interest);
+
+    /**
+     * @param code null equivale al método francés, que es el de las simulaciones anteriores
+     */
+    static AmortizationMethod of(String code) {
+        if (code == null) {
+            return StandardAmortizationMethod.FRENCH;
+        }
+        for (StandardAmortizationMethod method : StandardAmortizationMethod.values()) {
+            if (method.code().equals(code)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unknown amortization method: " + code);
+    }
+}
@@ -0,0 +1,144 @@
+package com.simucredito.simulation.domain.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evalúa muchos escenarios con la misma forma (plazo, gracia, seguros y costos) y distinto principal o tasa, como
+ * las filas de una grilla o los choques de una simulación. El método de amortización y la fracción de balón también
+ * vienen en la forma. Si el jar se construyó con el perfil vector y la JVM arranca con --add-modules
+ * jdk.incubator.vector, cada escenario ocupa un carril SIMD (VectorBatchEvaluator); si no, se recorre uno por uno con
+ * ScheduleKernel.
+ * Ambos caminos hacen las mismas operaciones en el mismo orden, así que los resultados coinciden bit a bit.
+ */
+@Service
+@Slf4j
+public class BatchScheduleKernel {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    // Solo se compila con -Pvector, así que se carga por nombre
+    private static final String VECTOR_EVALUATOR = "com.simucredito.simulation.domain.service.VectorBatchEvaluator";
+
+    private final ScheduleKernel scheduleKernel;
+    private final LaneEvaluator vectorEvaluator;
+
+    public BatchScheduleKernel(ScheduleKernel scheduleKernel) {
+        this.scheduleKernel = scheduleKernel;
+        this.vectorEvaluator = createVectorEvaluator(scheduleKernel);
+    }
+
+    private static LaneEvaluator createVectorEvaluator(ScheduleKernel scheduleKernel) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("{} not available; batch schedule kernel uses scalar code", VECTOR_MODULE);
+            return null;
+        }
+        try {
+            LaneEvaluator evaluator = Class.forName(VECTOR_EVALUATOR)
+                    .asSubclass(LaneEvaluator.class)
+                    .getDeclaredConstructor(ScheduleKernel.class)
+                    .newInstance(scheduleKernel);
+            if (evaluator.lanes() < 2) {
+                log.info("No SIMD lanes for double; batch schedule kernel uses scalar code");
+                return null;
+            }
+            log.info("Batch schedule kernel uses {} double lanes", evaluator.lanes());
+            return evaluator;
+        } catch (ClassNotFoundException e) {
+            log.info("Built without the vector profile; batch schedule kernel uses scalar code");
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("Could not initialize vector batch kernel, using scalar code: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Camino vectorial de evaluate; lo implementa VectorBatchEvaluator
+     */
+    interface LaneEvaluator {
+
+        int lanes();
+
+        void evaluate(ScheduleKernel.Terms shape, double[] principals, double[] monthlyRates, int count, Results results);
+    }
+
+    public boolean isVectorized() {
+        return vectorEvaluator != null;
+    }
+
+    /**
+     * Evalúa count escenarios: el i-ésimo usa principals[i] y monthlyRates[i]; el resto de condiciones sale de
+     * shape (se ignoran su principal y su tasa). Los resultados quedan en la posición i de results.
+     */
+    public void evaluate(ScheduleKernel.Terms shape, double[] principals, double[] monthlyRates, int count, Results results) {
+        if (results.capacity() < count) {
+            throw new IllegalArgumentException("Results capacity " + results.capacity() + " is below " + count);
+        }
+        // Un método propio (fuera de StandardAmortizationMethod) no tiene versión vectorial
+        if (vectorEvaluator != null && shape.amortizationMethod() instanceof StandardAmortizationMethod) {
+            vectorEvaluator.evaluate(shape, principals, monthlyRates, count, results);
+        } else {
+            evaluateScalar(scheduleKernel, shape, principals, monthlyRates, 0, count, results);
+        }
+    }
+
+    /**
+     * Camino escalar; también cubre los escenarios que no llenan un vector completo
+     */
+    static void evaluateScalar(ScheduleKernel scheduleKernel, ScheduleKernel.Terms shape, double[] principals,
+                               double[] monthlyRates, int from, int to, Results results) {
+        double[] buffer = results.scalarBuffer(shape.termMonths() + 1);
+        for (int i = from; i < to; i++) {
+            ScheduleKernel.Outcome outcome = scheduleKernel.evaluate(shape.with(principals[i], monthlyRates[i]), buffer);
+            results.monthlyPayment[i] = outcome.monthlyPayment();
+            results.maxPayment[i] = outcome.maxPayment();
+            results.totalPaid[i] = outcome.totalPaid();
+            results.totalInterest[i] = outcome.totalInterest();
+            results.irr[i] = outcome.irr();
+            results.tcea[i] = outcome.tcea();
+        }
+    }
+
+    /**
+     * Resultados en columnas, con los mismos campos que ScheduleKernel.Outcome. Se reutiliza entre llamadas (junto con
+     * sus buffers de flujos), por lo que no es seguro compartirlo entre hilos.
+     */
+    public static final class Results {
+        @Getter private final double[] monthlyPayment;
+        @Getter private final double[] maxPayment;
+        @Getter private final double[] totalPaid;
+        @Getter private final double[] totalInterest;
+        @Getter private final double[] irr; // Mensual, en decimal
+        @Getter private final double[] tcea; // En porcentaje
+        private double[] scalarBuffer = new double[0];
+        private double[] laneBuffer = new double[0];
+
+        public Results(int capacity) {
+            this.monthlyPayment = new double[capacity];
+            this.maxPayment = new double[capacity];
+            this.totalPaid = new double[capacity];
+            this.totalInterest = new double[capacity];
+            this.irr = new double[capacity];
+            this.tcea = new double[capacity];
+        }
+
+        public int capacity() {
+            return monthlyPayment.length;
+        }
+
+        double[] scalarBuffer(int length) {
+            if (scalarBuffer.length < length) {
+                scalarBuffer = new double[length];
+            }
+            return scalarBuffer;
+        }
+
+        double[] laneBuffer(int length) {
+            if (laneBuffer.length < length) {
+                laneBuffer = new double[length];
+            }
+            return laneBuffer;
+        }
+    }
+}
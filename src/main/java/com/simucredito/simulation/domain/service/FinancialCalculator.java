@@ -1,5 +1,8 @@
 package com.simucredito.simulation.domain.service;
 
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.domain.model.PrecisionMode;
+import com.simucredito.simulation.domain.model.ScheduleColumns;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -16,87 +19,32 @@ public class FinancialCalculator {
     private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
 
     public BigDecimal calculateMonthlyEffectiveRate(BigDecimal annualRate, String rateType, String capitalizationPeriod) {
-        double rateDouble = annualRate.divide(BigDecimal.valueOf(100), MATH_CONTEXT).doubleValue();
-        double temDouble;
-
-        if ("TE".equals(rateType)) {
-            double base = 1.0 + rateDouble;
-            double exponent = 30.0 / 360.0;
-            temDouble = Math.pow(base, exponent) - 1.0;
-        } else if ("TN".equals(rateType)) {
-            int m = getCapitalizationsPerYear(capitalizationPeriod);
-            double n = (double) m / 12.0;
-            double base = 1.0 + (rateDouble / m);
-            temDouble = Math.pow(base, n) - 1.0;
-        } else {
-            throw new IllegalArgumentException("Invalid rate type: " + rateType);
-        }
-        return BigDecimal.valueOf(temDouble);
+        return RateSpec.of(annualRate, rateType, "annual", capitalizationPeriod != null ? capitalizationPeriod : "monthly").tem();
     }
 
+    /**
+     * TEM de la tasa indicada; la interpretación y el cálculo se memoizan en RateSpec
+     */
     public BigDecimal convertToTEM(BigDecimal rate, String rateType, String period, String capitalization) {
-        double rateDouble = rate.divide(BigDecimal.valueOf(100), MATH_CONTEXT).doubleValue();
-        double temDouble;
-
-        if ("TE".equals(rateType)) {
-            double base = 1.0 + rateDouble;
-            double n1 = (double) getDaysInPeriod(period);
-            double n2 = 30.0;
-            double exponent = n2 / n1;
-            temDouble = Math.pow(base, exponent) - 1.0;
-        } else if ("TN".equals(rateType)) {
-            double j_tasa_nominal_anual = rateDouble * (360.0 / getDaysInPeriod(period));
-            String capPeriod = (capitalization != null ? capitalization : period);
-            int m = getCapitalizationsPerYear(capPeriod);
-            double n = (double) m / 12.0;
-            double base = 1.0 + (j_tasa_nominal_anual / m);
-            temDouble = Math.pow(base, n) - 1.0;
-        } else {
-            throw new IllegalArgumentException("Invalid rate type: " + rateType);
-        }
-        return BigDecimal.valueOf(temDouble);
+        return RateSpec.of(rate, rateType, period, capitalization).tem();
     }
 
     public BigDecimal calculateCOK(BigDecimal opportunityCostRate, String opportunityCostType, String opportunityCostPeriod, String opportunityCostCapitalization) {
         return convertToTEM(opportunityCostRate, opportunityCostType, opportunityCostPeriod, opportunityCostCapitalization);
     }
 
-    private int getDaysInPeriod(String period) {
-        if (period == null) return 30;
-        return switch (period.toLowerCase()) {
-            case "daily" -> 1;
-            case "seminal", "bi-weekly" -> 15;
-            case "monthly" -> 30;
-            case "bi-monthly" -> 60;
-            case "quarterly" -> 90;
-            case "semi-annually" -> 180;
-            case "annual" -> 360;
-            default -> 30;
-        };
-    }
-
-    private int getCapitalizationsPerYear(String period) {
-        if (period == null) return 12;
-        return switch (period.toLowerCase()) {
-            case "daily" -> 360;
-            case "seminal", "bi-weekly" -> 24;
-            case "monthly" -> 12;
-            case "bi-monthly" -> 6;
-            case "quarterly" -> 4;
-            case "semi-annually" -> 2;
-            case "annual" -> 1;
-            default -> 12;
-        };
+    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal monthlyRate, int termMonths) {
+        return calculateMonthlyPayment(principal, monthlyRate, termMonths, MATH_CONTEXT);
     }
 
-    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal monthlyRate, int termMonths) {
+    public BigDecimal calculateMonthlyPayment(BigDecimal principal, BigDecimal monthlyRate, int termMonths, MathContext mc) {
         if (monthlyRate.compareTo(BigDecimal.ZERO) == 0) {
-            return principal.divide(BigDecimal.valueOf(termMonths), MATH_CONTEXT);
+            return principal.divide(BigDecimal.valueOf(termMonths), mc);
         }
-        BigDecimal rateFactor = monthlyRate.add(BigDecimal.ONE).pow(termMonths, MATH_CONTEXT);
-        BigDecimal numerator = monthlyRate.multiply(rateFactor, MATH_CONTEXT);
-        BigDecimal denominator = rateFactor.subtract(BigDecimal.ONE, MATH_CONTEXT);
-        return principal.multiply(numerator, MATH_CONTEXT).divide(denominator, MATH_CONTEXT).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal rateFactor = monthlyRate.add(BigDecimal.ONE).pow(termMonths, mc);
+        BigDecimal numerator = monthlyRate.multiply(rateFactor, mc);
+        BigDecimal denominator = rateFactor.subtract(BigDecimal.ONE, mc);
+        return principal.multiply(numerator, mc).divide(denominator, mc).setScale(2, RoundingMode.HALF_UP);
     }
 
     public BigDecimal calculateVAN(BigDecimal monthlyPayment, BigDecimal cokRate, int termMonths, BigDecimal initialInvestment) {
@@ -141,10 +89,35 @@ public class FinancialCalculator {
         return van.setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * VAN sobre un arreglo de flujos (flujo 0 = desembolso)
+     */
+    public BigDecimal calculateScheduleVAN(double[] cashFlows, BigDecimal cokRate) {
+        double factor = 1.0 / (1.0 + cokRate.doubleValue());
+        double discount = 1.0;
+        double van = 0.0;
+        for (double flow : cashFlows) {
+            van += flow * discount;
+            discount *= factor;
+        }
+        return BigDecimal.valueOf(van).setScale(2, RoundingMode.HALF_UP);
+    }
+
     /**
      * Calcula la TIR (Tasa Interna de Retorno) mensual basada en flujo de caja variable
      */
     public BigDecimal calculateScheduleTIR(List<BigDecimal> cashFlows) {
+        double[] flows = new double[cashFlows.size()];
+        for (int t = 0; t < flows.length; t++) {
+            flows[t] = cashFlows.get(t).doubleValue();
+        }
+        return calculateScheduleTIR(flows);
+    }
+
+    /**
+     * Misma iteración de Newton sobre un arreglo de flujos; el factor de descuento se acumula en vez de usar pow
+     */
+    public BigDecimal calculateScheduleTIR(double[] cashFlows) {
         double guess = 0.01; // 1% mensual inicial
         int maxIterations = 100;
         double tolerance = 0.00001;
@@ -152,13 +125,13 @@ public class FinancialCalculator {
         for (int i = 0; i < maxIterations; i++) {
             double npv = 0.0;
             double d_npv = 0.0;
+            double factor = 1.0 / (1.0 + guess);
+            double discount = 1.0; // (1 + guess)^-t
 
-            for (int t = 0; t < cashFlows.size(); t++) {
-                double flow = cashFlows.get(t).doubleValue();
-                double denominator = Math.pow(1.0 + guess, t);
-
-                npv += flow / denominator;
-                d_npv -= t * flow / (denominator * (1.0 + guess));
+            for (int t = 0; t < cashFlows.length; t++) {
+                npv += cashFlows[t] * discount;
+                d_npv -= t * cashFlows[t] * discount * factor;
+                discount *= factor;
             }
 
             if (Math.abs(npv) < tolerance) {
@@ -198,7 +171,8 @@ public class FinancialCalculator {
     }
 
     /**
-     * Genera el cronograma de amortización completo con todos los costos y corrección de Gracia
+     * Genera el cronograma de amortización completo con todos los costos y corrección de Gracia.
+     * Vista por filas de generateScheduleColumns para quien necesita AmortizationEntry.
      */
     public List<AmortizationEntry> generateAmortizationSchedule(
             BigDecimal principal, BigDecimal monthlyRate, BigDecimal initialMonthlyPayment,
@@ -207,7 +181,93 @@ public class FinancialCalculator {
             BigDecimal monthlyCommissions, BigDecimal administrationCosts,
             String statementDelivery, BigDecimal propertyInsuranceValue) {
 
-        List<AmortizationEntry> schedule = new ArrayList<>();
+        ScheduleColumns columns = generateScheduleColumns(principal, monthlyRate, initialMonthlyPayment, termMonths,
+                gracePeriodMonths, gracePeriodType, lifeInsuranceRate, propertyInsuranceRate, monthlyCommissions,
+                administrationCosts, statementDelivery, propertyInsuranceValue);
+
+        List<AmortizationEntry> schedule = new ArrayList<>(columns.getLength());
+        for (int i = 0; i < columns.getLength(); i++) {
+            schedule.add(AmortizationEntry.builder()
+                    .periodNumber(i + 1)
+                    .beginningBalance(BigDecimal.valueOf(columns.getBeginningBalance()[i]))
+                    .scheduledPayment(BigDecimal.valueOf(columns.getScheduledPayment()[i]))
+                    .principalPayment(BigDecimal.valueOf(columns.getPrincipal()[i]))
+                    .interestPayment(BigDecimal.valueOf(columns.getInterest()[i]))
+                    .payment(BigDecimal.valueOf(columns.getPayment()[i]))
+                    .lifeInsurancePayment(BigDecimal.valueOf(columns.getLifeInsurance()[i]))
+                    .propertyInsurancePayment(BigDecimal.valueOf(columns.getPropertyInsurance()[i]))
+                    .commissions(monthlyCommissions)
+                    .adminCosts(administrationCosts)
+                    .deliveryCosts(BigDecimal.valueOf(columns.getDeliveryCosts()[i]))
+                    .endingBalance(BigDecimal.valueOf(columns.getEndingBalance()[i]))
+                    .cumulativePrincipal(BigDecimal.valueOf(columns.getCumulativePrincipal()[i]))
+                    .cumulativeInterest(BigDecimal.valueOf(columns.getCumulativeInterest()[i]))
+                    .cashFlow(BigDecimal.valueOf(-columns.getPayment()[i]))
+                    .isGracePeriod(columns.getGracePeriod()[i])
+                    .build());
+        }
+        return schedule;
+    }
+
+    /**
+     * Cronograma en columnas con la aritmética de referencia (DECIMAL128)
+     */
+    public ScheduleColumns generateScheduleColumns(
+            BigDecimal principal, BigDecimal monthlyRate, BigDecimal initialMonthlyPayment,
+            int termMonths, Integer gracePeriodMonths, String gracePeriodType,
+            BigDecimal lifeInsuranceRate, BigDecimal propertyInsuranceRate,
+            BigDecimal monthlyCommissions, BigDecimal administrationCosts,
+            String statementDelivery, BigDecimal propertyInsuranceValue) {
+        return generateScheduleColumns(principal, monthlyRate, initialMonthlyPayment, termMonths, gracePeriodMonths,
+                gracePeriodType, lifeInsuranceRate, propertyInsuranceRate, monthlyCommissions, administrationCosts,
+                statementDelivery, propertyInsuranceValue, PrecisionMode.DECIMAL128_REFERENCE);
+    }
+
+    /**
+     * Cronograma en columnas. La recurrencia del saldo se calcula con la aritmética del modo (double, DECIMAL64 o
+     * DECIMAL128) y cada monto se guarda como double sin redondear: no se crea un objeto por periodo.
+     */
+    public ScheduleColumns generateScheduleColumns(
+            BigDecimal principal, BigDecimal monthlyRate, BigDecimal initialMonthlyPayment,
+            int termMonths, Integer gracePeriodMonths, String gracePeriodType,
+            BigDecimal lifeInsuranceRate, BigDecimal propertyInsuranceRate,
+            BigDecimal monthlyCommissions, BigDecimal administrationCosts,
+            String statementDelivery, BigDecimal propertyInsuranceValue, PrecisionMode precision) {
+        return generateScheduleColumns(principal, monthlyRate, initialMonthlyPayment, termMonths, gracePeriodMonths,
+                gracePeriodType, lifeInsuranceRate, propertyInsuranceRate, monthlyCommissions, administrationCosts,
+                statementDelivery, propertyInsuranceValue, precision, StandardAmortizationMethod.FRENCH, BigDecimal.ZERO);
+    }
+
+    /**
+     * Cronograma en columnas con el método de amortización indicado. El francés con precisión decimal usa la
+     * recurrencia BigDecimal de referencia; FAST_DOUBLE usa el bucle común en double (generateScheduleColumnsFast),
+     * el único que admite los demás métodos. Un modo decimal con otro método lanza IllegalArgumentException.
+     *
+     * @param initialMonthlyPayment cuota francesa sin gracia; solo la usa la recurrencia de referencia
+     * @param balloonAmount         monto de la cuota balón (métodos con hasBalloon)
+     */
+    public ScheduleColumns generateScheduleColumns(
+            BigDecimal principal, BigDecimal monthlyRate, BigDecimal initialMonthlyPayment,
+            int termMonths, Integer gracePeriodMonths, String gracePeriodType,
+            BigDecimal lifeInsuranceRate, BigDecimal propertyInsuranceRate,
+            BigDecimal monthlyCommissions, BigDecimal administrationCosts,
+            String statementDelivery, BigDecimal propertyInsuranceValue, PrecisionMode precision,
+            AmortizationMethod method, BigDecimal balloonAmount) {
+
+        if (precision != PrecisionMode.FAST_DOUBLE && method != StandardAmortizationMethod.FRENCH) {
+            throw new IllegalArgumentException("Precision " + precision + " is only available for the french method; "
+                    + "use FAST_DOUBLE with the " + method.code() + " method");
+        }
+        if (precision == PrecisionMode.FAST_DOUBLE) {
+            return generateScheduleColumnsFast(principal.doubleValue(), monthlyRate.doubleValue(), termMonths,
+                    gracePeriodMonths != null ? gracePeriodMonths : 0, gracePeriodType,
+                    lifeInsuranceRate.doubleValue(), propertyInsuranceRate.doubleValue(),
+                    monthlyCommissions.doubleValue(), administrationCosts.doubleValue(), statementDelivery,
+                    propertyInsuranceValue.doubleValue(), method, balloonAmount.doubleValue());
+        }
+        MathContext mc = precision.mathContext();
+
+        ScheduleColumns columns = new ScheduleColumns(termMonths);
         BigDecimal remainingBalance = principal;
         BigDecimal cumulativePrincipal = BigDecimal.ZERO;
         BigDecimal cumulativeInterest = BigDecimal.ZERO;
@@ -217,105 +277,165 @@ public class FinancialCalculator {
 
         // Costos periódicos mensuales
         BigDecimal deliveryCost = "physical".equals(statementDelivery) ? BigDecimal.valueOf(10) : BigDecimal.ZERO;
+        BigDecimal fixedCosts = monthlyCommissions.add(administrationCosts).add(deliveryCost);
 
-        // Ajuste: Asegurar que la tasa de seguro de inmueble sea mensual (dividiendo la anual entre 12)
-        BigDecimal monthlyPropertyInsuranceRate = propertyInsuranceRate;
+        // El seguro de inmueble es un monto fijo por periodo
+        BigDecimal propertyInsurancePayment = propertyInsuranceValue.multiply(propertyInsuranceRate, mc);
 
         for (int period = 1; period <= termMonths; period++) {
+            int i = period - 1;
             boolean isGracePeriod = gracePeriodMonths != null && period <= gracePeriodMonths;
 
             // --- FIX: DETECTAR FIN DE GRACIA Y RECALCULAR CUOTA ---
             if (gracePeriodMonths != null && period == gracePeriodMonths + 1) {
                 int remainingPeriods = termMonths - gracePeriodMonths;
-                currentPmtBase = calculateMonthlyPayment(remainingBalance, monthlyRate, remainingPeriods);
+                currentPmtBase = calculateMonthlyPayment(remainingBalance, monthlyRate, remainingPeriods, mc);
             }
             // ------------------------------------------------------
 
-            BigDecimal interestPayment;
+            BigDecimal interestPayment = remainingBalance.multiply(monthlyRate, mc);
             BigDecimal principalPayment;
             BigDecimal scheduledPayment;
-
-            if (isGracePeriod) {
-                if ("total".equals(gracePeriodType)) {
-                    interestPayment = remainingBalance.multiply(monthlyRate, MATH_CONTEXT);
-                    principalPayment = BigDecimal.ZERO;
-                    scheduledPayment = BigDecimal.ZERO;
-                    remainingBalance = remainingBalance.add(interestPayment, MATH_CONTEXT);
-                } else if ("partial".equals(gracePeriodType)) {
-                    interestPayment = remainingBalance.multiply(monthlyRate, MATH_CONTEXT);
-                    principalPayment = BigDecimal.ZERO;
-                    scheduledPayment = interestPayment;
-                } else {
-                    interestPayment = remainingBalance.multiply(monthlyRate, MATH_CONTEXT);
-                    principalPayment = currentPmtBase.subtract(interestPayment, MATH_CONTEXT);
-                    scheduledPayment = currentPmtBase;
-                }
+            boolean totalGrace = isGracePeriod && "total".equals(gracePeriodType);
+
+            if (totalGrace) {
+                principalPayment = BigDecimal.ZERO;
+                scheduledPayment = BigDecimal.ZERO;
+                remainingBalance = remainingBalance.add(interestPayment, mc);
+            } else if (isGracePeriod && "partial".equals(gracePeriodType)) {
+                principalPayment = BigDecimal.ZERO;
+                scheduledPayment = interestPayment;
+            } else if (!isGracePeriod && period == termMonths) {
+                principalPayment = remainingBalance;
+                currentPmtBase = principalPayment.add(interestPayment, mc);
+                scheduledPayment = currentPmtBase;
             } else {
-                interestPayment = remainingBalance.multiply(monthlyRate, MATH_CONTEXT);
-                principalPayment = currentPmtBase.subtract(interestPayment, MATH_CONTEXT);
-
-                if (period == termMonths) {
-                    principalPayment = remainingBalance;
-                    currentPmtBase = principalPayment.add(interestPayment, MATH_CONTEXT);
-                    scheduledPayment = currentPmtBase;
-                } else {
-                    scheduledPayment = currentPmtBase;
-                }
+                principalPayment = currentPmtBase.subtract(interestPayment, mc);
+                scheduledPayment = currentPmtBase;
             }
 
             // Seguros y Costos
-            BigDecimal lifeInsurancePayment = remainingBalance.multiply(lifeInsuranceRate, MATH_CONTEXT);
-            BigDecimal propertyInsurancePayment = propertyInsuranceValue.multiply(monthlyPropertyInsuranceRate, MATH_CONTEXT);
+            BigDecimal lifeInsurancePayment = remainingBalance.multiply(lifeInsuranceRate, mc);
 
             // Cuota Total Final
             BigDecimal totalPayment = scheduledPayment
                     .add(lifeInsurancePayment)
                     .add(propertyInsurancePayment)
-                    .add(monthlyCommissions)
-                    .add(administrationCosts)
-                    .add(deliveryCost);
+                    .add(fixedCosts);
 
             // Saldo final
-            BigDecimal endingBalance = (isGracePeriod && "total".equals(gracePeriodType))
+            BigDecimal endingBalance = totalGrace
                     ? remainingBalance
-                    : remainingBalance.subtract(principalPayment, MATH_CONTEXT);
+                    : remainingBalance.subtract(principalPayment, mc);
 
             // Acumulados
-            cumulativePrincipal = cumulativePrincipal.add(principalPayment, MATH_CONTEXT);
-            cumulativeInterest = cumulativeInterest.add(interestPayment, MATH_CONTEXT);
-
-            // Flujo de caja
-            BigDecimal cashFlow = totalPayment.negate();
-
-            // Construir Entry
-            AmortizationEntry entry = AmortizationEntry.builder()
-                    .periodNumber(period)
-                    .beginningBalance(isGracePeriod && "total".equals(gracePeriodType) ? remainingBalance.subtract(interestPayment, MATH_CONTEXT) : remainingBalance)
-                    .scheduledPayment(scheduledPayment)
-                    .principalPayment(principalPayment)
-                    .interestPayment(interestPayment)
-                    .payment(totalPayment)
-                    .lifeInsurancePayment(lifeInsurancePayment)
-                    .propertyInsurancePayment(propertyInsurancePayment)
-                    .commissions(monthlyCommissions)
-                    .adminCosts(administrationCosts)
-                    .deliveryCosts(deliveryCost)
-                    .endingBalance(endingBalance)
-                    .cumulativePrincipal(cumulativePrincipal)
-                    .cumulativeInterest(cumulativeInterest)
-                    .cashFlow(cashFlow) // AGREGADO
-                    .isGracePeriod(isGracePeriod)
-                    .build();
-
-            schedule.add(entry);
+            cumulativePrincipal = cumulativePrincipal.add(principalPayment, mc);
+            cumulativeInterest = cumulativeInterest.add(interestPayment, mc);
+
+            columns.getBeginningBalance()[i] = (totalGrace ? remainingBalance.subtract(interestPayment, mc) : remainingBalance).doubleValue();
+            columns.getInterest()[i] = interestPayment.doubleValue();
+            columns.getPrincipal()[i] = principalPayment.doubleValue();
+            columns.getScheduledPayment()[i] = scheduledPayment.doubleValue();
+            columns.getLifeInsurance()[i] = lifeInsurancePayment.doubleValue();
+            columns.getPropertyInsurance()[i] = propertyInsurancePayment.doubleValue();
+            columns.getCommissions()[i] = monthlyCommissions.doubleValue();
+            columns.getAdminCosts()[i] = administrationCosts.doubleValue();
+            columns.getDeliveryCosts()[i] = deliveryCost.doubleValue();
+            columns.getPayment()[i] = totalPayment.doubleValue();
+            columns.getEndingBalance()[i] = endingBalance.doubleValue();
+            columns.getCumulativePrincipal()[i] = cumulativePrincipal.doubleValue();
+            columns.getCumulativeInterest()[i] = cumulativeInterest.doubleValue();
+            columns.getGracePeriod()[i] = isGracePeriod;
 
             // Preparar saldo siguiente
-            if (!(isGracePeriod && "total".equals(gracePeriodType))) {
+            if (!totalGrace) {
                 remainingBalance = endingBalance;
             }
         }
 
-        return schedule;
+        return columns;
+    }
+
+    /**
+     * Bucle común en double: gracia, seguros, costos y última cuota son iguales para todos los métodos; el método
+     * solo fija el valor nivelado al empezar a amortizar y el capital de cada periodo normal. No crea objetos por
+     * periodo.
+     */
+    private ScheduleColumns generateScheduleColumnsFast(
+            double principal, double monthlyRate, int termMonths, int graceMonths, String gracePeriodType,
+            double lifeInsuranceRate, double propertyInsuranceRate,
+            double monthlyCommissions, double administrationCosts,
+            String statementDelivery, double propertyInsuranceValue,
+            AmortizationMethod method, double balloonAmount) {
+
+        ScheduleColumns columns = new ScheduleColumns(termMonths);
+        boolean totalGraceType = "total".equals(gracePeriodType);
+        boolean partialGraceType = "partial".equals(gracePeriodType);
+        double deliveryCost = "physical".equals(statementDelivery) ? 10.0 : 0.0;
+        double fixedCosts = monthlyCommissions + administrationCosts + deliveryCost;
+        double propertyInsurancePayment = propertyInsuranceValue * propertyInsuranceRate;
+        double balloon = method.hasBalloon() ? balloonAmount : 0.0;
+
+        double remainingBalance = principal;
+        double level = 0.0;
+        double cumulativePrincipal = 0.0;
+        double cumulativeInterest = 0.0;
+
+        for (int i = 0; i < termMonths; i++) {
+            int period = i + 1;
+            boolean isGracePeriod = period <= graceMonths;
+            if (period == 1) {
+                level = method.plan(remainingBalance, monthlyRate, termMonths, balloon);
+            }
+            if (graceMonths > 0 && period == graceMonths + 1) {
+                level = method.plan(remainingBalance, monthlyRate, termMonths - graceMonths, balloon);
+            }
+
+            double interestPayment = remainingBalance * monthlyRate;
+            double principalPayment;
+            double scheduledPayment;
+            boolean totalGrace = isGracePeriod && totalGraceType;
+            boolean lastPayment = !isGracePeriod && period == termMonths;
+            if (totalGrace) {
+                principalPayment = 0.0;
+                scheduledPayment = 0.0;
+                remainingBalance += interestPayment;
+            } else if (isGracePeriod && partialGraceType) {
+                principalPayment = 0.0;
+                scheduledPayment = interestPayment;
+            } else if (lastPayment) {
+                principalPayment = remainingBalance;
+                scheduledPayment = principalPayment + interestPayment;
+            } else {
+                principalPayment = method.principal(level, interestPayment);
+                scheduledPayment = principalPayment + interestPayment;
+            }
+
+            double lifeInsurancePayment = remainingBalance * lifeInsuranceRate;
+            double endingBalance = totalGrace ? remainingBalance : remainingBalance - principalPayment;
+            cumulativePrincipal += principalPayment;
+            cumulativeInterest += interestPayment;
+
+            columns.getBeginningBalance()[i] = totalGrace ? remainingBalance - interestPayment : remainingBalance;
+            columns.getInterest()[i] = interestPayment;
+            columns.getPrincipal()[i] = principalPayment;
+            columns.getScheduledPayment()[i] = scheduledPayment;
+            columns.getLifeInsurance()[i] = lifeInsurancePayment;
+            columns.getPropertyInsurance()[i] = propertyInsurancePayment;
+            columns.getCommissions()[i] = monthlyCommissions;
+            columns.getAdminCosts()[i] = administrationCosts;
+            columns.getDeliveryCosts()[i] = deliveryCost;
+            columns.getPayment()[i] = scheduledPayment + lifeInsurancePayment + propertyInsurancePayment + fixedCosts;
+            columns.getEndingBalance()[i] = endingBalance;
+            columns.getCumulativePrincipal()[i] = cumulativePrincipal;
+            columns.getCumulativeInterest()[i] = cumulativeInterest;
+            columns.getGracePeriod()[i] = isGracePeriod;
+            columns.getBalloonPayment()[i] = lastPayment && method.hasBalloon();
+
+            remainingBalance = endingBalance;
+        }
+
+        return columns;
     }
 
     /**
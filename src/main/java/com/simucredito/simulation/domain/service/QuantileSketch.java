@@ -0,0 +1,210 @@
+package com.simucredito.simulation.domain.service;
+
+/**
+ * Sketch de cuantiles con error relativo acotado (esquema de cubetas logarítmicas tipo DDSketch). Cada valor cae
+ * en la cubeta ⌈log_γ |x|⌉ con γ = (1 + α) / (1 − α), así que cualquier cuantil se estima con error relativo ≤ α
+ * usando memoria proporcional al rango de magnitudes y no a la cantidad de valores. Dos sketches con la misma
+ * precisión se combinan sumando sus cubetas, lo que permite acumular por hilo y fusionar al final.
+ * No es seguro para uso concurrente.
+ */
+public final class QuantileSketch {
+
+    private static final double MIN_MAGNITUDE = 1e-9; // Por debajo se cuenta como cero
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final Store positive = new Store();
+    private final Store negative = new Store();
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0.0 && relativeAccuracy < 1.0)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1.0 + relativeAccuracy) / (1.0 - relativeAccuracy));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > MIN_MAGNITUDE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_MAGNITUDE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param quantile entre 0 y 1
+     * @return NaN si el sketch está vacío
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        double estimate;
+        if (rank < negative.total) {
+            // Los negativos más grandes en magnitud van primero
+            estimate = -value(negative.indexFromTop(rank));
+        } else if (rank < negative.total + zeroCount) {
+            estimate = 0.0;
+        } else {
+            estimate = value(positive.indexFromBottom(rank - negative.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, estimate));
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Estado completo para guardar un punto de control; fromSnapshot lo reconstruye sin pérdida
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(relativeAccuracy, positive.offset, positive.counts.clone(), negative.offset,
+                negative.counts.clone(), zeroCount, count, sum, count == 0 ? 0.0 : min, count == 0 ? 0.0 : max);
+    }
+
+    public static QuantileSketch fromSnapshot(Snapshot snapshot) {
+        QuantileSketch sketch = new QuantileSketch(snapshot.relativeAccuracy());
+        sketch.positive.restore(snapshot.positiveOffset(), snapshot.positiveCounts());
+        sketch.negative.restore(snapshot.negativeOffset(), snapshot.negativeCounts());
+        sketch.zeroCount = snapshot.zeroCount();
+        sketch.count = snapshot.count();
+        sketch.sum = snapshot.sum();
+        if (snapshot.count() > 0) {
+            sketch.min = snapshot.min();
+            sketch.max = snapshot.max();
+        }
+        return sketch;
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private double value(int index) {
+        // Punto de la cubeta (γ^(k−1), γ^k] que minimiza el error relativo
+        return 2.0 * Math.exp(index * logGamma) / (1.0 + Math.exp(logGamma));
+    }
+
+    /**
+     * Contadores contiguos desde offset; crece en ambos sentidos según llegan índices nuevos
+     */
+    private static final class Store {
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index, long amount) {
+            ensure(index);
+            counts[index - offset] += amount;
+            total += amount;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        void restore(int offset, long[] counts) {
+            this.offset = offset;
+            this.counts = counts.clone();
+            this.total = 0;
+            for (long value : counts) {
+                total += value;
+            }
+        }
+
+        int indexFromBottom(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        int indexFromTop(long rank) {
+            long seen = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset;
+        }
+
+        private void ensure(int index) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+                return;
+            }
+            if (index >= offset && index < offset + counts.length) {
+                return;
+            }
+            int low = Math.min(offset, index);
+            int high = Math.max(offset + counts.length - 1, index);
+            int length = Math.max(high - low + 1, counts.length * 2);
+            int newOffset = index < offset ? high - length + 1 : low;
+            long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        }
+    }
+
+    public record Snapshot(double relativeAccuracy, int positiveOffset, long[] positiveCounts, int negativeOffset,
+                           long[] negativeCounts, long zeroCount, long count, double sum, double min, double max) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.simucredito.simulation.domain.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Versión en doble precisión de generateAmortizationSchedule + calculateScheduleTIR para evaluar muchos
+ * escenarios por segundo (grillas, búsquedas). No guarda el cronograma: acumula totales y deja los flujos en
+ * un buffer que el llamador reutiliza; la TIR se resuelve con Newton evaluando el VAN por multiplicaciones
+ * sucesivas (sin Math.pow por periodo). El método de amortización de Terms decide el capital de cada periodo
+ * normal igual que en FinancialCalculator; el francés usa la anualidad sin redondear. Para montos persistidos se
+ * sigue usando FinancialCalculator.
+ */
+@Service
+public class ScheduleKernel {
+
+    private static final int MAX_IRR_ITERATIONS = 50;
+    private static final double IRR_TOLERANCE = 1e-12;
+
+    /**
+     * @param buffer arreglo de al menos termMonths + 1 posiciones; se sobrescribe con los flujos de caja
+     */
+    public Outcome evaluate(Terms terms, double[] buffer) {
+        return evaluate(terms, null, buffer);
+    }
+
+    /**
+     * Tasa variable: ratePath[periodo] es la TEM vigente en ese periodo (la posición 0 no se usa). Cuando la tasa
+     * cambia se recalcula la cuota con el saldo y los periodos restantes, como en un crédito con tasa reajustable.
+     * Con ratePath null se usa terms.monthlyRate() en todo el plazo.
+     */
+    public Outcome evaluate(Terms terms, double[] ratePath, double[] buffer) {
+        int termMonths = terms.termMonths();
+        int graceMonths = terms.graceMonths();
+        boolean totalGrace = "total".equals(terms.graceType());
+        boolean partialGrace = "partial".equals(terms.graceType());
+        double rate = ratePath != null ? ratePath[1] : terms.monthlyRate();
+        double extras = terms.propertyInsurance() + terms.fixedCosts();
+
+        AmortizationMethod method = terms.amortizationMethod();
+        double balloon = terms.balloonAmount();
+        double balance = terms.principal();
+        double level = level(method, balance, rate, termMonths, balloon);
+        double totalInterest = 0.0;
+        double totalPaid = 0.0;
+        double representativePayment = 0.0;
+        double maxPayment = 0.0;
+        buffer[0] = terms.principal();
+
+        for (int period = 1; period <= termMonths; period++) {
+            boolean isGracePeriod = graceMonths > 0 && period <= graceMonths;
+            if (ratePath != null && ratePath[period] != rate) {
+                rate = ratePath[period];
+                level = level(method, balance, rate, termMonths - Math.max(period, graceMonths + 1) + 1, balloon);
+            }
+            if (graceMonths > 0 && period == graceMonths + 1) {
+                level = level(method, balance, rate, termMonths - graceMonths, balloon);
+            }
+
+            double interest = balance * rate;
+            double principalPayment;
+            double scheduledPayment;
+            if (isGracePeriod && totalGrace) {
+                principalPayment = 0.0;
+                scheduledPayment = 0.0;
+                balance += interest;
+            } else if (isGracePeriod && partialGrace) {
+                principalPayment = 0.0;
+                scheduledPayment = interest;
+            } else if (!isGracePeriod && period == termMonths) {
+                principalPayment = balance;
+                scheduledPayment = principalPayment + interest;
+            } else if (method == StandardAmortizationMethod.FRENCH) {
+                principalPayment = level - interest;
+                scheduledPayment = level;
+            } else {
+                principalPayment = method.principal(level, interest);
+                scheduledPayment = principalPayment + interest;
+            }
+
+            double payment = scheduledPayment + balance * terms.lifeInsuranceRate() + extras;
+            totalInterest += interest;
+            totalPaid += payment;
+            maxPayment = Math.max(maxPayment, payment);
+            buffer[period] = -payment;
+
+            // Misma elección de "cuota mensual" que SimulationService.calculate
+            if (period == graceMonths + 1) {
+                representativePayment = payment;
+            } else if (graceMonths == 0 && period == 1) {
+                representativePayment = scheduledPayment;
+            }
+            if (representativePayment == 0.0 && period == 1) {
+                representativePayment = scheduledPayment;
+            }
+
+            if (!(isGracePeriod && totalGrace)) {
+                balance -= principalPayment;
+            }
+        }
+
+        double irr = irr(buffer, termMonths + 1, terms.monthlyRate() + terms.lifeInsuranceRate());
+        double tcea = (Math.pow(1.0 + irr, 12) - 1.0) * 100.0;
+        return new Outcome(representativePayment, maxPayment, totalPaid, totalInterest, irr, tcea);
+    }
+
+    /**
+     * Newton sobre VAN(r) = Σ flujo_t · v^t con v = 1 / (1 + r), acumulando v^t por productos
+     */
+    public double irr(double[] cashFlows, int length, double guess) {
+        double rate = guess > -0.99 ? guess : 0.01;
+        for (int iteration = 0; iteration < MAX_IRR_ITERATIONS; iteration++) {
+            double discountFactor = 1.0 / (1.0 + rate);
+            double discount = 1.0;
+            double npv = 0.0;
+            double derivative = 0.0;
+            for (int t = 0; t < length; t++) {
+                npv += cashFlows[t] * discount;
+                derivative -= t * cashFlows[t] * discount * discountFactor;
+                discount *= discountFactor;
+            }
+            if (derivative == 0.0) {
+                break;
+            }
+            double next = rate - npv / derivative;
+            if (Math.abs(next - rate) < IRR_TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return rate;
+    }
+
+    /**
+     * Valor nivelado del tramo: la anualidad sin redondear para el francés (como hasta ahora) y plan() para los demás
+     */
+    public double level(AmortizationMethod method, double balance, double rate, int periods, double balloonAmount) {
+        return method == StandardAmortizationMethod.FRENCH
+                ? annuity(balance, rate, periods)
+                : method.plan(balance, rate, periods, balloonAmount);
+    }
+
+    public double annuity(double principal, double rate, int periods) {
+        if (rate == 0.0) {
+            return principal / periods;
+        }
+        double factor = Math.pow(1.0 + rate, periods);
+        return principal * rate * factor / (factor - 1.0);
+    }
+
+    /**
+     * Condiciones de un escenario. propertyInsurance es el monto mensual fijo (valor asegurado × tasa) y
+     * fixedCosts la suma de comisiones, gastos administrativos y envío de estado de cuenta. balloonFraction es la
+     * parte del principal que queda para la última cuota (solo si el método tiene balón), así se escala con él.
+     */
+    public record Terms(double principal, double monthlyRate, int termMonths, int graceMonths, String graceType,
+                        double lifeInsuranceRate, double propertyInsurance, double fixedCosts,
+                        AmortizationMethod amortizationMethod, double balloonFraction) {
+
+        /**
+         * Método francés, sin balón
+         */
+        public Terms(double principal, double monthlyRate, int termMonths, int graceMonths, String graceType,
+                     double lifeInsuranceRate, double propertyInsurance, double fixedCosts) {
+            this(principal, monthlyRate, termMonths, graceMonths, graceType, lifeInsuranceRate, propertyInsurance,
+                    fixedCosts, StandardAmortizationMethod.FRENCH, 0.0);
+        }
+
+        public double balloonAmount() {
+            return amortizationMethod.hasBalloon() ? principal * balloonFraction : 0.0;
+        }
+
+        /**
+         * Mismas condiciones con otro principal y otra tasa (un carril de BatchScheduleKernel)
+         */
+        public Terms with(double principal, double monthlyRate) {
+            return new Terms(principal, monthlyRate, termMonths, graceMonths, graceType, lifeInsuranceRate,
+                    propertyInsurance, fixedCosts, amortizationMethod, balloonFraction);
+        }
+    }
+
+    /**
+     * irr es mensual en decimal; tcea en porcentaje. maxPayment es la mayor cuota total del cronograma
+     */
+    public record Outcome(double monthlyPayment, double maxPayment, double totalPaid, double totalInterest, double irr, double tcea) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.simucredito.simulation.domain.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorre el cronograma de generateAmortizationSchedule una sola vez en doble precisión con números duales
+ * (modo directo): cada monto lleva su valor y sus derivadas parciales respecto de la TEM y de las tasas de
+ * seguro de desgravamen e inmueble. La TIR se obtiene con FinancialCalculator y su derivada por el teorema
+ * de la función implícita, sin volver a iterar. La cuota inicial se toma sin redondear a céntimos. Admite los
+ * métodos de StandardAmortizationMethod, con la misma regla de capital que ScheduleKernel.
+ */
+@Service
+@RequiredArgsConstructor
+public class SensitivityCalculator {
+
+    public static final int TEM = 0;
+    public static final int LIFE_INSURANCE_RATE = 1;
+    public static final int PROPERTY_INSURANCE_RATE = 2;
+    private static final int PARAMETERS = 3;
+
+    private final FinancialCalculator financialCalculator;
+
+    public Result evaluate(Inputs inputs) {
+        if (!(inputs.amortizationMethod() instanceof StandardAmortizationMethod method)) {
+            throw new IllegalArgumentException("Sensitivity analysis does not support the "
+                    + inputs.amortizationMethod().code() + " amortization method");
+        }
+        double balloon = method.hasBalloon() ? inputs.principal() * inputs.balloonFraction() : 0.0;
+        Dual rate = Dual.variable(inputs.monthlyRate(), TEM);
+        Dual lifeRate = inputs.lifeInsuranceEnabled()
+                ? Dual.variable(inputs.lifeInsuranceRate(), LIFE_INSURANCE_RATE) : Dual.constant(0.0);
+        Dual propertyRate = inputs.propertyInsuranceEnabled()
+                ? Dual.variable(inputs.propertyInsuranceRate(), PROPERTY_INSURANCE_RATE) : Dual.constant(0.0);
+
+        int termMonths = inputs.termMonths();
+        int graceMonths = inputs.graceMonths();
+        boolean totalGrace = "total".equals(inputs.graceType());
+        boolean partialGrace = "partial".equals(inputs.graceType());
+        double fixedCosts = inputs.commissions() + inputs.adminCosts() + inputs.deliveryCosts();
+        Dual propertyInsurance = propertyRate.times(inputs.propertyValue());
+
+        Dual balance = Dual.constant(inputs.principal());
+        Dual basePayment = level(method, balance, rate, termMonths, balloon);
+        Dual totalInterest = Dual.constant(0.0);
+        Dual representativePayment = Dual.constant(0.0);
+        List<Dual> cashFlows = new ArrayList<>(termMonths + 1);
+        cashFlows.add(Dual.constant(inputs.principal()));
+
+        for (int period = 1; period <= termMonths; period++) {
+            boolean isGracePeriod = graceMonths > 0 && period <= graceMonths;
+            if (graceMonths > 0 && period == graceMonths + 1) {
+                basePayment = level(method, balance, rate, termMonths - graceMonths, balloon);
+            }
+
+            Dual interest = balance.times(rate);
+            Dual principalPayment;
+            Dual scheduledPayment;
+            if (isGracePeriod && totalGrace) {
+                principalPayment = Dual.constant(0.0);
+                scheduledPayment = Dual.constant(0.0);
+                balance = balance.plus(interest);
+            } else if (isGracePeriod && partialGrace) {
+                principalPayment = Dual.constant(0.0);
+                scheduledPayment = interest;
+            } else if (!isGracePeriod && period == termMonths) {
+                principalPayment = balance;
+                basePayment = principalPayment.plus(interest);
+                scheduledPayment = basePayment;
+            } else if (method == StandardAmortizationMethod.FRENCH) {
+                principalPayment = basePayment.minus(interest);
+                scheduledPayment = basePayment;
+            } else {
+                principalPayment = switch (method) {
+                    case GERMAN -> basePayment;
+                    case AMERICAN -> Dual.constant(0.0);
+                    default -> basePayment.minus(interest);
+                };
+                scheduledPayment = principalPayment.plus(interest);
+            }
+
+            Dual payment = scheduledPayment
+                    .plus(balance.times(lifeRate))
+                    .plus(propertyInsurance)
+                    .plus(fixedCosts);
+
+            totalInterest = totalInterest.plus(interest);
+            cashFlows.add(payment.negate());
+
+            // Misma elección de "cuota mensual" que SimulationService.calculate
+            if (period == graceMonths + 1) {
+                representativePayment = payment;
+            } else if (graceMonths == 0 && period == 1) {
+                representativePayment = scheduledPayment;
+            }
+            if (representativePayment.value() == 0.0 && period == 1) {
+                representativePayment = scheduledPayment;
+            }
+
+            if (!(isGracePeriod && totalGrace)) {
+                balance = balance.minus(principalPayment);
+            }
+        }
+
+        return new Result(representativePayment, totalInterest, tcea(cashFlows), van(cashFlows, inputs.opportunityCostRate()));
+    }
+
+    /**
+     * TCEA en porcentaje. Si NPV(irr, θ) = 0 entonces d irr / dθ = -(∂NPV/∂θ) / (∂NPV/∂irr).
+     */
+    private Dual tcea(List<Dual> cashFlows) {
+        List<BigDecimal> flows = new ArrayList<>(cashFlows.size());
+        for (Dual flow : cashFlows) {
+            flows.add(BigDecimal.valueOf(flow.value()));
+        }
+        double irr = financialCalculator.calculateScheduleTIR(flows).doubleValue() / 100.0;
+
+        double[] npvGradient = new double[PARAMETERS];
+        double npvByIrr = 0.0;
+        double discount = 1.0;
+        for (int t = 0; t < cashFlows.size(); t++) {
+            Dual flow = cashFlows.get(t);
+            for (int p = 0; p < PARAMETERS; p++) {
+                npvGradient[p] += flow.derivative(p) * discount;
+            }
+            npvByIrr -= t * flow.value() * discount / (1.0 + irr);
+            discount /= 1.0 + irr;
+        }
+
+        double[] gradient = new double[PARAMETERS];
+        double annualFactor = 1200.0 * Math.pow(1.0 + irr, 11);
+        for (int p = 0; p < PARAMETERS; p++) {
+            gradient[p] = npvByIrr == 0.0 ? 0.0 : -npvGradient[p] / npvByIrr * annualFactor;
+        }
+        return new Dual((Math.pow(1.0 + irr, 12) - 1.0) * 100.0, gradient);
+    }
+
+    private static Dual van(List<Dual> cashFlows, double opportunityCostRate) {
+        Dual van = Dual.constant(0.0);
+        double discount = 1.0;
+        for (Dual flow : cashFlows) {
+            van = van.plus(flow.times(discount));
+            discount /= 1.0 + opportunityCostRate;
+        }
+        return van;
+    }
+
+    /**
+     * StandardAmortizationMethod.plan en duales, sin redondear al céntimo
+     */
+    private static Dual level(StandardAmortizationMethod method, Dual balance, Dual rate, int periods, double balloon) {
+        return switch (method) {
+            case GERMAN -> balance.times(1.0 / periods);
+            case AMERICAN -> Dual.constant(0.0);
+            case BALLOON -> annuity(balance.minus(Dual.constant(balloon).dividedBy(rate.plus(1.0).pow(periods))),
+                    rate, periods);
+            default -> annuity(balance, rate, periods);
+        };
+    }
+
+    private static Dual annuity(Dual principal, Dual rate, int periods) {
+        if (rate.value() == 0.0) {
+            return principal.times(1.0 / periods);
+        }
+        Dual factor = rate.plus(1.0).pow(periods);
+        return principal.times(rate).times(factor).dividedBy(factor.minus(1.0));
+    }
+
+    public record Inputs(double principal, double monthlyRate, int termMonths, int graceMonths, String graceType,
+                         boolean lifeInsuranceEnabled, double lifeInsuranceRate,
+                         boolean propertyInsuranceEnabled, double propertyInsuranceRate, double propertyValue,
+                         double commissions, double adminCosts, double deliveryCosts, double opportunityCostRate,
+                         AmortizationMethod amortizationMethod, double balloonFraction) {
+
+        public Inputs withTermMonths(int months) {
+            return new Inputs(principal, monthlyRate, months, graceMonths, graceType, lifeInsuranceEnabled,
+                    lifeInsuranceRate, propertyInsuranceEnabled, propertyInsuranceRate, propertyValue,
+                    commissions, adminCosts, deliveryCosts, opportunityCostRate, amortizationMethod, balloonFraction);
+        }
+
+        public Inputs withGraceMonths(int months) {
+            return new Inputs(principal, monthlyRate, termMonths, months, graceType, lifeInsuranceEnabled,
+                    lifeInsuranceRate, propertyInsuranceEnabled, propertyInsuranceRate, propertyValue,
+                    commissions, adminCosts, deliveryCosts, opportunityCostRate, amortizationMethod, balloonFraction);
+        }
+    }
+
+    public record Result(Dual monthlyPayment, Dual totalInterest, Dual tcea, Dual van) {
+    }
+
+    /**
+     * Número dual con gradiente respecto de los parámetros TEM, desgravamen y seguro de inmueble
+     */
+    public static final class Dual {
+        private final double value;
+        private final double[] gradient;
+
+        private Dual(double value, double[] gradient) {
+            this.value = value;
+            this.gradient = gradient;
+        }
+
+        static Dual constant(double value) {
+            return new Dual(value, new double[PARAMETERS]);
+        }
+
+        static Dual variable(double value, int parameter) {
+            double[] gradient = new double[PARAMETERS];
+            gradient[parameter] = 1.0;
+            return new Dual(value, gradient);
+        }
+
+        public double value() {
+            return value;
+        }
+
+        public double derivative(int parameter) {
+            return gradient[parameter];
+        }
+
+        Dual plus(Dual other) {
+            double[] result = new double[PARAMETERS];
+            for (int p = 0; p < PARAMETERS; p++) {
+                result[p] = gradient[p] + other.gradient[p];
+            }
+            return new Dual(value + other.value, result);
+        }
+
+        Dual plus(double constant) {
+            return new Dual(value + constant, gradient);
+        }
+
+        Dual minus(Dual other) {
+            return plus(other.negate());
+        }
+
+        Dual minus(double constant) {
+            return new Dual(value - constant, gradient);
+        }
+
+        Dual negate() {
+            return times(-1.0);
+        }
+
+        Dual times(Dual other) {
+            double[] result = new double[PARAMETERS];
+            for (int p = 0; p < PARAMETERS; p++) {
+                result[p] = gradient[p] * other.value + value * other.gradient[p];
+            }
+            return new Dual(value * other.value, result);
+        }
+
+        Dual times(double constant) {
+            double[] result = new double[PARAMETERS];
+            for (int p = 0; p < PARAMETERS; p++) {
+                result[p] = gradient[p] * constant;
+            }
+            return new Dual(value * constant, result);
+        }
+
+        Dual dividedBy(Dual other) {
+            double[] result = new double[PARAMETERS];
+            double squared = other.value * other.value;
+            for (int p = 0; p < PARAMETERS; p++) {
+                result[p] = (gradient[p] * other.value - value * other.gradient[p]) / squared;
+            }
+            return new Dual(value / other.value, result);
+        }
+
+        Dual pow(int exponent) {
+            double power = Math.pow(value, exponent);
+            double slope = exponent * Math.pow(value, exponent - 1);
+            double[] result = new double[PARAMETERS];
+            for (int p = 0; p < PARAMETERS; p++) {
+                result[p] = gradient[p] * slope;
+            }
+            return new Dual(power, result);
+        }
+    }
+}
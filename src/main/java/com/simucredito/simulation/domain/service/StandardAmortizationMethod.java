@@ -0,0 +1,96 @@
+package com.simucredito.simulation.domain.service;
+
+/**
+ * Métodos de amortización disponibles. Las cuotas y el capital constante se redondean al céntimo; la diferencia
+ * se liquida en la última cuota.
+ */
+public enum StandardAmortizationMethod implements AmortizationMethod {
+
+    FRENCH("french", "French Method (Ordinary Annuity)") {
+        @Override
+        public double plan(double balance, double monthlyRate, int periods, double balloonAmount) {
+            return levelPayment(balance, monthlyRate, periods);
+        }
+
+        @Override
+        public double principal(double level, double interest) {
+            return level - interest;
+        }
+    },
+
+    GERMAN("german", "German Method (Constant Principal)") {
+        @Override
+        public double plan(double balance, double monthlyRate, int periods, double balloonAmount) {
+            return cents(balance / periods);
+        }
+
+        @Override
+        public double principal(double level, double interest) {
+            return level;
+        }
+    },
+
+    AMERICAN("american", "American Method (Bullet)") {
+        @Override
+        public double plan(double balance, double monthlyRate, int periods, double balloonAmount) {
+            return 0.0;
+        }
+
+        @Override
+        public double principal(double level, double interest) {
+            return 0.0; // Solo intereses; el capital se paga en la última cuota
+        }
+    },
+
+    BALLOON("balloon", "Balloon Method (Annuity with Final Balloon)") {
+        @Override
+        public double plan(double balance, double monthlyRate, int periods, double balloonAmount) {
+            // Anualidad sobre el saldo menos el valor presente del balón
+            double presentBalloon = balloonAmount / Math.pow(1.0 + monthlyRate, periods);
+            return levelPayment(balance - presentBalloon, monthlyRate, periods);
+        }
+
+        @Override
+        public double principal(double level, double interest) {
+            return level - interest;
+        }
+
+        @Override
+        public boolean hasBalloon() {
+            return true;
+        }
+    };
+
+    private final String code;
+    private final String description;
+
+    StandardAmortizationMethod(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    @Override
+    public String code() {
+        return code;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    /**
+     * Igual que FinancialCalculator.calculateMonthlyPayment: cuota al céntimo, salvo con tasa 0 (división exacta)
+     */
+    private static double levelPayment(double principal, double monthlyRate, int periods) {
+        if (monthlyRate == 0.0) {
+            return principal / periods;
+        }
+        double rateFactor = Math.pow(1.0 + monthlyRate, periods);
+        return cents(principal * monthlyRate * rateFactor / (rateFactor - 1.0));
+    }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+}
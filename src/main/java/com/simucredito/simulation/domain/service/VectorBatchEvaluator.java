@@ -0,0 +1,186 @@
+package com.simucredito.simulation.domain.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ScheduleKernel.evaluate con un escenario por carril. Como la forma es común, las decisiones de cada periodo (gracia,
+ * última cuota) son las mismas en todos los carriles y solo las cuentas van en vectores; la cuota se anualiza por
+ * carril (Math.pow escalar) y la TIR itera Newton con una máscara de carriles que aún no convergen. El capital de
+ * cada periodo normal replica StandardAmortizationMethod.principal en vectores, así que solo admite esos métodos.
+ * Solo se compila con el perfil vector de Maven y solo se carga cuando jdk.incubator.vector está en la capa de
+ * arranque (ver BatchScheduleKernel).
+ */
+final class VectorBatchEvaluator implements BatchScheduleKernel.LaneEvaluator {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int MAX_IRR_ITERATIONS = 50; // Igual que ScheduleKernel
+    private static final double IRR_TOLERANCE = 1e-12;
+
+    private final ScheduleKernel scheduleKernel;
+
+    VectorBatchEvaluator(ScheduleKernel scheduleKernel) {
+        this.scheduleKernel = scheduleKernel;
+    }
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void evaluate(ScheduleKernel.Terms shape, double[] principals, double[] monthlyRates, int count,
+                  BatchScheduleKernel.Results results) {
+        int lanes = SPECIES.length();
+        int vectorized = SPECIES.loopBound(count);
+        // flows[t * lanes + carril]: flujos del bloque en curso, contiguos por periodo
+        double[] flows = results.laneBuffer((shape.termMonths() + 1) * lanes + lanes);
+        for (int i = 0; i < vectorized; i += lanes) {
+            evaluateBlock(shape, principals, monthlyRates, i, flows, results);
+        }
+        BatchScheduleKernel.evaluateScalar(scheduleKernel, shape, principals, monthlyRates, vectorized, count, results);
+    }
+
+    private void evaluateBlock(ScheduleKernel.Terms shape, double[] principals, double[] monthlyRates, int offset,
+                               double[] flows, BatchScheduleKernel.Results results) {
+        int lanes = SPECIES.length();
+        int termMonths = shape.termMonths();
+        int graceMonths = shape.graceMonths();
+        boolean totalGrace = "total".equals(shape.graceType());
+        boolean partialGrace = "partial".equals(shape.graceType());
+        StandardAmortizationMethod method = (StandardAmortizationMethod) shape.amortizationMethod();
+        DoubleVector lifeRate = DoubleVector.broadcast(SPECIES, shape.lifeInsuranceRate());
+        DoubleVector extras = DoubleVector.broadcast(SPECIES, shape.propertyInsurance() + shape.fixedCosts());
+        // Cuotas anualizadas por carril; usa la cola del buffer de flujos
+        int scratch = (termMonths + 1) * lanes;
+
+        DoubleVector rate = DoubleVector.fromArray(SPECIES, monthlyRates, offset);
+        DoubleVector balance = DoubleVector.fromArray(SPECIES, principals, offset);
+        DoubleVector level = level(shape, principals, offset, balance, rate, termMonths, flows, scratch);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector totalInterest = zero;
+        DoubleVector totalPaid = zero;
+        DoubleVector maxPayment = zero;
+        DoubleVector representativePayment = zero;
+        balance.intoArray(flows, 0);
+
+        for (int period = 1; period <= termMonths; period++) {
+            boolean isGracePeriod = graceMonths > 0 && period <= graceMonths;
+            if (graceMonths > 0 && period == graceMonths + 1) {
+                level = level(shape, principals, offset, balance, rate, termMonths - graceMonths, flows, scratch);
+            }
+
+            DoubleVector interest = balance.mul(rate);
+            DoubleVector principalPayment;
+            DoubleVector scheduledPayment;
+            if (isGracePeriod && totalGrace) {
+                principalPayment = zero;
+                scheduledPayment = zero;
+                balance = balance.add(interest);
+            } else if (isGracePeriod && partialGrace) {
+                principalPayment = zero;
+                scheduledPayment = interest;
+            } else if (!isGracePeriod && period == termMonths) {
+                principalPayment = balance;
+                scheduledPayment = principalPayment.add(interest);
+            } else {
+                // Mismas operaciones que ScheduleKernel para cada método
+                switch (method) {
+                    case FRENCH -> {
+                        principalPayment = level.sub(interest);
+                        scheduledPayment = level;
+                    }
+                    case BALLOON -> {
+                        principalPayment = level.sub(interest);
+                        scheduledPayment = principalPayment.add(interest);
+                    }
+                    case GERMAN -> {
+                        principalPayment = level;
+                        scheduledPayment = principalPayment.add(interest);
+                    }
+                    default -> {
+                        principalPayment = zero;
+                        scheduledPayment = zero.add(interest);
+                    }
+                }
+            }
+
+            DoubleVector payment = scheduledPayment.add(balance.mul(lifeRate)).add(extras);
+            totalInterest = totalInterest.add(interest);
+            totalPaid = totalPaid.add(payment);
+            maxPayment = maxPayment.max(payment);
+            payment.neg().intoArray(flows, period * lanes);
+
+            // Misma elección de "cuota mensual" que ScheduleKernel
+            if (period == 1) {
+                representativePayment = graceMonths == 0 ? payment : scheduledPayment;
+                representativePayment = representativePayment.blend(scheduledPayment,
+                        representativePayment.compare(VectorOperators.EQ, 0.0));
+            } else if (period == graceMonths + 1) {
+                representativePayment = payment;
+            }
+
+            if (!(isGracePeriod && totalGrace)) {
+                balance = balance.sub(principalPayment);
+            }
+        }
+
+        DoubleVector irr = irr(flows, termMonths + 1, rate.add(lifeRate));
+        representativePayment.intoArray(results.getMonthlyPayment(), offset);
+        maxPayment.intoArray(results.getMaxPayment(), offset);
+        totalPaid.intoArray(results.getTotalPaid(), offset);
+        totalInterest.intoArray(results.getTotalInterest(), offset);
+        irr.intoArray(results.getIrr(), offset);
+        double[] tcea = results.getTcea();
+        for (int lane = 0; lane < lanes; lane++) {
+            tcea[offset + lane] = (Math.pow(1.0 + results.getIrr()[offset + lane], 12) - 1.0) * 100.0;
+        }
+    }
+
+    /**
+     * ScheduleKernel.level por carril; el balón se calcula sobre el principal original de cada carril
+     */
+    private DoubleVector level(ScheduleKernel.Terms shape, double[] principals, int offset, DoubleVector balance,
+                               DoubleVector rate, int periods, double[] scratch, int at) {
+        int lanes = SPECIES.length();
+        for (int lane = 0; lane < lanes; lane++) {
+            double balloon = shape.amortizationMethod().hasBalloon()
+                    ? principals[offset + lane] * shape.balloonFraction() : 0.0; // Igual que Terms.balloonAmount
+            scratch[at + lane] = scheduleKernel.level(shape.amortizationMethod(), balance.lane(lane), rate.lane(lane),
+                    periods, balloon);
+        }
+        return DoubleVector.fromArray(SPECIES, scratch, at);
+    }
+
+    /**
+     * Newton por carril como ScheduleKernel.irr; un carril deja de moverse cuando converge o su derivada es cero
+     */
+    private DoubleVector irr(double[] flows, int length, DoubleVector guess) {
+        int lanes = SPECIES.length();
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        DoubleVector rate = guess.blend(0.01, guess.compare(VectorOperators.GT, -0.99).not());
+        VectorMask<Double> active = SPECIES.maskAll(true);
+        for (int iteration = 0; iteration < MAX_IRR_ITERATIONS && active.anyTrue(); iteration++) {
+            DoubleVector discountFactor = one.div(one.add(rate));
+            DoubleVector discount = one;
+            DoubleVector npv = DoubleVector.zero(SPECIES);
+            DoubleVector derivative = DoubleVector.zero(SPECIES);
+            DoubleVector time = DoubleVector.zero(SPECIES); // t en todos los carriles, sin broadcast por periodo
+            for (int t = 0; t < length; t++) {
+                DoubleVector flow = DoubleVector.fromArray(SPECIES, flows, t * lanes);
+                npv = npv.add(flow.mul(discount));
+                derivative = derivative.sub(flow.mul(time).mul(discount).mul(discountFactor));
+                discount = discount.mul(discountFactor);
+                time = time.add(one);
+            }
+            active = active.andNot(derivative.compare(VectorOperators.EQ, 0.0));
+            DoubleVector next = rate.sub(npv.div(derivative));
+            VectorMask<Double> converged = next.sub(rate).abs().compare(VectorOperators.LT, IRR_TOLERANCE);
+            rate = rate.blend(next, active);
+            active = active.andNot(converged);
+        }
+        return rate;
+    }
+}
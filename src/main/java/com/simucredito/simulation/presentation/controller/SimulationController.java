@@ -1,10 +1,36 @@
 package com.simucredito.simulation.presentation.controller;
 
+import com.simucredito.simulation.application.dto.AffordabilityRequestDTO;
+import com.simucredito.simulation.application.dto.AffordabilityResponseDTO;
+import com.simucredito.simulation.application.dto.CompareOffersRequestDTO;
+import com.simucredito.simulation.application.dto.MonteCarloRequestDTO;
+import com.simucredito.simulation.application.dto.MonteCarloResponseDTO;
+import com.simucredito.simulation.application.dto.PrepaymentRequestDTO;
+import com.simucredito.simulation.application.dto.PrepaymentResponseDTO;
 import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.application.dto.OfferComparisonResponseDTO;
+import com.simucredito.simulation.application.dto.PortfolioCashFlowDTO;
+import com.simucredito.simulation.application.dto.QuoteTableDTO;
+import com.simucredito.simulation.application.dto.ScenarioGridRequestDTO;
+import com.simucredito.simulation.application.dto.ScenarioGridResponseDTO;
+import com.simucredito.simulation.application.dto.SensitivityResponseDTO;
 import com.simucredito.simulation.application.dto.SimulationResponseDTO;
+import com.simucredito.simulation.application.dto.StressRunDTO;
+import com.simucredito.simulation.application.dto.StressRunRequestDTO;
+import com.simucredito.simulation.application.service.AffordabilityService;
+import com.simucredito.simulation.application.service.MonteCarloService;
+import com.simucredito.simulation.application.service.OfferComparisonService;
+import com.simucredito.simulation.application.service.PortfolioService;
+import com.simucredito.simulation.application.service.PrepaymentService;
+import com.simucredito.simulation.application.service.QuoteTableService;
+import com.simucredito.simulation.application.service.ScenarioGridService;
+import com.simucredito.simulation.application.service.SensitivityService;
 import com.simucredito.simulation.application.service.SimulationService;
+import com.simucredito.simulation.application.service.StressRunService;
 import com.simucredito.simulation.domain.model.Simulation;
 import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.iam.domain.model.User;
+import com.simucredito.configuration.domain.model.RateSpec;
 import java.math.BigDecimal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,8 +41,12 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,6 +58,15 @@ import java.util.List;
 public class SimulationController {
 
     private final SimulationService simulationService;
+    private final OfferComparisonService offerComparisonService;
+    private final QuoteTableService quoteTableService;
+    private final SensitivityService sensitivityService;
+    private final ScenarioGridService scenarioGridService;
+    private final AffordabilityService affordabilityService;
+    private final MonteCarloService monteCarloService;
+    private final PrepaymentService prepaymentService;
+    private final PortfolioService portfolioService;
+    private final StressRunService stressRunService;
     private final ConfigurationService configurationService;
 
     @PostMapping
@@ -51,6 +90,165 @@ public class SimulationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/compare")
+    @Operation(summary = "Compare offers across financial entities", description = "Compute schedule, TCEA, VAN and total cost of the same loan for every active financial entity whose limits accept it, using each entity's rate and insurance, ranked by the chosen criterion. Nothing is persisted unless persist=true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Offers compared successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = OfferComparisonResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+            content = @Content)
+    })
+    public ResponseEntity<OfferComparisonResponseDTO> compareOffers(@Valid @RequestBody CompareOffersRequestDTO request) {
+        return ResponseEntity.ok(offerComparisonService.compareOffers(request));
+    }
+
+    @PostMapping("/sensitivity")
+    @Operation(summary = "Sensitivity analysis", description = "Change in monthly payment, TCEA, VAN and total interest per step of interest rate, insurance rates (analytic derivatives), term and grace months (exact difference to the next allowed value), computed without persisting or re-running the simulation")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sensitivities calculated successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = SensitivityResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+            content = @Content)
+    })
+    public ResponseEntity<SensitivityResponseDTO> analyzeSensitivity(@Valid @RequestBody CreateSimulationRequestDTO request) {
+        return ResponseEntity.ok(sensitivityService.analyze(request));
+    }
+
+    @PostMapping("/scenario-grid")
+    @Operation(summary = "Scenario grid", description = "Evaluate monthly payment, TCEA and total cost for every combination of interest rate, term and initial payment (dense matrices for heat-maps), without persisting simulations")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grid evaluated successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = ScenarioGridResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data or grid too large",
+            content = @Content)
+    })
+    public ResponseEntity<ScenarioGridResponseDTO> evaluateScenarioGrid(@Valid @RequestBody ScenarioGridRequestDTO request) {
+        return ResponseEntity.ok(scenarioGridService.evaluate(request));
+    }
+
+    @PostMapping("/affordability")
+    @Operation(summary = "Maximum affordable loan and property price", description = "Goal-seek the largest financing amount whose monthly payment stays within the payment-to-income limit of the family net income, and the largest property price once bonuses and own funds are added. Reports the method used and the root-finder iterations")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Affordability calculated successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = AffordabilityResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+            content = @Content)
+    })
+    public ResponseEntity<AffordabilityResponseDTO> calculateAffordability(@Valid @RequestBody AffordabilityRequestDTO request) {
+        return ResponseEntity.ok(affordabilityService.solve(request));
+    }
+
+    @PostMapping("/rate-stress")
+    @Operation(summary = "Monte Carlo variable-rate stress", description = "Simulate stochastic market rate paths (mean-reverting, seeded) repriced into the loan at a fixed interval and report percentile distributions of the maximum monthly payment, payment shock, total interest and TCEA. Nothing is persisted")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stress distribution calculated successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = MonteCarloResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+            content = @Content)
+    })
+    public ResponseEntity<MonteCarloResponseDTO> simulateRateStress(@Valid @RequestBody MonteCarloRequestDTO request) {
+        return ResponseEntity.ok(monteCarloService.simulate(request));
+    }
+
+    @GetMapping("/quote-tables")
+    @Operation(summary = "Get pre-computed quote tables", description = "Payment per 1,000 of principal and baseline TCEA for every active financial entity and allowed term. Supports If-None-Match: returns 304 while the tables have not changed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Quote tables retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Quote tables unchanged since the given ETag")
+    })
+    public ResponseEntity<QuoteTableDTO> getQuoteTables(WebRequest webRequest) {
+        QuoteTableDTO tables = quoteTableService.getQuoteTables();
+        String etag = "\"" + tables.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(tables);
+    }
+
+    @GetMapping("/quote")
+    @Operation(summary = "Quick quote", description = "Monthly payment (principal + interest) and baseline TCEA for an amount, term and financial entity, read from the quote tables")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Quote calculated successfully"),
+        @ApiResponse(responseCode = "400", description = "Entity or term not available")
+    })
+    public ResponseEntity<QuoteTableDTO.Quote> getQuote(
+            @Parameter(description = "Financial entity ID", required = true) @RequestParam Long financialEntityId,
+            @Parameter(description = "Term in months (whole years)", required = true) @RequestParam int termMonths,
+            @Parameter(description = "Amount to finance", required = true) @RequestParam BigDecimal amount) {
+        return ResponseEntity.ok(quoteTableService.quote(financialEntityId, termMonths, amount));
+    }
+
+    @GetMapping("/portfolio/cash-flows")
+    @Operation(summary = "Portfolio cash-flow projection", description = "Aggregate the expected principal, interest, insurance and cost flows and the outstanding balance per future month across all stored simulations in scope (agent, financial entity, program type), plus the portfolio NPV at the given opportunity cost")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio aggregated successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+        @ApiResponse(responseCode = "403", description = "Another agent's portfolio requested by a non-administrator")
+    })
+    public ResponseEntity<PortfolioCashFlowDTO> getPortfolioCashFlows(
+            @Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+            @Parameter(description = "Agent (user) ID; only administrators can see other agents or the whole portfolio") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Financial entity ID") @RequestParam(required = false) Long financialEntityId,
+            @Parameter(description = "Program type (mivivienda, techo_propio)") @RequestParam(required = false) String programType,
+            @Parameter(description = "Currency (PEN, USD)") @RequestParam(defaultValue = "PEN") String currency,
+            @Parameter(description = "Simulation statuses (default COMPLETED and APPROVED)") @RequestParam(required = false) List<Simulation.SimulationStatus> statuses,
+            @Parameter(description = "Opportunity cost rate in percentage", required = true) @RequestParam BigDecimal cok,
+            @Parameter(description = "Opportunity cost rate type (TE, TN)") @RequestParam(defaultValue = "TE") String cokType,
+            @Parameter(description = "Opportunity cost rate period") @RequestParam(defaultValue = "annual") String cokPeriod,
+            @Parameter(description = "Capitalization (only for TN)") @RequestParam(required = false) String cokCapitalization) {
+        RateSpec cokRate = RateSpec.of(cok, cokType, cokPeriod, cokCapitalization);
+        return ResponseEntity.ok(portfolioService.aggregate(scopeToCurrentUser(currentUser, userId), financialEntityId,
+                programType, currency, statuses, cokRate));
+    }
+
+    @PostMapping("/stress-runs")
+    @Operation(summary = "Start a portfolio rate-shock stress run", description = "Re-price every stored simulation in scope under each rate shock (basis points over the TEA) in the background. Progress is checkpointed so an interrupted run can be resumed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Stress run queued",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = StressRunDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data",
+            content = @Content),
+        @ApiResponse(responseCode = "403", description = "Another agent or the whole portfolio requested by a non-administrator",
+            content = @Content)
+    })
+    public ResponseEntity<StressRunDTO> startStressRun(@Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+                                                       @Valid @RequestBody StressRunRequestDTO request) {
+        request.setUserId(scopeToCurrentUser(currentUser, request.getUserId()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(stressRunService.start(request, currentUser));
+    }
+
+    @GetMapping("/stress-runs/{runId}")
+    @Operation(summary = "Get stress run", description = "Progress and (partial) results of a stress run: distribution of payment, total interest and TCEA changes and the most affected simulations per shock")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stress run found"),
+        @ApiResponse(responseCode = "404", description = "Stress run not found or started by another agent")
+    })
+    public ResponseEntity<StressRunDTO> getStressRun(@Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+                                                     @PathVariable Long runId) {
+        return stressRunService.getRun(runId, currentUser)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/stress-runs/{runId}/resume")
+    @Operation(summary = "Resume stress run", description = "Continue an interrupted or failed stress run from its last checkpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Stress run resumed"),
+        @ApiResponse(responseCode = "404", description = "Stress run not found or started by another agent")
+    })
+    public ResponseEntity<StressRunDTO> resumeStressRun(@Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+                                                        @PathVariable Long runId) {
+        return stressRunService.resume(runId, currentUser)
+                .map(run -> ResponseEntity.status(HttpStatus.ACCEPTED).body(run))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     private void validateFinancialEntityLimits(CreateSimulationRequestDTO request) {
         // Get financial entity details
         var financialEntityOpt = configurationService.getFinancialEntityById(request.getFinancialEntityId());
@@ -60,15 +258,8 @@ public class SimulationController {
 
         var financialEntity = financialEntityOpt.get();
 
-        BigDecimal financingAmountInPen = request.getCalculatedValues().getFinancingAmount();
-
-        if ("USD".equals(request.getFinancingDetails().getCurrency())) {
-            BigDecimal exchangeRate = request.getFinancingDetails().getUsdValue();
-            if (exchangeRate == null || exchangeRate.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Exchange rate (usdValue) is required for USD simulations");
-            }
-            financingAmountInPen = financingAmountInPen.multiply(exchangeRate);
-        }
+        // Resuelve y fija en la solicitud el tipo de cambio que luego se guarda con la simulación
+        BigDecimal financingAmountInPen = simulationService.financingAmountInPen(request);
 
         // Check financing amount against entity limits
         if (financialEntity.getMaxLoanAmount() != null &&
@@ -92,20 +283,17 @@ public class SimulationController {
         }
 
         // Validate interest rate within entity ranges (if entity has defined rates)
-        BigDecimal requestRate = request.getFinancingDetails().getInterestRate().getRate();
-        if (financialEntity.getInterestRateTea() != null &&
-            "TE".equals(request.getFinancingDetails().getInterestRate().getType())) {
-            // Allow some tolerance (e.g., 10% above entity rate)
-            BigDecimal maxAllowedRate = financialEntity.getInterestRateTea().multiply(BigDecimal.valueOf(1.1));
-            if (requestRate.compareTo(maxAllowedRate) > 0) {
-                throw new IllegalArgumentException("Interest rate exceeds entity allowed range");
-            }
-        }
-
-        if (financialEntity.getInterestRateTna() != null &&
-            "TN".equals(request.getFinancingDetails().getInterestRate().getType())) {
-            BigDecimal maxAllowedRate = financialEntity.getInterestRateTna().multiply(BigDecimal.valueOf(1.1));
-            if (requestRate.compareTo(maxAllowedRate) > 0) {
+        // Se comparan las TEM, así una TNA solicitada también se valida contra una entidad que publica TEA
+        RateSpec entityRate = RateSpec.ofAnnual(financialEntity.getInterestRateTea(), financialEntity.getInterestRateTna(),
+                financialEntity.getCapitalizationPeriod());
+        if (entityRate != null) {
+            var interestRate = request.getFinancingDetails().getInterestRate();
+            RateSpec requestRate = RateSpec.of(interestRate.getRate(), interestRate.getType(),
+                    interestRate.getPeriod(), interestRate.getCapitalization());
+            // Allow some tolerance (e.g., 10% above entity rate). El margen va sobre la tasa anual publicada, como
+            // antes; su TEM es el tope
+            RateSpec maxAllowedRate = entityRate.scaled(BigDecimal.valueOf(1.1));
+            if (requestRate.tem().compareTo(maxAllowedRate.tem()) > 0) {
                 throw new IllegalArgumentException("Interest rate exceeds entity allowed range");
             }
         }
@@ -201,6 +389,23 @@ public class SimulationController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/{id}/prepayments")
+    @Operation(summary = "Simulate prepayments", description = "Apply one or more prepayments (reduce term or reduce payment) to a stored simulation. Periods before each prepayment are kept from the stored schedule and only the tail is regenerated; TCEA and VAN are recomputed from the updated cash flows. Nothing is persisted")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Prepayments applied successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = PrepaymentResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid prepayment",
+            content = @Content),
+        @ApiResponse(responseCode = "404", description = "Simulation not found")
+    })
+    public ResponseEntity<PrepaymentResponseDTO> applyPrepayments(@PathVariable Long id,
+                                                                  @Valid @RequestBody PrepaymentRequestDTO request) {
+        return prepaymentService.applyPrepayments(id, request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete simulation", description = "Delete a simulation and its amortization schedule")
     @ApiResponses(value = {
@@ -212,4 +417,17 @@ public class SimulationController {
                 ResponseEntity.noContent().build() :
                 ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Un administrador puede filtrar por cualquier agente o ver toda la cartera; un agente solo ve lo suyo
+     */
+    private Long scopeToCurrentUser(User currentUser, Long requestedUserId) {
+        if (currentUser.getRole() == User.UserRole.ADMIN) {
+            return requestedUserId;
+        }
+        if (requestedUserId != null && !requestedUserId.equals(currentUser.getId())) {
+            throw new AccessDeniedException("Only administrators can access other agents' simulations");
+        }
+        return currentUser.getId();
+    }
+}
@@ -0,0 +1,53 @@
+package com.simucredito.configuration.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Margen sobre la tasa publicada por la entidad (se aplica a la tasa anual, no a la TEM) y memoización de las
+ * especificaciones compiladas.
+ */
+class RateSpecTest {
+
+    private static final BigDecimal MARGIN = BigDecimal.valueOf(1.1);
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    void marginOnTeaIsAppliedToAnnualRate() {
+        RateSpec entityRate = RateSpec.ofAnnual(new BigDecimal("10"), null, null);
+
+        RateSpec ceiling = entityRate.scaled(MARGIN);
+
+        assertEquals(Math.pow(1.11, 1.0 / 12) - 1.0, ceiling.tem().doubleValue(), TOLERANCE);
+        // 10% sobre la TEM admitía hasta ~11.05% anual
+        RateSpec justAbove = RateSpec.ofAnnual(new BigDecimal("11.04"), null, null);
+        assertTrue(justAbove.tem().compareTo(entityRate.tem().multiply(MARGIN)) < 0);
+        assertTrue(justAbove.tem().compareTo(ceiling.tem()) > 0);
+    }
+
+    @Test
+    void marginOnTnaKeepsItsCapitalization() {
+        RateSpec entityRate = RateSpec.ofAnnual(null, new BigDecimal("12"), "monthly");
+
+        RateSpec ceiling = entityRate.scaled(MARGIN);
+
+        assertEquals(RateSpec.RateType.TN, ceiling.type());
+        assertEquals(RateSpec.Period.MONTHLY, ceiling.capitalization());
+        assertEquals(0.011, ceiling.tem().doubleValue(), TOLERANCE);
+    }
+
+    @Test
+    void compiledSpecsAreMemoisedRegardlessOfScale() {
+        RateSpec first = RateSpec.of(new BigDecimal("9.50"), "TE", "annual", null);
+
+        assertSame(first, RateSpec.of(new BigDecimal("9.5"), "TE", "annual", null));
+        assertSame(first, RateSpec.ofAnnual(new BigDecimal("9.500"), null, null));
+        assertNull(RateSpec.ofAnnual(null, null, "monthly"));
+    }
+}
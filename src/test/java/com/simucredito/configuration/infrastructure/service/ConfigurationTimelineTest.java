@@ -0,0 +1,102 @@
+package com.simucredito.configuration.infrastructure.service;
+
+import com.simucredito.configuration.domain.model.GlobalValue;
+import com.simucredito.configuration.domain.repository.BonusParameterRepository;
+import com.simucredito.configuration.domain.repository.GlobalValueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sondeo con ventana solapada: una actualización cuya marca de tiempo es anterior al último sondeo (porque su
+ * transacción confirmó después) igual se aplica en el siguiente.
+ */
+class ConfigurationTimelineTest {
+
+    private static final String KEY = "UIT";
+
+    private final GlobalValueRepository globalValueRepository = mock(GlobalValueRepository.class);
+    private final BonusParameterRepository bonusParameterRepository = mock(BonusParameterRepository.class);
+    private final ConfigurationTimeline timeline = new ConfigurationTimeline(globalValueRepository,
+            bonusParameterRepository, mock(BonusParameterIndex.class), mock(CacheInvalidationBus.class));
+
+    private final List<GlobalValue> rows = new ArrayList<>();
+
+    ConfigurationTimelineTest() {
+        ReflectionTestUtils.setField(timeline, "pollOverlapMs", 120_000L);
+        when(globalValueRepository.findAll()).thenAnswer(invocation -> copies());
+        when(globalValueRepository.count()).thenAnswer(invocation -> (long) rows.size());
+        when(globalValueRepository.findModifiedSince(any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(0);
+            return copies().stream()
+                    .filter(value -> !value.getCreatedAt().isBefore(since)
+                            || (value.getUpdatedAt() != null && !value.getUpdatedAt().isBefore(since)))
+                    .toList();
+        });
+    }
+
+    @Test
+    void lateCommittedUpdateIsAppliedOnNextPoll() {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        rows.add(value(1L, "5150", start));
+        timeline.refresh(); // Primera carga completa
+        timeline.refresh(); // Sondeo sin cambios: el watermark avanza a "ahora"
+
+        // Escrita hace 30 s pero confirmada después del sondeo anterior
+        rows.get(0).setNumericValue(new BigDecimal("5350"));
+        rows.get(0).setUpdatedAt(LocalDateTime.now().minusSeconds(30));
+        timeline.refresh();
+
+        assertEquals(new BigDecimal("5350"), timeline.numericValueAt(KEY, LocalDateTime.now()));
+    }
+
+    @Test
+    void rowsBeyondTheOverlapAreNotReread() {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        rows.add(value(1L, "5150", start));
+        timeline.refresh();
+        timeline.refresh();
+
+        // Más vieja que la ventana: la cubre la recarga completa por invalidación, no el sondeo
+        rows.get(0).setNumericValue(new BigDecimal("5350"));
+        rows.get(0).setUpdatedAt(LocalDateTime.now().minusMinutes(10));
+        timeline.refresh();
+        assertEquals(new BigDecimal("5150"), timeline.numericValueAt(KEY, LocalDateTime.now()));
+
+        timeline.reload();
+        assertEquals(new BigDecimal("5350"), timeline.numericValueAt(KEY, LocalDateTime.now()));
+    }
+
+    /**
+     * Copias nuevas en cada lectura, como entidades que vienen de otra sesión
+     */
+    private List<GlobalValue> copies() {
+        return rows.stream().map(row -> {
+            GlobalValue copy = value(row.getId(), row.getNumericValue().toPlainString(), row.getCreatedAt());
+            copy.setUpdatedAt(row.getUpdatedAt());
+            return copy;
+        }).toList();
+    }
+
+    private static GlobalValue value(Long id, String amount, LocalDateTime createdAt) {
+        return GlobalValue.builder()
+                .id(id)
+                .valueKey(KEY)
+                .valueName("Unidad impositiva tributaria")
+                .numericValue(new BigDecimal(amount))
+                .valueType("CURRENCY")
+                .isActive(true)
+                .validFrom(createdAt)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.simucredito.property.infrastructure.service;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.simucredito.property.application.dto.UploadPhotosResponseDTO;
+import com.simucredito.property.domain.model.PhotoBlob;
+import com.simucredito.property.domain.repository.PhotoBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deduplicación de fotos por hash de contenido: el bucket y el índice photo_blobs se simulan, así que se prueba
+ * solo la decisión de reutilizar, subir, reindexar o borrar.
+ */
+class FirebaseStorageServiceTest {
+
+    private static final Long OWNER_ID = 7L;
+    private static final byte[] CONTENT = "same photo bytes".getBytes();
+
+    private final PhotoBlobRepository photoBlobRepository = mock(PhotoBlobRepository.class);
+    private final Storage storage = mock(Storage.class);
+    private FirebaseStorageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = spy(new FirebaseStorageService(photoBlobRepository));
+        ReflectionTestUtils.setField(service, "bucketName", "bucket");
+        ReflectionTestUtils.setField(service, "tempPhotoExpiryHours", 24);
+        doReturn(storage).when(service).getStorage();
+    }
+
+    @Test
+    void uploadsNewContentOnceAndIndexesItsHash() throws Exception {
+        Blob uploaded = blob("temp/7/new.jpg");
+        when(photoBlobRepository.findByOwnerIdAndContentHash(eq(OWNER_ID), any())).thenReturn(Optional.empty());
+        when(storage.createFrom(any(BlobInfo.class), any(InputStream.class))).thenReturn(uploaded);
+
+        UploadPhotosResponseDTO.PhotoMetadataDTO photo = upload();
+
+        assertFalse(photo.getDeduplicated());
+        assertEquals(sha256(CONTENT), photo.getContentHash()); // Leído por bloques, mismo hash que el arreglo entero
+        verify(photoBlobRepository).saveAndFlush(any(PhotoBlob.class));
+    }
+
+    @Test
+    void reusesIndexedBlobWithoutUploading() throws Exception {
+        PhotoBlob entry = entry("temp/7/existing.jpg", 1);
+        Blob existing = blob("temp/7/existing.jpg");
+        when(photoBlobRepository.findByOwnerIdAndContentHash(OWNER_ID, sha256(CONTENT))).thenReturn(Optional.of(entry));
+        when(photoBlobRepository.incrementReferenceCount(entry.getId())).thenReturn(1);
+        when(storage.get(BlobId.of("bucket", "temp/7/existing.jpg"))).thenReturn(existing);
+
+        UploadPhotosResponseDTO.PhotoMetadataDTO photo = upload();
+
+        assertTrue(photo.getDeduplicated());
+        assertEquals("temp/7/existing.jpg", photo.getId());
+        verify(storage, never()).createFrom(any(BlobInfo.class), any(InputStream.class));
+        verify(photoBlobRepository, never()).saveAndFlush(any(PhotoBlob.class));
+    }
+
+    @Test
+    void reindexesEntryWhoseBlobIsGone() throws Exception {
+        PhotoBlob entry = entry("temp/7/missing.jpg", 1);
+        Blob uploaded = blob("temp/7/new.jpg");
+        when(photoBlobRepository.findByOwnerIdAndContentHash(OWNER_ID, sha256(CONTENT))).thenReturn(Optional.of(entry));
+        when(photoBlobRepository.incrementReferenceCount(entry.getId())).thenReturn(1);
+        when(storage.createFrom(any(BlobInfo.class), any(InputStream.class))).thenReturn(uploaded);
+        when(photoBlobRepository.replaceStaleBlob(eq(entry.getId()), eq("temp/7/missing.jpg"), any(), any(), any(),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        UploadPhotosResponseDTO.PhotoMetadataDTO photo = upload();
+
+        assertFalse(photo.getDeduplicated());
+        verify(photoBlobRepository).replaceStaleBlob(eq(entry.getId()), eq("temp/7/missing.jpg"), any(), any(), any(),
+                any(LocalDateTime.class));
+        verify(photoBlobRepository, never()).saveAndFlush(any(PhotoBlob.class)); // Nunca se guarda la entidad leída
+    }
+
+    @Test
+    void concurrentInsertOfSameHashLeavesUploadUnindexed() throws Exception {
+        Blob uploaded = blob("temp/7/new.jpg");
+        when(photoBlobRepository.findByOwnerIdAndContentHash(OWNER_ID, sha256(CONTENT)))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(entry("temp/7/winner.jpg", 1)));
+        when(storage.createFrom(any(BlobInfo.class), any(InputStream.class))).thenReturn(uploaded);
+        when(photoBlobRepository.saveAndFlush(any(PhotoBlob.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_photo_blobs_owner_hash"));
+
+        UploadPhotosResponseDTO.PhotoMetadataDTO photo = upload();
+
+        assertEquals("temp/7/new.jpg", photo.getId());
+        verify(photoBlobRepository, times(1)).saveAndFlush(any(PhotoBlob.class));
+    }
+
+    @Test
+    void sharedBlobIsKeptUntilLastReferenceIsReleased() throws Exception {
+        PhotoBlob entry = entry("temp/7/shared.jpg", 2);
+        when(photoBlobRepository.findByBlobName("temp/7/shared.jpg")).thenReturn(Optional.of(entry));
+        when(photoBlobRepository.deleteIfUnreferenced(entry.getId())).thenReturn(0, 1);
+
+        service.deletePhotos(List.of("temp/7/shared.jpg"));
+        verify(service, never()).getStorage();
+
+        when(storage.delete(List.of(BlobId.of("bucket", "temp/7/shared.jpg")))).thenReturn(List.of(true));
+        service.deletePhotos(List.of("temp/7/shared.jpg"));
+        verify(photoBlobRepository, times(2)).decrementReferenceCount(entry.getId());
+        verify(storage).delete(List.of(BlobId.of("bucket", "temp/7/shared.jpg")));
+    }
+
+    private UploadPhotosResponseDTO.PhotoMetadataDTO upload() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("files", "photo.jpg", "image/jpeg", CONTENT);
+        List<UploadPhotosResponseDTO.PhotoMetadataDTO> photos = service.uploadPhotos(List.of(file), OWNER_ID).getPhotos();
+        assertEquals(1, photos.size());
+        return photos.get(0);
+    }
+
+    private static Blob blob(String name) throws Exception {
+        Blob blob = mock(Blob.class);
+        when(blob.getName()).thenReturn(name);
+        when(blob.exists()).thenReturn(true);
+        when(blob.getMetadata()).thenReturn(Map.of("expiresAt", LocalDateTime.now().plusDays(30).toString()));
+        when(blob.signUrl(anyLong(), any(TimeUnit.class))).thenReturn(new URL("https://storage.googleapis.com/bucket/" + name));
+        return blob;
+    }
+
+    private static PhotoBlob entry(String blobName, int references) {
+        return PhotoBlob.builder()
+                .id(11L)
+                .ownerId(OWNER_ID)
+                .contentHash(sha256(CONTENT))
+                .blobName(blobName)
+                .referenceCount(references)
+                .build();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.client.application.service.ClientService;
+import com.simucredito.configuration.application.dto.BonusParameterDTO;
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.AffordabilityRequestDTO;
+import com.simucredito.simulation.application.dto.AffordabilityResponseDTO;
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+import com.simucredito.simulation.domain.service.AmortizationMethod;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.simucredito.simulation.application.service.FinancingDetailsFixture.details;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Búsqueda inversa del préstamo máximo (forma cerrada y regula falsi) y del precio máximo por franjas de bono.
+ * Cada préstamo hallado se vuelve a evaluar con ScheduleKernel: debe respetar la cuota máxima y un céntimo más
+ * ya no.
+ */
+class AffordabilityServiceTest {
+
+    private static final BigDecimal INCOME = new BigDecimal("3333.33");
+    private static final BigDecimal SHARE = new BigDecimal("30");
+    private static final double CENT = 0.01;
+
+    private final SimulationService simulationService = mock(SimulationService.class);
+    private final ScheduleKernel kernel = new ScheduleKernel();
+    private final AffordabilityService service = new AffordabilityService(mock(ClientService.class), simulationService, kernel);
+
+    @Test
+    void maxPaymentIsTruncatedToTheCent() {
+        AffordabilityResponseDTO response = service.solve(request(details("french", "9.5", 0, null)));
+
+        assertEquals(new BigDecimal("999.99"), response.getMaxMonthlyPayment()); // 999.999, nunca 1000.00
+        assertEquals("closed-form", response.getPrincipalSolution().getMethod());
+        assertBoundary(details("french", "9.5", 0, null), response, false);
+    }
+
+    @Test
+    void graceIsSolvedByBracketing() {
+        CreateSimulationRequestDTO.FinancingDetails details = details("french", "9.5", 12, null);
+
+        AffordabilityResponseDTO response = service.solve(request(details));
+
+        assertEquals("bracketing", response.getPrincipalSolution().getMethod());
+        assertBoundary(details, response, false);
+    }
+
+    @Test
+    void balloonFinalPaymentMustFitTheIncome() {
+        CreateSimulationRequestDTO.FinancingDetails details = details("balloon", "9.5", 0, new BigDecimal("30"));
+
+        AffordabilityResponseDTO response = service.solve(request(details));
+
+        assertEquals("bracketing", response.getPrincipalSolution().getMethod());
+        assertBoundary(details, response, true);
+    }
+
+    @Test
+    void americanAtZeroRateIsBoundedByTheBulletPayment() {
+        CreateSimulationRequestDTO.FinancingDetails details = details("american", "0", 0, null);
+
+        AffordabilityResponseDTO response = service.solve(request(details));
+
+        // Solo intereses (0) y el capital entero en la última cuota: el préstamo máximo es la cuota máxima
+        assertEquals(0, response.getMaxFinancingAmount().compareTo(response.getMaxMonthlyPayment()),
+                () -> "financing " + response.getMaxFinancingAmount());
+    }
+
+    @Test
+    void priceTakesTheBestReachableBonusBand() {
+        when(simulationService.bonusBands(anyString(), anyBoolean(), any())).thenReturn(List.of());
+        BigDecimal base = service.solve(request(details("french", "9.5", 0, null))).getMaxPropertyPrice();
+
+        when(simulationService.bonusBands(anyString(), anyBoolean(), any())).thenReturn(List.of(
+                band(BigDecimal.ZERO, base.add(BigDecimal.valueOf(5_000)), 30_000), // Tope de la franja
+                band(base.add(BigDecimal.valueOf(10_000)), base.add(BigDecimal.valueOf(50_000)), 20_000),
+                band(base.add(BigDecimal.valueOf(40_000)), null, 30_000))); // Ni con el bono se llega al mínimo
+        when(simulationService.calculateApplicableBonus(anyString(), anyString(), anyBoolean(),
+                eq(base.add(BigDecimal.valueOf(20_000))), any())).thenReturn(BigDecimal.valueOf(20_000));
+
+        AffordabilityResponseDTO response = service.solve(request(details("french", "9.5", 0, null)));
+
+        assertEquals(base.add(BigDecimal.valueOf(20_000)), response.getMaxPropertyPrice());
+        assertEquals(BigDecimal.valueOf(20_000), response.getStateContribution());
+        assertEquals("bands", response.getPriceSolution().getMethod());
+        assertEquals(3, response.getPriceSolution().getIterations());
+    }
+
+    /**
+     * La cuota del préstamo hallado no supera la máxima y la de un céntimo más sí (o la iguala al céntimo)
+     */
+    private void assertBoundary(CreateSimulationRequestDTO.FinancingDetails details, AffordabilityResponseDTO response,
+                                boolean lumpSum) {
+        double maxPayment = response.getMaxMonthlyPayment().doubleValue();
+        double principal = response.getMaxFinancingAmount().doubleValue();
+        double atMax = payment(details, principal, lumpSum);
+        double overMax = payment(details, principal + CENT, lumpSum);
+        assertTrue(atMax <= maxPayment + 1e-9, () -> "payment " + atMax + " exceeds " + maxPayment);
+        assertTrue(overMax > maxPayment - CENT, () -> "payment " + overMax + " leaves room below " + maxPayment);
+    }
+
+    private double payment(CreateSimulationRequestDTO.FinancingDetails details, double principal, boolean lumpSum) {
+        AmortizationMethod method = AmortizationMethod.of(details.getAmortizationMethod());
+        double monthlyRate = RateSpec.of(details.getInterestRate().getRate(), "TE", "annual", null).tem().doubleValue();
+        int termMonths = details.getTermYears() * 12;
+        ScheduleKernel.Terms terms = new ScheduleKernel.Terms(principal, monthlyRate, termMonths,
+                details.getGracePeriod().getDurationMonths(), details.getGracePeriod().getType(), 0.0, 0.0, 0.0, method,
+                SimulationService.balloonFraction(method, details.getBalloonPercentage()));
+        ScheduleKernel.Outcome outcome = kernel.evaluate(terms, new double[termMonths + 1]);
+        return lumpSum ? outcome.maxPayment() : outcome.monthlyPayment();
+    }
+
+    private static AffordabilityRequestDTO request(CreateSimulationRequestDTO.FinancingDetails details) {
+        return AffordabilityRequestDTO.builder()
+                .familyNetIncome(INCOME)
+                .maxPaymentToIncomePercentage(SHARE)
+                .programType("mivivienda")
+                .financingDetails(details)
+                .build();
+    }
+
+    private static BonusParameterDTO band(BigDecimal min, BigDecimal max, long bonus) {
+        return BonusParameterDTO.builder()
+                .bonusType("BBP")
+                .minPropertyValue(min)
+                .maxPropertyValue(max)
+                .bonusAmount(BigDecimal.valueOf(bonus))
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.simulation.application.dto.CreateSimulationRequestDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Condiciones de financiamiento mínimas para las pruebas de servicios: TEA anual, plazo de 20 años, gracia parcial
+ * opcional y sin seguros ni comisiones, así la cuota total es solo capital más interés.
+ */
+final class FinancingDetailsFixture {
+
+    static final int TERM_YEARS = 20;
+
+    private FinancingDetailsFixture() {
+    }
+
+    static CreateSimulationRequestDTO.FinancingDetails details(String method, String tea, int graceMonths,
+                                                               BigDecimal balloonPercentage) {
+        return CreateSimulationRequestDTO.FinancingDetails.builder()
+                .currency("PEN")
+                .termYears(TERM_YEARS)
+                .interestRate(CreateSimulationRequestDTO.InterestRate.builder()
+                        .rate(new BigDecimal(tea))
+                        .type("TE")
+                        .period("annual")
+                        .build())
+                .gracePeriod(CreateSimulationRequestDTO.GracePeriod.builder()
+                        .type(graceMonths > 0 ? "partial" : "none")
+                        .durationMonths(graceMonths)
+                        .build())
+                .monthlyCosts(CreateSimulationRequestDTO.MonthlyCosts.builder()
+                        .constantCommissions(BigDecimal.ZERO)
+                        .administrationCosts(BigDecimal.ZERO)
+                        .build())
+                .statementDelivery("email")
+                .insurance(CreateSimulationRequestDTO.Insurance.builder()
+                        .desgravamen(CreateSimulationRequestDTO.Desgravamen.builder().enabled(false).build())
+                        .propertyInsurance(CreateSimulationRequestDTO.PropertyInsurance.builder().enabled(false).build())
+                        .build())
+                .amortizationMethod(method)
+                .balloonPercentage(balloonPercentage)
+                .build();
+    }
+
+    static CreateSimulationRequestDTO request(CreateSimulationRequestDTO.FinancingDetails details, BigDecimal financingAmount) {
+        return CreateSimulationRequestDTO.builder()
+                .programType("mivivienda")
+                .calculatedValues(CreateSimulationRequestDTO.CalculatedValues.builder()
+                        .propertyPrice(financingAmount)
+                        .stateContribution(BigDecimal.ZERO)
+                        .initialPayment(BigDecimal.ZERO)
+                        .initialCosts(BigDecimal.ZERO)
+                        .financingAmount(financingAmount)
+                        .build())
+                .financingDetails(details)
+                .build();
+    }
+}
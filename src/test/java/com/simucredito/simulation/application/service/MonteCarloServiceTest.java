@@ -0,0 +1,58 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.simulation.application.dto.MonteCarloRequestDTO;
+import com.simucredito.simulation.application.dto.MonteCarloResponseDTO;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.simucredito.simulation.application.service.FinancingDetailsFixture.details;
+import static com.simucredito.simulation.application.service.FinancingDetailsFixture.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Reproducibilidad del Monte Carlo: el árbol de SplittableRandom.split() depende solo de la cantidad de
+ * trayectorias, así que la misma semilla da las mismas distribuciones aunque las tareas corran en otro orden.
+ */
+class MonteCarloServiceTest {
+
+    private static final long SEED = 20261019L;
+
+    private final MonteCarloService service = new MonteCarloService(new ScheduleKernel());
+
+    @Test
+    void sameSeedGivesSameDistributions() {
+        MonteCarloResponseDTO first = service.simulate(monteCarlo(SEED, "1.5"));
+        // Otra corrida en paralelo ocupa el pool común, así que las tareas se reparten distinto
+        MonteCarloResponseDTO second = ForkJoinPool.commonPool().submit(() -> service.simulate(monteCarlo(SEED, "1.5"))).join();
+
+        assertEquals(first.getDistributions(), second.getDistributions());
+        assertNotEquals(first.getDistributions(), service.simulate(monteCarlo(SEED + 1, "1.5")).getDistributions());
+    }
+
+    @Test
+    void zeroVolatilityReproducesTheBaseline() {
+        MonteCarloResponseDTO response = service.simulate(monteCarlo(SEED, "0"));
+
+        for (MonteCarloResponseDTO.Distribution distribution : response.getDistributions()) {
+            assertEquals(distribution.getMin(), distribution.getMax(), distribution.getMetric());
+        }
+        MonteCarloResponseDTO.Distribution tcea = response.getDistributions().stream()
+                .filter(distribution -> distribution.getMetric().equals("tcea"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(response.getBaselineTcea(), tcea.getMax());
+    }
+
+    private static MonteCarloRequestDTO monteCarlo(long seed, String volatility) {
+        return MonteCarloRequestDTO.builder()
+                .baseRequest(request(details("french", "9.5", 0, null), new BigDecimal("250000")))
+                .paths(2_000)
+                .seed(seed)
+                .volatility(new BigDecimal(volatility))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.simulation.application.dto.CompareOffersRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static com.simucredito.simulation.application.service.FinancingDetailsFixture.details;
+import static com.simucredito.simulation.application.service.FinancingDetailsFixture.request;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Un criterio de ranking desconocido se rechaza antes de cotizar con las entidades, en vez de ordenar por TCEA
+ * y devolverlo como si se hubiera usado.
+ */
+class OfferComparisonServiceTest {
+
+    private final SimulationService simulationService = mock(SimulationService.class);
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final OfferComparisonService service = new OfferComparisonService(simulationService, configurationService);
+
+    @Test
+    void rejectsUnknownRankCriterion() {
+        CompareOffersRequestDTO request = CompareOffersRequestDTO.builder()
+                .baseRequest(request(details("french", "9.5", 0, null), new BigDecimal("250000")))
+                .rankBy("cheapest")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.compareOffers(request));
+        verifyNoInteractions(simulationService, configurationService);
+    }
+}
@@ -0,0 +1,123 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.PortfolioCashFlowDTO;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.repository.AmortizationScheduleRepository;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Agregación de la cartera en céntimos: los montos por mes son exactos aunque se sumen miles de filas, la lectura
+ * sigue la paginación por clave y el VAN descuenta el total mensual desde el mes inicial.
+ */
+class PortfolioServiceTest {
+
+    private static final int CHUNK_SIZE = 5_000; // El de PortfolioService
+    private static final RateSpec COK = RateSpec.of(new BigDecimal("12"), "TE", "annual", null);
+
+    private final SimulationRepository simulationRepository = mock(SimulationRepository.class);
+    private final AmortizationScheduleRepository amortizationScheduleRepository = mock(AmortizationScheduleRepository.class);
+    private final PortfolioService service = new PortfolioService(simulationRepository, amortizationScheduleRepository);
+
+    @Test
+    void sumsCentsExactlyAcrossChunks() {
+        // 12,001 filas de 0.10 en el mes actual: en double la suma ya no daría 1200.10
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate thisMonth = YearMonth.now().atDay(15);
+        for (long id = 1; id <= 12_001; id++) {
+            rows.add(row(id, thisMonth, "0.10", "0.105", "0.10", "-0.30", "0"));
+        }
+        stubFlows(rows);
+
+        PortfolioCashFlowDTO portfolio = aggregate();
+
+        assertEquals(12_001L, portfolio.getScheduleRows());
+        assertEquals(1, portfolio.getTotal().length);
+        assertEquals(1200.10, portfolio.getPrincipal()[0]);
+        assertEquals(1320.11, portfolio.getInterest()[0]); // 0.105 se redondea a 0.11 por fila
+        assertEquals(3600.30, portfolio.getTotal()[0]);
+        // Tres bloques: después del id 5,000 y del 10,000
+        verify(amortizationScheduleRepository).findPortfolioFlows(eq(5_000L), any(), any(), any(), any(), any(), any(), any());
+        verify(amortizationScheduleRepository).findPortfolioFlows(eq(10_000L), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void bucketsByMonthAndTrimsHorizon() {
+        YearMonth start = YearMonth.now();
+        stubFlows(List.of(
+                row(1, start.minusMonths(1).atDay(28), "999", "0", "0", "-999", "0"), // Antes del horizonte
+                row(2, start.atDay(1), "100", "10", "0", "-110", "900"),
+                row(3, start.plusMonths(2).atEndOfMonth(), "100", "5", "1", "-106", "800"),
+                row(4, start.plusMonths(2).atDay(1), "50", "2", "0", "-52", "400")));
+
+        PortfolioCashFlowDTO portfolio = aggregate();
+
+        assertEquals(3L, portfolio.getScheduleRows());
+        assertArrayEquals(new double[]{110.0, 0.0, 158.0}, portfolio.getTotal());
+        assertArrayEquals(new double[]{900.0, 0.0, 1200.0}, portfolio.getOutstandingBalance());
+        assertArrayEquals(new double[]{0.0, 0.0, 1.0}, portfolio.getInsurance());
+    }
+
+    @Test
+    void npvDiscountsMonthlyTotalsAtCok() {
+        YearMonth start = YearMonth.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int m = 0; m < 12; m++) {
+            rows.add(row(m + 1, start.plusMonths(m).atDay(10), "90", "10", "0", "-100", "0"));
+        }
+        stubFlows(rows);
+
+        PortfolioCashFlowDTO portfolio = aggregate();
+
+        // Anualidad anticipada: el mes inicial no se descuenta
+        double tem = COK.tem().doubleValue();
+        double expected = 100.0 * (1.0 - Math.pow(1.0 + tem, -12)) / tem * (1.0 + tem);
+        assertEquals(expected, portfolio.getNpv().doubleValue(), 0.005);
+    }
+
+    private PortfolioCashFlowDTO aggregate() {
+        when(simulationRepository.summarizePortfolio(eq("PEN"), any(), isNull(), isNull(), isNull()))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, new BigDecimal("600000")}));
+        return service.aggregate(null, null, null, "PEN", null, COK);
+    }
+
+    /**
+     * Devuelve las filas por bloques según el último id recibido, como la consulta con paginación por clave
+     */
+    private void stubFlows(List<Object[]> rows) {
+        when(amortizationScheduleRepository.findPortfolioFlows(anyLong(), any(), eq("PEN"),
+                eq(List.of(Simulation.SimulationStatus.COMPLETED, Simulation.SimulationStatus.APPROVED)),
+                isNull(), isNull(), isNull(), any()))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(0);
+                    return rows.stream()
+                            .filter(row -> (Long) row[0] > afterId)
+                            .limit(CHUNK_SIZE)
+                            .toList();
+                });
+    }
+
+    private static Object[] row(long id, LocalDate paymentDate, String principal, String interest, String insurance,
+                                String cashFlow, String finalBalance) {
+        return new Object[]{id, paymentDate, new BigDecimal(principal), new BigDecimal(interest),
+                new BigDecimal(insurance), BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal(cashFlow),
+                new BigDecimal(finalBalance)};
+    }
+}
@@ -0,0 +1,186 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.domain.model.RateSpec;
+import com.simucredito.simulation.application.dto.AmortizationEntryDTO;
+import com.simucredito.simulation.application.dto.PrepaymentRequestDTO;
+import com.simucredito.simulation.application.dto.PrepaymentResponseDTO;
+import com.simucredito.simulation.domain.model.AmortizationSchedule;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import com.simucredito.simulation.domain.service.FinancialCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Amortización anticipada: los periodos anteriores al pago se conservan tal cual y la cola regenerada es la misma
+ * que un cronograma nuevo desde el saldo reducido.
+ */
+class PrepaymentServiceTest {
+
+    private static final Long SIMULATION_ID = 1L;
+    private static final BigDecimal PRINCIPAL = new BigDecimal("200000.00");
+    private static final int TERM_MONTHS = 240;
+    private static final BigDecimal PREPAYMENT = new BigDecimal("30000.00");
+    private static final int PERIOD = 25;
+
+    private final SimulationRepository simulationRepository = mock(SimulationRepository.class);
+    private final FinancialCalculator calculator = new FinancialCalculator();
+    private final PrepaymentService service = new PrepaymentService(simulationRepository, calculator);
+
+    @Test
+    void reducePaymentKeepsHeadAndRegeneratesTail() {
+        Simulation simulation = storedSimulation();
+        List<AmortizationSchedule> stored = simulation.getAmortizationSchedule();
+
+        PrepaymentResponseDTO response = apply(simulation, event(PERIOD, PREPAYMENT, "reduce_payment"));
+
+        List<AmortizationEntryDTO> schedule = response.getSchedule();
+        assertEquals(TERM_MONTHS, schedule.size());
+        for (int i = 0; i < PERIOD - 1; i++) {
+            assertEquals(scale(stored.get(i).getFinalBalance()), schedule.get(i).getFinalBalance(), "period " + (i + 1));
+            assertEquals(scale(stored.get(i).getPayment()), schedule.get(i).getPayment(), "period " + (i + 1));
+        }
+
+        // La cola es el cronograma nuevo del saldo reducido; la primera fila además lleva el pago anticipado
+        BigDecimal balanceAfter = stored.get(PERIOD - 2).getFinalBalance().subtract(PREPAYMENT);
+        List<FinancialCalculator.AmortizationEntry> fresh = freshSchedule(balanceAfter, TERM_MONTHS - PERIOD + 1);
+        for (int i = 0; i < fresh.size(); i++) {
+            AmortizationEntryDTO row = schedule.get(PERIOD - 1 + i);
+            BigDecimal prepayment = i == 0 ? PREPAYMENT : BigDecimal.ZERO;
+            assertEquals(PERIOD + i, row.getPaymentNumber());
+            assertEquals(scale(fresh.get(i).getScheduledPayment().add(prepayment)), row.getPayment(), "period " + row.getPaymentNumber());
+            assertEquals(scale(fresh.get(i).getEndingBalance()), row.getFinalBalance(), "period " + row.getPaymentNumber());
+        }
+        assertEquals(0, schedule.get(TERM_MONTHS - 1).getFinalBalance().signum());
+        assertTrue(response.getNewMonthlyPayment().compareTo(response.getOriginalMonthlyPayment()) < 0);
+        assertTrue(response.getInterestSaved().signum() > 0);
+    }
+
+    @Test
+    void reduceTermKeepsPaymentAndShortensSchedule() {
+        Simulation simulation = storedSimulation();
+
+        PrepaymentResponseDTO response = apply(simulation, event(PERIOD, PREPAYMENT, "reduce_term"));
+
+        assertTrue(response.getNewTermMonths() < TERM_MONTHS, () -> "term " + response.getNewTermMonths());
+        assertEquals(response.getNewTermMonths(), response.getSchedule().size());
+        assertEquals(0, response.getSchedule().get(response.getNewTermMonths() - 1).getFinalBalance().signum());
+        // Cuota regular igual a la original salvo el céntimo de redondeo
+        BigDecimal regular = response.getSchedule().get(PERIOD).getPayment();
+        assertTrue(regular.subtract(simulation.getMonthlyPayment()).abs().compareTo(new BigDecimal("0.01")) <= 0,
+                () -> "payment " + regular);
+    }
+
+    @Test
+    void secondEventAppliesOnAdjustedSchedule() {
+        Simulation simulation = storedSimulation();
+
+        PrepaymentResponseDTO once = apply(simulation, event(PERIOD, PREPAYMENT, "reduce_payment"));
+        PrepaymentResponseDTO twice = apply(storedSimulation(), event(PERIOD, PREPAYMENT, "reduce_payment"),
+                event(PERIOD + 12, PREPAYMENT, "reduce_payment"));
+
+        // El saldo antes del segundo pago sale del cronograma ya ajustado por el primero
+        assertEquals(once.getSchedule().get(PERIOD + 10).getFinalBalance(), twice.getPrepayments().get(1).getBalanceBefore());
+        assertTrue(twice.getNewTotalInterest().compareTo(once.getNewTotalInterest()) < 0);
+    }
+
+    @Test
+    void rejectsInvalidEvents() {
+        assertThrows(IllegalArgumentException.class,
+                () -> apply(storedSimulation(), event(PERIOD, PRINCIPAL, "reduce_payment")));
+        assertThrows(IllegalArgumentException.class,
+                () -> apply(storedSimulation(), event(PERIOD, PREPAYMENT, "reduce_payment"), event(PERIOD, PREPAYMENT, "reduce_term")));
+        assertThrows(IllegalArgumentException.class,
+                () -> apply(storedSimulation(), event(TERM_MONTHS, PREPAYMENT, "reduce_payment")));
+
+        Simulation german = storedSimulation();
+        german.setAmortizationMethod("german");
+        assertThrows(IllegalArgumentException.class, () -> apply(german, event(PERIOD, PREPAYMENT, "reduce_payment")));
+    }
+
+    private PrepaymentResponseDTO apply(Simulation simulation, PrepaymentRequestDTO.Event... events) {
+        when(simulationRepository.findById(SIMULATION_ID)).thenReturn(Optional.of(simulation));
+        PrepaymentRequestDTO request = PrepaymentRequestDTO.builder().prepayments(List.of(events)).build();
+        return service.applyPrepayments(SIMULATION_ID, request).orElseThrow();
+    }
+
+    private static PrepaymentRequestDTO.Event event(int period, BigDecimal amount, String mode) {
+        return PrepaymentRequestDTO.Event.builder().period(period).amount(amount).mode(mode).build();
+    }
+
+    /**
+     * Simulación guardada con el cronograma que generaría SimulationService, sin seguros ni comisiones
+     */
+    private Simulation storedSimulation() {
+        Simulation simulation = Simulation.builder()
+                .id(SIMULATION_ID)
+                .financingAmount(PRINCIPAL)
+                .termYears(TERM_MONTHS / 12)
+                .interestRate(new BigDecimal("9.5"))
+                .interestRateType("TE")
+                .interestRatePeriod("annual")
+                .opportunityCostRate(new BigDecimal("8"))
+                .opportunityCostType("TE")
+                .opportunityCostPeriod("annual")
+                .gracePeriodType("none")
+                .amortizationMethod("french")
+                .monthlyCommissions(BigDecimal.ZERO)
+                .administrationCosts(BigDecimal.ZERO)
+                .statementDelivery("email")
+                .desgravamenEnabled(false)
+                .propertyInsuranceEnabled(false)
+                .propertyInsuranceValue(BigDecimal.ZERO)
+                .build();
+
+        List<FinancialCalculator.AmortizationEntry> entries = freshSchedule(PRINCIPAL, TERM_MONTHS);
+        List<AmortizationSchedule> rows = new ArrayList<>();
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        for (FinancialCalculator.AmortizationEntry entry : entries) {
+            totalInterest = totalInterest.add(entry.getInterestPayment());
+            rows.add(AmortizationSchedule.builder()
+                    .simulation(simulation)
+                    .periodNumber(entry.getPeriodNumber())
+                    .initialBalance(entry.getBeginningBalance())
+                    .interest(entry.getInterestPayment())
+                    .payment(entry.getScheduledPayment())
+                    .principal(entry.getPrincipalPayment())
+                    .lifeInsurance(entry.getLifeInsurancePayment())
+                    .propertyInsurance(entry.getPropertyInsurancePayment())
+                    .commissions(entry.getCommissions())
+                    .adminCosts(entry.getAdminCosts())
+                    .deliveryCosts(entry.getDeliveryCosts())
+                    .finalBalance(entry.getEndingBalance())
+                    .cashFlow(entry.getPayment().negate())
+                    .cumulativePrincipal(entry.getCumulativePrincipal())
+                    .cumulativeInterest(entry.getCumulativeInterest())
+                    .isGracePeriod(entry.isGracePeriod())
+                    .build());
+        }
+        simulation.setAmortizationSchedule(rows);
+        simulation.setMonthlyPayment(entries.get(0).getPayment().setScale(2, RoundingMode.HALF_UP));
+        simulation.setTotalInterest(totalInterest.setScale(2, RoundingMode.HALF_UP));
+        return simulation;
+    }
+
+    private List<FinancialCalculator.AmortizationEntry> freshSchedule(BigDecimal principal, int termMonths) {
+        BigDecimal monthlyRate = RateSpec.of(new BigDecimal("9.5"), "TE", "annual", null).tem();
+        return calculator.generateAmortizationSchedule(principal, monthlyRate,
+                calculator.calculateMonthlyPayment(principal, monthlyRate, termMonths), termMonths, null, "none",
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, "email", BigDecimal.ZERO);
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+}
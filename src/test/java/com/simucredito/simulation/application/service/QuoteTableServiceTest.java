@@ -0,0 +1,88 @@
+package com.simucredito.simulation.application.service;
+
+import com.simucredito.configuration.application.dto.FinancialEntityDTO;
+import com.simucredito.configuration.application.service.ConfigurationService;
+import com.simucredito.configuration.infrastructure.service.CacheInvalidationBus;
+import com.simucredito.simulation.application.dto.QuoteTableDTO;
+import com.simucredito.simulation.domain.service.FinancialCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Versión de las tablas de cotización: SHA-256 del contenido, independiente del orden en que llegan las entidades
+ * y distinta ante cualquier cambio de tasa.
+ */
+class QuoteTableServiceTest {
+
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final QuoteTableService service = new QuoteTableService(configurationService, new FinancialCalculator(),
+            mock(CacheInvalidationBus.class));
+
+    @Test
+    void versionIsSha256OfContentRegardlessOfEntityOrder() {
+        FinancialEntityDTO bank = entity(1L, "BANK", new BigDecimal("9.50"));
+        FinancialEntityDTO cooperative = entity(2L, "COOP", new BigDecimal("11.25"));
+
+        String version = versionFor(List.of(bank, cooperative));
+
+        assertTrue(version.matches("[0-9a-f]{64}"), version);
+        assertEquals(version, versionFor(List.of(cooperative, bank)));
+        assertEquals(version, versionFor(List.of(entity(1L, "BANK", new BigDecimal("9.5")), cooperative)));
+    }
+
+    @Test
+    void anyRateChangeProducesNewVersion() {
+        String version = versionFor(List.of(entity(1L, "BANK", new BigDecimal("9.50"))));
+
+        assertNotEquals(version, versionFor(List.of(entity(1L, "BANK", new BigDecimal("9.51")))));
+        assertNotEquals(version, versionFor(List.of(entity(1L, "BANKX", new BigDecimal("9.50")))));
+    }
+
+    @Test
+    void quoteScalesPaymentPer1000AndCarriesVersion() {
+        when(configurationService.getActiveFinancialEntities()).thenReturn(List.of(entity(1L, "BANK", new BigDecimal("9.50"))));
+        service.refresh();
+        QuoteTableDTO tables = service.getQuoteTables();
+        QuoteTableDTO.TermQuote twentyYears = tables.getEntities().get(0).getTerms().stream()
+                .filter(term -> term.getTermMonths() == 240)
+                .findFirst()
+                .orElseThrow();
+
+        QuoteTableDTO.Quote quote = service.quote(1L, 240, new BigDecimal("250000"));
+
+        BigDecimal expected = twentyYears.getPaymentPer1000().multiply(BigDecimal.valueOf(250)).setScale(2, RoundingMode.HALF_UP);
+        assertEquals(expected, quote.getMonthlyPayment());
+        assertEquals(tables.getVersion(), quote.getVersion());
+        assertThrows(IllegalArgumentException.class, () -> service.quote(1L, 245, new BigDecimal("250000")));
+    }
+
+    private String versionFor(List<FinancialEntityDTO> entities) {
+        when(configurationService.getActiveFinancialEntities()).thenReturn(entities);
+        service.refresh();
+        return service.getQuoteTables().getVersion();
+    }
+
+    private static FinancialEntityDTO entity(Long id, String code, BigDecimal tea) {
+        return FinancialEntityDTO.builder()
+                .id(id)
+                .entityName("Entity " + code)
+                .entityCode(code)
+                .isActive(true)
+                .interestRateTea(tea)
+                .lifeInsurancePercentage(new BigDecimal("0.028"))
+                .processingFeePercentage(BigDecimal.ZERO)
+                .minTermMonths(60)
+                .maxTermMonths(300)
+                .build();
+    }
+}
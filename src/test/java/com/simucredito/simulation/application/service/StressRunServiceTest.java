@@ -0,0 +1,187 @@
+package com.simucredito.simulation.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simucredito.configuration.infrastructure.service.AdvisoryLockService;
+import com.simucredito.iam.domain.model.User;
+import com.simucredito.simulation.application.dto.StressRunDTO;
+import com.simucredito.simulation.application.dto.StressRunRequestDTO;
+import com.simucredito.simulation.domain.model.Simulation;
+import com.simucredito.simulation.domain.model.StressRun;
+import com.simucredito.simulation.domain.repository.SimulationRepository;
+import com.simucredito.simulation.domain.repository.StressRunRepository;
+import com.simucredito.simulation.domain.service.BatchScheduleKernel;
+import com.simucredito.simulation.domain.service.ScheduleKernel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Corridas de estrés con checkpoint: una corrida que falla a mitad de la cartera y se retoma llega al mismo
+ * resultado que una sin interrupciones, sin procesar dos veces el bloque ya guardado.
+ */
+class StressRunServiceTest {
+
+    private static final int CHUNK_SIZE = 500; // El de StressRunService
+    private static final int SIMULATIONS = 1_200;
+    private static final User AGENT = User.builder().id(5L).role(User.UserRole.AGENT).build();
+
+    private final Map<Long, StressRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong runIds = new AtomicLong();
+    private final List<Simulation> portfolio = portfolio();
+    private final AtomicBoolean failSecondChunk = new AtomicBoolean();
+    private final List<Long> readAfterIds = new ArrayList<>();
+
+    private final StressRunRepository stressRunRepository = mock(StressRunRepository.class);
+    private final SimulationRepository simulationRepository = mock(SimulationRepository.class);
+    private final AdvisoryLockService advisoryLockService = mock(AdvisoryLockService.class);
+    private final StressRunService service = new StressRunService(stressRunRepository, simulationRepository,
+            new BatchScheduleKernel(new ScheduleKernel()), advisoryLockService, new ObjectMapper());
+
+    StressRunServiceTest() {
+        when(stressRunRepository.save(any(StressRun.class))).thenAnswer(invocation -> {
+            StressRun run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(runIds.incrementAndGet());
+            }
+            runs.put(run.getId(), run);
+            return run;
+        });
+        when(stressRunRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(runs.get(invocation.<Long>getArgument(0))));
+        when(advisoryLockService.runIfLeader(anyLong(), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(simulationRepository.summarizePortfolio(any(), any(), any(), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{(long) SIMULATIONS, BigDecimal.ZERO}));
+        when(simulationRepository.findPortfolioAfter(anyLong(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            synchronized (readAfterIds) {
+                readAfterIds.add(afterId);
+            }
+            if (afterId >= CHUNK_SIZE && failSecondChunk.getAndSet(false)) {
+                throw new IllegalStateException("connection reset");
+            }
+            return portfolio.stream().filter(simulation -> simulation.getId() > afterId).limit(CHUNK_SIZE).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void resumedRunMatchesUninterruptedRun() {
+        StressRunDTO uninterrupted = await(service.start(request(), AGENT).getId(), StressRun.Status.COMPLETED);
+
+        failSecondChunk.set(true);
+        Long interruptedId = service.start(request(), AGENT).getId();
+        StressRunDTO failed = await(interruptedId, StressRun.Status.FAILED);
+        assertEquals(CHUNK_SIZE, failed.getProcessedSimulations());
+        assertEquals(CHUNK_SIZE, runs.get(interruptedId).getLastSimulationId());
+
+        readAfterIds.clear();
+        service.resume(interruptedId, AGENT);
+        StressRunDTO resumed = await(interruptedId, StressRun.Status.COMPLETED);
+
+        assertEquals(List.of((long) CHUNK_SIZE, 2L * CHUNK_SIZE), readAfterIds); // Retoma tras el checkpoint
+        assertEquals(uninterrupted.getProcessedSimulations(), resumed.getProcessedSimulations());
+        assertEquals(uninterrupted.getSkippedSimulations(), resumed.getSkippedSimulations());
+        assertEquals(uninterrupted.getResults(), resumed.getResults());
+    }
+
+    @Test
+    void countsSkippedSimulationsAndKeepsTopN() {
+        portfolio.get(10).setGracePeriodDurationMonths(240); // Gracia igual al plazo: no se puede re-preciar
+
+        StressRunDTO run = await(service.start(request(), AGENT).getId(), StressRun.Status.COMPLETED);
+
+        assertEquals(SIMULATIONS - 1, run.getProcessedSimulations());
+        assertEquals(1L, run.getSkippedSimulations());
+        for (StressRunDTO.ShockResult result : run.getResults()) {
+            assertEquals(3, result.getMostAffected().size());
+            // Ordenado de mayor a menor variación de cuota
+            for (int i = 1; i < result.getMostAffected().size(); i++) {
+                assertTrue(result.getMostAffected().get(i - 1).getPaymentChangePercentage()
+                        .compareTo(result.getMostAffected().get(i).getPaymentChangePercentage()) >= 0);
+            }
+        }
+    }
+
+    @Test
+    void otherAgentsCannotSeeTheRun() {
+        Long id = service.start(request(), AGENT).getId();
+        await(id, StressRun.Status.COMPLETED);
+        User other = User.builder().id(6L).role(User.UserRole.AGENT).build();
+        User admin = User.builder().id(1L).role(User.UserRole.ADMIN).build();
+
+        assertTrue(service.getRun(id, other).isEmpty());
+        assertTrue(service.resume(id, other).isEmpty());
+        assertTrue(service.getRun(id, admin).isPresent());
+    }
+
+    private StressRunDTO await(Long id, StressRun.Status status) {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            StressRun run = runs.get(id);
+            if (run != null && run.getStatus() == status) {
+                return service.getRun(id, AGENT).orElseThrow();
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        fail("Stress run " + id + " did not reach " + status + ": " + runs.get(id).getStatus());
+        return null;
+    }
+
+    private static StressRunRequestDTO request() {
+        return StressRunRequestDTO.builder()
+                .shocksBps(List.of(100, -50, 300))
+                .userId(AGENT.getId())
+                .topN(3)
+                .build();
+    }
+
+    private static List<Simulation> portfolio() {
+        List<Simulation> simulations = new ArrayList<>(SIMULATIONS);
+        for (long id = 1; id <= SIMULATIONS; id++) {
+            simulations.add(Simulation.builder()
+                    .id(id)
+                    .clientId(id % 40)
+                    .financingAmount(BigDecimal.valueOf(80_000 + id * 97))
+                    .termYears(10 + (int) (id % 3) * 5)
+                    .interestRate(BigDecimal.valueOf(700 + id % 500, 2))
+                    .interestRateType("TE")
+                    .interestRatePeriod("annual")
+                    .gracePeriodType("none")
+                    .amortizationMethod("french")
+                    .monthlyCommissions(BigDecimal.ZERO)
+                    .administrationCosts(BigDecimal.ZERO)
+                    .statementDelivery("email")
+                    .desgravamenEnabled(false)
+                    .propertyInsuranceEnabled(false)
+                    .build());
+        }
+        return simulations;
+    }
+}
@@ -0,0 +1,100 @@
+package com.simucredito.simulation.domain.service;
+
+import com.simucredito.simulation.domain.model.PrecisionMode;
+import com.simucredito.simulation.domain.model.ScheduleColumns;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comportamiento de cada método de amortización en el cronograma de FinancialCalculator, y que ScheduleKernel
+ * (el que usan estrés, grilla, Monte Carlo y asequibilidad) llega a los mismos totales.
+ */
+class AmortizationMethodTest {
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("200000.00");
+    private static final BigDecimal MONTHLY_RATE = new BigDecimal("0.0075");
+    private static final int TERM_MONTHS = 120;
+    private static final double BALLOON_FRACTION = 0.30;
+    private static final double CENT = 0.005;
+
+    private final FinancialCalculator calculator = new FinancialCalculator();
+    private final ScheduleKernel kernel = new ScheduleKernel();
+
+    @Test
+    void germanPaysConstantPrincipal() {
+        ScheduleColumns columns = generate(StandardAmortizationMethod.GERMAN, 0, "none");
+        double expected = Math.round(PRINCIPAL.doubleValue() / TERM_MONTHS * 100.0) / 100.0;
+        for (int i = 0; i < TERM_MONTHS - 1; i++) {
+            assertEquals(expected, columns.getPrincipal()[i], 1e-9, "principal at period " + (i + 1));
+        }
+        assertEquals(0.0, columns.getEndingBalance()[TERM_MONTHS - 1], CENT);
+        // El interés baja con el saldo
+        assertTrue(columns.getInterest()[TERM_MONTHS - 1] < columns.getInterest()[0]);
+    }
+
+    @Test
+    void americanKeepsBalanceFlatUntilLastPeriod() {
+        ScheduleColumns columns = generate(StandardAmortizationMethod.AMERICAN, 0, "none");
+        double principal = PRINCIPAL.doubleValue();
+        for (int i = 0; i < TERM_MONTHS - 1; i++) {
+            assertEquals(0.0, columns.getPrincipal()[i], 0.0, "principal at period " + (i + 1));
+            assertEquals(principal, columns.getEndingBalance()[i], 1e-6, "balance at period " + (i + 1));
+        }
+        assertEquals(principal, columns.getPrincipal()[TERM_MONTHS - 1], 1e-6);
+        assertEquals(0.0, columns.getEndingBalance()[TERM_MONTHS - 1], 1e-6);
+    }
+
+    @Test
+    void balloonMarksOnlyTheLastRow() {
+        ScheduleColumns columns = generate(StandardAmortizationMethod.BALLOON, 0, "none");
+        for (int i = 0; i < TERM_MONTHS - 1; i++) {
+            assertFalse(columns.getBalloonPayment()[i], "balloon flag at period " + (i + 1));
+        }
+        assertTrue(columns.getBalloonPayment()[TERM_MONTHS - 1]);
+        // La última cuota es la nivelada más el balón; como la nivelada se redondea al céntimo, el error acumulado
+        // del saldo es de unos pocos soles
+        double balloon = PRINCIPAL.doubleValue() * BALLOON_FRACTION;
+        double level = columns.getScheduledPayment()[0];
+        assertEquals(balloon, columns.getScheduledPayment()[TERM_MONTHS - 1] - level, 2.0);
+        assertEquals(0.0, columns.getEndingBalance()[TERM_MONTHS - 1], CENT);
+
+        ScheduleColumns french = generate(StandardAmortizationMethod.FRENCH, 0, "none");
+        for (boolean flag : french.getBalloonPayment()) {
+            assertFalse(flag);
+        }
+    }
+
+    @Test
+    void kernelMatchesCalculatorForEveryMethod() {
+        String[] graceTypes = {"none", "partial", "total"};
+        for (StandardAmortizationMethod method : new StandardAmortizationMethod[]{
+                StandardAmortizationMethod.GERMAN, StandardAmortizationMethod.AMERICAN, StandardAmortizationMethod.BALLOON}) {
+            for (String graceType : graceTypes) {
+                int graceMonths = "none".equals(graceType) ? 0 : 6;
+                ScheduleColumns columns = generate(method, graceMonths, graceType);
+                ScheduleKernel.Terms terms = new ScheduleKernel.Terms(PRINCIPAL.doubleValue(), MONTHLY_RATE.doubleValue(),
+                        TERM_MONTHS, graceMonths, graceType, 0.0005, 0.0, 15.0, method, BALLOON_FRACTION);
+                ScheduleKernel.Outcome outcome = kernel.evaluate(terms, new double[TERM_MONTHS + 1]);
+
+                String label = method + "/" + graceType;
+                double scale = PRINCIPAL.doubleValue();
+                assertEquals(ScheduleColumns.sum(columns.getInterest()), outcome.totalInterest(), 1e-9 * scale, label);
+                assertEquals(ScheduleColumns.sum(columns.getPayment()), outcome.totalPaid(), 1e-9 * scale, label);
+            }
+        }
+    }
+
+    private ScheduleColumns generate(StandardAmortizationMethod method, int graceMonths, String graceType) {
+        BigDecimal balloonAmount = method.hasBalloon()
+                ? PRINCIPAL.multiply(BigDecimal.valueOf(BALLOON_FRACTION)) : BigDecimal.ZERO;
+        return calculator.generateScheduleColumns(PRINCIPAL, MONTHLY_RATE, BigDecimal.ZERO, TERM_MONTHS,
+                graceMonths, graceType, new BigDecimal("0.0005"), BigDecimal.ZERO,
+                new BigDecimal("10.00"), new BigDecimal("5.00"), "digital", BigDecimal.ZERO,
+                PrecisionMode.FAST_DOUBLE, method, balloonAmount);
+    }
+}
@@ -0,0 +1,76 @@
+package com.simucredito.simulation.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BatchScheduleKernel con el camino vectorial, con el escalar y ScheduleKernel escenario por escenario deben dar
+ * los mismos resultados bit a bit, para todos los métodos y tipos de gracia y con lotes que no llenan un vector.
+ * Con mvn -Pvector surefire arranca con --add-modules jdk.incubator.vector y aquí el camino vectorial está activo;
+ * sin el perfil las tres variantes recorren el camino escalar.
+ */
+class BatchScheduleKernelDifferentialTest {
+
+    private static final int BATCHES = 300;
+
+    private final ScheduleKernel scheduleKernel = new ScheduleKernel();
+    private final BatchScheduleKernel batchScheduleKernel = new BatchScheduleKernel(scheduleKernel);
+
+    @Test
+    void vectorPathIsActiveWhenModuleIsPresent() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertTrue(batchScheduleKernel.isVectorized());
+        }
+    }
+
+    @Test
+    void vectorScalarAndPerScenarioKernelAgreeBitForBit() {
+        SplittableRandom random = new SplittableRandom(RandomScenarios.SEED);
+        StandardAmortizationMethod[] methods = StandardAmortizationMethod.values();
+        for (int batch = 0; batch < BATCHES; batch++) {
+            int count = 1 + random.nextInt(40);
+            int termMonths = RandomScenarios.termMonths(random);
+            String graceType = RandomScenarios.graceType(random);
+            int graceMonths = "none".equals(graceType) ? 0 : RandomScenarios.graceMonths(random, termMonths);
+            ScheduleKernel.Terms shape = new ScheduleKernel.Terms(0.0, 0.0, termMonths, graceMonths, graceType,
+                    random.nextBoolean() ? random.nextDouble() * 0.001 : 0.0,
+                    random.nextDouble() * 80.0,
+                    random.nextDouble() * 30.0,
+                    methods[random.nextInt(methods.length)],
+                    random.nextDouble() * 0.5);
+
+            double[] principals = new double[count];
+            double[] rates = new double[count];
+            for (int i = 0; i < count; i++) {
+                principals[i] = RandomScenarios.principal(random);
+                rates[i] = RandomScenarios.monthlyRate(random);
+            }
+
+            BatchScheduleKernel.Results batched = new BatchScheduleKernel.Results(count);
+            batchScheduleKernel.evaluate(shape, principals, rates, count, batched);
+            BatchScheduleKernel.Results scalar = new BatchScheduleKernel.Results(count);
+            BatchScheduleKernel.evaluateScalar(scheduleKernel, shape, principals, rates, 0, count, scalar);
+
+            double[] buffer = new double[termMonths + 1];
+            for (int i = 0; i < count; i++) {
+                ScheduleKernel.Outcome expected = scheduleKernel.evaluate(shape.with(principals[i], rates[i]), buffer);
+                String label = shape + " principal=" + principals[i] + " rate=" + rates[i];
+                assertSame(expected, batched, i, "batch " + label);
+                assertSame(expected, scalar, i, "scalar " + label);
+            }
+        }
+    }
+
+    private static void assertSame(ScheduleKernel.Outcome expected, BatchScheduleKernel.Results actual, int i, String label) {
+        assertEquals(expected.monthlyPayment(), actual.getMonthlyPayment()[i], 0.0, () -> "monthlyPayment " + label);
+        assertEquals(expected.maxPayment(), actual.getMaxPayment()[i], 0.0, () -> "maxPayment " + label);
+        assertEquals(expected.totalPaid(), actual.getTotalPaid()[i], 0.0, () -> "totalPaid " + label);
+        assertEquals(expected.totalInterest(), actual.getTotalInterest()[i], 0.0, () -> "totalInterest " + label);
+        assertEquals(expected.irr(), actual.getIrr()[i], 0.0, () -> "irr " + label);
+        assertEquals(expected.tcea(), actual.getTcea()[i], 0.0, () -> "tcea " + label);
+    }
+}
@@ -0,0 +1,90 @@
+package com.simucredito.simulation.domain.service;
+
+import com.simucredito.simulation.domain.model.PrecisionMode;
+import com.simucredito.simulation.domain.model.ScheduleColumns;
+import com.simucredito.simulation.domain.service.RandomScenarios.Scenario;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara FAST_DOUBLE y DECIMAL64 contra DECIMAL128_REFERENCE sobre el corpus de RandomScenarios y verifica las
+ * cotas documentadas en PrecisionMode.
+ */
+class PrecisionModeDifferentialTest {
+
+    private static final int SCENARIOS = 5_000;
+    private static final double AMOUNT_TOLERANCE = 1e-9; // Relativa al principal
+    private static final double TIR_TOLERANCE = 1e-6; // Puntos porcentuales: una unidad del sexto decimal
+
+    private final FinancialCalculator calculator = new FinancialCalculator();
+
+    @Test
+    void fastModesStayWithinDocumentedBoundsOfReference() {
+        for (Scenario scenario : RandomScenarios.corpus(SCENARIOS)) {
+            ScheduleColumns reference = generate(scenario, PrecisionMode.DECIMAL128_REFERENCE);
+            for (PrecisionMode mode : new PrecisionMode[]{PrecisionMode.DECIMAL64, PrecisionMode.FAST_DOUBLE}) {
+                ScheduleColumns candidate = generate(scenario, mode);
+                assertSameSchedule(scenario, mode, reference, candidate);
+            }
+        }
+    }
+
+    @Test
+    void decimalModesRejectOtherMethods() {
+        Scenario scenario = RandomScenarios.edgeCases().get(0);
+        for (PrecisionMode mode : new PrecisionMode[]{PrecisionMode.DECIMAL64, PrecisionMode.DECIMAL128_REFERENCE}) {
+            assertThrows(IllegalArgumentException.class, () -> calculator.generateScheduleColumns(scenario.principal(),
+                    scenario.monthlyRate(), BigDecimal.ZERO, scenario.termMonths(), scenario.graceMonths(),
+                    scenario.graceType(), scenario.lifeInsuranceRate(), scenario.propertyInsuranceRate(),
+                    scenario.commissions(), scenario.adminCosts(), scenario.delivery(), scenario.propertyValue(), mode,
+                    StandardAmortizationMethod.GERMAN, BigDecimal.ZERO));
+        }
+    }
+
+    private ScheduleColumns generate(Scenario scenario, PrecisionMode mode) {
+        // Como SimulationService: la cuota inicial también usa el contexto del modo
+        BigDecimal payment = calculator.calculateMonthlyPayment(scenario.principal(), scenario.monthlyRate(),
+                scenario.termMonths(), mode.mathContext());
+        return calculator.generateScheduleColumns(scenario.principal(), scenario.monthlyRate(), payment,
+                scenario.termMonths(), scenario.graceMonths(), scenario.graceType(), scenario.lifeInsuranceRate(),
+                scenario.propertyInsuranceRate(), scenario.commissions(), scenario.adminCosts(), scenario.delivery(),
+                scenario.propertyValue(), mode);
+    }
+
+    private void assertSameSchedule(Scenario scenario, PrecisionMode mode, ScheduleColumns reference, ScheduleColumns candidate) {
+        assertEquals(reference.getLength(), candidate.getLength());
+        double tolerance = AMOUNT_TOLERANCE * scenario.principal().doubleValue();
+        assertColumn(scenario, mode, "beginningBalance", ScheduleColumns::getBeginningBalance, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "interest", ScheduleColumns::getInterest, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "principal", ScheduleColumns::getPrincipal, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "lifeInsurance", ScheduleColumns::getLifeInsurance, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "payment", ScheduleColumns::getPayment, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "endingBalance", ScheduleColumns::getEndingBalance, reference, candidate, tolerance);
+        assertColumn(scenario, mode, "cumulativeInterest", ScheduleColumns::getCumulativeInterest, reference, candidate, tolerance);
+
+        double disbursement = scenario.principal().doubleValue();
+        BigDecimal referenceTir = calculator.calculateScheduleTIR(reference.cashFlows(disbursement));
+        BigDecimal candidateTir = calculator.calculateScheduleTIR(candidate.cashFlows(disbursement));
+        assertTrue(referenceTir.subtract(candidateTir).abs().doubleValue() <= TIR_TOLERANCE,
+                () -> mode + " TIR " + candidateTir + " vs " + referenceTir + " for " + scenario);
+    }
+
+    private static void assertColumn(Scenario scenario, PrecisionMode mode, String name,
+                                     Function<ScheduleColumns, double[]> column,
+                                     ScheduleColumns reference, ScheduleColumns candidate, double tolerance) {
+        double[] expected = column.apply(reference);
+        double[] actual = column.apply(candidate);
+        for (int i = 0; i < expected.length; i++) {
+            double difference = Math.abs(expected[i] - actual[i]);
+            int period = i + 1;
+            assertTrue(difference <= tolerance,
+                    () -> mode + " " + name + " differs by " + difference + " at period " + period + " for " + scenario);
+        }
+    }
+}
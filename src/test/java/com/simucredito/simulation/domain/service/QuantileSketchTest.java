@@ -0,0 +1,100 @@
+package com.simucredito.simulation.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cuantiles del sketch contra los exactos de los mismos valores ordenados: el error relativo no supera la
+ * precisión pedida, y fusionar o restaurar un punto de control no cambia el resultado.
+ */
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.005;
+    private static final double[] QUANTILES = {0.0, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 1.0};
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        double[] values = lognormal(50_000, 7L);
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double value : values) {
+            sketch.add(value);
+        }
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            double exact = sorted[(int) Math.floor(quantile * (sorted.length - 1))];
+            double estimate = sketch.quantile(quantile);
+            assertTrue(Math.abs(estimate - exact) <= ACCURACY * exact * (1 + 1e-12),
+                    () -> "q" + quantile + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(values.length, sketch.count());
+        assertEquals(sorted[0], sketch.min());
+        assertEquals(sorted[sorted.length - 1], sketch.max());
+    }
+
+    @Test
+    void negativesAndZerosAreOrderedBeforePositives() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double value : new double[]{-40.0, -2.0, 0.0, 0.0, 3.0, 500.0}) {
+            sketch.add(value);
+        }
+
+        assertEquals(-40.0, sketch.quantile(0.0), 40.0 * ACCURACY);
+        assertEquals(-2.0, sketch.quantile(0.2), 2.0 * ACCURACY);
+        assertEquals(0.0, sketch.quantile(0.5));
+        assertEquals(3.0, sketch.quantile(0.8), 3.0 * ACCURACY);
+        assertEquals(500.0, sketch.quantile(1.0), 500.0 * ACCURACY);
+    }
+
+    @Test
+    void mergedPartsMatchSingleSketch() {
+        double[] values = lognormal(10_000, 11L);
+        QuantileSketch whole = new QuantileSketch(ACCURACY);
+        QuantileSketch left = new QuantileSketch(ACCURACY);
+        QuantileSketch right = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < values.length; i++) {
+            whole.add(values[i]);
+            (i % 3 == 0 ? left : right).add(values[i]);
+        }
+        left.merge(right);
+
+        for (double quantile : QUANTILES) {
+            assertEquals(whole.quantile(quantile), left.quantile(quantile), "q" + quantile);
+        }
+        assertEquals(whole.count(), left.count());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.01)));
+    }
+
+    @Test
+    void snapshotRestoresWithoutLoss() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double value : lognormal(5_000, 13L)) {
+            sketch.add(value - 40.0); // Con negativos, para ejercitar las dos cubetas
+        }
+
+        QuantileSketch restored = QuantileSketch.fromSnapshot(sketch.snapshot());
+
+        for (double quantile : QUANTILES) {
+            assertEquals(sketch.quantile(quantile), restored.quantile(quantile), "q" + quantile);
+        }
+        assertEquals(sketch.mean(), restored.mean());
+        assertEquals(sketch.min(), restored.min());
+        assertEquals(sketch.max(), restored.max());
+    }
+
+    private static double[] lognormal(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.exp(4.0 + 1.5 * random.nextGaussian());
+        }
+        return values;
+    }
+}
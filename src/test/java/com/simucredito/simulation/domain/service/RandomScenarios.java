@@ -0,0 +1,110 @@
+package com.simucredito.simulation.domain.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Corpus de escenarios de cronograma para las pruebas diferenciales: los casos de borde fijos primero y luego
+ * escenarios aleatorios con semilla fija, para que todas las pruebas recorran los mismos rangos.
+ */
+final class RandomScenarios {
+
+    static final long SEED = 20261019L;
+    static final String[] GRACE_TYPES = {"total", "partial", "none"};
+
+    private RandomScenarios() {
+    }
+
+    /**
+     * Entre 1,000 y 100,000,000, uniforme en escala logarítmica
+     */
+    static double principal(SplittableRandom random) {
+        return Math.pow(10, 3 + random.nextDouble() * 5);
+    }
+
+    /**
+     * Hasta 2% mensual, con una de cada veinte tasas en cero
+     */
+    static double monthlyRate(SplittableRandom random) {
+        return random.nextInt(20) == 0 ? 0.0 : random.nextDouble() * 0.02;
+    }
+
+    /**
+     * Entre 12 y 480 meses
+     */
+    static int termMonths(SplittableRandom random) {
+        return 12 + random.nextInt(469);
+    }
+
+    /**
+     * Hasta 24 meses y siempre menos que el plazo
+     */
+    static int graceMonths(SplittableRandom random, int termMonths) {
+        return random.nextInt(Math.min(24, termMonths - 1) + 1);
+    }
+
+    static String graceType(SplittableRandom random) {
+        return GRACE_TYPES[random.nextInt(GRACE_TYPES.length)];
+    }
+
+    /**
+     * Los casos de borde seguidos de {@code randomCount} escenarios aleatorios
+     */
+    static List<Scenario> corpus(int randomCount) {
+        List<Scenario> scenarios = new ArrayList<>(edgeCases());
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int n = 0; n < randomCount; n++) {
+            scenarios.add(Scenario.random(random));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Extremos que el muestreo aleatorio casi nunca toca a la vez
+     */
+    static List<Scenario> edgeCases() {
+        return List.of(
+                // Plazo mínimo y tasa máxima, sin gracia
+                edge("1000.00", "0.02", 12, null, "none", "email"),
+                // Tasa cero con gracia total hasta el penúltimo mes
+                edge("250000.00", "0", 24, 23, "total", "physical"),
+                // Plazo y principal máximos con la gracia total más larga: el saldo capitaliza 24 meses
+                edge("100000000.00", "0.02", 480, 24, "total", "email"),
+                // Gracia parcial de cero meses equivale a no tener gracia
+                edge("180000.00", "0.0075", 240, 0, "partial", "email"),
+                // Tasa casi nula: la cuota queda a un paso de principal / plazo
+                edge("500000.00", "0.000000001", 360, 12, "partial", "physical"));
+    }
+
+    private static Scenario edge(String principal, String monthlyRate, int termMonths, Integer graceMonths,
+                                 String graceType, String delivery) {
+        BigDecimal amount = new BigDecimal(principal);
+        return new Scenario(amount, new BigDecimal(monthlyRate), termMonths, graceMonths, graceType,
+                new BigDecimal("0.0005"), new BigDecimal("0.0003"), BigDecimal.TEN, new BigDecimal("3.50"), delivery,
+                amount.multiply(new BigDecimal("1.25")));
+    }
+
+    record Scenario(BigDecimal principal, BigDecimal monthlyRate, int termMonths, Integer graceMonths,
+                    String graceType, BigDecimal lifeInsuranceRate, BigDecimal propertyInsuranceRate,
+                    BigDecimal commissions, BigDecimal adminCosts, String delivery, BigDecimal propertyValue) {
+
+        static Scenario random(SplittableRandom random) {
+            BigDecimal principal = BigDecimal.valueOf(RandomScenarios.principal(random)).setScale(2, RoundingMode.HALF_UP);
+            double rate = RandomScenarios.monthlyRate(random);
+            BigDecimal monthlyRate = rate == 0.0 ? BigDecimal.ZERO : BigDecimal.valueOf(rate);
+            int termMonths = RandomScenarios.termMonths(random);
+            Integer graceMonths = random.nextInt(3) == 0 ? null : RandomScenarios.graceMonths(random, termMonths);
+            return new Scenario(principal, monthlyRate, termMonths, graceMonths,
+                    RandomScenarios.graceType(random),
+                    BigDecimal.valueOf(random.nextDouble() * 0.001),
+                    BigDecimal.valueOf(random.nextDouble() * 0.0005),
+                    BigDecimal.valueOf(random.nextInt(20)),
+                    BigDecimal.valueOf(random.nextInt(1000), 2),
+                    random.nextBoolean() ? "physical" : "email",
+                    principal.multiply(BigDecimal.valueOf(1 + random.nextDouble())));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.simucredito.simulation.domain.service;
+
+import com.simucredito.simulation.domain.model.ScheduleColumns;
+import com.simucredito.simulation.domain.service.RandomScenarios.Scenario;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * generateScheduleColumns contra el generador por filas que había antes de las columnas (BigDecimal por periodo,
+ * reproducido abajo con las mismas operaciones): los casos de borde y 2000 cronogramas aleatorios de RandomScenarios
+ * deben dar los mismos montos y la misma TIR.
+ */
+class ScheduleColumnsEquivalenceTest {
+
+    private static final int SCHEDULES = 2_000;
+    private static final double AMOUNT_TOLERANCE = 1e-10; // Relativa al principal
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+
+    private final FinancialCalculator calculator = new FinancialCalculator();
+
+    @Test
+    void columnsMatchLegacyRowGenerator() {
+        for (Scenario scenario : RandomScenarios.corpus(SCHEDULES)) {
+            BigDecimal principal = scenario.principal();
+            BigDecimal monthlyRate = scenario.monthlyRate();
+            int termMonths = scenario.termMonths();
+            Integer graceMonths = scenario.graceMonths();
+            String graceType = scenario.graceType();
+            BigDecimal lifeInsuranceRate = scenario.lifeInsuranceRate();
+            BigDecimal propertyInsuranceRate = scenario.propertyInsuranceRate();
+            BigDecimal commissions = scenario.commissions();
+            BigDecimal adminCosts = scenario.adminCosts();
+            String delivery = scenario.delivery();
+            BigDecimal propertyValue = scenario.propertyValue();
+
+            BigDecimal payment = calculator.calculateMonthlyPayment(principal, monthlyRate, termMonths);
+            List<LegacyRow> expected = legacySchedule(principal, monthlyRate, payment, termMonths, graceMonths, graceType,
+                    lifeInsuranceRate, propertyInsuranceRate, commissions, adminCosts, delivery, propertyValue);
+            ScheduleColumns actual = calculator.generateScheduleColumns(principal, monthlyRate, payment, termMonths,
+                    graceMonths, graceType, lifeInsuranceRate, propertyInsuranceRate, commissions, adminCosts, delivery,
+                    propertyValue);
+
+            String label = "principal=" + principal + " rate=" + monthlyRate + " term=" + termMonths
+                    + " grace=" + graceMonths + "/" + graceType;
+            assertEquals(expected.size(), actual.getLength(), label);
+            double tolerance = AMOUNT_TOLERANCE * principal.doubleValue();
+            double[] legacyFlows = new double[termMonths + 1];
+            legacyFlows[0] = principal.doubleValue();
+            for (int i = 0; i < expected.size(); i++) {
+                LegacyRow row = expected.get(i);
+                String at = label + " period=" + (i + 1);
+                assertEquals(row.beginningBalance.doubleValue(), actual.getBeginningBalance()[i], tolerance, "beginningBalance " + at);
+                assertEquals(row.interest.doubleValue(), actual.getInterest()[i], tolerance, "interest " + at);
+                assertEquals(row.principal.doubleValue(), actual.getPrincipal()[i], tolerance, "principal " + at);
+                assertEquals(row.scheduledPayment.doubleValue(), actual.getScheduledPayment()[i], tolerance, "scheduledPayment " + at);
+                assertEquals(row.lifeInsurance.doubleValue(), actual.getLifeInsurance()[i], tolerance, "lifeInsurance " + at);
+                assertEquals(row.propertyInsurance.doubleValue(), actual.getPropertyInsurance()[i], tolerance, "propertyInsurance " + at);
+                assertEquals(row.deliveryCosts.doubleValue(), actual.getDeliveryCosts()[i], tolerance, "deliveryCosts " + at);
+                assertEquals(row.payment.doubleValue(), actual.getPayment()[i], tolerance, "payment " + at);
+                assertEquals(row.endingBalance.doubleValue(), actual.getEndingBalance()[i], tolerance, "endingBalance " + at);
+                assertEquals(row.cumulativeInterest.doubleValue(), actual.getCumulativeInterest()[i], tolerance, "cumulativeInterest " + at);
+                assertEquals(row.gracePeriod, actual.getGracePeriod()[i], "gracePeriod " + at);
+                legacyFlows[i + 1] = -row.payment.doubleValue();
+            }
+
+            BigDecimal legacyTir = calculator.calculateScheduleTIR(legacyFlows);
+            BigDecimal tir = calculator.calculateScheduleTIR(actual.cashFlows(principal.doubleValue()));
+            assertTrue(legacyTir.compareTo(tir) == 0, () -> "TIR " + tir + " vs " + legacyTir + " for " + label);
+        }
+    }
+
+    private record LegacyRow(BigDecimal beginningBalance, BigDecimal interest, BigDecimal principal,
+                             BigDecimal scheduledPayment, BigDecimal lifeInsurance, BigDecimal propertyInsurance,
+                             BigDecimal deliveryCosts, BigDecimal payment, BigDecimal endingBalance,
+                             BigDecimal cumulativeInterest, boolean gracePeriod) {
+    }
+
+    /**
+     * FinancialCalculator.generateAmortizationSchedule antes de pasar a columnas, sin los campos que no cambian
+     */
+    private List<LegacyRow> legacySchedule(BigDecimal principal, BigDecimal monthlyRate, BigDecimal initialMonthlyPayment,
+                                           int termMonths, Integer gracePeriodMonths, String gracePeriodType,
+                                           BigDecimal lifeInsuranceRate, BigDecimal propertyInsuranceRate,
+                                           BigDecimal monthlyCommissions, BigDecimal administrationCosts,
+                                           String statementDelivery, BigDecimal propertyInsuranceValue) {
+        List<LegacyRow> schedule = new ArrayList<>();
+        BigDecimal remainingBalance = principal;
+        BigDecimal cumulativeInterest = BigDecimal.ZERO;
+        BigDecimal currentPmtBase = initialMonthlyPayment;
+        BigDecimal deliveryCost = "physical".equals(statementDelivery) ? BigDecimal.valueOf(10) : BigDecimal.ZERO;
+
+        for (int period = 1; period <= termMonths; period++) {
+            boolean isGracePeriod = gracePeriodMonths != null && period <= gracePeriodMonths;
+            if (gracePeriodMonths != null && period == gracePeriodMonths + 1) {
+                currentPmtBase = calculator.calculateMonthlyPayment(remainingBalance, monthlyRate, termMonths - gracePeriodMonths);
+            }
+
+            BigDecimal interestPayment = remainingBalance.multiply(monthlyRate, MATH_CONTEXT);
+            BigDecimal principalPayment;
+            BigDecimal scheduledPayment;
+            if (isGracePeriod && "total".equals(gracePeriodType)) {
+                principalPayment = BigDecimal.ZERO;
+                scheduledPayment = BigDecimal.ZERO;
+                remainingBalance = remainingBalance.add(interestPayment, MATH_CONTEXT);
+            } else if (isGracePeriod && "partial".equals(gracePeriodType)) {
+                principalPayment = BigDecimal.ZERO;
+                scheduledPayment = interestPayment;
+            } else if (!isGracePeriod && period == termMonths) {
+                principalPayment = remainingBalance;
+                currentPmtBase = principalPayment.add(interestPayment, MATH_CONTEXT);
+                scheduledPayment = currentPmtBase;
+            } else {
+                principalPayment = currentPmtBase.subtract(interestPayment, MATH_CONTEXT);
+                scheduledPayment = currentPmtBase;
+            }
+
+            BigDecimal lifeInsurancePayment = remainingBalance.multiply(lifeInsuranceRate, MATH_CONTEXT);
+            BigDecimal propertyInsurancePayment = propertyInsuranceValue.multiply(propertyInsuranceRate, MATH_CONTEXT);
+            BigDecimal totalPayment = scheduledPayment
+                    .add(lifeInsurancePayment)
+                    .add(propertyInsurancePayment)
+                    .add(monthlyCommissions)
+                    .add(administrationCosts)
+                    .add(deliveryCost);
+
+            boolean totalGrace = isGracePeriod && "total".equals(gracePeriodType);
+            BigDecimal endingBalance = totalGrace ? remainingBalance : remainingBalance.subtract(principalPayment, MATH_CONTEXT);
+            cumulativeInterest = cumulativeInterest.add(interestPayment, MATH_CONTEXT);
+
+            schedule.add(new LegacyRow(
+                    totalGrace ? remainingBalance.subtract(interestPayment, MATH_CONTEXT) : remainingBalance,
+                    interestPayment, principalPayment, scheduledPayment, lifeInsurancePayment, propertyInsurancePayment,
+                    deliveryCost, totalPayment, endingBalance, cumulativeInterest, isGracePeriod));
+
+            if (!totalGrace) {
+                remainingBalance = endingBalance;
+            }
+        }
+        return schedule;
+    }
+}